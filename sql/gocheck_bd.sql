@@ -105,8 +105,33 @@ CREATE TABLE asistencias (
     fin_descanso_2 DATETIME,
     estado ENUM('PRESENTE', 'FALTA', 'RETARDO', 'JUSTIFICADO') DEFAULT 'FALTA',
     notas TEXT, -- Ej: "Desayuno y comida separados"
+    actualizado TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3), -- Último cambio
     FOREIGN KEY (id_empleado) REFERENCES empleados(id_empleado),
-    INDEX idx_fecha_empleado (fecha, id_empleado)
+    UNIQUE KEY uk_asistencia_empleado_fecha (id_empleado, fecha), -- Un registro por empleado por día
+    INDEX idx_fecha_empleado_estado (fecha, id_empleado, estado), -- Reportes por rango, paginados por (fecha, id_empleado)
+    INDEX idx_fecha_actualizado (fecha, actualizado) -- Cambios del día desde la última consulta del panel
+);
+
+-- Eventos de asistencia (bandeja de salida): una fila por cada alta o modificación de asistencias,
+-- escrita por triggers en la misma transacción. Los números se asignan al insertar, así que uno
+-- menor puede confirmarse después; el lector deja pasar unos segundos antes de entregar un evento.
+CREATE TABLE eventos_asistencia (
+    id_evento BIGINT UNSIGNED AUTO_INCREMENT PRIMARY KEY,
+    id_asistencia INT NOT NULL,
+    id_empleado INT NOT NULL,
+    fecha DATE NOT NULL,
+    tipo ENUM('FALTA', 'ENTRADA', 'INICIO_DESCANSO1', 'FIN_DESCANSO1', 'INICIO_DESCANSO2',
+              'FIN_DESCANSO2', 'SALIDA', 'JUSTIFICACION', 'CAMBIO_ESTADO', 'MODIFICACION') NOT NULL,
+    momento DATETIME, -- Hora de la checada en los eventos de checada
+    estado ENUM('PRESENTE', 'FALTA', 'RETARDO', 'JUSTIFICADO'),
+    registrado TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+-- Posición de cada consumidor de eventos (último evento procesado)
+CREATE TABLE consumidores_eventos (
+    nombre VARCHAR(50) PRIMARY KEY,
+    ultimo_evento BIGINT UNSIGNED NOT NULL DEFAULT 0,
+    actualizado TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 );
 
 -- Tabla de justificaciones
@@ -121,6 +146,326 @@ CREATE TABLE justificaciones (
     FOREIGN KEY (id_admin) REFERENCES empleados(id_empleado)
 );
 
+-- Resúmenes precalculados de asistencia (se mantienen con los triggers de asistencias)
+CREATE TABLE resumen_diario (
+    id_empleado INT NOT NULL,
+    fecha DATE NOT NULL,
+    estado ENUM('PRESENTE', 'FALTA', 'RETARDO', 'JUSTIFICADO') NOT NULL,
+    minutos_trabajados INT NOT NULL DEFAULT 0, -- De entrada a salida, sin descansos
+    minutos_descanso INT NOT NULL DEFAULT 0,
+    minutos_exceso_descanso INT NOT NULL DEFAULT 0, -- Minutos por encima de lo que permite el turno
+    minutos_retardo INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id_empleado, fecha),
+    INDEX idx_resumen_diario_fecha (fecha),
+    FOREIGN KEY (id_empleado) REFERENCES empleados(id_empleado)
+);
+
+CREATE TABLE resumen_mensual (
+    id_empleado INT NOT NULL,
+    anio SMALLINT NOT NULL,
+    mes TINYINT NOT NULL,
+    dias_presente INT NOT NULL DEFAULT 0,
+    dias_retardo INT NOT NULL DEFAULT 0,
+    dias_falta INT NOT NULL DEFAULT 0,
+    dias_justificado INT NOT NULL DEFAULT 0,
+    dias_exceso_descanso INT NOT NULL DEFAULT 0,
+    minutos_trabajados INT NOT NULL DEFAULT 0,
+    minutos_descanso INT NOT NULL DEFAULT 0,
+    minutos_exceso_descanso INT NOT NULL DEFAULT 0,
+    minutos_retardo INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id_empleado, anio, mes),
+    INDEX idx_resumen_mensual_periodo (anio, mes),
+    FOREIGN KEY (id_empleado) REFERENCES empleados(id_empleado)
+);
+
+-- Calendario laboral: qué le toca a cada empleado cada día (lo calcula MaterializadorCalendario
+-- a partir de horarios_empleados, cambios_descanso y permisos aprobados). Los empleados sin
+-- horario no tienen filas. El turno solo se guarda en los días laborables.
+CREATE TABLE calendario_laboral (
+    id_empleado INT NOT NULL,
+    fecha DATE NOT NULL,
+    tipo ENUM('LABORABLE', 'DESCANSO', 'PERMISO') NOT NULL,
+    id_turno INT NULL,
+    hora_entrada TIME NULL,
+    hora_salida TIME NULL,
+    actualizado TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (id_empleado, fecha),
+    INDEX idx_calendario_fecha_tipo (fecha, tipo),
+    FOREIGN KEY (id_empleado) REFERENCES empleados(id_empleado),
+    FOREIGN KEY (id_turno) REFERENCES turnos(id_turno)
+);
+
+-- Procedimiento para registrar una checada en un solo viaje a la base de datos:
+-- recibe al empleado ya resuelto por la aplicación, crea o avanza el registro del día y
+-- devuelve el registro resultante. p_decisiones trae, para el momento de la checada, la acción que
+-- corresponde a cada estado de la jornada según las reglas del turno (un dígito por estado:
+-- 0 = fuera de horario, 1..6 = entrada..salida); p_estado_entrada es PRESENTE o RETARDO.
+-- p_fecha es la fecha de la jornada según el turno: en los turnos nocturnos la salida de
+-- madrugada se registra en la asistencia del día anterior.
+DELIMITER //
+CREATE PROCEDURE registrar_checada(IN p_id_empleado INT, IN p_momento DATETIME, IN p_fecha DATE,
+                                   IN p_decisiones VARCHAR(16), IN p_estado_entrada VARCHAR(20))
+BEGIN
+    DECLARE v_id_empleado INT DEFAULT NULL;
+    DECLARE v_id_asistencia INT DEFAULT NULL;
+    DECLARE v_fecha DATE DEFAULT p_fecha;
+    DECLARE v_estado_jornada INT DEFAULT 1;
+    DECLARE v_codigo CHAR(1);
+    DECLARE v_accion VARCHAR(20);
+    DECLARE v_creado BOOLEAN DEFAULT FALSE;
+
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        ROLLBACK;
+        RESIGNAL;
+    END;
+
+    IF p_decisiones IS NULL OR CHAR_LENGTH(p_decisiones) <> 7 THEN
+        SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'p_decisiones debe tener un código por estado de la jornada';
+    END IF;
+
+    -- El código ya lo resolvió la aplicación con su índice en memoria; aquí solo se confirma
+    -- por llave primaria que el empleado sigue activo
+    SELECT id_empleado INTO v_id_empleado
+    FROM empleados
+    WHERE id_empleado = p_id_empleado AND activo = 1;
+
+    IF v_id_empleado IS NULL THEN
+        SELECT 'NO_ENCONTRADO' AS accion;
+    ELSE
+        START TRANSACTION;
+
+        SELECT id_asistencia INTO v_id_asistencia
+        FROM asistencias
+        WHERE id_empleado = v_id_empleado AND fecha = v_fecha;
+
+        -- Primera checada del día: crear el registro ya con la entrada y su estado, solo si las
+        -- reglas la aceptan, para que los triggers no lo vean como falta. Si otro proceso lo creó
+        -- antes (la llave única evita duplicados), se registra abajo como cualquier otra checada.
+        IF v_id_asistencia IS NULL AND SUBSTRING(p_decisiones, 1, 1) = '1' THEN
+            INSERT INTO asistencias (id_empleado, fecha, hora_entrada, estado)
+            VALUES (v_id_empleado, v_fecha, p_momento, p_estado_entrada)
+            ON DUPLICATE KEY UPDATE id_asistencia = LAST_INSERT_ID(id_asistencia);
+            SET v_creado = ROW_COUNT() = 1;
+            SET v_id_asistencia = LAST_INSERT_ID();
+        END IF;
+
+        IF v_creado THEN
+            SET v_accion = 'ENTRADA';
+        ELSE
+            -- Estado de la jornada (1-7), en el mismo orden que MotorReglasTurno.EstadoJornada
+            IF v_id_asistencia IS NOT NULL THEN
+                SELECT CASE
+                           WHEN hora_salida IS NOT NULL THEN 7
+                           WHEN hora_entrada IS NULL THEN 1
+                           WHEN fin_descanso_2 IS NOT NULL THEN 6
+                           WHEN inicio_descanso_2 IS NOT NULL THEN 5
+                           WHEN fin_descanso_1 IS NOT NULL THEN 4
+                           WHEN inicio_descanso_1 IS NOT NULL THEN 3
+                           ELSE 2
+                       END
+                INTO v_estado_jornada
+                FROM asistencias
+                WHERE id_asistencia = v_id_asistencia
+                FOR UPDATE;
+            END IF;
+
+            -- La decisión para cada estado la calcula el motor de reglas del turno
+            SET v_codigo = SUBSTRING(p_decisiones, v_estado_jornada, 1);
+            SET v_accion = CASE v_codigo
+                               WHEN '1' THEN 'ENTRADA'
+                               WHEN '2' THEN 'INICIO_DESCANSO1'
+                               WHEN '3' THEN 'FIN_DESCANSO1'
+                               WHEN '4' THEN 'INICIO_DESCANSO2'
+                               WHEN '5' THEN 'FIN_DESCANSO2'
+                               WHEN '6' THEN 'SALIDA'
+                               ELSE IF(v_estado_jornada = 7, 'COMPLETO', 'NO_APLICABLE')
+                           END;
+
+            IF v_codigo <> '0' THEN
+                UPDATE asistencias SET
+                    hora_entrada = IF(v_accion = 'ENTRADA', p_momento, hora_entrada),
+                    inicio_descanso_1 = IF(v_accion = 'INICIO_DESCANSO1', p_momento, inicio_descanso_1),
+                    fin_descanso_1 = IF(v_accion = 'FIN_DESCANSO1', p_momento, fin_descanso_1),
+                    inicio_descanso_2 = IF(v_accion = 'INICIO_DESCANSO2', p_momento, inicio_descanso_2),
+                    fin_descanso_2 = IF(v_accion = 'FIN_DESCANSO2', p_momento, fin_descanso_2),
+                    hora_salida = IF(v_accion = 'SALIDA', p_momento, hora_salida),
+                    estado = IF(v_accion = 'ENTRADA' AND estado = 'FALTA', p_estado_entrada, estado)
+                WHERE id_asistencia = v_id_asistencia;
+            END IF;
+        END IF;
+
+        COMMIT;
+
+        -- Los datos del empleado los tiene la aplicación; solo se devuelve el registro del día
+        SELECT v_accion AS accion, a.*
+        FROM (SELECT 1) AS x
+        LEFT JOIN asistencias a ON a.id_asistencia = v_id_asistencia;
+    END IF;
+END //
+DELIMITER ;
+
+-- Recalcula los resúmenes diarios de un empleado (o de todos si p_id_empleado es NULL)
+-- en un rango de fechas a partir de asistencias y del turno del empleado
+DELIMITER //
+CREATE PROCEDURE recalcular_resumen_diario(IN p_id_empleado INT, IN p_desde DATE, IN p_hasta DATE)
+BEGIN
+    DELETE FROM resumen_diario
+    WHERE (p_id_empleado IS NULL OR id_empleado = p_id_empleado)
+      AND fecha BETWEEN p_desde AND p_hasta;
+
+    INSERT INTO resumen_diario (id_empleado, fecha, estado, minutos_trabajados, minutos_descanso,
+                                minutos_exceso_descanso, minutos_retardo)
+    SELECT x.id_empleado, x.fecha, x.estado,
+           IF(x.hora_entrada IS NOT NULL AND x.hora_salida IS NOT NULL,
+              GREATEST(0, TIMESTAMPDIFF(MINUTE, x.hora_entrada, x.hora_salida) - x.desayuno - x.comida), 0),
+           x.desayuno + x.comida,
+           GREATEST(0, x.desayuno - x.duracion_desayuno) + GREATEST(0, x.comida - x.duracion_comida),
+           IF(x.estado = 'RETARDO' AND x.retardo < x.fin_retardo, x.retardo, 0)
+    FROM (
+        SELECT a.id_empleado, a.fecha, a.estado, a.hora_entrada, a.hora_salida,
+               -- Igual que CalculadoraJornada: un descanso sin regreso dura hasta la salida y nunca es negativo
+               GREATEST(0, IFNULL(TIMESTAMPDIFF(MINUTE, a.inicio_descanso_1, IFNULL(a.fin_descanso_1, a.hora_salida)), 0))
+                   AS desayuno,
+               GREATEST(0, IFNULL(TIMESTAMPDIFF(MINUTE, a.inicio_descanso_2, IFNULL(a.fin_descanso_2, a.hora_salida)), 0))
+                   AS comida,
+               t.duracion_desayuno, t.duracion_comida,
+               -- Minutos desde la hora de entrada del turno, dando la vuelta al día (turnos nocturnos)
+               MOD(TIME_TO_SEC(TIME(a.hora_entrada)) DIV 60 - t.entrada + 1440, 1440) AS retardo,
+               -- Igual que ReglasTurno.minutosRetardo: una llegada en la parte del ciclo del turno
+               -- anterior a la entrada (a partir de la mitad del tiempo libre) no es retardo
+               1440 - MOD(t.entrada - (t.salida + MOD(t.entrada - t.salida + 1440, 1440) DIV 2) + 2880, 1440)
+                   AS fin_retardo
+        FROM asistencias a
+        JOIN empleados e ON a.id_empleado = e.id_empleado
+        JOIN (SELECT id_turno, duracion_desayuno, duracion_comida,
+                     TIME_TO_SEC(hora_entrada) DIV 60 AS entrada, TIME_TO_SEC(hora_salida) DIV 60 AS salida
+              FROM turnos) t ON e.id_turno = t.id_turno
+        WHERE (p_id_empleado IS NULL OR a.id_empleado = p_id_empleado)
+          AND a.fecha BETWEEN p_desde AND p_hasta
+    ) x;
+END //
+
+-- Recalcula los resúmenes mensuales de los meses que tocan el rango a partir de resumen_diario
+CREATE PROCEDURE recalcular_resumen_mensual(IN p_id_empleado INT, IN p_desde DATE, IN p_hasta DATE)
+BEGIN
+    DECLARE v_desde DATE DEFAULT DATE_SUB(p_desde, INTERVAL DAYOFMONTH(p_desde) - 1 DAY);
+    DECLARE v_hasta DATE DEFAULT LAST_DAY(p_hasta);
+    DECLARE v_anio_desde SMALLINT DEFAULT YEAR(v_desde);
+    DECLARE v_mes_desde TINYINT DEFAULT MONTH(v_desde);
+    DECLARE v_anio_hasta SMALLINT DEFAULT YEAR(v_hasta);
+    DECLARE v_mes_hasta TINYINT DEFAULT MONTH(v_hasta);
+
+    -- Límites sobre las columnas para que el DELETE use (id_empleado, anio, mes) o (anio, mes)
+    DELETE FROM resumen_mensual
+    WHERE (p_id_empleado IS NULL OR id_empleado = p_id_empleado)
+      AND anio BETWEEN v_anio_desde AND v_anio_hasta
+      AND (anio > v_anio_desde OR mes >= v_mes_desde)
+      AND (anio < v_anio_hasta OR mes <= v_mes_hasta);
+
+    INSERT INTO resumen_mensual (id_empleado, anio, mes, dias_presente, dias_retardo, dias_falta,
+                                 dias_justificado, dias_exceso_descanso, minutos_trabajados,
+                                 minutos_descanso, minutos_exceso_descanso, minutos_retardo)
+    SELECT id_empleado, YEAR(fecha), MONTH(fecha),
+           SUM(estado = 'PRESENTE'), SUM(estado = 'RETARDO'), SUM(estado = 'FALTA'),
+           SUM(estado = 'JUSTIFICADO'), SUM(minutos_exceso_descanso > 0),
+           SUM(minutos_trabajados), SUM(minutos_descanso), SUM(minutos_exceso_descanso), SUM(minutos_retardo)
+    FROM resumen_diario
+    WHERE (p_id_empleado IS NULL OR id_empleado = p_id_empleado)
+      AND fecha BETWEEN v_desde AND v_hasta
+    GROUP BY id_empleado, YEAR(fecha), MONTH(fecha);
+END //
+
+-- Actualiza el resumen del día y del mes de un empleado; lo usan los triggers de asistencias
+CREATE PROCEDURE actualizar_resumen_asistencia(IN p_id_empleado INT, IN p_fecha DATE)
+BEGIN
+    CALL recalcular_resumen_diario(p_id_empleado, p_fecha, p_fecha);
+    CALL recalcular_resumen_mensual(p_id_empleado, p_fecha, p_fecha);
+END //
+
+-- Reconstruye todos los resúmenes de un rango de fechas
+CREATE PROCEDURE reconstruir_resumenes(IN p_desde DATE, IN p_hasta DATE)
+BEGIN
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        ROLLBACK;
+        RESIGNAL;
+    END;
+
+    START TRANSACTION;
+    CALL recalcular_resumen_diario(NULL, p_desde, p_hasta);
+    CALL recalcular_resumen_mensual(NULL, p_desde, p_hasta);
+    COMMIT;
+END //
+
+-- Los resúmenes se actualizan en la misma transacción que cada cambio de asistencias
+-- (checadas, justificaciones). Las escrituras masivas (recálculos, barrido de faltas) activan
+-- @omitir_resumenes en su sesión y reconstruyen los resúmenes del rango una sola vez al terminar.
+CREATE TRIGGER asistencias_resumen_insertar AFTER INSERT ON asistencias
+FOR EACH ROW
+BEGIN
+    IF @omitir_resumenes IS NULL THEN
+        CALL actualizar_resumen_asistencia(NEW.id_empleado, NEW.fecha);
+    END IF;
+END //
+
+CREATE TRIGGER asistencias_resumen_actualizar AFTER UPDATE ON asistencias
+FOR EACH ROW
+BEGIN
+    IF @omitir_resumenes IS NULL THEN
+        CALL actualizar_resumen_asistencia(NEW.id_empleado, NEW.fecha);
+        IF OLD.id_empleado <> NEW.id_empleado OR OLD.fecha <> NEW.fecha THEN
+            CALL actualizar_resumen_asistencia(OLD.id_empleado, OLD.fecha);
+        END IF;
+    END IF;
+END //
+
+CREATE TRIGGER asistencias_resumen_eliminar AFTER DELETE ON asistencias
+FOR EACH ROW
+BEGIN
+    IF @omitir_resumenes IS NULL THEN
+        CALL actualizar_resumen_asistencia(OLD.id_empleado, OLD.fecha);
+    END IF;
+END //
+
+-- Cada alta o modificación de asistencias agrega su evento
+CREATE TRIGGER asistencias_evento_insertar AFTER INSERT ON asistencias
+FOR EACH ROW
+BEGIN
+    INSERT INTO eventos_asistencia (id_asistencia, id_empleado, fecha, tipo, momento, estado)
+    VALUES (NEW.id_asistencia, NEW.id_empleado, NEW.fecha,
+            IF(NEW.hora_entrada IS NULL, 'FALTA', 'ENTRADA'), NEW.hora_entrada, NEW.estado);
+END //
+
+CREATE TRIGGER asistencias_evento_actualizar AFTER UPDATE ON asistencias
+FOR EACH ROW
+BEGIN
+    DECLARE v_tipo VARCHAR(20) DEFAULT 'MODIFICACION';
+    DECLARE v_momento DATETIME DEFAULT NULL;
+
+    IF NEW.estado = 'JUSTIFICADO' AND NOT (OLD.estado <=> NEW.estado) THEN
+        SET v_tipo = 'JUSTIFICACION';
+    ELSEIF OLD.hora_entrada IS NULL AND NEW.hora_entrada IS NOT NULL THEN
+        SET v_tipo = 'ENTRADA', v_momento = NEW.hora_entrada;
+    ELSEIF OLD.inicio_descanso_1 IS NULL AND NEW.inicio_descanso_1 IS NOT NULL THEN
+        SET v_tipo = 'INICIO_DESCANSO1', v_momento = NEW.inicio_descanso_1;
+    ELSEIF OLD.fin_descanso_1 IS NULL AND NEW.fin_descanso_1 IS NOT NULL THEN
+        SET v_tipo = 'FIN_DESCANSO1', v_momento = NEW.fin_descanso_1;
+    ELSEIF OLD.inicio_descanso_2 IS NULL AND NEW.inicio_descanso_2 IS NOT NULL THEN
+        SET v_tipo = 'INICIO_DESCANSO2', v_momento = NEW.inicio_descanso_2;
+    ELSEIF OLD.fin_descanso_2 IS NULL AND NEW.fin_descanso_2 IS NOT NULL THEN
+        SET v_tipo = 'FIN_DESCANSO2', v_momento = NEW.fin_descanso_2;
+    ELSEIF OLD.hora_salida IS NULL AND NEW.hora_salida IS NOT NULL THEN
+        SET v_tipo = 'SALIDA', v_momento = NEW.hora_salida;
+    ELSEIF NOT (OLD.estado <=> NEW.estado) THEN
+        SET v_tipo = 'CAMBIO_ESTADO';
+    END IF;
+
+    INSERT INTO eventos_asistencia (id_asistencia, id_empleado, fecha, tipo, momento, estado)
+    VALUES (NEW.id_asistencia, NEW.id_empleado, NEW.fecha, v_tipo, v_momento, NEW.estado);
+END //
+DELIMITER ;
+
 -- Agrega un puesto por defecto
 INSERT INTO puestos (nombre_puesto, descripcion, reglas_descanso)
 VALUES ('Administrador General', 'Puesto de administración con todos los permisos', 
@@ -0,0 +1,85 @@
+-- Actualización para bases de datos existentes: checada en un solo viaje (registrar_checada)
+USE gocheck_bd;
+
+-- Antes de agregar la llave única, verificar que no haya registros duplicados:
+-- SELECT id_empleado, fecha, COUNT(*) FROM asistencias GROUP BY id_empleado, fecha HAVING COUNT(*) > 1;
+ALTER TABLE asistencias
+    ADD UNIQUE KEY uk_asistencia_empleado_fecha (id_empleado, fecha);
+
+DROP PROCEDURE IF EXISTS registrar_checada;
+
+DELIMITER //
+CREATE PROCEDURE registrar_checada(IN p_codigo VARCHAR(50), IN p_momento DATETIME)
+BEGIN
+    DECLARE v_id_empleado INT DEFAULT NULL;
+    DECLARE v_id_asistencia INT DEFAULT NULL;
+    DECLARE v_fecha DATE DEFAULT DATE(p_momento);
+    DECLARE v_accion VARCHAR(20);
+
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        ROLLBACK;
+        RESIGNAL;
+    END;
+
+    SELECT id_empleado INTO v_id_empleado
+    FROM empleados
+    WHERE codigo_unico = p_codigo AND activo = 1;
+
+    IF v_id_empleado IS NULL THEN
+        SELECT 'NO_ENCONTRADO' AS accion;
+    ELSE
+        START TRANSACTION;
+
+        SELECT id_asistencia INTO v_id_asistencia
+        FROM asistencias
+        WHERE id_empleado = v_id_empleado AND fecha = v_fecha;
+
+        -- Primera checada del día: crear el registro (la llave única evita duplicados)
+        IF v_id_asistencia IS NULL THEN
+            INSERT INTO asistencias (id_empleado, fecha, estado)
+            VALUES (v_id_empleado, v_fecha, 'FALTA')
+            ON DUPLICATE KEY UPDATE id_asistencia = LAST_INSERT_ID(id_asistencia);
+            SET v_id_asistencia = LAST_INSERT_ID();
+        END IF;
+
+        SELECT CASE
+                   WHEN hora_entrada IS NULL THEN 'ENTRADA'
+                   WHEN inicio_descanso_1 IS NULL THEN 'INICIO_DESCANSO1'
+                   WHEN fin_descanso_1 IS NULL THEN 'FIN_DESCANSO1'
+                   WHEN inicio_descanso_2 IS NULL THEN 'INICIO_DESCANSO2'
+                   WHEN fin_descanso_2 IS NULL THEN 'FIN_DESCANSO2'
+                   WHEN hora_salida IS NULL THEN 'SALIDA'
+                   ELSE 'COMPLETO'
+               END
+        INTO v_accion
+        FROM asistencias
+        WHERE id_asistencia = v_id_asistencia
+        FOR UPDATE;
+
+        IF v_accion <> 'COMPLETO' THEN
+            UPDATE asistencias SET
+                hora_entrada = IF(v_accion = 'ENTRADA', p_momento, hora_entrada),
+                inicio_descanso_1 = IF(v_accion = 'INICIO_DESCANSO1', p_momento, inicio_descanso_1),
+                fin_descanso_1 = IF(v_accion = 'FIN_DESCANSO1', p_momento, fin_descanso_1),
+                inicio_descanso_2 = IF(v_accion = 'INICIO_DESCANSO2', p_momento, inicio_descanso_2),
+                fin_descanso_2 = IF(v_accion = 'FIN_DESCANSO2', p_momento, fin_descanso_2),
+                hora_salida = IF(v_accion = 'SALIDA', p_momento, hora_salida),
+                estado = IF(estado = 'FALTA', 'PRESENTE', estado)
+            WHERE id_asistencia = v_id_asistencia;
+        END IF;
+
+        COMMIT;
+
+        SELECT v_accion AS accion, a.*,
+               e.codigo_unico, e.nombre, e.apellido, e.id_puesto, e.id_turno,
+               p.nombre_puesto, t.nombre_turno,
+               t.hora_entrada AS turno_hora_entrada, t.hora_salida AS turno_hora_salida
+        FROM asistencias a
+        JOIN empleados e ON a.id_empleado = e.id_empleado
+        JOIN puestos p ON e.id_puesto = p.id_puesto
+        JOIN turnos t ON e.id_turno = t.id_turno
+        WHERE a.id_asistencia = v_id_asistencia;
+    END IF;
+END //
+DELIMITER ;
@@ -0,0 +1,8 @@
+-- Actualización para bases de datos existentes: índice de los reportes por rango.
+-- Incluye el estado para que el conteo y la búsqueda de páginas con filtro de estado
+-- se resuelvan solo con el índice.
+USE gocheck_bd;
+
+ALTER TABLE asistencias
+    ADD INDEX idx_fecha_empleado_estado (fecha, id_empleado, estado),
+    DROP INDEX idx_fecha_empleado;
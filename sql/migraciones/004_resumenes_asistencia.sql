@@ -0,0 +1,138 @@
+-- Actualización para bases de datos existentes: resúmenes diarios y mensuales de asistencia
+-- mantenidos por triggers. Al final se construyen los resúmenes de los registros existentes.
+USE gocheck_bd;
+
+-- Resúmenes precalculados de asistencia (se mantienen con los triggers de asistencias)
+CREATE TABLE resumen_diario (
+    id_empleado INT NOT NULL,
+    fecha DATE NOT NULL,
+    estado ENUM('PRESENTE', 'FALTA', 'RETARDO', 'JUSTIFICADO') NOT NULL,
+    minutos_trabajados INT NOT NULL DEFAULT 0, -- De entrada a salida, sin descansos
+    minutos_descanso INT NOT NULL DEFAULT 0,
+    minutos_exceso_descanso INT NOT NULL DEFAULT 0, -- Minutos por encima de lo que permite el turno
+    minutos_retardo INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id_empleado, fecha),
+    INDEX idx_resumen_diario_fecha (fecha),
+    FOREIGN KEY (id_empleado) REFERENCES empleados(id_empleado)
+);
+
+CREATE TABLE resumen_mensual (
+    id_empleado INT NOT NULL,
+    anio SMALLINT NOT NULL,
+    mes TINYINT NOT NULL,
+    dias_presente INT NOT NULL DEFAULT 0,
+    dias_retardo INT NOT NULL DEFAULT 0,
+    dias_falta INT NOT NULL DEFAULT 0,
+    dias_justificado INT NOT NULL DEFAULT 0,
+    dias_exceso_descanso INT NOT NULL DEFAULT 0,
+    minutos_trabajados INT NOT NULL DEFAULT 0,
+    minutos_descanso INT NOT NULL DEFAULT 0,
+    minutos_exceso_descanso INT NOT NULL DEFAULT 0,
+    minutos_retardo INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id_empleado, anio, mes),
+    INDEX idx_resumen_mensual_periodo (anio, mes),
+    FOREIGN KEY (id_empleado) REFERENCES empleados(id_empleado)
+);
+
+-- Recalcula los resúmenes diarios de un empleado (o de todos si p_id_empleado es NULL)
+-- en un rango de fechas a partir de asistencias y del turno del empleado
+DELIMITER //
+CREATE PROCEDURE recalcular_resumen_diario(IN p_id_empleado INT, IN p_desde DATE, IN p_hasta DATE)
+BEGIN
+    DELETE FROM resumen_diario
+    WHERE (p_id_empleado IS NULL OR id_empleado = p_id_empleado)
+      AND fecha BETWEEN p_desde AND p_hasta;
+
+    INSERT INTO resumen_diario (id_empleado, fecha, estado, minutos_trabajados, minutos_descanso,
+                                minutos_exceso_descanso, minutos_retardo)
+    SELECT x.id_empleado, x.fecha, x.estado,
+           IF(x.hora_entrada IS NOT NULL AND x.hora_salida IS NOT NULL,
+              GREATEST(0, TIMESTAMPDIFF(MINUTE, x.hora_entrada, x.hora_salida) - x.desayuno - x.comida), 0),
+           x.desayuno + x.comida,
+           GREATEST(0, x.desayuno - x.duracion_desayuno) + GREATEST(0, x.comida - x.duracion_comida),
+           IF(x.estado = 'RETARDO' AND x.hora_entrada IS NOT NULL,
+              GREATEST(0, TIMESTAMPDIFF(MINUTE, TIMESTAMP(x.fecha, x.turno_hora_entrada), x.hora_entrada)), 0)
+    FROM (
+        SELECT a.id_empleado, a.fecha, a.estado, a.hora_entrada, a.hora_salida,
+               IFNULL(TIMESTAMPDIFF(MINUTE, a.inicio_descanso_1, a.fin_descanso_1), 0) AS desayuno,
+               IFNULL(TIMESTAMPDIFF(MINUTE, a.inicio_descanso_2, a.fin_descanso_2), 0) AS comida,
+               t.duracion_desayuno, t.duracion_comida, t.hora_entrada AS turno_hora_entrada
+        FROM asistencias a
+        JOIN empleados e ON a.id_empleado = e.id_empleado
+        JOIN turnos t ON e.id_turno = t.id_turno
+        WHERE (p_id_empleado IS NULL OR a.id_empleado = p_id_empleado)
+          AND a.fecha BETWEEN p_desde AND p_hasta
+    ) x;
+END //
+
+-- Recalcula los resúmenes mensuales de los meses que tocan el rango a partir de resumen_diario
+CREATE PROCEDURE recalcular_resumen_mensual(IN p_id_empleado INT, IN p_desde DATE, IN p_hasta DATE)
+BEGIN
+    DECLARE v_desde DATE DEFAULT DATE_SUB(p_desde, INTERVAL DAYOFMONTH(p_desde) - 1 DAY);
+    DECLARE v_hasta DATE DEFAULT LAST_DAY(p_hasta);
+
+    DELETE FROM resumen_mensual
+    WHERE (p_id_empleado IS NULL OR id_empleado = p_id_empleado)
+      AND anio * 100 + mes BETWEEN YEAR(v_desde) * 100 + MONTH(v_desde) AND YEAR(v_hasta) * 100 + MONTH(v_hasta);
+
+    INSERT INTO resumen_mensual (id_empleado, anio, mes, dias_presente, dias_retardo, dias_falta,
+                                 dias_justificado, dias_exceso_descanso, minutos_trabajados,
+                                 minutos_descanso, minutos_exceso_descanso, minutos_retardo)
+    SELECT id_empleado, YEAR(fecha), MONTH(fecha),
+           SUM(estado = 'PRESENTE'), SUM(estado = 'RETARDO'), SUM(estado = 'FALTA'),
+           SUM(estado = 'JUSTIFICADO'), SUM(minutos_exceso_descanso > 0),
+           SUM(minutos_trabajados), SUM(minutos_descanso), SUM(minutos_exceso_descanso), SUM(minutos_retardo)
+    FROM resumen_diario
+    WHERE (p_id_empleado IS NULL OR id_empleado = p_id_empleado)
+      AND fecha BETWEEN v_desde AND v_hasta
+    GROUP BY id_empleado, YEAR(fecha), MONTH(fecha);
+END //
+
+-- Actualiza el resumen del día y del mes de un empleado; lo usan los triggers de asistencias
+CREATE PROCEDURE actualizar_resumen_asistencia(IN p_id_empleado INT, IN p_fecha DATE)
+BEGIN
+    CALL recalcular_resumen_diario(p_id_empleado, p_fecha, p_fecha);
+    CALL recalcular_resumen_mensual(p_id_empleado, p_fecha, p_fecha);
+END //
+
+-- Reconstruye todos los resúmenes de un rango de fechas
+CREATE PROCEDURE reconstruir_resumenes(IN p_desde DATE, IN p_hasta DATE)
+BEGIN
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        ROLLBACK;
+        RESIGNAL;
+    END;
+
+    START TRANSACTION;
+    CALL recalcular_resumen_diario(NULL, p_desde, p_hasta);
+    CALL recalcular_resumen_mensual(NULL, p_desde, p_hasta);
+    COMMIT;
+END //
+
+-- Los resúmenes se actualizan en la misma transacción que cada cambio de asistencias
+-- (checadas, justificaciones, recálculos)
+CREATE TRIGGER asistencias_resumen_insertar AFTER INSERT ON asistencias
+FOR EACH ROW
+BEGIN
+    CALL actualizar_resumen_asistencia(NEW.id_empleado, NEW.fecha);
+END //
+
+CREATE TRIGGER asistencias_resumen_actualizar AFTER UPDATE ON asistencias
+FOR EACH ROW
+BEGIN
+    CALL actualizar_resumen_asistencia(NEW.id_empleado, NEW.fecha);
+    IF OLD.id_empleado <> NEW.id_empleado OR OLD.fecha <> NEW.fecha THEN
+        CALL actualizar_resumen_asistencia(OLD.id_empleado, OLD.fecha);
+    END IF;
+END //
+
+CREATE TRIGGER asistencias_resumen_eliminar AFTER DELETE ON asistencias
+FOR EACH ROW
+BEGIN
+    CALL actualizar_resumen_asistencia(OLD.id_empleado, OLD.fecha);
+END //
+DELIMITER ;
+
+SET @primera_fecha = (SELECT IFNULL(MIN(fecha), CURDATE()) FROM asistencias);
+CALL reconstruir_resumenes(@primera_fecha, CURDATE());
@@ -0,0 +1,33 @@
+-- Actualización para bases de datos existentes: número de cambio en asistencias, para que el
+-- panel de administración pida solo los registros modificados desde su última consulta.
+USE gocheck_bd;
+
+-- Contador de cambios de asistencias. Cada alta o modificación toma el siguiente número dentro de
+-- su transacción y la fila del contador queda bloqueada hasta el commit, así que los cambios se
+-- confirman en el orden de su número y un lector nunca se salta uno menor al último que vio.
+CREATE TABLE secuencia_asistencias (
+    id TINYINT PRIMARY KEY,
+    valor BIGINT UNSIGNED NOT NULL
+);
+
+INSERT INTO secuencia_asistencias (id, valor) VALUES (1, 0);
+
+ALTER TABLE asistencias
+    ADD COLUMN version BIGINT UNSIGNED NOT NULL DEFAULT 0, -- Número del último cambio (secuencia_asistencias)
+    ADD INDEX idx_fecha_version (fecha, version);
+
+DELIMITER //
+CREATE TRIGGER asistencias_version_insertar BEFORE INSERT ON asistencias
+FOR EACH ROW
+BEGIN
+    UPDATE secuencia_asistencias SET valor = LAST_INSERT_ID(valor + 1) WHERE id = 1;
+    SET NEW.version = LAST_INSERT_ID();
+END //
+
+CREATE TRIGGER asistencias_version_actualizar BEFORE UPDATE ON asistencias
+FOR EACH ROW
+BEGIN
+    UPDATE secuencia_asistencias SET valor = LAST_INSERT_ID(valor + 1) WHERE id = 1;
+    SET NEW.version = LAST_INSERT_ID();
+END //
+DELIMITER ;
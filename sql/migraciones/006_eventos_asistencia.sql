@@ -0,0 +1,65 @@
+-- Actualización para bases de datos existentes: bandeja de salida de eventos de asistencia,
+-- para que otros equipos e integraciones sigan los cambios sin recorrer asistencias.
+-- Requiere 005_version_asistencias.sql.
+USE gocheck_bd;
+
+-- Eventos de asistencia (bandeja de salida): una fila por cada alta o modificación de asistencias,
+-- escrita por triggers en la misma transacción. id_evento es el número de cambio de la asistencia
+-- (secuencia_asistencias), así que los eventos se confirman en orden y se pueden seguir sin huecos.
+CREATE TABLE eventos_asistencia (
+    id_evento BIGINT UNSIGNED PRIMARY KEY,
+    id_asistencia INT NOT NULL,
+    id_empleado INT NOT NULL,
+    fecha DATE NOT NULL,
+    tipo ENUM('FALTA', 'ENTRADA', 'INICIO_DESCANSO1', 'FIN_DESCANSO1', 'INICIO_DESCANSO2',
+              'FIN_DESCANSO2', 'SALIDA', 'JUSTIFICACION', 'CAMBIO_ESTADO', 'MODIFICACION') NOT NULL,
+    momento DATETIME, -- Hora de la checada en los eventos de checada
+    estado ENUM('PRESENTE', 'FALTA', 'RETARDO', 'JUSTIFICADO'),
+    registrado TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+);
+
+-- Posición de cada consumidor de eventos (último evento procesado)
+CREATE TABLE consumidores_eventos (
+    nombre VARCHAR(50) PRIMARY KEY,
+    ultimo_evento BIGINT UNSIGNED NOT NULL DEFAULT 0,
+    actualizado TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+DELIMITER //
+-- Cada alta o modificación de asistencias agrega su evento
+CREATE TRIGGER asistencias_evento_insertar AFTER INSERT ON asistencias
+FOR EACH ROW
+BEGIN
+    INSERT INTO eventos_asistencia (id_evento, id_asistencia, id_empleado, fecha, tipo, momento, estado)
+    VALUES (NEW.version, NEW.id_asistencia, NEW.id_empleado, NEW.fecha,
+            IF(NEW.hora_entrada IS NULL, 'FALTA', 'ENTRADA'), NEW.hora_entrada, NEW.estado);
+END //
+
+CREATE TRIGGER asistencias_evento_actualizar AFTER UPDATE ON asistencias
+FOR EACH ROW
+BEGIN
+    DECLARE v_tipo VARCHAR(20) DEFAULT 'MODIFICACION';
+    DECLARE v_momento DATETIME DEFAULT NULL;
+
+    IF NEW.estado = 'JUSTIFICADO' AND NOT (OLD.estado <=> NEW.estado) THEN
+        SET v_tipo = 'JUSTIFICACION';
+    ELSEIF OLD.hora_entrada IS NULL AND NEW.hora_entrada IS NOT NULL THEN
+        SET v_tipo = 'ENTRADA', v_momento = NEW.hora_entrada;
+    ELSEIF OLD.inicio_descanso_1 IS NULL AND NEW.inicio_descanso_1 IS NOT NULL THEN
+        SET v_tipo = 'INICIO_DESCANSO1', v_momento = NEW.inicio_descanso_1;
+    ELSEIF OLD.fin_descanso_1 IS NULL AND NEW.fin_descanso_1 IS NOT NULL THEN
+        SET v_tipo = 'FIN_DESCANSO1', v_momento = NEW.fin_descanso_1;
+    ELSEIF OLD.inicio_descanso_2 IS NULL AND NEW.inicio_descanso_2 IS NOT NULL THEN
+        SET v_tipo = 'INICIO_DESCANSO2', v_momento = NEW.inicio_descanso_2;
+    ELSEIF OLD.fin_descanso_2 IS NULL AND NEW.fin_descanso_2 IS NOT NULL THEN
+        SET v_tipo = 'FIN_DESCANSO2', v_momento = NEW.fin_descanso_2;
+    ELSEIF OLD.hora_salida IS NULL AND NEW.hora_salida IS NOT NULL THEN
+        SET v_tipo = 'SALIDA', v_momento = NEW.hora_salida;
+    ELSEIF NOT (OLD.estado <=> NEW.estado) THEN
+        SET v_tipo = 'CAMBIO_ESTADO';
+    END IF;
+
+    INSERT INTO eventos_asistencia (id_evento, id_asistencia, id_empleado, fecha, tipo, momento, estado)
+    VALUES (NEW.version, NEW.id_asistencia, NEW.id_empleado, NEW.fecha, v_tipo, v_momento, NEW.estado);
+END //
+DELIMITER ;
@@ -0,0 +1,21 @@
+-- Actualización para bases de datos existentes: calendario laboral precalculado, para saber
+-- con una sola consulta si un empleado debía trabajar un día y en qué horario.
+-- La aplicación lo llena al iniciar y lo mantiene al cambiar horarios, descansos y permisos.
+USE gocheck_bd;
+
+-- Calendario laboral: qué le toca a cada empleado cada día (lo calcula MaterializadorCalendario
+-- a partir de horarios_empleados, cambios_descanso y permisos aprobados). Los empleados sin
+-- horario no tienen filas. El turno solo se guarda en los días laborables.
+CREATE TABLE calendario_laboral (
+    id_empleado INT NOT NULL,
+    fecha DATE NOT NULL,
+    tipo ENUM('LABORABLE', 'DESCANSO', 'PERMISO') NOT NULL,
+    id_turno INT NULL,
+    hora_entrada TIME NULL,
+    hora_salida TIME NULL,
+    actualizado TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (id_empleado, fecha),
+    INDEX idx_calendario_fecha_tipo (fecha, tipo),
+    FOREIGN KEY (id_empleado) REFERENCES empleados(id_empleado),
+    FOREIGN KEY (id_turno) REFERENCES turnos(id_turno)
+);
@@ -0,0 +1,103 @@
+-- Actualización para bases de datos existentes: registrar_checada recibe la fecha de la jornada
+-- que calcula la aplicación con el turno (MotorReglasTurno.fechaJornada) en lugar de tomar la
+-- fecha de la checada; así la salida de madrugada de un turno nocturno cierra la asistencia
+-- del día anterior en vez de abrir una nueva.
+USE gocheck_bd;
+
+DROP PROCEDURE IF EXISTS registrar_checada;
+
+DELIMITER //
+CREATE PROCEDURE registrar_checada(IN p_id_empleado INT, IN p_momento DATETIME, IN p_fecha DATE,
+                                   IN p_decisiones VARCHAR(16), IN p_estado_entrada VARCHAR(20))
+BEGIN
+    DECLARE v_id_empleado INT DEFAULT NULL;
+    DECLARE v_id_asistencia INT DEFAULT NULL;
+    DECLARE v_fecha DATE DEFAULT p_fecha;
+    DECLARE v_estado_jornada INT DEFAULT 1;
+    DECLARE v_codigo CHAR(1);
+    DECLARE v_accion VARCHAR(20);
+
+    DECLARE EXIT HANDLER FOR SQLEXCEPTION
+    BEGIN
+        ROLLBACK;
+        RESIGNAL;
+    END;
+
+    IF p_decisiones IS NULL OR CHAR_LENGTH(p_decisiones) <> 7 THEN
+        SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'p_decisiones debe tener un código por estado de la jornada';
+    END IF;
+
+    -- El código ya lo resolvió la aplicación con su índice en memoria; aquí solo se confirma
+    -- por llave primaria que el empleado sigue activo
+    SELECT id_empleado INTO v_id_empleado
+    FROM empleados
+    WHERE id_empleado = p_id_empleado AND activo = 1;
+
+    IF v_id_empleado IS NULL THEN
+        SELECT 'NO_ENCONTRADO' AS accion;
+    ELSE
+        START TRANSACTION;
+
+        SELECT id_asistencia INTO v_id_asistencia
+        FROM asistencias
+        WHERE id_empleado = v_id_empleado AND fecha = v_fecha;
+
+        -- Primera checada del día: crear el registro solo si las reglas aceptan la entrada
+        -- (la llave única evita duplicados)
+        IF v_id_asistencia IS NULL AND SUBSTRING(p_decisiones, 1, 1) <> '0' THEN
+            INSERT INTO asistencias (id_empleado, fecha, estado)
+            VALUES (v_id_empleado, v_fecha, 'FALTA')
+            ON DUPLICATE KEY UPDATE id_asistencia = LAST_INSERT_ID(id_asistencia);
+            SET v_id_asistencia = LAST_INSERT_ID();
+        END IF;
+
+        -- Estado de la jornada (1-7), en el mismo orden que MotorReglasTurno.EstadoJornada
+        IF v_id_asistencia IS NOT NULL THEN
+            SELECT CASE
+                       WHEN hora_salida IS NOT NULL THEN 7
+                       WHEN hora_entrada IS NULL THEN 1
+                       WHEN fin_descanso_2 IS NOT NULL THEN 6
+                       WHEN inicio_descanso_2 IS NOT NULL THEN 5
+                       WHEN fin_descanso_1 IS NOT NULL THEN 4
+                       WHEN inicio_descanso_1 IS NOT NULL THEN 3
+                       ELSE 2
+                   END
+            INTO v_estado_jornada
+            FROM asistencias
+            WHERE id_asistencia = v_id_asistencia
+            FOR UPDATE;
+        END IF;
+
+        -- La decisión para cada estado la calcula el motor de reglas del turno
+        SET v_codigo = SUBSTRING(p_decisiones, v_estado_jornada, 1);
+        SET v_accion = CASE v_codigo
+                           WHEN '1' THEN 'ENTRADA'
+                           WHEN '2' THEN 'INICIO_DESCANSO1'
+                           WHEN '3' THEN 'FIN_DESCANSO1'
+                           WHEN '4' THEN 'INICIO_DESCANSO2'
+                           WHEN '5' THEN 'FIN_DESCANSO2'
+                           WHEN '6' THEN 'SALIDA'
+                           ELSE IF(v_estado_jornada = 7, 'COMPLETO', 'NO_APLICABLE')
+                       END;
+
+        IF v_codigo <> '0' THEN
+            UPDATE asistencias SET
+                hora_entrada = IF(v_accion = 'ENTRADA', p_momento, hora_entrada),
+                inicio_descanso_1 = IF(v_accion = 'INICIO_DESCANSO1', p_momento, inicio_descanso_1),
+                fin_descanso_1 = IF(v_accion = 'FIN_DESCANSO1', p_momento, fin_descanso_1),
+                inicio_descanso_2 = IF(v_accion = 'INICIO_DESCANSO2', p_momento, inicio_descanso_2),
+                fin_descanso_2 = IF(v_accion = 'FIN_DESCANSO2', p_momento, fin_descanso_2),
+                hora_salida = IF(v_accion = 'SALIDA', p_momento, hora_salida),
+                estado = IF(v_accion = 'ENTRADA' AND estado = 'FALTA', p_estado_entrada, estado)
+            WHERE id_asistencia = v_id_asistencia;
+        END IF;
+
+        COMMIT;
+
+        -- Los datos del empleado los tiene la aplicación; solo se devuelve el registro del día
+        SELECT v_accion AS accion, a.*
+        FROM (SELECT 1) AS x
+        LEFT JOIN asistencias a ON a.id_asistencia = v_id_asistencia;
+    END IF;
+END //
+DELIMITER ;
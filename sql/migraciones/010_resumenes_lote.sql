@@ -0,0 +1,82 @@
+-- Actualización para bases de datos existentes:
+-- * Los minutos de retardo de resumen_diario se cuentan dando la vuelta al día en turnos
+--   nocturnos, con el mismo criterio que CalculadoraJornada.
+-- * Los triggers de resúmenes no recalculan el día y el mes por cada fila cuando la sesión activa
+--   @omitir_resumenes; las escrituras masivas reconstruyen los resúmenes del rango al terminar.
+-- Al final se reconstruyen los resúmenes existentes con el nuevo cálculo de retardo.
+USE gocheck_bd;
+
+DROP PROCEDURE IF EXISTS recalcular_resumen_diario;
+DROP TRIGGER IF EXISTS asistencias_resumen_insertar;
+DROP TRIGGER IF EXISTS asistencias_resumen_actualizar;
+DROP TRIGGER IF EXISTS asistencias_resumen_eliminar;
+
+DELIMITER //
+CREATE PROCEDURE recalcular_resumen_diario(IN p_id_empleado INT, IN p_desde DATE, IN p_hasta DATE)
+BEGIN
+    DELETE FROM resumen_diario
+    WHERE (p_id_empleado IS NULL OR id_empleado = p_id_empleado)
+      AND fecha BETWEEN p_desde AND p_hasta;
+
+    INSERT INTO resumen_diario (id_empleado, fecha, estado, minutos_trabajados, minutos_descanso,
+                                minutos_exceso_descanso, minutos_retardo)
+    SELECT x.id_empleado, x.fecha, x.estado,
+           IF(x.hora_entrada IS NOT NULL AND x.hora_salida IS NOT NULL,
+              GREATEST(0, TIMESTAMPDIFF(MINUTE, x.hora_entrada, x.hora_salida) - x.desayuno - x.comida), 0),
+           x.desayuno + x.comida,
+           GREATEST(0, x.desayuno - x.duracion_desayuno) + GREATEST(0, x.comida - x.duracion_comida),
+           IF(x.estado = 'RETARDO' AND x.retardo < x.fin_retardo, x.retardo, 0)
+    FROM (
+        SELECT a.id_empleado, a.fecha, a.estado, a.hora_entrada, a.hora_salida,
+               IFNULL(TIMESTAMPDIFF(MINUTE, a.inicio_descanso_1, a.fin_descanso_1), 0) AS desayuno,
+               IFNULL(TIMESTAMPDIFF(MINUTE, a.inicio_descanso_2, a.fin_descanso_2), 0) AS comida,
+               t.duracion_desayuno, t.duracion_comida,
+               -- Minutos desde la hora de entrada del turno, dando la vuelta al día (turnos nocturnos)
+               MOD(TIME_TO_SEC(TIME(a.hora_entrada)) DIV 60 - t.entrada + 1440, 1440) AS retardo,
+               -- Igual que ReglasTurno.minutosRetardo: una llegada en la parte del ciclo del turno
+               -- anterior a la entrada (a partir de la mitad del tiempo libre) no es retardo
+               1440 - MOD(t.entrada - (t.salida + MOD(t.entrada - t.salida + 1440, 1440) DIV 2) + 2880, 1440)
+                   AS fin_retardo
+        FROM asistencias a
+        JOIN empleados e ON a.id_empleado = e.id_empleado
+        JOIN (SELECT id_turno, duracion_desayuno, duracion_comida,
+                     TIME_TO_SEC(hora_entrada) DIV 60 AS entrada, TIME_TO_SEC(hora_salida) DIV 60 AS salida
+              FROM turnos) t ON e.id_turno = t.id_turno
+        WHERE (p_id_empleado IS NULL OR a.id_empleado = p_id_empleado)
+          AND a.fecha BETWEEN p_desde AND p_hasta
+    ) x;
+END //
+
+-- Los resúmenes se actualizan en la misma transacción que cada cambio de asistencias
+-- (checadas, justificaciones). Las escrituras masivas (recálculos, barrido de faltas) activan
+-- @omitir_resumenes en su sesión y reconstruyen los resúmenes del rango una sola vez al terminar.
+CREATE TRIGGER asistencias_resumen_insertar AFTER INSERT ON asistencias
+FOR EACH ROW
+BEGIN
+    IF @omitir_resumenes IS NULL THEN
+        CALL actualizar_resumen_asistencia(NEW.id_empleado, NEW.fecha);
+    END IF;
+END //
+
+CREATE TRIGGER asistencias_resumen_actualizar AFTER UPDATE ON asistencias
+FOR EACH ROW
+BEGIN
+    IF @omitir_resumenes IS NULL THEN
+        CALL actualizar_resumen_asistencia(NEW.id_empleado, NEW.fecha);
+        IF OLD.id_empleado <> NEW.id_empleado OR OLD.fecha <> NEW.fecha THEN
+            CALL actualizar_resumen_asistencia(OLD.id_empleado, OLD.fecha);
+        END IF;
+    END IF;
+END //
+
+CREATE TRIGGER asistencias_resumen_eliminar AFTER DELETE ON asistencias
+FOR EACH ROW
+BEGIN
+    IF @omitir_resumenes IS NULL THEN
+        CALL actualizar_resumen_asistencia(OLD.id_empleado, OLD.fecha);
+    END IF;
+END //
+DELIMITER ;
+
+SET @primera_fecha = (SELECT IFNULL(MIN(fecha), CURDATE()) FROM asistencias);
+CALL reconstruir_resumenes(@primera_fecha, CURDATE());
@@ -0,0 +1,64 @@
+-- Actualización para bases de datos existentes: los cambios de asistencias dejan de numerarse con
+-- secuencia_asistencias. Cada alta o modificación bloqueaba la única fila del contador hasta el
+-- commit, así que las checadas del kiosco esperaban detrás de las escrituras masivas.
+-- * asistencias guarda el momento de su último cambio (actualizado); el panel vuelve a leer los
+--   últimos segundos detrás de su marca para recoger los cambios que se confirmaron tarde.
+-- * id_evento de eventos_asistencia es AUTO_INCREMENT; el lector de eventos espera unos segundos
+--   antes de entregar un evento para que los números menores ya estén confirmados.
+-- Requiere 005_version_asistencias.sql y 006_eventos_asistencia.sql.
+USE gocheck_bd;
+
+DROP TRIGGER IF EXISTS asistencias_version_insertar;
+DROP TRIGGER IF EXISTS asistencias_version_actualizar;
+DROP TRIGGER IF EXISTS asistencias_evento_insertar;
+DROP TRIGGER IF EXISTS asistencias_evento_actualizar;
+
+DROP TABLE secuencia_asistencias;
+
+ALTER TABLE asistencias
+    DROP INDEX idx_fecha_version,
+    DROP COLUMN version,
+    ADD COLUMN actualizado TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3), -- Último cambio
+    ADD INDEX idx_fecha_actualizado (fecha, actualizado);
+
+ALTER TABLE eventos_asistencia
+    MODIFY id_evento BIGINT UNSIGNED NOT NULL AUTO_INCREMENT;
+
+DELIMITER //
+-- Cada alta o modificación de asistencias agrega su evento
+CREATE TRIGGER asistencias_evento_insertar AFTER INSERT ON asistencias
+FOR EACH ROW
+BEGIN
+    INSERT INTO eventos_asistencia (id_asistencia, id_empleado, fecha, tipo, momento, estado)
+    VALUES (NEW.id_asistencia, NEW.id_empleado, NEW.fecha,
+            IF(NEW.hora_entrada IS NULL, 'FALTA', 'ENTRADA'), NEW.hora_entrada, NEW.estado);
+END //
+
+CREATE TRIGGER asistencias_evento_actualizar AFTER UPDATE ON asistencias
+FOR EACH ROW
+BEGIN
+    DECLARE v_tipo VARCHAR(20) DEFAULT 'MODIFICACION';
+    DECLARE v_momento DATETIME DEFAULT NULL;
+
+    IF NEW.estado = 'JUSTIFICADO' AND NOT (OLD.estado <=> NEW.estado) THEN
+        SET v_tipo = 'JUSTIFICACION';
+    ELSEIF OLD.hora_entrada IS NULL AND NEW.hora_entrada IS NOT NULL THEN
+        SET v_tipo = 'ENTRADA', v_momento = NEW.hora_entrada;
+    ELSEIF OLD.inicio_descanso_1 IS NULL AND NEW.inicio_descanso_1 IS NOT NULL THEN
+        SET v_tipo = 'INICIO_DESCANSO1', v_momento = NEW.inicio_descanso_1;
+    ELSEIF OLD.fin_descanso_1 IS NULL AND NEW.fin_descanso_1 IS NOT NULL THEN
+        SET v_tipo = 'FIN_DESCANSO1', v_momento = NEW.fin_descanso_1;
+    ELSEIF OLD.inicio_descanso_2 IS NULL AND NEW.inicio_descanso_2 IS NOT NULL THEN
+        SET v_tipo = 'INICIO_DESCANSO2', v_momento = NEW.inicio_descanso_2;
+    ELSEIF OLD.fin_descanso_2 IS NULL AND NEW.fin_descanso_2 IS NOT NULL THEN
+        SET v_tipo = 'FIN_DESCANSO2', v_momento = NEW.fin_descanso_2;
+    ELSEIF OLD.hora_salida IS NULL AND NEW.hora_salida IS NOT NULL THEN
+        SET v_tipo = 'SALIDA', v_momento = NEW.hora_salida;
+    ELSEIF NOT (OLD.estado <=> NEW.estado) THEN
+        SET v_tipo = 'CAMBIO_ESTADO';
+    END IF;
+
+    INSERT INTO eventos_asistencia (id_asistencia, id_empleado, fecha, tipo, momento, estado)
+    VALUES (NEW.id_asistencia, NEW.id_empleado, NEW.fecha, v_tipo, v_momento, NEW.estado);
+END //
+DELIMITER ;
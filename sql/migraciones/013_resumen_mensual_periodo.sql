@@ -0,0 +1,39 @@
+-- Actualización para bases de datos existentes: recalcular_resumen_mensual filtra los meses con
+-- límites sobre anio y mes en lugar de anio * 100 + mes. La expresión no podía usar índices, así que
+-- el DELETE de todos los empleados (barrido de faltas, recálculos) recorría resumen_mensual completo
+-- y bloqueaba todos sus meses hasta el commit.
+USE gocheck_bd;
+
+DROP PROCEDURE IF EXISTS recalcular_resumen_mensual;
+
+DELIMITER //
+-- Recalcula los resúmenes mensuales de los meses que tocan el rango a partir de resumen_diario
+CREATE PROCEDURE recalcular_resumen_mensual(IN p_id_empleado INT, IN p_desde DATE, IN p_hasta DATE)
+BEGIN
+    DECLARE v_desde DATE DEFAULT DATE_SUB(p_desde, INTERVAL DAYOFMONTH(p_desde) - 1 DAY);
+    DECLARE v_hasta DATE DEFAULT LAST_DAY(p_hasta);
+    DECLARE v_anio_desde SMALLINT DEFAULT YEAR(v_desde);
+    DECLARE v_mes_desde TINYINT DEFAULT MONTH(v_desde);
+    DECLARE v_anio_hasta SMALLINT DEFAULT YEAR(v_hasta);
+    DECLARE v_mes_hasta TINYINT DEFAULT MONTH(v_hasta);
+
+    -- Límites sobre las columnas para que el DELETE use (id_empleado, anio, mes) o (anio, mes)
+    DELETE FROM resumen_mensual
+    WHERE (p_id_empleado IS NULL OR id_empleado = p_id_empleado)
+      AND anio BETWEEN v_anio_desde AND v_anio_hasta
+      AND (anio > v_anio_desde OR mes >= v_mes_desde)
+      AND (anio < v_anio_hasta OR mes <= v_mes_hasta);
+
+    INSERT INTO resumen_mensual (id_empleado, anio, mes, dias_presente, dias_retardo, dias_falta,
+                                 dias_justificado, dias_exceso_descanso, minutos_trabajados,
+                                 minutos_descanso, minutos_exceso_descanso, minutos_retardo)
+    SELECT id_empleado, YEAR(fecha), MONTH(fecha),
+           SUM(estado = 'PRESENTE'), SUM(estado = 'RETARDO'), SUM(estado = 'FALTA'),
+           SUM(estado = 'JUSTIFICADO'), SUM(minutos_exceso_descanso > 0),
+           SUM(minutos_trabajados), SUM(minutos_descanso), SUM(minutos_exceso_descanso), SUM(minutos_retardo)
+    FROM resumen_diario
+    WHERE (p_id_empleado IS NULL OR id_empleado = p_id_empleado)
+      AND fecha BETWEEN v_desde AND v_hasta
+    GROUP BY id_empleado, YEAR(fecha), MONTH(fecha);
+END //
+DELIMITER ;
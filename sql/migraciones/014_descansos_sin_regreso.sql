@@ -0,0 +1,51 @@
+-- Actualización para bases de datos existentes: recalcular_resumen_diario cuenta los descansos con
+-- el mismo criterio que CalculadoraJornada. Un descanso sin regreso contaba 0 minutos, así que el
+-- tiempo trabajado salía de más, y uno con el regreso antes del inicio restaba minutos negativos.
+-- Ahora un descanso sin regreso dura hasta la salida y ninguno cuenta menos de 0.
+-- Al final se reconstruyen los resúmenes existentes.
+USE gocheck_bd;
+
+DROP PROCEDURE IF EXISTS recalcular_resumen_diario;
+
+DELIMITER //
+CREATE PROCEDURE recalcular_resumen_diario(IN p_id_empleado INT, IN p_desde DATE, IN p_hasta DATE)
+BEGIN
+    DELETE FROM resumen_diario
+    WHERE (p_id_empleado IS NULL OR id_empleado = p_id_empleado)
+      AND fecha BETWEEN p_desde AND p_hasta;
+
+    INSERT INTO resumen_diario (id_empleado, fecha, estado, minutos_trabajados, minutos_descanso,
+                                minutos_exceso_descanso, minutos_retardo)
+    SELECT x.id_empleado, x.fecha, x.estado,
+           IF(x.hora_entrada IS NOT NULL AND x.hora_salida IS NOT NULL,
+              GREATEST(0, TIMESTAMPDIFF(MINUTE, x.hora_entrada, x.hora_salida) - x.desayuno - x.comida), 0),
+           x.desayuno + x.comida,
+           GREATEST(0, x.desayuno - x.duracion_desayuno) + GREATEST(0, x.comida - x.duracion_comida),
+           IF(x.estado = 'RETARDO' AND x.retardo < x.fin_retardo, x.retardo, 0)
+    FROM (
+        SELECT a.id_empleado, a.fecha, a.estado, a.hora_entrada, a.hora_salida,
+               -- Igual que CalculadoraJornada: un descanso sin regreso dura hasta la salida y nunca es negativo
+               GREATEST(0, IFNULL(TIMESTAMPDIFF(MINUTE, a.inicio_descanso_1, IFNULL(a.fin_descanso_1, a.hora_salida)), 0))
+                   AS desayuno,
+               GREATEST(0, IFNULL(TIMESTAMPDIFF(MINUTE, a.inicio_descanso_2, IFNULL(a.fin_descanso_2, a.hora_salida)), 0))
+                   AS comida,
+               t.duracion_desayuno, t.duracion_comida,
+               -- Minutos desde la hora de entrada del turno, dando la vuelta al día (turnos nocturnos)
+               MOD(TIME_TO_SEC(TIME(a.hora_entrada)) DIV 60 - t.entrada + 1440, 1440) AS retardo,
+               -- Igual que ReglasTurno.minutosRetardo: una llegada en la parte del ciclo del turno
+               -- anterior a la entrada (a partir de la mitad del tiempo libre) no es retardo
+               1440 - MOD(t.entrada - (t.salida + MOD(t.entrada - t.salida + 1440, 1440) DIV 2) + 2880, 1440)
+                   AS fin_retardo
+        FROM asistencias a
+        JOIN empleados e ON a.id_empleado = e.id_empleado
+        JOIN (SELECT id_turno, duracion_desayuno, duracion_comida,
+                     TIME_TO_SEC(hora_entrada) DIV 60 AS entrada, TIME_TO_SEC(hora_salida) DIV 60 AS salida
+              FROM turnos) t ON e.id_turno = t.id_turno
+        WHERE (p_id_empleado IS NULL OR a.id_empleado = p_id_empleado)
+          AND a.fecha BETWEEN p_desde AND p_hasta
+    ) x;
+END //
+DELIMITER ;
+
+SET @primera_fecha = (SELECT IFNULL(MIN(fecha), CURDATE()) FROM asistencias);
+CALL reconstruir_resumenes(@primera_fecha, CURDATE());
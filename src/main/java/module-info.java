@@ -3,6 +3,8 @@ module org.example.gocheckfx {
     requires javafx.fxml;
     requires javafx.web;
     requires java.sql;
+    requires java.management;  // Métricas de escaneo expuestas por JMX
+    requires com.zaxxer.hikari;  // Pool de conexiones a la base de datos
 
     requires org.controlsfx.controls;  // Para controles adicionales en la interfaz
     requires org.kordamp.ikonli.javafx; // Para iconos
@@ -12,6 +14,8 @@ module org.example.gocheckfx {
     requires com.google.zxing.javase;  // Para usar la funcionalidad de ZXing en Java SE
     requires webcam.capture;  // Para interactuar con la cámara web
     requires org.json;
+    requires org.apache.poi.poi;  // Exportación de reportes a Excel
+    requires org.apache.poi.ooxml;
     requires javafx.swing;
     requires jbcrypt;  // Para manejar JSON
 
@@ -5,8 +5,13 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.example.gocheckfx.config.DatabaseConfig;
+import org.example.gocheckfx.dao.AvisosCalendario;
+import org.example.gocheckfx.dao.CacheEmpleados;
 import org.example.gocheckfx.dao.UsuarioDAO;
 import org.example.gocheckfx.controllers.EmployeeScanController;
+import org.example.gocheckfx.utils.BarridoFaltas;
+import org.example.gocheckfx.utils.MaterializadorCalendario;
 
 /**
  * GoCheck - Sistema de Control de Asistencia
@@ -17,6 +22,7 @@ public class App extends Application {
     // Variable para mantener una referencia a la ventana principal
     private static Stage primaryStage;
     private static EmployeeScanController mainController;
+    private final BarridoFaltas barridoFaltas = new BarridoFaltas();
 
     @Override
     public void start(Stage primaryStage) throws Exception {
@@ -30,6 +36,16 @@ public class App extends Application {
             System.out.println("Contraseña: admin123");
         }
 
+        // Cargar en memoria el índice de empleados para el escaneo
+        CacheEmpleados.getInstance().cargar();
+
+        // Mantener el calendario laboral con los cambios de los DAO y avanzarlo cada noche
+        AvisosCalendario.setOyente(MaterializadorCalendario.getInstance());
+        MaterializadorCalendario.getInstance().programar(MaterializadorCalendario.HORA_PREDETERMINADA);
+
+        // Registrar cada noche las faltas del día anterior
+        barridoFaltas.programar(BarridoFaltas.HORA_PREDETERMINADA);
+
         // Cargar la vista de escaneo para empleados (pantalla principal)
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/org/example/gocheckfx/employee_scan.fxml"));
         Parent root = loader.load();
@@ -56,6 +72,16 @@ public class App extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        barridoFaltas.detener();
+        AvisosCalendario.setOyente(null);
+        MaterializadorCalendario.getInstance().detener();
+
+        // Cerrar el pool de conexiones al salir de la aplicación
+        DatabaseConfig.getInstance().closeConnection();
+    }
+
     /**
      * Método principal para iniciar la aplicación
      */
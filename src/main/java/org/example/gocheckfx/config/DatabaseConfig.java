@@ -1,11 +1,16 @@
 package org.example.gocheckfx.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
  * Clase que maneja la configuración y conexión a la base de datos MySQL.
+ * Las conexiones se obtienen de un pool; al cerrarlas (try-with-resources en los DAO)
+ * regresan al pool en lugar de cerrar el socket con MySQL.
  */
 public class DatabaseConfig {
     // Configuración para la conexión a la base de datos
@@ -13,17 +18,48 @@ public class DatabaseConfig {
     private static final String DB_USER = "root";
     private static final String DB_PASSWORD = "Cacahuate$12"; // Configura tu contraseña aquí
 
-    // Patrón Singleton para la conexión a la BD
-    private static DatabaseConfig instance;
-    private Connection connection;
+    // Configuración del pool de conexiones
+    private static final int POOL_MINIMO_INACTIVAS = 2;
+    private static final int POOL_MAXIMO = 10;
+    private static final long TIEMPO_ESPERA_CONEXION_MS = 5_000;   // Espera máxima al pedir una conexión
+    private static final long TIEMPO_VALIDACION_MS = 2_000;        // Validación al prestar la conexión
+    private static final long TIEMPO_INACTIVIDAD_MS = 300_000;     // Cerrar conexiones inactivas tras 5 min
+    private static final long TIEMPO_VIDA_MAXIMO_MS = 1_800_000;   // Reciclar conexiones cada 30 min
+    private static final long UMBRAL_FUGA_MS = 20_000;             // Avisar si una conexión no se devuelve
+
+    // Patrón Singleton para el pool de conexiones
+    private static volatile DatabaseConfig instance;
+    private final HikariDataSource dataSource;
 
     private DatabaseConfig() {
-        try {
-            // Cargar el driver de MySQL
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            System.err.println("Error al cargar el driver de MySQL: " + e.getMessage());
-        }
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("GoCheckPool");
+        config.setDriverClassName("com.mysql.cj.jdbc.Driver");
+        config.setJdbcUrl(DB_URL);
+        config.setUsername(DB_USER);
+        config.setPassword(DB_PASSWORD);
+
+        config.setMinimumIdle(POOL_MINIMO_INACTIVAS);
+        config.setMaximumPoolSize(POOL_MAXIMO);
+        config.setConnectionTimeout(TIEMPO_ESPERA_CONEXION_MS);
+        config.setValidationTimeout(TIEMPO_VALIDACION_MS);
+        config.setIdleTimeout(TIEMPO_INACTIVIDAD_MS);
+        config.setMaxLifetime(TIEMPO_VIDA_MAXIMO_MS);
+        config.setLeakDetectionThreshold(UMBRAL_FUGA_MS);
+
+        // No fallar al arrancar si MySQL aún no está disponible
+        config.setInitializationFailTimeout(-1);
+
+        // Caché de sentencias preparadas del driver de MySQL
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        config.addDataSourceProperty("useServerPrepStmts", "true");
+
+        // Enviar los lotes de JDBC (addBatch) en menos viajes al servidor
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+
+        dataSource = new HikariDataSource(config);
     }
 
     /**
@@ -31,31 +67,35 @@ public class DatabaseConfig {
      */
     public static DatabaseConfig getInstance() {
         if (instance == null) {
-            instance = new DatabaseConfig();
+            synchronized (DatabaseConfig.class) {
+                if (instance == null) {
+                    instance = new DatabaseConfig();
+                }
+            }
         }
         return instance;
     }
 
     /**
-     * Obtener una conexión a la base de datos
+     * Obtener el DataSource con pool de conexiones
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Obtener una conexión del pool. Debe cerrarse al terminar para devolverla al pool.
      */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-        }
-        return connection;
+        return dataSource.getConnection();
     }
 
     /**
-     * Cerrar la conexión a la base de datos
+     * Cerrar el pool y todas sus conexiones a la base de datos
      */
     public void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-            } catch (SQLException e) {
-                System.err.println("Error al cerrar la conexión: " + e.getMessage());
-            }
+        if (!dataSource.isClosed()) {
+            dataSource.close();
         }
     }
 }
@@ -2,24 +2,41 @@ package org.example.gocheckfx.controllers;
 
 import org.example.gocheckfx.App;
 import org.example.gocheckfx.dao.AsistenciaDAO;
+import org.example.gocheckfx.dao.IndicadoresAsistenciaDAO;
 import org.example.gocheckfx.models.Asistencia;
+import org.example.gocheckfx.models.CambiosAsistencias;
+import org.example.gocheckfx.models.IndicadoresAsistencia;
 import org.example.gocheckfx.models.Usuario;
 import org.example.gocheckfx.utils.AlertUtils;
 
+import eu.hansolo.tilesfx.Tile;
+import eu.hansolo.tilesfx.TileBuilder;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.FlowPane;
+import javafx.scene.paint.Color;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.stage.WindowEvent;
 
 import java.net.URL;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controlador para el panel de administración principal.
@@ -42,6 +59,10 @@ public class DashboardController implements Initializable {
     @FXML private TableColumn<Asistencia, String> rtBreak2Col;
     @FXML private Button refreshRealTimeButton;
 
+    // Tab de resumen
+    @FXML private FlowPane kpiPane;
+    @FXML private Label kpiUpdatedLabel;
+
     // Botones de navegación
     @FXML private Button employeesButton;
     @FXML private Button shiftsButton;
@@ -53,8 +74,36 @@ public class DashboardController implements Initializable {
     @FXML private Button permisosButton;
     @FXML private Button usuariosButton;
 
+    private static final int INTERVALO_ACTUALIZACION_SEGUNDOS = 5;
+    private static final int INTERVALO_INDICADORES_SEGUNDOS = 15;
+    private static final int BLOQUES_MINIMOS_GRAFICA = 8;
+
     private AsistenciaDAO asistenciaDAO;
+    private IndicadoresAsistenciaDAO indicadoresDAO;
     private DateTimeFormatter timeFormatter;
+    private final DateTimeFormatter horaBloqueFormatter = DateTimeFormatter.ofPattern("HH:mm");
+
+    // Asistencias del día que muestra la tabla y la fila de cada empleado (hilo de JavaFX)
+    private final ObservableList<Asistencia> asistenciasDia = FXCollections.observableArrayList();
+    private final Map<Integer, Integer> filaPorEmpleado = new HashMap<>();
+
+    // Día mostrado y marca del último cambio aplicado; se leen desde el hilo de actualización
+    private volatile LocalDate fechaVista;
+    private volatile long marcaVista;
+    private volatile int cargaVista;    // Cambia con cada carga completa
+
+    private ScheduledExecutorService actualizador;
+
+    // Indicadores del resumen y último cambio con que se consultaron (hilo de actualización)
+    private Tile presentesTile;
+    private Tile retardosTile;
+    private Tile enDescansoTile;
+    private Tile faltasTile;
+    private Tile justificadosTile;
+    private Tile llegadasTile;
+    private final XYChart.Series<String, Number> serieLlegadas = new XYChart.Series<>();
+    private long cambioIndicadores = -1;
+    private LocalDate fechaIndicadores;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -68,6 +117,7 @@ public class DashboardController implements Initializable {
 
         // Inicializar DAOs
         asistenciaDAO = new AsistenciaDAO();
+        indicadoresDAO = new IndicadoresAsistenciaDAO();
 
         // Configurar formateadores
         timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
@@ -77,14 +127,17 @@ public class DashboardController implements Initializable {
         welcomeLabel.setText("Bienvenido, " + usuario.getNombreEmpleado());
         dateLabel.setText("Fecha: " + LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
 
-        // Configurar tabla de asistencias en tiempo real
+        // Configurar tabla de asistencias en tiempo real e indicadores
         configurarTablaRealTime();
+        configurarIndicadores();
 
-        // Cargar datos iniciales
+        // Cargar datos iniciales y después solo los cambios
+        realTimeTable.setItems(asistenciasDia);
+        iniciarActualizacion();
         cargarAsistenciasDelDia();
 
         // Configurar eventos de botones
-        refreshRealTimeButton.setOnAction(e -> cargarAsistenciasHoy());
+        refreshRealTimeButton.setOnAction(e -> cargarAsistenciasDelDia());
 
         employeesButton.setOnAction(e ->
                 App.openWindow("/org/example/gocheckfx/employee_management.fxml", "GoCheck - Gestión de Empleados"));
@@ -196,12 +249,41 @@ public class DashboardController implements Initializable {
     }
 
     /**
-     * Carga las asistencias del día actual
+     * Crea los indicadores del resumen del día
      */
-    private void cargarAsistenciasHoy() {
-        List<Asistencia> asistencias = asistenciaDAO.obtenerAsistenciasConDatosEmpleado(LocalDate.now());
-        ObservableList<Asistencia> data = FXCollections.observableArrayList(asistencias);
-        realTimeTable.setItems(data);
+    @SuppressWarnings("unchecked") // TileBuilder.create() devuelve el tipo crudo
+    private void configurarIndicadores() {
+        presentesTile = crearIndicador("Presentes", "A tiempo", Tile.GREEN);
+        retardosTile = crearIndicador("Retardos", "Entraron tarde", Tile.ORANGE);
+        enDescansoTile = crearIndicador("En descanso", "Desayuno o comida", Tile.BLUE);
+        faltasTile = crearIndicador("Faltas", "Sin entrada", Tile.RED);
+        justificadosTile = crearIndicador("Justificados", "Faltas o retardos", Tile.GRAY);
+
+        serieLlegadas.setName("Llegadas");
+        llegadasTile = TileBuilder.create()
+                .skinType(Tile.SkinType.SMOOTHED_CHART)
+                .prefSize(310, 150)
+                .title("Llegadas cada " + IndicadoresAsistencia.MINUTOS_BLOQUE + " minutos")
+                .series(serieLlegadas)
+                .smoothing(true)
+                .animated(false)
+                .build();
+
+        kpiPane.getChildren().setAll(presentesTile, retardosTile, enDescansoTile, faltasTile,
+                justificadosTile, llegadasTile);
+    }
+
+    private Tile crearIndicador(String titulo, String descripcion, Color color) {
+        return TileBuilder.create()
+                .skinType(Tile.SkinType.NUMBER)
+                .prefSize(150, 150)
+                .title(titulo)
+                .text(descripcion)
+                .value(0)
+                .decimals(0)
+                .backgroundColor(color)
+                .animated(false)
+                .build();
     }
 
     /**
@@ -250,8 +332,11 @@ public class DashboardController implements Initializable {
                 AlertUtils.mostrarInfo("Justificación Registrada",
                         "Se ha justificado la asistencia correctamente.");
 
-                // Recargar datos
-                cargarAsistenciasHoy();
+                // La tabla recibe el cambio en la siguiente actualización; se pide de una vez
+                // en el hilo de actualización, que es el único que consulta y toca los indicadores
+                if (actualizador != null) {
+                    actualizador.execute(this::actualizarCambios);
+                }
             } else {
                 AlertUtils.mostrarError("Error al Justificar",
                         "No se pudo registrar la justificación. Intente nuevamente.");
@@ -263,29 +348,175 @@ public class DashboardController implements Initializable {
      * Cierra la ventana actual
      */
     private void cerrarVentana() {
+        detenerActualizacion();
         Stage stage = (Stage) mainTabPane.getScene().getWindow();
         stage.close();
     }
 
+    /**
+     * Carga todas las asistencias del día (incluye a los empleados sin registro como falta)
+     * y toma la marca desde la que se piden las actualizaciones
+     */
     private void cargarAsistenciasDelDia() {
         LocalDate fechaActual = LocalDate.now();
 
+        // La marca se toma antes de consultar: lo que cambie durante la carga llega en la siguiente actualización
+        long marca = asistenciaDAO.obtenerMarcaCambios();
+
         // Usar el nuevo método que trae todos los empleados
         List<Asistencia> asistencias = asistenciaDAO.obtenerAsistenciasConTodosEmpleados(fechaActual);
 
         // Actualizar la tabla
-        ObservableList<Asistencia> data = FXCollections.observableArrayList(asistencias);
-        realTimeTable.setItems(data);
-
-        // Actualizar etiqueta con información
-        int totalEmpleados = asistencias.size();
-        int presentes = (int) asistencias.stream()
-                .filter(a -> a.getHoraEntrada() != null)
-                .count();
-        int faltas = totalEmpleados - presentes;
-
-        dateLabel.setText("Fecha: " + fechaActual.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) +
-                " - Empleados: " + totalEmpleados + " | Presentes: " + presentes +
-                " | Faltas: " + faltas);
+        asistenciasDia.setAll(asistencias);
+        filaPorEmpleado.clear();
+        for (int fila = 0; fila < asistencias.size(); fila++) {
+            filaPorEmpleado.put(asistencias.get(fila).getIdEmpleado(), fila);
+        }
+
+        fechaVista = fechaActual;
+        marcaVista = Math.max(marca, 0);
+        cargaVista++;
+
+        if (actualizador != null) {
+            actualizador.execute(() -> actualizarIndicadores(true));
+        }
+    }
+
+    /**
+     * Pide periódicamente, en segundo plano, solo las asistencias que cambiaron
+     */
+    private void iniciarActualizacion() {
+        actualizador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread hilo = new Thread(runnable, "panel-actualizacion");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        actualizador.scheduleWithFixedDelay(this::actualizarCambios,
+                INTERVALO_ACTUALIZACION_SEGUNDOS, INTERVALO_ACTUALIZACION_SEGUNDOS, TimeUnit.SECONDS);
+        actualizador.scheduleWithFixedDelay(() -> actualizarIndicadores(false),
+                INTERVALO_INDICADORES_SEGUNDOS, INTERVALO_INDICADORES_SEGUNDOS, TimeUnit.SECONDS);
+
+        // Dejar de actualizar cuando se cierre la ventana
+        realTimeTable.sceneProperty().addListener((obs, anterior, escena) -> {
+            if (escena == null) return;
+            escena.windowProperty().addListener((o, anteriorVentana, ventana) -> {
+                if (ventana != null) {
+                    ventana.addEventHandler(WindowEvent.WINDOW_HIDDEN, e -> detenerActualizacion());
+                }
+            });
+        });
+    }
+
+    private void detenerActualizacion() {
+        if (actualizador != null) {
+            actualizador.shutdownNow();
+        }
+    }
+
+    /**
+     * Consulta los cambios desde la última marca aplicada y los aplica en el hilo de JavaFX.
+     * Al cambiar de día se hace una carga completa.
+     */
+    private void actualizarCambios() {
+        int carga = cargaVista;
+        if (!LocalDate.now().equals(fechaVista)) {
+            Platform.runLater(this::cargarAsistenciasDelDia);
+            return;
+        }
+
+        CambiosAsistencias cambios = asistenciaDAO.obtenerCambiosAsistencias(fechaVista, marcaVista);
+        if (cambios == null || cambios.getAsistencias().isEmpty()) {
+            return;
+        }
+
+        // Con cambios los indicadores se actualizan de una vez; un cambio confirmado tarde puede
+        // tener una hora anterior al último cambio del día, así que no basta compararlo
+        actualizarIndicadores(true);
+
+        Platform.runLater(() -> {
+            // Una carga completa posterior ya trae estos cambios
+            if (carga != cargaVista) {
+                return;
+            }
+            aplicarCambios(cambios);
+        });
+    }
+
+    /**
+     * Reemplaza en su lugar las filas de los empleados que cambiaron; la tabla solo redibuja esas filas.
+     * Un registro que se vuelve a recibir por el solape de la consulta solo reemplaza su fila otra vez.
+     */
+    private void aplicarCambios(CambiosAsistencias cambios) {
+        for (Asistencia asistencia : cambios.getAsistencias()) {
+            Integer fila = filaPorEmpleado.get(asistencia.getIdEmpleado());
+            if (fila != null) {
+                asistenciasDia.set(fila, asistencia);
+            } else {
+                filaPorEmpleado.put(asistencia.getIdEmpleado(), asistenciasDia.size());
+                asistenciasDia.add(asistencia);
+            }
+        }
+
+        marcaVista = Math.max(marcaVista, cambios.getMarca());
+    }
+
+    /**
+     * Consulta los indicadores del día (hilo de actualización). Si no hubo cambios en asistencias
+     * desde la última consulta se conservan los que ya se muestran.
+     * @param forzar true para consultarlos aunque no haya cambios
+     */
+    private void actualizarIndicadores(boolean forzar) {
+        LocalDate fecha = LocalDate.now();
+        long ultimoCambio = asistenciaDAO.obtenerUltimoCambio(fecha);
+        if (!forzar && ultimoCambio >= 0 && ultimoCambio == cambioIndicadores && fecha.equals(fechaIndicadores)) {
+            return;
+        }
+
+        IndicadoresAsistencia indicadores = indicadoresDAO.obtenerIndicadoresDia(fecha);
+        if (indicadores == null) {
+            return;
+        }
+
+        cambioIndicadores = ultimoCambio;
+        fechaIndicadores = fecha;
+        Platform.runLater(() -> mostrarIndicadores(indicadores));
+    }
+
+    /**
+     * Actualiza los indicadores y la etiqueta con el total de empleados, presentes y faltas (hilo de JavaFX)
+     */
+    private void mostrarIndicadores(IndicadoresAsistencia indicadores) {
+        presentesTile.setValue(indicadores.getPresentes());
+        retardosTile.setValue(indicadores.getRetardos());
+        enDescansoTile.setValue(indicadores.getEnDescanso());
+        faltasTile.setValue(indicadores.getFaltas());
+        justificadosTile.setValue(indicadores.getJustificados());
+
+        // La gráfica abarca de la primera a la última llegada del día
+        int primero = -1;
+        int ultimo = -1;
+        for (int bloque = 0; bloque < IndicadoresAsistencia.BLOQUES_DIA; bloque++) {
+            if (indicadores.getLlegadas(bloque) > 0) {
+                if (primero < 0) primero = bloque;
+                ultimo = bloque;
+            }
+        }
+
+        List<XYChart.Data<String, Number>> puntos = new ArrayList<>();
+        if (primero >= 0) {
+            ultimo = Math.min(Math.max(ultimo, primero + BLOQUES_MINIMOS_GRAFICA - 1),
+                    IndicadoresAsistencia.BLOQUES_DIA - 1);
+            for (int bloque = primero; bloque <= ultimo; bloque++) {
+                puntos.add(new XYChart.Data<>(IndicadoresAsistencia.inicioBloque(bloque).format(horaBloqueFormatter),
+                        indicadores.getLlegadas(bloque)));
+            }
+        }
+        serieLlegadas.getData().setAll(puntos);
+
+        int conEntrada = indicadores.getPresentes() + indicadores.getRetardos();
+        dateLabel.setText("Fecha: " + indicadores.getFecha().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) +
+                " - Empleados: " + indicadores.getEmpleados() + " | Presentes: " + conEntrada +
+                " | Faltas: " + indicadores.getFaltas());
+        kpiUpdatedLabel.setText("Actualizado a las " + LocalTime.now().format(timeFormatter));
     }
 }
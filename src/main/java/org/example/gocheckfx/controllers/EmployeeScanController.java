@@ -3,10 +3,17 @@ package org.example.gocheckfx.controllers;
 import javafx.scene.image.ImageView;
 import org.example.gocheckfx.App;
 import org.example.gocheckfx.dao.AsistenciaDAO;
-import org.example.gocheckfx.dao.EmpleadoDAO;
+import org.example.gocheckfx.dao.CacheEmpleados;
+import org.example.gocheckfx.dao.TurnoDAO;
 import org.example.gocheckfx.models.Asistencia;
 import org.example.gocheckfx.models.Empleado;
+import org.example.gocheckfx.models.ResultadoChecada;
+import org.example.gocheckfx.models.Turno;
 import org.example.gocheckfx.utils.AlertUtils;
+import org.example.gocheckfx.utils.MetricasEscaneo;
+import org.example.gocheckfx.utils.MotorReglasTurno;
+import org.example.gocheckfx.utils.NotificacionesKiosco;
+import org.example.gocheckfx.utils.ProcesadorEscaneos;
 import org.example.gocheckfx.utils.QRCodeScanner;
 
 import javafx.animation.FadeTransition;
@@ -46,17 +53,27 @@ public class EmployeeScanController implements Initializable {
     @FXML private Label nextActionLabel;
     @FXML private Label timeLabel;
     @FXML private Label statusLabel; // Nuevo: estado del escáner
+    @FXML private VBox notificationBox; // Confirmaciones que se cierran solas
 
     private QRCodeScanner qrScanner;
-    private EmpleadoDAO empleadoDAO;
     private AsistenciaDAO asistenciaDAO;
+    private TurnoDAO turnoDAO;
+    private ProcesadorEscaneos<ResultadoChecada> procesadorEscaneos;
+    private NotificacionesKiosco notificaciones;
     private DateTimeFormatter timeFormatter;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         // Inicializar DAOs
-        empleadoDAO = new EmpleadoDAO();
         asistenciaDAO = new AsistenciaDAO();
+        turnoDAO = new TurnoDAO();
+
+        // Las checadas se registran fuera del hilo de JavaFX para no congelar la cámara ni el reloj
+        procesadorEscaneos = new ProcesadorEscaneos<>(this::registrarChecada,
+                this::mostrarEscaneo, this::mostrarEscaneoRechazado, this::mostrarErrorEscaneo);
+
+        // Confirmaciones en pantalla, sin diálogos que haya que cerrar
+        notificaciones = new NotificacionesKiosco(notificationBox);
 
         // Configurar el formato de hora
         timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
@@ -115,27 +132,78 @@ public class EmployeeScanController implements Initializable {
     }
 
     /**
-     * Procesa un código escaneado o ingresado manualmente
+     * Procesa un código escaneado o ingresado manualmente.
+     * Puede llamarse desde cualquier hilo; el registro se hace fuera del hilo de JavaFX.
      * @param codigo El código del empleado
      */
     private void procesarCodigoEscaneado(String codigo) {
-        // Buscar el empleado por su código
-        Empleado empleado = empleadoDAO.buscarPorCodigo(codigo);
+        procesadorEscaneos.enviar(codigo);
+    }
 
+    /**
+     * Busca al empleado y registra su checada. Se ejecuta en el procesador de escaneos,
+     * nunca en el hilo de JavaFX.
+     * @param codigo El código del empleado
+     * @return Resultado de la checada, o null si ocurrió un error al registrar
+     */
+    private ResultadoChecada registrarChecada(String codigo) {
+        MetricasEscaneo metricas = MetricasEscaneo.getInstance();
+
+        // Buscar el empleado por su código en el índice en memoria
+        long inicioBusqueda = System.nanoTime();
+        Empleado empleado = CacheEmpleados.getInstance().buscarPorCodigo(codigo);
+        metricas.registrarDesde(MetricasEscaneo.Etapa.BUSQUEDA_EMPLEADO, inicioBusqueda);
         if (empleado == null) {
+            return new ResultadoChecada(ResultadoChecada.NO_ENCONTRADO, null, null);
+        }
+
+        // Evaluar las reglas del turno para el momento de la checada
+        Turno turno = empleado.getTurno() != null ? empleado.getTurno() : turnoDAO.buscarPorId(empleado.getIdTurno());
+        if (turno == null) {
+            System.err.println("Error al registrar checada: el empleado " + codigo + " no tiene turno");
+            return null;
+        }
+        LocalDateTime momento = LocalDateTime.now();
+        MotorReglasTurno motorReglas = MotorReglasTurno.getInstance();
+        String decisiones = motorReglas.codificarDecisiones(turno, momento);
+        String estadoEntrada = motorReglas.estadoEntrada(turno, momento.toLocalTime());
+        LocalDate fecha = motorReglas.fechaJornada(turno, momento);
+
+        // Registrar la checada: avanza el registro de la jornada en un solo viaje a la BD
+        long inicioRegistro = System.nanoTime();
+        ResultadoChecada resultado = asistenciaDAO.registrarChecada(empleado, momento, fecha, decisiones, estadoEntrada);
+        metricas.registrarDesde(MetricasEscaneo.Etapa.REGISTRO_BD, inicioRegistro);
+        return resultado;
+    }
+
+    /**
+     * Muestra en la interfaz el resultado de una checada. Se ejecuta en el hilo de JavaFX.
+     * @param resultado Resultado de la checada, o null si ocurrió un error al registrar
+     */
+    private void mostrarEscaneo(ResultadoChecada resultado) {
+        if (resultado == null) {
+            notificaciones.mostrar("error", NotificacionesKiosco.Tipo.ERROR, "Error al Registrar",
+                    "No se pudo registrar la acción. Contacte al administrador.");
+            statusLabel.setText("Error al registrar. Intente de nuevo.");
+            return;
+        }
+
+        if (!resultado.isEmpleadoEncontrado()) {
             // Empleado no encontrado
-            AlertUtils.mostrarError("Empleado no encontrado",
+            notificaciones.mostrar("no-encontrado", NotificacionesKiosco.Tipo.ERROR, "Empleado no encontrado",
                     "El código escaneado no corresponde a ningún empleado registrado.");
             employeeInfoBox.setVisible(false);
             statusLabel.setText("Código inválido. Intente de nuevo.");
             return;
         }
 
+        Empleado empleado = resultado.getEmpleado();
+
         // Mostrar información del empleado
         mostrarInformacionEmpleado(empleado);
 
-        // Registrar la asistencia
-        registrarAsistencia(empleado);
+        // Mostrar la acción registrada
+        mostrarResultadoChecada(resultado);
 
         // Limpiar el campo después de procesar
         codeField.setText("");
@@ -144,6 +212,27 @@ public class EmployeeScanController implements Initializable {
         statusLabel.setText("Registro exitoso para " + empleado.getNombreCompleto());
     }
 
+    /**
+     * Avisa que un código no pudo procesarse porque hay demasiados escaneos pendientes
+     * @param codigo El código descartado
+     */
+    private void mostrarEscaneoRechazado(String codigo) {
+        statusLabel.setText("Sistema ocupado, vuelva a escanear el código " + codigo);
+        notificaciones.mostrar(codigo, NotificacionesKiosco.Tipo.ADVERTENCIA, "Sistema ocupado",
+                "Vuelva a escanear su código.");
+    }
+
+    /**
+     * Avisa que un código no pudo registrarse por un error (por ejemplo, de base de datos)
+     * @param codigo El código que se intentó registrar
+     * @param error Excepción que ocurrió al procesarlo
+     */
+    private void mostrarErrorEscaneo(String codigo, Exception error) {
+        statusLabel.setText("Error al registrar. Intente de nuevo.");
+        notificaciones.mostrar("error", NotificacionesKiosco.Tipo.ERROR, "Error al Registrar",
+                "No se pudo registrar la acción. Contacte al administrador.");
+    }
+
     /**
      * Muestra la información del empleado en la interfaz
      * @param empleado El empleado a mostrar
@@ -158,90 +247,83 @@ public class EmployeeScanController implements Initializable {
     }
 
     /**
-     * Registra la asistencia del empleado
-     * @param empleado El empleado que registra asistencia
+     * Muestra la acción que se registró con la checada del empleado
+     * @param resultado Resultado devuelto por el registro de la checada
      */
-    private void registrarAsistencia(Empleado empleado) {
-        // Obtener la fecha actual
-        LocalDate fechaHoy = LocalDate.now();
-        LocalDateTime ahora = LocalDateTime.now();
+    private void mostrarResultadoChecada(ResultadoChecada resultado) {
+        String accion = resultado.getAccion();
 
-        // Buscar si ya existe una asistencia para este empleado en esta fecha
-        Asistencia asistencia = asistenciaDAO.buscarAsistencia(empleado.getIdEmpleado(), fechaHoy);
-
-        // Si no existe, crear una nueva
-        if (asistencia == null) {
-            asistencia = new Asistencia(empleado.getIdEmpleado(), fechaHoy);
-            asistencia.setHoraEntrada(ahora);
-            asistencia.setEstado("PRESENTE");
-
-            if (asistenciaDAO.registrarAsistencia(asistencia)) {
-                lastActionLabel.setText("Última acción: Entrada registrada a las " +
-                        ahora.format(timeFormatter));
-                nextActionLabel.setText("Próxima acción: Inicio de descanso");
-                AlertUtils.mostrarInfo("Entrada Registrada",
-                        "Se ha registrado su entrada correctamente.");
-            } else {
-                AlertUtils.mostrarError("Error al Registrar",
-                        "No se pudo registrar la entrada. Contacte al administrador.");
-            }
-        } else {
-            // Determinar la siguiente acción según el estado actual
-            String siguienteAccion = asistencia.determinarSiguienteAccion();
-
-            if (siguienteAccion.equals("COMPLETO")) {
-                AlertUtils.mostrarInfo("Registro Completo",
-                        "Ya ha completado su jornada de hoy.");
-                lastActionLabel.setText("Última acción: Jornada completa");
-                nextActionLabel.setText("Próxima acción: Ninguna");
-                return;
-            }
+        Empleado empleado = resultado.getEmpleado();
 
-            // Registrar la acción correspondiente
-            if (asistenciaDAO.registrarAccion(asistencia.getIdAsistencia(), siguienteAccion, ahora)) {
-                String mensajeAccion;
-                String proximaAccion;
-
-                switch (siguienteAccion) {
-                    case "ENTRADA":
-                        mensajeAccion = "Entrada registrada";
-                        proximaAccion = "Inicio de descanso";
-                        break;
-                    case "INICIO_DESCANSO1":
-                        mensajeAccion = "Inicio de descanso registrado";
-                        proximaAccion = "Fin de descanso";
-                        break;
-                    case "FIN_DESCANSO1":
-                        mensajeAccion = "Fin de descanso registrado";
-                        proximaAccion = "Inicio de segundo descanso";
-                        break;
-                    case "INICIO_DESCANSO2":
-                        mensajeAccion = "Inicio de segundo descanso registrado";
-                        proximaAccion = "Fin de segundo descanso";
-                        break;
-                    case "FIN_DESCANSO2":
-                        mensajeAccion = "Fin de segundo descanso registrado";
-                        proximaAccion = "Salida";
-                        break;
-                    case "SALIDA":
-                        mensajeAccion = "Salida registrada";
-                        proximaAccion = "Ninguna";
-                        break;
-                    default:
-                        mensajeAccion = "Acción registrada";
-                        proximaAccion = "Siguiente acción";
-                }
+        if (accion.equals(ResultadoChecada.NO_APLICABLE)) {
+            notificaciones.mostrar(empleado.getCodigoUnico(), NotificacionesKiosco.Tipo.ADVERTENCIA,
+                    empleado.getNombreCompleto(), "No es posible registrar en este momento. Fuera de horario.");
+            lastActionLabel.setText("Última acción: Fuera de horario");
+            nextActionLabel.setText("Próxima acción: Según su horario");
+            return;
+        }
 
-                lastActionLabel.setText("Última acción: " + mensajeAccion + " a las " +
-                        ahora.format(timeFormatter));
-                nextActionLabel.setText("Próxima acción: " + proximaAccion);
+        if (accion.equals(ResultadoChecada.COMPLETO)) {
+            notificaciones.mostrar(empleado.getCodigoUnico(), NotificacionesKiosco.Tipo.INFO,
+                    empleado.getNombreCompleto(), "Ya ha completado su jornada de hoy.");
+            lastActionLabel.setText("Última acción: Jornada completa");
+            nextActionLabel.setText("Próxima acción: Ninguna");
+            return;
+        }
 
-                AlertUtils.mostrarInfo("Acción Registrada", mensajeAccion + " correctamente.");
-            } else {
-                AlertUtils.mostrarError("Error al Registrar",
-                        "No se pudo registrar la acción. Contacte al administrador.");
-            }
+        String mensajeAccion;
+        String proximaAccion;
+        LocalDateTime horaAccion;
+        Asistencia asistencia = resultado.getAsistencia();
+
+        switch (accion) {
+            case "ENTRADA":
+                mensajeAccion = "Entrada registrada";
+                proximaAccion = "Inicio de descanso";
+                horaAccion = asistencia.getHoraEntrada();
+                break;
+            case "INICIO_DESCANSO1":
+                mensajeAccion = "Inicio de descanso registrado";
+                proximaAccion = "Fin de descanso";
+                horaAccion = asistencia.getInicioDescanso1();
+                break;
+            case "FIN_DESCANSO1":
+                mensajeAccion = "Fin de descanso registrado";
+                proximaAccion = "Inicio de segundo descanso";
+                horaAccion = asistencia.getFinDescanso1();
+                break;
+            case "INICIO_DESCANSO2":
+                mensajeAccion = "Inicio de segundo descanso registrado";
+                proximaAccion = "Fin de segundo descanso";
+                horaAccion = asistencia.getInicioDescanso2();
+                break;
+            case "FIN_DESCANSO2":
+                mensajeAccion = "Fin de segundo descanso registrado";
+                proximaAccion = "Salida";
+                horaAccion = asistencia.getFinDescanso2();
+                break;
+            case "SALIDA":
+                mensajeAccion = "Salida registrada";
+                proximaAccion = "Ninguna";
+                horaAccion = asistencia.getHoraSalida();
+                break;
+            default:
+                mensajeAccion = "Acción registrada";
+                proximaAccion = "Siguiente acción";
+                horaAccion = null;
+        }
+
+        if (horaAccion == null) {
+            horaAccion = LocalDateTime.now();
         }
+
+        lastActionLabel.setText("Última acción: " + mensajeAccion + " a las " +
+                horaAccion.format(timeFormatter));
+        nextActionLabel.setText("Próxima acción: " + proximaAccion);
+
+        // Confirmación no modal: el siguiente empleado puede checar de inmediato
+        notificaciones.mostrar(empleado.getCodigoUnico(), NotificacionesKiosco.Tipo.EXITO,
+                empleado.getNombreCompleto(), mensajeAccion + " a las " + horaAccion.format(timeFormatter));
     }
 
     /**
@@ -287,5 +369,11 @@ public class EmployeeScanController implements Initializable {
         if (qrScanner != null) {
             qrScanner.dispose();
         }
+        if (procesadorEscaneos != null) {
+            procesadorEscaneos.detener();
+        }
+        if (notificaciones != null) {
+            notificaciones.cerrar();
+        }
     }
 }
\ No newline at end of file
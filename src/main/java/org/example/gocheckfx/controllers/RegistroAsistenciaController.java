@@ -5,12 +5,13 @@ import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import org.example.gocheckfx.dao.AsistenciaDAO;
-import org.example.gocheckfx.dao.EmpleadoDAO;
+import org.example.gocheckfx.dao.CacheEmpleados;
 import org.example.gocheckfx.dao.TurnoDAO;
 import org.example.gocheckfx.models.Asistencia;
 import org.example.gocheckfx.models.Empleado;
 import org.example.gocheckfx.models.Turno;
 import org.example.gocheckfx.utils.AlertUtils;
+import org.example.gocheckfx.utils.MotorReglasTurno;
 import org.example.gocheckfx.utils.TimeUtils;
 
 import java.net.URL;
@@ -33,7 +34,6 @@ public class RegistroAsistenciaController implements Initializable {
     @FXML private Label mensajeLabel;
     @FXML private Label horaLabel;
 
-    private EmpleadoDAO empleadoDAO;
     private AsistenciaDAO asistenciaDAO;
     private TurnoDAO turnoDAO;
     private DateTimeFormatter timeFormatter;
@@ -41,7 +41,6 @@ public class RegistroAsistenciaController implements Initializable {
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         // Inicializar DAOs
-        empleadoDAO = new EmpleadoDAO();
         asistenciaDAO = new AsistenciaDAO();
         turnoDAO = new TurnoDAO();
 
@@ -71,7 +70,7 @@ public class RegistroAsistenciaController implements Initializable {
         }
 
         // Buscar empleado por código
-        Empleado empleado = empleadoDAO.buscarPorCodigo(codigo);
+        Empleado empleado = CacheEmpleados.getInstance().buscarPorCodigo(codigo);
 
         if (empleado == null) {
             AlertUtils.mostrarError("Empleado no Encontrado",
@@ -91,23 +90,24 @@ public class RegistroAsistenciaController implements Initializable {
         }
 
         // Obtener el turno del empleado
-        Turno turno = turnoDAO.buscarPorId(empleado.getIdTurno());
+        Turno turno = empleado.getTurno() != null ?
+                empleado.getTurno() : turnoDAO.buscarPorId(empleado.getIdTurno());
 
         if (turno == null) {
             AlertUtils.mostrarError("Error", "No se pudo obtener el turno del empleado.");
             return;
         }
 
-        // Obtener fecha actual
-        LocalDate fechaActual = LocalDate.now();
+        // Hora actual
+        LocalDateTime horaActual = LocalDateTime.now();
+
+        // Fecha de la jornada según el turno (la madrugada de un turno nocturno es del día anterior)
+        LocalDate fechaActual = MotorReglasTurno.getInstance().fechaJornada(turno, horaActual);
 
-        // Obtener asistencia del día actual (si existe)
+        // Obtener asistencia de la jornada (si existe)
         Asistencia asistenciaDelDia = asistenciaDAO.obtenerAsistenciaPorEmpleadoFecha(
                 empleado.getIdEmpleado(), fechaActual);
 
-        // Hora actual
-        LocalDateTime horaActual = LocalDateTime.now();
-
         // Determinar tipo de registro
         String tipoRegistro = TimeUtils.determinarTipoRegistro(horaActual, turno, asistenciaDelDia);
 
@@ -154,7 +154,7 @@ public class RegistroAsistenciaController implements Initializable {
         // Crear nueva asistencia
         Asistencia asistencia = new Asistencia();
         asistencia.setIdEmpleado(empleado.getIdEmpleado());
-        asistencia.setFecha(horaActual.toLocalDate());
+        asistencia.setFecha(MotorReglasTurno.getInstance().fechaJornada(turno, horaActual));
         asistencia.setHoraEntrada(horaActual);
 
         // Determinar si es retardo
@@ -2,18 +2,28 @@ package org.example.gocheckfx.controllers;
 
 import org.example.gocheckfx.dao.AsistenciaDAO;
 import org.example.gocheckfx.dao.EmpleadoDAO;
+import org.example.gocheckfx.dao.ResumenAsistenciaDAO;
 import org.example.gocheckfx.models.Asistencia;
 import org.example.gocheckfx.models.Empleado;
+import org.example.gocheckfx.models.ResumenAsistencia;
 import org.example.gocheckfx.utils.AlertUtils;
+import org.example.gocheckfx.utils.CacheReportes;
+import org.example.gocheckfx.utils.ExportadorCsvAsistencias;
+import org.example.gocheckfx.utils.ExportadorExcelAsistencias;
+import org.example.gocheckfx.utils.ListaPaginadaAsistencias;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -41,11 +51,21 @@ public class ReportController implements Initializable {
     @FXML private TableColumn<Asistencia, String> break1Col;
     @FXML private TableColumn<Asistencia, String> break2Col;
     @FXML private Label totalRecordsLabel;
+    @FXML private ProgressIndicator reportProgressIndicator;
+    @FXML private Label reportStatusLabel;
+    @FXML private Button cancelReportButton;
+    @FXML private Label exportStatusLabel;
+    @FXML private ProgressBar exportProgressBar;
+    @FXML private Button cancelExportButton;
 
     private AsistenciaDAO asistenciaDAO;
     private EmpleadoDAO empleadoDAO;
+    private ResumenAsistenciaDAO resumenDAO;
     private DateTimeFormatter dateFormatter;
     private DateTimeFormatter timeFormatter;
+    private ListaPaginadaAsistencias listaReporte;
+    private Task<CacheReportes.Reporte> generacion;
+    private Task<Long> exportacion;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -60,6 +80,7 @@ public class ReportController implements Initializable {
         // Inicializar DAOs
         asistenciaDAO = new AsistenciaDAO();
         empleadoDAO = new EmpleadoDAO();
+        resumenDAO = new ResumenAsistenciaDAO();
 
         // Configurar formateadores
         dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
@@ -88,10 +109,17 @@ public class ReportController implements Initializable {
 
         // Configurar eventos de botones
         generateButton.setOnAction(e -> generarReporte());
+        cancelReportButton.setOnAction(e -> {
+            if (generacion != null) {
+                generacion.cancel();
+            }
+        });
 
-        exportButton.setOnAction(e -> {
-            AlertUtils.mostrarInfo("Exportar Reporte",
-                    "Esta funcionalidad estará disponible próximamente.");
+        exportButton.setOnAction(e -> exportarReporte());
+        cancelExportButton.setOnAction(e -> {
+            if (exportacion != null) {
+                exportacion.cancel();
+            }
         });
 
         closeButton.setOnAction(e -> cerrarVentana());
@@ -101,9 +129,12 @@ public class ReportController implements Initializable {
      * Configura la tabla de reportes
      */
     private void configurarTabla() {
+        // Las filas se cargan por páginas y el orden lo define la consulta
+        reportTable.getColumns().forEach(columna -> columna.setSortable(false));
+
         dateCol.setCellValueFactory(cellData -> {
             Asistencia asistencia = cellData.getValue();
-            String valor = asistencia.getFecha().format(dateFormatter);
+            String valor = asistencia.getFecha() != null ? asistencia.getFecha().format(dateFormatter) : "";
             return javafx.beans.binding.Bindings.createStringBinding(() -> valor);
         });
 
@@ -148,122 +179,284 @@ public class ReportController implements Initializable {
     }
 
     /**
-     * Genera un reporte según los filtros seleccionados
+     * Genera un reporte según los filtros seleccionados. Si ya se generó con los mismos filtros
+     * se muestra de la caché; si no, se consulta en segundo plano.
      */
     private void generarReporte() {
         LocalDate fechaInicio = startDatePicker.getValue();
         LocalDate fechaFin = endDatePicker.getValue();
-        Empleado empleadoSeleccionado = employeeCombo.getValue();
-        String tipoReporte = reportTypeCombo.getValue();
+        if (!validarFechas(fechaInicio, fechaFin)) {
+            return;
+        }
 
-        if (fechaInicio == null || fechaFin == null) {
-            AlertUtils.mostrarAdvertencia("Fechas Requeridas",
-                    "Por favor, seleccione las fechas de inicio y fin.");
+        // El filtro de empleado y estado se aplica en SQL
+        CacheReportes.Clave clave = new CacheReportes.Clave(fechaInicio, fechaFin,
+                idEmpleadoSeleccionado(), estadoDeTipoReporte(reportTypeCombo.getValue()));
+
+        if (generacion != null) {
+            generacion.cancel();
+        }
+
+        CacheReportes.Reporte reporte = CacheReportes.getInstance().obtener(clave);
+        if (reporte != null) {
+            mostrarReporte(reporte);
             return;
         }
 
-        if (fechaInicio.isAfter(fechaFin)) {
-            AlertUtils.mostrarAdvertencia("Fechas Inválidas",
-                    "La fecha de inicio debe ser anterior o igual a la fecha de fin.");
+        Task<CacheReportes.Reporte> tarea = new Task<>() {
+            @Override
+            protected CacheReportes.Reporte call() throws Exception {
+                long inicioGeneracion = CacheReportes.getInstance().iniciarGeneracion();
+
+                updateMessage("Contando registros...");
+                long total = asistenciaDAO.contarAsistenciasRango(clave.getFechaInicio(), clave.getFechaFin(),
+                        clave.getIdEmpleado(), clave.getEstado());
+                if (total < 0) {
+                    throw new IOException("No se pudo leer el reporte de la base de datos");
+                }
+                if (isCancelled()) {
+                    return null;
+                }
+
+                // Los totales del periodo salen de los resúmenes, sin recorrer asistencias
+                ResumenAsistencia totales = resumenDAO.obtenerTotalesRango(clave.getFechaInicio(),
+                        clave.getFechaFin(), clave.getIdEmpleado());
+
+                // Cargar la primera página para mostrar el reporte completo de una vez;
+                // si no se pudo leer (null), la lista la vuelve a pedir
+                updateMessage("Cargando registros...");
+                List<Asistencia> primeraPagina = asistenciaDAO.obtenerPaginaAsistencias(clave.getFechaInicio(),
+                        clave.getFechaFin(), clave.getIdEmpleado(), clave.getEstado(), null,
+                        ListaPaginadaAsistencias.TAMANO_PAGINA);
+
+                return new CacheReportes.Reporte(clave, inicioGeneracion, total, totales, primeraPagina,
+                        ListaPaginadaAsistencias.TAMANO_PAGINA);
+            }
+        };
+        generacion = tarea;
+
+        reportStatusLabel.textProperty().bind(tarea.messageProperty());
+        mostrarGeneracionEnCurso(true);
+
+        tarea.setOnSucceeded(e -> {
+            CacheReportes.getInstance().guardar(tarea.getValue());
+            if (generacion == tarea) {
+                mostrarGeneracionEnCurso(false);
+                mostrarReporte(tarea.getValue());
+            }
+        });
+        tarea.setOnCancelled(e -> {
+            if (generacion == tarea) {
+                mostrarGeneracionEnCurso(false);
+            }
+        });
+        tarea.setOnFailed(e -> {
+            if (generacion == tarea) {
+                mostrarGeneracionEnCurso(false);
+            }
+            System.err.println("Error al generar reporte: " + tarea.getException().getMessage());
+            AlertUtils.mostrarError("Error", "No se pudo generar el reporte.");
+        });
+
+        Thread hilo = new Thread(tarea, "generar-reporte");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Muestra un reporte generado: las filas se cargan por páginas conforme se recorre la tabla
+     */
+    private void mostrarReporte(CacheReportes.Reporte reporte) {
+        if (listaReporte != null) {
+            listaReporte.cerrar();
+        }
+        listaReporte = new ListaPaginadaAsistencias(asistenciaDAO, reporte);
+        reportTable.setItems(listaReporte);
+
+        // Actualizar contador y totales del periodo
+        String texto = "Total de registros: " + reporte.getTotal();
+        ResumenAsistencia totales = reporte.getTotales();
+        if (totales != null) {
+            texto += " | Presentes: " + totales.getDiasPresente() +
+                    " | Retardos: " + totales.getDiasRetardo() + " (" + totales.getMinutosRetardo() + " min)" +
+                    " | Faltas: " + totales.getDiasFalta() +
+                    " | Justificados: " + totales.getDiasJustificado();
+        }
+        totalRecordsLabel.setText(texto);
+    }
+
+    private void mostrarGeneracionEnCurso(boolean enCurso) {
+        if (!enCurso) {
+            reportStatusLabel.textProperty().unbind();
+            reportStatusLabel.setText("");
+        }
+        reportProgressIndicator.setVisible(enCurso);
+        cancelReportButton.setVisible(enCurso);
+    }
+
+    /**
+     * Exporta el reporte de los filtros seleccionados (Excel, CSV o TSV), en segundo plano
+     */
+    private void exportarReporte() {
+        if (exportacion != null && exportacion.isRunning()) {
             return;
         }
 
-        // Lista para almacenar las asistencias filtradas
-        List<Asistencia> asistencias;
+        LocalDate fechaInicio = startDatePicker.getValue();
+        LocalDate fechaFin = endDatePicker.getValue();
+        if (!validarFechas(fechaInicio, fechaFin)) {
+            return;
+        }
+
+        Integer idEmpleado = idEmpleadoSeleccionado();
+        String estado = estadoDeTipoReporte(reportTypeCombo.getValue());
 
-        // Obtener asistencias según el empleado seleccionado
-        if (empleadoSeleccionado.getIdEmpleado() == 0) {
-            // Todos los empleados
-            asistencias = obtenerAsistenciasPeriodo(fechaInicio, fechaFin);
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Exportar Reporte");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Libro de Excel", "*.xlsx"),
+                new FileChooser.ExtensionFilter("CSV para nómina", "*.csv"),
+                new FileChooser.ExtensionFilter("CSV comprimido", "*.csv.gz"),
+                new FileChooser.ExtensionFilter("Texto separado por tabuladores", "*.tsv"));
+        fileChooser.setInitialFileName("asistencias_" + fechaInicio + "_" + fechaFin + ".xlsx");
+
+        File destino = fileChooser.showSaveDialog(exportButton.getScene().getWindow());
+        if (destino == null) {
+            return;
+        }
+
+        // Si el reporte ya se generó, su total está en caché; si no, se cuenta en la tarea de
+        // exportación para no consultar la base de datos en el hilo de la interfaz
+        CacheReportes.Reporte reporte = CacheReportes.getInstance().obtener(
+                new CacheReportes.Clave(fechaInicio, fechaFin, idEmpleado, estado));
+        long totalEnCache = reporte != null ? reporte.getTotal() : -1;
+
+        // El formato se elige por la extensión del archivo
+        String nombre = destino.getName().toLowerCase();
+        if (nombre.endsWith(".xlsx")) {
+            exportacion = new ExportadorExcelAsistencias(asistenciaDAO, fechaInicio, fechaFin,
+                    idEmpleado, estado, totalEnCache, destino.toPath());
         } else {
-            // Empleado específico
-            asistencias = asistenciaDAO.obtenerAsistenciasEmpleado(empleadoSeleccionado.getIdEmpleado(),
-                    fechaInicio, fechaFin);
+            ExportadorCsvAsistencias exportador = new ExportadorCsvAsistencias(asistenciaDAO);
+            exportador.setTabuladores(nombre.endsWith(".tsv") || nombre.endsWith(".tsv.gz"));
+            exportador.setGzip(nombre.endsWith(".gz"));
+            exportacion = new Task<>() {
+                @Override
+                protected Long call() throws Exception {
+                    long total = totalEnCache >= 0 ? totalEnCache :
+                            asistenciaDAO.contarAsistenciasRango(fechaInicio, fechaFin, idEmpleado, estado);
+                    if (total < 0) {
+                        throw new IOException("No se pudo contar el reporte en la base de datos");
+                    }
+
+                    updateMessage("Exportando...");
+                    return exportador.exportar(fechaInicio, fechaFin, idEmpleado, estado, destino.toPath(),
+                            this::isCancelled, escritas -> {
+                                updateProgress(escritas, Math.max(total, escritas));
+                                updateMessage("Exportando " + escritas + " de " + total + " registros...");
+                            });
+                }
+            };
         }
 
-        // Filtrar por tipo de reporte
-        List<Asistencia> asistenciasFiltradas = filtrarPorTipo(asistencias, tipoReporte);
+        exportProgressBar.progressProperty().bind(exportacion.progressProperty());
+        exportStatusLabel.textProperty().bind(exportacion.messageProperty());
+        mostrarExportacionEnCurso(true);
 
-        // Mostrar resultados
-        ObservableList<Asistencia> data = FXCollections.observableArrayList(asistenciasFiltradas);
-        reportTable.setItems(data);
+        exportacion.setOnSucceeded(e -> {
+            mostrarExportacionEnCurso(false);
+            AlertUtils.mostrarInfo("Exportar Reporte",
+                    "Se exportaron " + exportacion.getValue() + " registros a " + destino.getName() + ".");
+        });
+        exportacion.setOnCancelled(e -> {
+            mostrarExportacionEnCurso(false);
+            exportStatusLabel.setText("Exportación cancelada");
+        });
+        exportacion.setOnFailed(e -> {
+            mostrarExportacionEnCurso(false);
+            Throwable error = exportacion.getException();
+            System.err.println("Error al exportar reporte: " + error.getMessage());
+            AlertUtils.mostrarError("Error", "No se pudo exportar el reporte: " + error.getMessage());
+        });
 
-        // Actualizar contador
-        totalRecordsLabel.setText("Total de registros: " + asistenciasFiltradas.size());
+        Thread hilo = new Thread(exportacion, "exportar-reporte");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    private void mostrarExportacionEnCurso(boolean enCurso) {
+        if (!enCurso) {
+            exportProgressBar.progressProperty().unbind();
+            exportStatusLabel.textProperty().unbind();
+            exportStatusLabel.setText("");
+        }
+        exportProgressBar.setVisible(enCurso);
+        cancelExportButton.setVisible(enCurso);
+        exportButton.setDisable(enCurso);
     }
 
     /**
-     * Obtiene todas las asistencias en un período
-     * @param fechaInicio Fecha de inicio
-     * @param fechaFin Fecha de fin
-     * @return Lista de asistencias
+     * Verifica que el rango de fechas esté completo y en orden
      */
-    private List<Asistencia> obtenerAsistenciasPeriodo(LocalDate fechaInicio, LocalDate fechaFin) {
-        // En una implementación real, tendríamos un método en el DAO para esto
-        // Simulación simple para demo
-        List<Asistencia> resultado = new ArrayList<>();
-        LocalDate fechaActual = fechaInicio;
-
-        while (!fechaActual.isAfter(fechaFin)) {
-            resultado.addAll(asistenciaDAO.obtenerAsistenciasPorFecha(fechaActual));
-            fechaActual = fechaActual.plusDays(1);
+    private boolean validarFechas(LocalDate fechaInicio, LocalDate fechaFin) {
+        if (fechaInicio == null || fechaFin == null) {
+            AlertUtils.mostrarAdvertencia("Fechas Requeridas",
+                    "Por favor, seleccione las fechas de inicio y fin.");
+            return false;
         }
 
-        return resultado;
+        if (fechaInicio.isAfter(fechaFin)) {
+            AlertUtils.mostrarAdvertencia("Fechas Inválidas",
+                    "La fecha de inicio debe ser anterior o igual a la fecha de fin.");
+            return false;
+        }
+
+        return true;
     }
 
     /**
-     * Filtra las asistencias por tipo de reporte
-     * @param asistencias Lista de asistencias a filtrar
-     * @param tipoReporte Tipo de reporte seleccionado
-     * @return Lista filtrada de asistencias
+     * ID del empleado seleccionado, o null si se eligió "Todos los empleados"
      */
-    private List<Asistencia> filtrarPorTipo(List<Asistencia> asistencias, String tipoReporte) {
-        if (tipoReporte.equals("Todos")) {
-            return asistencias;
-        }
-
-        List<Asistencia> filtradas = new ArrayList<>();
-        String estadoFiltro;
+    private Integer idEmpleadoSeleccionado() {
+        Empleado empleadoSeleccionado = employeeCombo.getValue();
+        return empleadoSeleccionado == null || empleadoSeleccionado.getIdEmpleado() == 0 ?
+                null : empleadoSeleccionado.getIdEmpleado();
+    }
 
+    /**
+     * Estado de asistencia que corresponde a un tipo de reporte
+     * @param tipoReporte Tipo de reporte seleccionado
+     * @return Estado a filtrar, o null si el reporte incluye todos
+     */
+    private String estadoDeTipoReporte(String tipoReporte) {
         switch (tipoReporte) {
             case "Asistencias":
-                estadoFiltro = "PRESENTE";
-                break;
+                return "PRESENTE";
             case "Faltas":
-                estadoFiltro = "FALTA";
-                break;
+                return "FALTA";
             case "Retardos":
-                estadoFiltro = "RETARDO";
-                break;
+                return "RETARDO";
             case "Justificados":
-                estadoFiltro = "JUSTIFICADO";
-                break;
+                return "JUSTIFICADO";
             default:
-                return asistencias;
-        }
-
-        for (Asistencia asistencia : asistencias) {
-            if (asistencia.getEstado().equals(estadoFiltro)) {
-                filtradas.add(asistencia);
-            }
+                return null;
         }
-
-        return filtradas;
     }
 
     /**
      * Cierra la ventana actual
      */
     private void cerrarVentana() {
+        if (generacion != null) {
+            generacion.cancel();
+        }
+        if (exportacion != null) {
+            exportacion.cancel();
+        }
+        if (listaReporte != null) {
+            listaReporte.cerrar();
+        }
         Stage stage = (Stage) closeButton.getScene().getWindow();
         stage.close();
     }
-
-    /**
-     * Clase interna para encapsular las asistencias con filtros adicionales
-     */
-    private class ArrayList<T> extends java.util.ArrayList<T> {
-        private static final long serialVersionUID = 1L;
-    }
-}
\ No newline at end of file
+}
@@ -2,18 +2,31 @@ package org.example.gocheckfx.dao;
 
 import org.example.gocheckfx.config.DatabaseConfig;
 import org.example.gocheckfx.models.Asistencia;
+import org.example.gocheckfx.models.CambiosAsistencias;
+import org.example.gocheckfx.models.ClaveAsistencia;
+import org.example.gocheckfx.models.Empleado;
+import org.example.gocheckfx.models.ResultadoChecada;
+import org.example.gocheckfx.models.Turno;
+import org.example.gocheckfx.utils.CacheReportes;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 /**
  * Clase DAO para acceder a los datos de asistencia
  */
 public class AsistenciaDAO {
 
+    // Tiempo que puede tardar en confirmarse un cambio después de tomar su hora (duración de la transacción)
+    public static final long SOLAPE_CAMBIOS_MS = 10_000;
+
     /**
      * Registra una nueva asistencia
      * @param asistencia Asistencia a registrar
@@ -38,6 +51,7 @@ public class AsistenciaDAO {
                 if (rs.next()) {
                     asistencia.setIdAsistencia(rs.getInt(1));
                 }
+                invalidarReportes(asistencia.getFecha());
                 return true;
             }
 
@@ -91,7 +105,11 @@ public class AsistenciaDAO {
             stmt.setString(8, asistencia.getNotas());
             stmt.setInt(9, asistencia.getIdAsistencia());
 
-            return stmt.executeUpdate() > 0;
+            boolean actualizada = stmt.executeUpdate() > 0;
+            if (actualizada) {
+                invalidarReportes(asistencia.getFecha());
+            }
+            return actualizada;
 
         } catch (SQLException e) {
             System.err.println("Error al actualizar asistencia: " + e.getMessage());
@@ -180,18 +198,18 @@ public class AsistenciaDAO {
             conn.setAutoCommit(false);
 
             // Verificar si existe la asistencia
-            String sqlVerificar = "SELECT COUNT(*) FROM asistencias WHERE id_asistencia = ?";
-            boolean existeAsistencia = false;
+            String sqlVerificar = "SELECT fecha FROM asistencias WHERE id_asistencia = ?";
+            LocalDate fecha = null;
 
             try (PreparedStatement stmt = conn.prepareStatement(sqlVerificar)) {
                 stmt.setInt(1, idAsistencia);
                 ResultSet rs = stmt.executeQuery();
                 if (rs.next()) {
-                    existeAsistencia = rs.getInt(1) > 0;
+                    fecha = rs.getDate("fecha").toLocalDate();
                 }
             }
 
-            if (!existeAsistencia) {
+            if (fecha == null) {
                 // La asistencia no existe, no podemos justificarla
                 System.err.println("Error: No existe la asistencia con ID " + idAsistencia);
                 return false;
@@ -219,6 +237,7 @@ public class AsistenciaDAO {
             }
 
             conn.commit();
+            invalidarReportes(fecha);
             return true;
 
         } catch (SQLException e) {
@@ -251,11 +270,13 @@ public class AsistenciaDAO {
              PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setInt(1, asistencia.getIdEmpleado());
-            stmt.setDate(2, Date.valueOf(asistencia.getFecha() != null ? asistencia.getFecha() : LocalDate.now()));
+            LocalDate fecha = asistencia.getFecha() != null ? asistencia.getFecha() : LocalDate.now();
+            stmt.setDate(2, Date.valueOf(fecha));
 
             int result = stmt.executeUpdate();
 
             if (result > 0) {
+                invalidarReportes(fecha);
                 // Obtener el ID generado
                 ResultSet rs = stmt.getGeneratedKeys();
                 if (rs.next()) {
@@ -434,7 +455,12 @@ public class AsistenciaDAO {
             stmt.setTimestamp(1, Timestamp.valueOf(horaAccion));
             stmt.setInt(2, idAsistencia);
 
-            return stmt.executeUpdate() > 0;
+            boolean actualizada = stmt.executeUpdate() > 0;
+            if (actualizada) {
+                // Aquí no se conoce la fecha del registro
+                invalidarReportes(null);
+            }
+            return actualizada;
 
         } catch (SQLException e) {
             System.err.println("Error al registrar acción: " + e.getMessage());
@@ -443,6 +469,508 @@ public class AsistenciaDAO {
         return false;
     }
 
+    /**
+     * Registra una checada de un empleado en un solo viaje a la base de datos.
+     * El empleado ya viene resuelto del índice en memoria (CacheEmpleados); el procedimiento
+     * registrar_checada solo confirma por llave primaria que sigue activo, crea el registro del día
+     * si no existe, aplica la acción que indican las reglas del turno y devuelve el registro resultante.
+     * @param empleado Empleado que checa
+     * @param momento Fecha y hora de la checada
+     * @param fecha Fecha de la jornada según el turno (ver MotorReglasTurno.fechaJornada)
+     * @param decisiones Acción por estado de la jornada (ver MotorReglasTurno.codificarDecisiones)
+     * @param estadoEntrada Estado a asignar si la checada es la entrada (PRESENTE o RETARDO)
+     * @return Resultado de la checada o null si ocurrió un error
+     */
+    public ResultadoChecada registrarChecada(Empleado empleado, LocalDateTime momento, LocalDate fecha,
+                                             String decisiones, String estadoEntrada) {
+        String sql = "{CALL registrar_checada(?, ?, ?, ?, ?)}";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             CallableStatement stmt = conn.prepareCall(sql)) {
+
+            stmt.setInt(1, empleado.getIdEmpleado());
+            stmt.setTimestamp(2, Timestamp.valueOf(momento));
+            stmt.setDate(3, Date.valueOf(fecha));
+            stmt.setString(4, decisiones);
+            stmt.setString(5, estadoEntrada);
+
+            if (!stmt.execute()) {
+                return null;
+            }
+
+            try (ResultSet rs = stmt.getResultSet()) {
+                if (!rs.next()) {
+                    return null;
+                }
+
+                // Dado de baja desde que se cargó el índice: recargarlo en la siguiente búsqueda
+                String accion = rs.getString("accion");
+                if (ResultadoChecada.NO_ENCONTRADO.equals(accion)) {
+                    CacheEmpleados.getInstance().invalidar();
+                    return new ResultadoChecada(accion, null, null);
+                }
+
+                // Fuera de horario sin registro del día: no hay asistencia que devolver
+                Asistencia asistencia = rs.getObject("id_asistencia") != null ?
+                        extraerAsistenciaDeResultSet(rs) : null;
+
+                if (asistencia != null) {
+                    asistencia.setCodigoEmpleado(empleado.getCodigoUnico());
+                    asistencia.setNombreEmpleado(empleado.getNombreCompleto());
+                    invalidarReportes(asistencia.getFecha());
+                }
+
+                return new ResultadoChecada(accion, asistencia, empleado);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al registrar checada: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Obtiene las asistencias de todos los empleados (o de uno) en un rango de fechas con una sola consulta.
+     * Los filtros y el orden se resuelven en la base de datos.
+     * @param fechaInicio Fecha inicial
+     * @param fechaFin Fecha final
+     * @param idEmpleado ID del empleado, o null para todos
+     * @param estado Estado a incluir (PRESENTE, FALTA, RETARDO, JUSTIFICADO), o null para todos
+     * @return Lista de asistencias con datos del empleado, ordenada por fecha y nombre
+     */
+    public List<Asistencia> obtenerAsistenciasRango(LocalDate fechaInicio, LocalDate fechaFin,
+                                                    Integer idEmpleado, String estado) {
+        List<Asistencia> asistencias = new ArrayList<>();
+
+        StringBuilder sql = new StringBuilder(SELECT_ASISTENCIAS_RANGO);
+        agregarFiltrosRango(sql, idEmpleado, estado);
+        sql.append("ORDER BY a.fecha, e.apellido, e.nombre");
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            asignarFiltrosRango(stmt, fechaInicio, fechaFin, idEmpleado, estado);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                Asistencia asistencia = extraerAsistenciaDeResultSet(rs);
+                asistencia.setCodigoEmpleado(rs.getString("codigo_empleado"));
+                asistencia.setNombreEmpleado(rs.getString("nombre_empleado"));
+                asistencias.add(asistencia);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener asistencias del período: " + e.getMessage());
+        }
+
+        return asistencias;
+    }
+
+    /**
+     * Recorre las asistencias de un rango de fechas en el orden (fecha, id_empleado), leyendo las
+     * filas del servidor conforme se consumen. Sirve para exportar reportes de cualquier tamaño
+     * sin cargarlos en memoria.
+     * @param fechaInicio Fecha inicial
+     * @param fechaFin Fecha final
+     * @param idEmpleado ID del empleado, o null para todos
+     * @param estado Estado a incluir, o null para todos
+     * @param consumidor Recibe cada asistencia con datos del empleado; si devuelve false el recorrido termina
+     * @return true si el recorrido terminó sin errores, false si ocurrió un error
+     */
+    public boolean recorrerAsistenciasRango(LocalDate fechaInicio, LocalDate fechaFin,
+                                            Integer idEmpleado, String estado,
+                                            Predicate<Asistencia> consumidor) {
+        StringBuilder sql = new StringBuilder(SELECT_ASISTENCIAS_RANGO);
+        agregarFiltrosRango(sql, idEmpleado, estado);
+        sql.append("ORDER BY a.fecha, a.id_empleado");
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString(),
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Con este tamaño el driver de MySQL entrega las filas una por una
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            asignarFiltrosRango(stmt, fechaInicio, fechaFin, idEmpleado, estado);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Asistencia asistencia = extraerAsistenciaDeResultSet(rs);
+                    asistencia.setCodigoEmpleado(rs.getString("codigo_empleado"));
+                    asistencia.setNombreEmpleado(rs.getString("nombre_empleado"));
+                    if (!consumidor.test(asistencia)) {
+                        break;
+                    }
+                }
+            }
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error al recorrer asistencias del período: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    /**
+     * Obtiene una página de asistencias de un rango de fechas, ordenadas por (fecha, id_empleado).
+     * La página empieza después de la clave indicada (paginación por llave), de modo que el costo
+     * no crece con la posición de la página.
+     * @param fechaInicio Fecha inicial
+     * @param fechaFin Fecha final
+     * @param idEmpleado ID del empleado, o null para todos
+     * @param estado Estado a incluir, o null para todos
+     * @param despuesDe Fecha y empleado de la última fila de la página anterior, o null para la primera página
+     * @param limite Número máximo de filas
+     * @return Asistencias de la página con datos del empleado, o null si ocurrió un error
+     */
+    public List<Asistencia> obtenerPaginaAsistencias(LocalDate fechaInicio, LocalDate fechaFin,
+                                                     Integer idEmpleado, String estado,
+                                                     ClaveAsistencia despuesDe, int limite) {
+        List<Asistencia> asistencias = new ArrayList<>();
+
+        StringBuilder sql = new StringBuilder(SELECT_ASISTENCIAS_RANGO);
+        agregarFiltrosRango(sql, idEmpleado, estado);
+        agregarFiltroClave(sql, despuesDe);
+        sql.append("ORDER BY a.fecha, a.id_empleado LIMIT ?");
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int indice = asignarFiltrosRango(stmt, fechaInicio, fechaFin, idEmpleado, estado);
+            indice = asignarFiltroClave(stmt, indice, despuesDe);
+            stmt.setInt(indice, limite);
+
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                Asistencia asistencia = extraerAsistenciaDeResultSet(rs);
+                asistencia.setCodigoEmpleado(rs.getString("codigo_empleado"));
+                asistencia.setNombreEmpleado(rs.getString("nombre_empleado"));
+                asistencias.add(asistencia);
+            }
+            return asistencias;
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener página de asistencias: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Busca la clave de la fila que está a cierta distancia de otra, sin leer las filas intermedias
+     * (solo recorre el índice). Sirve para saltar a una página lejana con paginación por llave.
+     * @param despuesDe Clave desde la que se cuenta, o null para contar desde el inicio
+     * @param desplazamiento Número de filas a avanzar (1 es la siguiente fila)
+     * @return Clave encontrada o null si el rango tiene menos filas o si ocurrió un error
+     */
+    public ClaveAsistencia buscarClaveAsistencia(LocalDate fechaInicio, LocalDate fechaFin,
+                                                 Integer idEmpleado, String estado,
+                                                 ClaveAsistencia despuesDe, int desplazamiento) {
+        StringBuilder sql = new StringBuilder("SELECT a.fecha, a.id_empleado FROM asistencias a " +
+                "WHERE a.fecha BETWEEN ? AND ? ");
+        agregarFiltrosRango(sql, idEmpleado, estado);
+        agregarFiltroClave(sql, despuesDe);
+        sql.append("ORDER BY a.fecha, a.id_empleado LIMIT 1 OFFSET ?");
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int indice = asignarFiltrosRango(stmt, fechaInicio, fechaFin, idEmpleado, estado);
+            indice = asignarFiltroClave(stmt, indice, despuesDe);
+            stmt.setInt(indice, desplazamiento - 1);
+
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return new ClaveAsistencia(rs.getDate("fecha").toLocalDate(), rs.getInt("id_empleado"));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al buscar clave de asistencia: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Cuenta las asistencias de un rango de fechas
+     * @param fechaInicio Fecha inicial
+     * @param fechaFin Fecha final
+     * @param idEmpleado ID del empleado, o null para todos
+     * @param estado Estado a incluir, o null para todos
+     * @return Número de asistencias o -1 si ocurrió un error
+     */
+    public long contarAsistenciasRango(LocalDate fechaInicio, LocalDate fechaFin,
+                                       Integer idEmpleado, String estado) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM asistencias a WHERE a.fecha BETWEEN ? AND ? ");
+        agregarFiltrosRango(sql, idEmpleado, estado);
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            asignarFiltrosRango(stmt, fechaInicio, fechaFin, idEmpleado, estado);
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al contar asistencias: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    // Consulta base de los reportes por rango; los filtros se agregan con agregarFiltrosRango
+    private static final String SELECT_ASISTENCIAS_RANGO = "SELECT a.*, " +
+            "e.codigo_unico AS codigo_empleado, " +
+            "CONCAT(e.nombre, ' ', e.apellido) AS nombre_empleado " +
+            "FROM asistencias a " +
+            "JOIN empleados e ON a.id_empleado = e.id_empleado " +
+            "WHERE a.fecha BETWEEN ? AND ? ";
+
+    private static void agregarFiltrosRango(StringBuilder sql, Integer idEmpleado, String estado) {
+        if (idEmpleado != null) {
+            sql.append("AND a.id_empleado = ? ");
+        }
+        if (estado != null) {
+            sql.append("AND a.estado = ? ");
+        }
+    }
+
+    /**
+     * Asigna las fechas y los filtros opcionales
+     * @return Índice del siguiente parámetro
+     */
+    private static int asignarFiltrosRango(PreparedStatement stmt, LocalDate fechaInicio, LocalDate fechaFin,
+                                           Integer idEmpleado, String estado) throws SQLException {
+        int indice = 1;
+        stmt.setDate(indice++, Date.valueOf(fechaInicio));
+        stmt.setDate(indice++, Date.valueOf(fechaFin));
+        if (idEmpleado != null) {
+            stmt.setInt(indice++, idEmpleado);
+        }
+        if (estado != null) {
+            stmt.setString(indice++, estado);
+        }
+        return indice;
+    }
+
+    private static void agregarFiltroClave(StringBuilder sql, ClaveAsistencia despuesDe) {
+        if (despuesDe != null) {
+            sql.append("AND (a.fecha > ? OR (a.fecha = ? AND a.id_empleado > ?)) ");
+        }
+    }
+
+    private static int asignarFiltroClave(PreparedStatement stmt, int indice, ClaveAsistencia despuesDe)
+            throws SQLException {
+        if (despuesDe != null) {
+            stmt.setDate(indice++, Date.valueOf(despuesDe.getFecha()));
+            stmt.setDate(indice++, Date.valueOf(despuesDe.getFecha()));
+            stmt.setInt(indice++, despuesDe.getIdEmpleado());
+        }
+        return indice;
+    }
+
+    /**
+     * Recorre las asistencias de un rango de fechas junto con el turno del empleado, ordenadas
+     * por empleado y fecha. Las filas se leen del servidor conforme se consumen, sin cargar
+     * todo el rango en memoria; la conexión queda ocupada hasta terminar el recorrido.
+     * Cada asistencia trae el momento de su último cambio, para actualizarEstadosLote.
+     * @param fechaInicio Fecha inicial
+     * @param fechaFin Fecha final
+     * @param consumidor Recibe cada asistencia con el turno de su empleado
+     * @return true si se recorrió todo el rango, false si ocurrió un error
+     */
+    public boolean recorrerAsistenciasConTurno(LocalDate fechaInicio, LocalDate fechaFin,
+                                               BiConsumer<Asistencia, Turno> consumidor) {
+        String sql = "SELECT a.*, " +
+                "t.id_turno, t.nombre_turno, t.hora_entrada AS turno_hora_entrada, " +
+                "t.hora_salida AS turno_hora_salida, t.duracion_desayuno, t.duracion_comida, " +
+                "t.permite_combinar_descanso " +
+                "FROM asistencias a " +
+                "JOIN empleados e ON a.id_empleado = e.id_empleado " +
+                "JOIN turnos t ON e.id_turno = t.id_turno " +
+                "WHERE a.fecha BETWEEN ? AND ? " +
+                "ORDER BY a.id_empleado, a.fecha";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Con este tamaño el driver de MySQL entrega las filas una por una
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            stmt.setDate(1, Date.valueOf(fechaInicio));
+            stmt.setDate(2, Date.valueOf(fechaFin));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Turno turno = new Turno(
+                            rs.getInt("id_turno"),
+                            rs.getString("nombre_turno"),
+                            rs.getTime("turno_hora_entrada").toLocalTime(),
+                            rs.getTime("turno_hora_salida").toLocalTime(),
+                            rs.getInt("duracion_desayuno"),
+                            rs.getInt("duracion_comida"),
+                            rs.getBoolean("permite_combinar_descanso"));
+                    Asistencia asistencia = extraerAsistenciaDeResultSet(rs);
+                    asistencia.setActualizado(rs.getTimestamp("actualizado").toLocalDateTime());
+                    consumidor.accept(asistencia, turno);
+                }
+            }
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error al recorrer asistencias: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    /**
+     * Actualiza el estado y las notas de un lote de asistencias en una sola transacción.
+     * Cada fila solo se escribe si no cambió desde que se leyó (mismo momento de último cambio):
+     * una justificación o una checada posterior no se sobrescribe con datos viejos.
+     * No actualiza los resúmenes fila por fila: quien llama debe reconstruirlos al terminar
+     * (ResumenAsistenciaDAO.reconstruir).
+     * @param asistencias Asistencias con el estado y las notas nuevos y el último cambio que se leyó
+     * @return Número de asistencias escritas (las demás cambiaron mientras tanto),
+     *         o -1 si ocurrió un error (no se aplica nada)
+     */
+    public int actualizarEstadosLote(List<Asistencia> asistencias) {
+        String sql = "UPDATE asistencias SET estado = ?, notas = ? WHERE id_asistencia = ? AND actualizado = ?";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            omitirResumenes(conn, true);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (Asistencia asistencia : asistencias) {
+                    stmt.setString(1, asistencia.getEstado());
+                    stmt.setString(2, asistencia.getNotas());
+                    stmt.setInt(3, asistencia.getIdAsistencia());
+                    stmt.setTimestamp(4, Timestamp.valueOf(asistencia.getActualizado()));
+                    stmt.addBatch();
+                }
+                int escritas = 0;
+                for (int resultado : stmt.executeBatch()) {
+                    if (resultado > 0 || resultado == Statement.SUCCESS_NO_INFO) {
+                        escritas++;
+                    }
+                }
+                conn.commit();
+
+                asistencias.stream().map(Asistencia::getFecha).distinct().forEach(this::invalidarReportes);
+                return escritas;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                System.err.println("Error al actualizar lote de asistencias: " + e.getMessage());
+            } finally {
+                omitirResumenes(conn, false);
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al actualizar lote de asistencias: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    /**
+     * Obtiene los empleados que ya tienen registro de asistencia en una fecha
+     * @param fecha La fecha a consultar
+     * @return IDs de los empleados, o null si ocurrió un error
+     */
+    public Set<Integer> obtenerEmpleadosConAsistencia(LocalDate fecha) {
+        Set<Integer> empleados = new HashSet<>();
+        String sql = "SELECT id_empleado FROM asistencias WHERE fecha = ?";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(fecha));
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                empleados.add(rs.getInt("id_empleado"));
+            }
+            return empleados;
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener empleados con asistencia: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Registra FALTA a los empleados indicados en una fecha. Se envía un lote por cada
+     * tamanoLote empleados, todos en una sola transacción. Los empleados que ya tienen
+     * registro ese día se omiten (INSERT IGNORE sobre la llave empleado-fecha), así que
+     * repetir la operación no duplica ni modifica nada. Los resúmenes del día y del mes se
+     * reconstruyen una sola vez al final, en la misma transacción.
+     * @param fecha Fecha de las faltas
+     * @param idsEmpleado Empleados a los que se registra la falta
+     * @param tamanoLote Filas por lote
+     * @return true si se aplicó todo, false si ocurrió un error (no se aplica nada)
+     */
+    public boolean insertarFaltasLote(LocalDate fecha, List<Integer> idsEmpleado, int tamanoLote) {
+        if (idsEmpleado.isEmpty()) return true;
+
+        String sql = "INSERT IGNORE INTO asistencias (id_empleado, fecha, estado) VALUES (?, ?, 'FALTA')";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            omitirResumenes(conn, true);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql);
+                 CallableStatement diario = conn.prepareCall("{CALL recalcular_resumen_diario(NULL, ?, ?)}");
+                 CallableStatement mensual = conn.prepareCall("{CALL recalcular_resumen_mensual(NULL, ?, ?)}")) {
+                int enLote = 0;
+                for (int idEmpleado : idsEmpleado) {
+                    stmt.setInt(1, idEmpleado);
+                    stmt.setDate(2, Date.valueOf(fecha));
+                    stmt.addBatch();
+
+                    if (++enLote == tamanoLote) {
+                        stmt.executeBatch();
+                        enLote = 0;
+                    }
+                }
+                if (enLote > 0) {
+                    stmt.executeBatch();
+                }
+
+                for (CallableStatement resumen : List.of(diario, mensual)) {
+                    resumen.setDate(1, Date.valueOf(fecha));
+                    resumen.setDate(2, Date.valueOf(fecha));
+                    resumen.execute();
+                }
+                conn.commit();
+
+                invalidarReportes(fecha);
+                return true;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                System.err.println("Error al registrar faltas: " + e.getMessage());
+            } finally {
+                omitirResumenes(conn, false);
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al registrar faltas: " + e.getMessage());
+        }
+
+        return false;
+    }
+
     /**
      * Busca una asistencia para un empleado en una fecha específica
      * @param idEmpleado El ID del empleado
@@ -598,10 +1126,113 @@ public class AsistenciaDAO {
         return asistencias;
     }
 
+    /**
+     * Obtiene la hora actual de la base de datos, para marcar desde cuándo se piden cambios
+     * @return Milisegundos de la hora de la base de datos, o -1 si ocurrió un error
+     */
+    public long obtenerMarcaCambios() {
+        String sql = "SELECT NOW(3) AS ahora";
 
-}
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            if (rs.next()) {
+                return rs.getTimestamp("ahora").getTime();
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener marca de cambios: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    /**
+     * Obtiene el momento del último cambio en las asistencias de un día
+     * @return Milisegundos del último cambio, 0 si el día no tiene registros, o -1 si ocurrió un error
+     */
+    public long obtenerUltimoCambio(LocalDate fecha) {
+        String sql = "SELECT MAX(actualizado) AS ultimo FROM asistencias WHERE fecha = ?";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(fecha));
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                Timestamp ultimo = rs.getTimestamp("ultimo");
+                return ultimo != null ? ultimo.getTime() : 0;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener último cambio de asistencias: " + e.getMessage());
+        }
+
+        return -1;
+    }
 
+    /**
+     * Obtiene las asistencias de un día (de empleados activos) modificadas después de una marca.
+     * Un cambio toma su hora al empezar la sentencia pero se ve hasta el commit, así que también
+     * se vuelven a leer los {@link #SOLAPE_CAMBIOS_MS} ms anteriores a la marca: quien aplica los
+     * cambios debe tolerar recibir de nuevo un registro. Usa el índice (fecha, actualizado).
+     * @param fecha Fecha de las asistencias
+     * @param desdeMarca Marca de la consulta anterior (milisegundos)
+     * @return Asistencias modificadas, con datos del empleado, en el orden de sus cambios; null si ocurrió un error
+     */
+    public CambiosAsistencias obtenerCambiosAsistencias(LocalDate fecha, long desdeMarca) {
+        List<Asistencia> asistencias = new ArrayList<>();
+        long marca = desdeMarca;
+        String sql = "SELECT a.*, e.codigo_unico AS codigo_empleado, " +
+                "CONCAT(e.nombre, ' ', e.apellido) AS nombre_empleado " +
+                "FROM asistencias a " +
+                "JOIN empleados e ON a.id_empleado = e.id_empleado " +
+                "WHERE a.fecha = ? AND a.actualizado > ? AND e.activo = 1 " +
+                "ORDER BY a.actualizado";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(fecha));
+            stmt.setTimestamp(2, new Timestamp(desdeMarca - SOLAPE_CAMBIOS_MS));
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                Asistencia asistencia = extraerAsistenciaDeResultSet(rs);
+                asistencia.setCodigoEmpleado(rs.getString("codigo_empleado"));
+                asistencia.setNombreEmpleado(rs.getString("nombre_empleado"));
+                asistencias.add(asistencia);
+                marca = Math.max(marca, rs.getTimestamp("actualizado").getTime());
+            }
 
+        } catch (SQLException e) {
+            System.err.println("Error al obtener cambios de asistencias: " + e.getMessage());
+            return null;
+        }
 
+        return new CambiosAsistencias(asistencias, marca);
+    }
 
+    /**
+     * Activa o desactiva en la sesión la actualización de resúmenes por fila de los triggers
+     * (@omitir_resumenes). Se desactiva siempre antes de devolver la conexión al pool.
+     */
+    private static void omitirResumenes(Connection conn, boolean omitir) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(omitir ? "SET @omitir_resumenes = 1" : "SET @omitir_resumenes = NULL");
+        }
+    }
 
+    /**
+     * Descarta de la caché los reportes que incluyen la fecha (todos si no se conoce)
+     */
+    private void invalidarReportes(LocalDate fecha) {
+        if (fecha != null) {
+            CacheReportes.getInstance().invalidar(fecha);
+        } else {
+            CacheReportes.getInstance().invalidarTodo();
+        }
+    }
+}
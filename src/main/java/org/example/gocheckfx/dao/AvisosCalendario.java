@@ -0,0 +1,65 @@
+package org.example.gocheckfx.dao;
+
+import java.time.LocalDate;
+
+/**
+ * Avisa de los cambios que afectan el calendario laboral: los DAO de horarios, cambios de descanso,
+ * permisos, turnos y empleados llaman aquí después de cada escritura exitosa, sin depender de quien
+ * mantiene el calendario. Si no hay oyente registrado (herramientas de línea de comandos), los
+ * avisos se ignoran.
+ */
+public final class AvisosCalendario {
+
+    /**
+     * Recibe los avisos; normalmente MaterializadorCalendario, registrado al iniciar la aplicación
+     */
+    public interface Oyente {
+        /**
+         * Cambió todo el calendario (por ejemplo, el horario de un turno)
+         */
+        void actualizarTodo();
+
+        /**
+         * Cambió el calendario de un empleado desde hoy (su horario, turno o estado)
+         */
+        void actualizarEmpleado(int idEmpleado);
+
+        /**
+         * Cambiaron días sueltos de un empleado (cambios de descanso y permisos)
+         */
+        void actualizarDias(int idEmpleado, LocalDate... fechas);
+    }
+
+    private static volatile Oyente oyente;
+
+    private AvisosCalendario() {
+    }
+
+    /**
+     * Registra quien recibe los avisos (null para dejar de avisar)
+     */
+    public static void setOyente(Oyente nuevoOyente) {
+        oyente = nuevoOyente;
+    }
+
+    static void todo() {
+        Oyente actual = oyente;
+        if (actual != null) {
+            actual.actualizarTodo();
+        }
+    }
+
+    static void empleado(int idEmpleado) {
+        Oyente actual = oyente;
+        if (actual != null) {
+            actual.actualizarEmpleado(idEmpleado);
+        }
+    }
+
+    static void dias(int idEmpleado, LocalDate... fechas) {
+        Oyente actual = oyente;
+        if (actual != null) {
+            actual.actualizarDias(idEmpleado, fechas);
+        }
+    }
+}
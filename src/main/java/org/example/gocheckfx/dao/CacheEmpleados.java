@@ -0,0 +1,136 @@
+package org.example.gocheckfx.dao;
+
+import org.example.gocheckfx.models.Empleado;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice en memoria de los empleados activos por código único (QR/barras).
+ * Guarda cada empleado con los datos de su puesto y su turno para que el escaneo
+ * no tenga que consultar la base de datos. Los códigos que no están en el índice
+ * se buscan en la base de datos y se agregan al encontrarse.
+ */
+public class CacheEmpleados {
+
+    // Recargar el índice completo cada cierto tiempo para ver cambios hechos en otros equipos
+    private static final long VIGENCIA_NANOS = TimeUnit.MINUTES.toNanos(15);
+
+    private static volatile CacheEmpleados instance;
+
+    private final EmpleadoDAO empleadoDAO;
+    private final Object lockCarga = new Object();
+
+    private volatile Map<String, Empleado> indice; // null mientras no esté cargado
+    private volatile long instanteCarga;
+    private final AtomicLong generacion = new AtomicLong(); // Cambia con cada invalidación
+
+    private CacheEmpleados() {
+        empleadoDAO = new EmpleadoDAO();
+    }
+
+    /**
+     * Obtener la instancia única del índice de empleados
+     */
+    public static CacheEmpleados getInstance() {
+        if (instance == null) {
+            synchronized (CacheEmpleados.class) {
+                if (instance == null) {
+                    instance = new CacheEmpleados();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Carga en memoria todos los empleados activos con su puesto y turno
+     */
+    public void cargar() {
+        synchronized (lockCarga) {
+            cargarIndice();
+        }
+    }
+
+    /**
+     * Consulta los empleados activos y publica el índice, salvo que haya habido una
+     * invalidación durante la consulta. Debe llamarse con lockCarga tomado.
+     * @return El índice cargado, publicado o no
+     */
+    private Map<String, Empleado> cargarIndice() {
+        long generacionInicial = generacion.get();
+        List<Empleado> empleados = empleadoDAO.listarEmpleadosActivos();
+
+        Map<String, Empleado> nuevoIndice = new ConcurrentHashMap<>(empleados.size() * 2);
+        for (Empleado empleado : empleados) {
+            nuevoIndice.put(empleado.getCodigoUnico(), empleado);
+        }
+
+        // Si hubo una invalidación durante la consulta, los datos pueden estar desactualizados
+        if (generacionInicial == generacion.get()) {
+            indice = nuevoIndice;
+            instanteCarga = System.nanoTime();
+        }
+        return nuevoIndice;
+    }
+
+    /**
+     * Busca un empleado activo por su código único
+     * @param codigo El código único del empleado
+     * @return Empleado encontrado (con su turno) o null si no existe
+     */
+    public Empleado buscarPorCodigo(String codigo) {
+        Map<String, Empleado> actual = obtenerIndice();
+
+        Empleado empleado = actual.get(codigo);
+        if (empleado != null) {
+            return empleado;
+        }
+
+        // Código desconocido: consultar la base de datos por si es un empleado nuevo
+        long generacionInicial = generacion.get();
+        empleado = empleadoDAO.buscarPorCodigo(codigo);
+        if (empleado != null && generacionInicial == generacion.get()) {
+            actual.put(codigo, empleado);
+        }
+
+        return empleado;
+    }
+
+    /**
+     * Descarta el índice; se volverá a cargar en la siguiente búsqueda.
+     * Debe llamarse cuando cambian empleados, puestos o turnos.
+     */
+    public void invalidar() {
+        generacion.incrementAndGet();
+        indice = null;
+    }
+
+    /**
+     * Devuelve el índice vigente, cargándolo si no existe o ya expiró
+     */
+    private Map<String, Empleado> obtenerIndice() {
+        Map<String, Empleado> actual = indice;
+        if (actual == null || estaVencido()) {
+            synchronized (lockCarga) {
+                // Otro hilo pudo haberlo cargado mientras se esperaba el bloqueo
+                actual = indice;
+                if (actual == null || estaVencido()) {
+                    // Si una invalidación concurrente impide publicarlo, igual sirve para esta búsqueda
+                    actual = cargarIndice();
+                }
+            }
+        }
+        return actual;
+    }
+
+    /**
+     * Indica si el índice superó su tiempo de vigencia
+     */
+    private boolean estaVencido() {
+        return System.nanoTime() - instanteCarga > VIGENCIA_NANOS;
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.gocheckfx.dao;
+
+import org.example.gocheckfx.config.DatabaseConfig;
+import org.example.gocheckfx.models.DiaCalendario;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clase DAO para el calendario laboral precalculado.
+ * Las filas las escribe MaterializadorCalendario; los demás módulos solo las consultan.
+ */
+public class CalendarioLaboralDAO {
+
+    private static final int TAMANO_LOTE = 500;
+
+    /**
+     * Obtiene lo que le toca a un empleado en una fecha
+     * @return El día, o null si no está en el calendario (sin horario, fuera del horizonte o error)
+     */
+    public DiaCalendario obtenerDia(int idEmpleado, LocalDate fecha) {
+        String sql = "SELECT * FROM calendario_laboral WHERE id_empleado = ? AND fecha = ?";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, idEmpleado);
+            stmt.setDate(2, Date.valueOf(fecha));
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                return extraerDiaDeResultSet(rs);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener día del calendario: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Busca el turno del calendario que incluye un momento: el del mismo día o, para turnos
+     * nocturnos, el del día anterior
+     * @return El día laborable cuyo turno incluye el momento, o null si no debía estar trabajando
+     */
+    public DiaCalendario obtenerTurnoEnCurso(int idEmpleado, LocalDateTime momento) {
+        String sql = "SELECT * FROM calendario_laboral " +
+                "WHERE id_empleado = ? AND fecha IN (?, ?) AND tipo = 'LABORABLE' " +
+                "ORDER BY fecha DESC";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            LocalDate fecha = momento.toLocalDate();
+            stmt.setInt(1, idEmpleado);
+            stmt.setDate(2, Date.valueOf(fecha));
+            stmt.setDate(3, Date.valueOf(fecha.minusDays(1)));
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                DiaCalendario dia = extraerDiaDeResultSet(rs);
+                if (dia.incluye(momento)) {
+                    return dia;
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener turno en curso: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Obtiene el calendario de todos los empleados en un rango de fechas
+     * @return Lista de días ordenada por fecha y empleado, o null si ocurrió un error
+     */
+    public List<DiaCalendario> obtenerDiasRango(LocalDate fechaInicio, LocalDate fechaFin) {
+        List<DiaCalendario> dias = new ArrayList<>();
+        String sql = "SELECT * FROM calendario_laboral WHERE fecha BETWEEN ? AND ? " +
+                "ORDER BY fecha, id_empleado";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(fechaInicio));
+            stmt.setDate(2, Date.valueOf(fechaFin));
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                dias.add(extraerDiaDeResultSet(rs));
+            }
+            return dias;
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener calendario: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Reemplaza el calendario de un rango de fechas en una sola transacción: borra los días
+     * del rango (de un empleado o de todos) e inserta los nuevos en lotes
+     * @param idEmpleado Empleado a reemplazar, o null para todos
+     * @param dias Días nuevos; deben estar dentro del rango (y ser del empleado, si se indica)
+     * @return true si se aplicó todo, false si ocurrió un error (no se aplica nada)
+     */
+    public boolean reemplazarDias(Integer idEmpleado, LocalDate fechaInicio, LocalDate fechaFin,
+                                  List<DiaCalendario> dias) {
+        String sqlBorrar = "DELETE FROM calendario_laboral WHERE fecha BETWEEN ? AND ?" +
+                (idEmpleado != null ? " AND id_empleado = ?" : "");
+        String sqlInsertar = "INSERT INTO calendario_laboral " +
+                "(id_empleado, fecha, tipo, id_turno, hora_entrada, hora_salida) VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement borrar = conn.prepareStatement(sqlBorrar);
+                 PreparedStatement insertar = conn.prepareStatement(sqlInsertar)) {
+
+                borrar.setDate(1, Date.valueOf(fechaInicio));
+                borrar.setDate(2, Date.valueOf(fechaFin));
+                if (idEmpleado != null) {
+                    borrar.setInt(3, idEmpleado);
+                }
+                borrar.executeUpdate();
+
+                int enLote = 0;
+                for (DiaCalendario dia : dias) {
+                    insertar.setInt(1, dia.getIdEmpleado());
+                    insertar.setDate(2, Date.valueOf(dia.getFecha()));
+                    insertar.setString(3, dia.getTipo());
+                    insertar.setObject(4, dia.getIdTurno(), Types.INTEGER);
+                    insertar.setTime(5, dia.getHoraEntrada() != null ? Time.valueOf(dia.getHoraEntrada()) : null);
+                    insertar.setTime(6, dia.getHoraSalida() != null ? Time.valueOf(dia.getHoraSalida()) : null);
+                    insertar.addBatch();
+
+                    if (++enLote == TAMANO_LOTE) {
+                        insertar.executeBatch();
+                        enLote = 0;
+                    }
+                }
+                if (enLote > 0) {
+                    insertar.executeBatch();
+                }
+                conn.commit();
+                return true;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                System.err.println("Error al guardar calendario: " + e.getMessage());
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al guardar calendario: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    /**
+     * Extrae un día del calendario del ResultSet
+     */
+    private DiaCalendario extraerDiaDeResultSet(ResultSet rs) throws SQLException {
+        DiaCalendario dia = new DiaCalendario();
+
+        dia.setIdEmpleado(rs.getInt("id_empleado"));
+        dia.setFecha(rs.getDate("fecha").toLocalDate());
+        dia.setTipo(rs.getString("tipo"));
+
+        // El turno puede ser NULL
+        int idTurno = rs.getInt("id_turno");
+        if (!rs.wasNull()) {
+            dia.setIdTurno(idTurno);
+        }
+
+        Time entrada = rs.getTime("hora_entrada");
+        if (entrada != null) {
+            dia.setHoraEntrada(entrada.toLocalTime());
+        }
+
+        Time salida = rs.getTime("hora_salida");
+        if (salida != null) {
+            dia.setHoraSalida(salida.toLocalTime());
+        }
+
+        return dia;
+    }
+}
@@ -39,6 +39,8 @@ public class CambioDescansoDAO {
                 if (rs.next()) {
                     cambio.setIdCambio(rs.getInt(1));
                 }
+                AvisosCalendario.dias(cambio.getIdEmpleado(),
+                        cambio.getFechaOriginal(), cambio.getFechaNueva());
                 return true;
             }
 
@@ -112,6 +114,45 @@ public class CambioDescansoDAO {
         return cambios;
     }
 
+    /**
+     * Obtiene los cambios de descanso que afectan un rango de fechas, ya sea porque el
+     * descanso original o el nuevo cae dentro del rango
+     * @param fechaInicio Fecha inicial
+     * @param fechaFin Fecha final (inclusiva)
+     * @return Lista de cambios, o null si ocurrió un error
+     */
+    public List<CambioDescanso> obtenerCambiosRango(LocalDate fechaInicio, LocalDate fechaFin) {
+        List<CambioDescanso> cambios = new ArrayList<>();
+        String sql = "SELECT c.*, " +
+                "CONCAT(e.nombre, ' ', e.apellido) as nombre_empleado, " +
+                "CONCAT(a.nombre, ' ', a.apellido) as nombre_admin " +
+                "FROM cambios_descanso c " +
+                "JOIN empleados e ON c.id_empleado = e.id_empleado " +
+                "JOIN empleados a ON c.id_admin = a.id_empleado " +
+                "WHERE c.fecha_original BETWEEN ? AND ? OR c.fecha_nueva BETWEEN ? AND ? " +
+                "ORDER BY c.fecha_registro";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(fechaInicio));
+            stmt.setDate(2, Date.valueOf(fechaFin));
+            stmt.setDate(3, Date.valueOf(fechaInicio));
+            stmt.setDate(4, Date.valueOf(fechaFin));
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                cambios.add(extraerCambioDeResultSet(rs));
+            }
+            return cambios;
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener cambios de descanso: " + e.getMessage());
+        }
+
+        return null;
+    }
+
     /**
      * Verifica si ya existe un cambio de descanso para un empleado en una fecha específica
      * @param idEmpleado ID del empleado
@@ -2,6 +2,7 @@ package org.example.gocheckfx.dao;
 
 import org.example.gocheckfx.config.DatabaseConfig;
 import org.example.gocheckfx.models.Empleado;
+import org.example.gocheckfx.models.Turno;
 import org.example.gocheckfx.utils.BarcodeGenerator;
 
 import java.io.File;
@@ -22,7 +23,8 @@ public class EmpleadoDAO {
      * @return Empleado encontrado o null si no existe
      */
     public Empleado buscarPorCodigo(String codigo) {
-        String sql = "SELECT e.*, p.nombre_puesto, t.nombre_turno, t.hora_entrada, t.hora_salida " +
+        String sql = "SELECT e.*, p.nombre_puesto, t.nombre_turno, t.hora_entrada, t.hora_salida, " +
+                "t.duracion_desayuno, t.duracion_comida, t.permite_combinar_descanso " +
                 "FROM empleados e " +
                 "JOIN puestos p ON e.id_puesto = p.id_puesto " +
                 "JOIN turnos t ON e.id_turno = t.id_turno " +
@@ -51,7 +53,8 @@ public class EmpleadoDAO {
      * @return Empleado encontrado o null si no existe
      */
     public Empleado buscarPorId(int id) {
-        String sql = "SELECT e.*, p.nombre_puesto, t.nombre_turno, t.hora_entrada, t.hora_salida " +
+        String sql = "SELECT e.*, p.nombre_puesto, t.nombre_turno, t.hora_entrada, t.hora_salida, " +
+                "t.duracion_desayuno, t.duracion_comida, t.permite_combinar_descanso " +
                 "FROM empleados e " +
                 "JOIN puestos p ON e.id_puesto = p.id_puesto " +
                 "JOIN turnos t ON e.id_turno = t.id_turno " +
@@ -79,8 +82,18 @@ public class EmpleadoDAO {
      * @return Lista de empleados
      */
     public List<Empleado> listarEmpleadosActivos() {
+        List<Empleado> empleados = obtenerEmpleadosActivos();
+        return empleados != null ? empleados : new ArrayList<>();
+    }
+
+    /**
+     * Obtiene la lista de todos los empleados activos, distinguiendo un error de una lista vacía
+     * @return Lista de empleados, o null si ocurrió un error
+     */
+    public List<Empleado> obtenerEmpleadosActivos() {
         List<Empleado> empleados = new ArrayList<>();
-        String sql = "SELECT e.*, p.nombre_puesto, t.nombre_turno, t.hora_entrada, t.hora_salida " +
+        String sql = "SELECT e.*, p.nombre_puesto, t.nombre_turno, t.hora_entrada, t.hora_salida, " +
+                "t.duracion_desayuno, t.duracion_comida, t.permite_combinar_descanso " +
                 "FROM empleados e " +
                 "JOIN puestos p ON e.id_puesto = p.id_puesto " +
                 "JOIN turnos t ON e.id_turno = t.id_turno " +
@@ -94,12 +107,13 @@ public class EmpleadoDAO {
             while (rs.next()) {
                 empleados.add(extraerEmpleadoDeResultSet(rs));
             }
+            return empleados;
 
         } catch (SQLException e) {
             System.err.println("Error al listar empleados: " + e.getMessage());
         }
 
-        return empleados;
+        return null;
     }
 
     /**
@@ -141,6 +155,7 @@ public class EmpleadoDAO {
                     // Generar y guardar códigos
                     generarYGuardarCodigos(empleado);
                 }
+                CacheEmpleados.getInstance().invalidar();
                 return true;
             }
 
@@ -184,6 +199,12 @@ public class EmpleadoDAO {
 
             boolean actualizado = stmt.executeUpdate() > 0;
 
+            if (actualizado) {
+                CacheEmpleados.getInstance().invalidar();
+                // El turno del empleado pudo cambiar
+                AvisosCalendario.empleado(empleado.getIdEmpleado());
+            }
+
             // Si el código único cambió, regenerar los códigos
             if (actualizado && codigoCambiado) {
                 generarYGuardarCodigos(empleado);
@@ -250,7 +271,15 @@ public class EmpleadoDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, idEmpleado);
-            return stmt.executeUpdate() > 0;
+            boolean eliminado = stmt.executeUpdate() > 0;
+
+            if (eliminado) {
+                CacheEmpleados.getInstance().invalidar();
+                // Los empleados inactivos salen del calendario laboral
+                AvisosCalendario.empleado(idEmpleado);
+            }
+
+            return eliminado;
 
         } catch (SQLException e) {
             System.err.println("Error al eliminar empleado: " + e.getMessage());
@@ -287,6 +316,23 @@ public class EmpleadoDAO {
         empleado.setHoraEntrada(rs.getString("hora_entrada"));
         empleado.setHoraSalida(rs.getString("hora_salida"));
 
+        // Turno completo del empleado
+        Turno turno = new Turno();
+        turno.setIdTurno(empleado.getIdTurno());
+        turno.setNombreTurno(empleado.getNombreTurno());
+        Time horaEntrada = rs.getTime("hora_entrada");
+        if (horaEntrada != null) {
+            turno.setHoraEntrada(horaEntrada.toLocalTime());
+        }
+        Time horaSalida = rs.getTime("hora_salida");
+        if (horaSalida != null) {
+            turno.setHoraSalida(horaSalida.toLocalTime());
+        }
+        turno.setDuracionDesayuno(rs.getInt("duracion_desayuno"));
+        turno.setDuracionComida(rs.getInt("duracion_comida"));
+        turno.setPermiteCombinarDescanso(rs.getBoolean("permite_combinar_descanso"));
+        empleado.setTurno(turno);
+
         return empleado;
     }
 }
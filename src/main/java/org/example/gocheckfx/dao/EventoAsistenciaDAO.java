@@ -0,0 +1,140 @@
+package org.example.gocheckfx.dao;
+
+import org.example.gocheckfx.config.DatabaseConfig;
+import org.example.gocheckfx.models.EventoAsistencia;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clase DAO para leer la bandeja de salida de eventos de asistencia.
+ * Los eventos los escriben los triggers de asistencias; aquí solo se leen, se registra
+ * la posición de cada consumidor y se depuran los ya procesados.
+ */
+public class EventoAsistenciaDAO {
+
+    /**
+     * Obtiene los eventos posteriores a un número de evento, en orden. Los números se asignan al
+     * insertar y uno menor puede confirmarse después, así que la lista puede traer huecos;
+     * LectorEventosAsistencia los espera antes de avanzar.
+     * @param despuesDe Último evento ya procesado (0 para leer desde el principio)
+     * @param limite Número máximo de eventos
+     * @return Lista de eventos (vacía si no hay nuevos), o null si ocurrió un error
+     */
+    public List<EventoAsistencia> leerEventos(long despuesDe, int limite) {
+        List<EventoAsistencia> eventos = new ArrayList<>();
+        String sql = "SELECT * FROM eventos_asistencia WHERE id_evento > ? ORDER BY id_evento LIMIT ?";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setLong(1, despuesDe);
+            stmt.setInt(2, limite);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                eventos.add(extraerEventoDeResultSet(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al leer eventos de asistencia: " + e.getMessage());
+            return null;
+        }
+
+        return eventos;
+    }
+
+    /**
+     * Obtiene el último evento procesado por un consumidor
+     * @param consumidor Nombre del consumidor
+     * @return Número del último evento, 0 si el consumidor es nuevo, o -1 si ocurrió un error
+     */
+    public long obtenerPosicion(String consumidor) {
+        String sql = "SELECT ultimo_evento FROM consumidores_eventos WHERE nombre = ?";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, consumidor);
+            ResultSet rs = stmt.executeQuery();
+
+            return rs.next() ? rs.getLong("ultimo_evento") : 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener posición del consumidor: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    /**
+     * Registra el último evento procesado por un consumidor. La posición nunca retrocede.
+     * @param consumidor Nombre del consumidor
+     * @param ultimoEvento Número del último evento procesado
+     * @return true si se guardó con éxito, false en caso contrario
+     */
+    public boolean guardarPosicion(String consumidor, long ultimoEvento) {
+        String sql = "INSERT INTO consumidores_eventos (nombre, ultimo_evento) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE ultimo_evento = GREATEST(ultimo_evento, VALUES(ultimo_evento))";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, consumidor);
+            stmt.setLong(2, ultimoEvento);
+            stmt.executeUpdate();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error al guardar posición del consumidor: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    /**
+     * Elimina los eventos que ya procesaron todos los consumidores registrados
+     * y que son más antiguos que la fecha indicada
+     * @param antesDe Solo se eliminan eventos registrados antes de este momento
+     * @return Número de eventos eliminados, o -1 si ocurrió un error
+     */
+    public int depurarEventos(LocalDateTime antesDe) {
+        String sql = "DELETE FROM eventos_asistencia " +
+                "WHERE registrado < ? " +
+                "AND id_evento <= (SELECT IFNULL(MIN(ultimo_evento), 0) FROM consumidores_eventos)";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(antesDe));
+            return stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("Error al depurar eventos de asistencia: " + e.getMessage());
+        }
+
+        return -1;
+    }
+
+    private EventoAsistencia extraerEventoDeResultSet(ResultSet rs) throws SQLException {
+        EventoAsistencia evento = new EventoAsistencia();
+
+        evento.setIdEvento(rs.getLong("id_evento"));
+        evento.setIdAsistencia(rs.getInt("id_asistencia"));
+        evento.setIdEmpleado(rs.getInt("id_empleado"));
+        evento.setFecha(rs.getDate("fecha").toLocalDate());
+        evento.setTipo(rs.getString("tipo"));
+
+        Timestamp momento = rs.getTimestamp("momento");
+        if (momento != null) {
+            evento.setMomento(momento.toLocalDateTime());
+        }
+
+        evento.setEstado(rs.getString("estado"));
+        evento.setRegistrado(rs.getTimestamp("registrado").toLocalDateTime());
+
+        return evento;
+    }
+}
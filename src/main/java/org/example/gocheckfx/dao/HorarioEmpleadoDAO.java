@@ -5,7 +5,9 @@ import org.example.gocheckfx.models.HorarioEmpleado;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Clase DAO para acceder a los datos de horarios de empleados
@@ -66,6 +68,34 @@ public class HorarioEmpleadoDAO {
         return horarios;
     }
 
+    /**
+     * Obtiene los horarios de los empleados activos
+     * @return Horario de cada empleado por ID de empleado, o null si ocurrió un error
+     */
+    public Map<Integer, HorarioEmpleado> obtenerHorariosPorEmpleado() {
+        Map<Integer, HorarioEmpleado> horarios = new HashMap<>();
+        String sql = "SELECT h.*, e.nombre, e.apellido " +
+                "FROM horarios_empleados h " +
+                "JOIN empleados e ON h.id_empleado = e.id_empleado " +
+                "WHERE e.activo = 1";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                HorarioEmpleado horario = extraerHorarioDeResultSet(rs);
+                horarios.put(horario.getIdEmpleado(), horario);
+            }
+            return horarios;
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener horarios por empleado: " + e.getMessage());
+        }
+
+        return null;
+    }
+
     /**
      * Guarda un nuevo horario para un empleado
      * @param horario Horario a guardar
@@ -81,14 +111,20 @@ public class HorarioEmpleadoDAO {
             checkStmt.setInt(1, horario.getIdEmpleado());
             ResultSet rs = checkStmt.executeQuery();
 
+            boolean guardado;
             if (rs.next()) {
                 // Ya existe, actualizar
                 int idHorario = rs.getInt("id_horario");
-                return actualizar(idHorario, horario);
+                guardado = actualizar(idHorario, horario);
             } else {
                 // No existe, insertar nuevo
-                return insertar(horario);
+                guardado = insertar(horario);
+            }
+
+            if (guardado) {
+                AvisosCalendario.empleado(horario.getIdEmpleado());
             }
+            return guardado;
 
         } catch (SQLException e) {
             System.err.println("Error al guardar horario: " + e.getMessage());
@@ -162,7 +198,12 @@ public class HorarioEmpleadoDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, idEmpleado);
-            return stmt.executeUpdate() > 0;
+            boolean eliminado = stmt.executeUpdate() > 0;
+
+            if (eliminado) {
+                AvisosCalendario.empleado(idEmpleado);
+            }
+            return eliminado;
 
         } catch (SQLException e) {
             System.err.println("Error al eliminar horario: " + e.getMessage());
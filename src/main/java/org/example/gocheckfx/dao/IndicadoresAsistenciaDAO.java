@@ -0,0 +1,75 @@
+package org.example.gocheckfx.dao;
+
+import org.example.gocheckfx.config.DatabaseConfig;
+import org.example.gocheckfx.models.IndicadoresAsistencia;
+
+import java.sql.*;
+import java.time.LocalDate;
+
+/**
+ * Clase DAO para los indicadores del panel de administración.
+ * Los conteos se resuelven en la base de datos, así que cada consulta devuelve una fila
+ * de totales y una fila por bloque con llegadas, sin importar el número de empleados.
+ */
+public class IndicadoresAsistenciaDAO {
+
+    /**
+     * Obtiene los indicadores de asistencia de un día
+     * @param fecha Fecha a consultar
+     * @return Indicadores del día, o null si ocurrió un error
+     */
+    public IndicadoresAsistencia obtenerIndicadoresDia(LocalDate fecha) {
+        String sqlConteos = "SELECT COUNT(*) AS empleados, " +
+                "IFNULL(SUM(a.estado = 'PRESENTE' AND a.hora_entrada IS NOT NULL), 0) AS presentes, " +
+                "IFNULL(SUM(a.estado = 'RETARDO'), 0) AS retardos, " +
+                "IFNULL(SUM(a.hora_salida IS NULL AND " +
+                "((a.inicio_descanso_1 IS NOT NULL AND a.fin_descanso_1 IS NULL) OR " +
+                "(a.inicio_descanso_2 IS NOT NULL AND a.fin_descanso_2 IS NULL))), 0) AS en_descanso, " +
+                "IFNULL(SUM(a.estado = 'JUSTIFICADO'), 0) AS justificados, " +
+                "IFNULL(SUM(a.id_asistencia IS NULL OR " +
+                "(a.hora_entrada IS NULL AND NOT (a.estado <=> 'JUSTIFICADO'))), 0) AS faltas " +
+                "FROM empleados e " +
+                "LEFT JOIN asistencias a ON a.id_empleado = e.id_empleado AND a.fecha = ? " +
+                "WHERE e.activo = 1";
+
+        String sqlLlegadas = "SELECT FLOOR(TIME_TO_SEC(TIME(hora_entrada)) / ?) AS bloque, COUNT(*) AS llegadas " +
+                "FROM asistencias " +
+                "WHERE fecha = ? AND hora_entrada IS NOT NULL " +
+                "GROUP BY bloque";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmtConteos = conn.prepareStatement(sqlConteos);
+             PreparedStatement stmtLlegadas = conn.prepareStatement(sqlLlegadas)) {
+
+            IndicadoresAsistencia indicadores = new IndicadoresAsistencia();
+            indicadores.setFecha(fecha);
+
+            stmtConteos.setDate(1, Date.valueOf(fecha));
+            try (ResultSet rs = stmtConteos.executeQuery()) {
+                if (rs.next()) {
+                    indicadores.setEmpleados(rs.getInt("empleados"));
+                    indicadores.setPresentes(rs.getInt("presentes"));
+                    indicadores.setRetardos(rs.getInt("retardos"));
+                    indicadores.setEnDescanso(rs.getInt("en_descanso"));
+                    indicadores.setJustificados(rs.getInt("justificados"));
+                    indicadores.setFaltas(rs.getInt("faltas"));
+                }
+            }
+
+            stmtLlegadas.setInt(1, IndicadoresAsistencia.MINUTOS_BLOQUE * 60);
+            stmtLlegadas.setDate(2, Date.valueOf(fecha));
+            try (ResultSet rs = stmtLlegadas.executeQuery()) {
+                while (rs.next()) {
+                    indicadores.setLlegadas(rs.getInt("bloque"), rs.getInt("llegadas"));
+                }
+            }
+
+            return indicadores;
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener indicadores de asistencia: " + e.getMessage());
+        }
+
+        return null;
+    }
+}
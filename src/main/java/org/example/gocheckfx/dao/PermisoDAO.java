@@ -132,15 +132,28 @@ public class PermisoDAO {
      */
     public boolean actualizarEstadoPermiso(int idPermiso, String estado, int idAdmin) {
         String sql = "UPDATE permisos SET estado = ?, id_admin = ? WHERE id_permiso = ?";
+        String sqlPermiso = "SELECT id_empleado, fecha FROM permisos WHERE id_permiso = ?";
 
         try (Connection conn = DatabaseConfig.getInstance().getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             PreparedStatement permisoStmt = conn.prepareStatement(sqlPermiso)) {
 
             stmt.setString(1, estado);
             stmt.setInt(2, idAdmin);
             stmt.setInt(3, idPermiso);
 
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() == 0) {
+                return false;
+            }
+
+            // El día del permiso cambia en el calendario laboral
+            permisoStmt.setInt(1, idPermiso);
+            ResultSet rs = permisoStmt.executeQuery();
+            if (rs.next()) {
+                AvisosCalendario.dias(rs.getInt("id_empleado"),
+                        rs.getDate("fecha").toLocalDate());
+            }
+            return true;
 
         } catch (SQLException e) {
             System.err.println("Error al actualizar estado de permiso: " + e.getMessage());
@@ -148,6 +161,42 @@ public class PermisoDAO {
         }
     }
 
+    /**
+     * Obtiene los permisos aprobados de un rango de fechas
+     * @param fechaInicio Fecha inicial
+     * @param fechaFin Fecha final (inclusiva)
+     * @return Lista de permisos, o null si ocurrió un error
+     */
+    public List<Permiso> obtenerPermisosAprobadosRango(LocalDate fechaInicio, LocalDate fechaFin) {
+        List<Permiso> permisos = new ArrayList<>();
+        String sql = "SELECT p.*, " +
+                "CONCAT(e.nombre, ' ', e.apellido) as nombre_empleado, " +
+                "CONCAT(a.nombre, ' ', a.apellido) as nombre_admin " +
+                "FROM permisos p " +
+                "JOIN empleados e ON p.id_empleado = e.id_empleado " +
+                "LEFT JOIN empleados a ON p.id_admin = a.id_empleado " +
+                "WHERE p.fecha BETWEEN ? AND ? AND p.estado = 'APROBADO' " +
+                "ORDER BY p.fecha, p.id_empleado";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(fechaInicio));
+            stmt.setDate(2, Date.valueOf(fechaFin));
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                permisos.add(extraerPermisoDeResultSet(rs));
+            }
+            return permisos;
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener permisos aprobados: " + e.getMessage());
+        }
+
+        return null;
+    }
+
     /**
      * Verifica si ya existe un permiso para un empleado en una fecha específica
      * @param idEmpleado ID del empleado
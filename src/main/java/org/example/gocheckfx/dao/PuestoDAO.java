@@ -113,7 +113,14 @@ public class PuestoDAO {
             stmt.setBoolean(4, puesto.isActivo());
             stmt.setInt(5, puesto.getIdPuesto());
 
-            return stmt.executeUpdate() > 0;
+            boolean actualizado = stmt.executeUpdate() > 0;
+
+            if (actualizado) {
+                // Los empleados en caché guardan datos del puesto
+                CacheEmpleados.getInstance().invalidar();
+            }
+
+            return actualizado;
 
         } catch (SQLException e) {
             System.err.println("Error al actualizar puesto: " + e.getMessage());
@@ -134,7 +141,14 @@ public class PuestoDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, idPuesto);
-            return stmt.executeUpdate() > 0;
+            boolean eliminado = stmt.executeUpdate() > 0;
+
+            if (eliminado) {
+                // Los empleados en caché guardan datos del puesto
+                CacheEmpleados.getInstance().invalidar();
+            }
+
+            return eliminado;
 
         } catch (SQLException e) {
             System.err.println("Error al eliminar puesto: " + e.getMessage());
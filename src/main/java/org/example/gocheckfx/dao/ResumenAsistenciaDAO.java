@@ -0,0 +1,233 @@
+package org.example.gocheckfx.dao;
+
+import org.example.gocheckfx.config.DatabaseConfig;
+import org.example.gocheckfx.models.ResumenAsistencia;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clase DAO para leer los resúmenes diarios y mensuales de asistencia.
+ * Los resúmenes se actualizan en la base de datos con cada cambio en asistencias
+ * (triggers); aquí solo se consultan o se reconstruyen.
+ */
+public class ResumenAsistenciaDAO {
+
+    private static final String COLUMNAS_MINUTOS =
+            "IFNULL(SUM(minutos_trabajados), 0) AS minutos_trabajados, " +
+            "IFNULL(SUM(minutos_descanso), 0) AS minutos_descanso, " +
+            "IFNULL(SUM(minutos_exceso_descanso), 0) AS minutos_exceso_descanso, " +
+            "IFNULL(SUM(minutos_retardo), 0) AS minutos_retardo ";
+
+    /**
+     * Obtiene el resumen mensual de todos los empleados (o de uno)
+     * @param anio Año
+     * @param mes Mes (1-12)
+     * @param idEmpleado ID del empleado, o null para todos
+     * @return Lista de resúmenes ordenada por nombre del empleado
+     */
+    public List<ResumenAsistencia> obtenerResumenMensual(int anio, int mes, Integer idEmpleado) {
+        List<ResumenAsistencia> resumenes = new ArrayList<>();
+        String sql = "SELECT r.*, e.codigo_unico AS codigo_empleado, " +
+                "CONCAT(e.nombre, ' ', e.apellido) AS nombre_empleado " +
+                "FROM resumen_mensual r " +
+                "JOIN empleados e ON r.id_empleado = e.id_empleado " +
+                "WHERE r.anio = ? AND r.mes = ? " +
+                (idEmpleado != null ? "AND r.id_empleado = ? " : "") +
+                "ORDER BY e.apellido, e.nombre";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, anio);
+            stmt.setInt(2, mes);
+            if (idEmpleado != null) {
+                stmt.setInt(3, idEmpleado);
+            }
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                ResumenAsistencia resumen = extraerResumenBase(rs);
+                resumen.setAnio(rs.getInt("anio"));
+                resumen.setMes(rs.getInt("mes"));
+                resumen.setDiasPresente(rs.getInt("dias_presente"));
+                resumen.setDiasRetardo(rs.getInt("dias_retardo"));
+                resumen.setDiasFalta(rs.getInt("dias_falta"));
+                resumen.setDiasJustificado(rs.getInt("dias_justificado"));
+                resumen.setDiasExcesoDescanso(rs.getInt("dias_exceso_descanso"));
+                resumenes.add(resumen);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener resumen mensual: " + e.getMessage());
+        }
+
+        return resumenes;
+    }
+
+    /**
+     * Obtiene los resúmenes diarios de un rango de fechas
+     * @param fechaInicio Fecha inicial
+     * @param fechaFin Fecha final
+     * @param idEmpleado ID del empleado, o null para todos
+     * @return Lista de resúmenes ordenada por fecha y empleado
+     */
+    public List<ResumenAsistencia> obtenerResumenesDiarios(LocalDate fechaInicio, LocalDate fechaFin,
+                                                           Integer idEmpleado) {
+        List<ResumenAsistencia> resumenes = new ArrayList<>();
+        String sql = "SELECT r.*, e.codigo_unico AS codigo_empleado, " +
+                "CONCAT(e.nombre, ' ', e.apellido) AS nombre_empleado " +
+                "FROM resumen_diario r " +
+                "JOIN empleados e ON r.id_empleado = e.id_empleado " +
+                "WHERE r.fecha BETWEEN ? AND ? " +
+                (idEmpleado != null ? "AND r.id_empleado = ? " : "") +
+                "ORDER BY r.fecha, r.id_empleado";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setDate(1, Date.valueOf(fechaInicio));
+            stmt.setDate(2, Date.valueOf(fechaFin));
+            if (idEmpleado != null) {
+                stmt.setInt(3, idEmpleado);
+            }
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                ResumenAsistencia resumen = extraerResumenBase(rs);
+                LocalDate fecha = rs.getDate("fecha").toLocalDate();
+                resumen.setFecha(fecha);
+                resumen.setAnio(fecha.getYear());
+                resumen.setMes(fecha.getMonthValue());
+
+                // Un día cuenta en el contador de su estado
+                switch (rs.getString("estado")) {
+                    case "PRESENTE" -> resumen.setDiasPresente(1);
+                    case "RETARDO" -> resumen.setDiasRetardo(1);
+                    case "JUSTIFICADO" -> resumen.setDiasJustificado(1);
+                    default -> resumen.setDiasFalta(1);
+                }
+                resumen.setDiasExcesoDescanso(resumen.getMinutosExcesoDescanso() > 0 ? 1 : 0);
+                resumenes.add(resumen);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener resúmenes diarios: " + e.getMessage());
+        }
+
+        return resumenes;
+    }
+
+    /**
+     * Suma los resúmenes de un rango de fechas (de todos los empleados o de uno) sin recorrer
+     * asistencias. Si el rango abarca meses completos se lee resumen_mensual; si no, resumen_diario.
+     * @param fechaInicio Fecha inicial
+     * @param fechaFin Fecha final
+     * @param idEmpleado ID del empleado, o null para todos
+     * @return Totales del rango (sin empleado ni periodo), o null si ocurrió un error
+     */
+    public ResumenAsistencia obtenerTotalesRango(LocalDate fechaInicio, LocalDate fechaFin, Integer idEmpleado) {
+        boolean mesesCompletos = fechaInicio.getDayOfMonth() == 1
+                && fechaFin.getDayOfMonth() == fechaFin.lengthOfMonth();
+        String sql = mesesCompletos ?
+                "SELECT IFNULL(SUM(dias_presente), 0) AS dias_presente, " +
+                        "IFNULL(SUM(dias_retardo), 0) AS dias_retardo, " +
+                        "IFNULL(SUM(dias_falta), 0) AS dias_falta, " +
+                        "IFNULL(SUM(dias_justificado), 0) AS dias_justificado, " +
+                        "IFNULL(SUM(dias_exceso_descanso), 0) AS dias_exceso_descanso, " +
+                        COLUMNAS_MINUTOS +
+                        "FROM resumen_mensual " +
+                        "WHERE anio BETWEEN ? AND ? AND (anio > ? OR mes >= ?) AND (anio < ? OR mes <= ?) " :
+                "SELECT IFNULL(SUM(estado = 'PRESENTE'), 0) AS dias_presente, " +
+                        "IFNULL(SUM(estado = 'RETARDO'), 0) AS dias_retardo, " +
+                        "IFNULL(SUM(estado = 'FALTA'), 0) AS dias_falta, " +
+                        "IFNULL(SUM(estado = 'JUSTIFICADO'), 0) AS dias_justificado, " +
+                        "IFNULL(SUM(minutos_exceso_descanso > 0), 0) AS dias_exceso_descanso, " +
+                        COLUMNAS_MINUTOS +
+                        "FROM resumen_diario " +
+                        "WHERE fecha BETWEEN ? AND ? ";
+        if (idEmpleado != null) {
+            sql += "AND id_empleado = ?";
+        }
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            // Límites sobre anio y mes (no anio * 100 + mes) para que la consulta use los índices
+            int indice = 1;
+            if (mesesCompletos) {
+                stmt.setInt(indice++, fechaInicio.getYear());
+                stmt.setInt(indice++, fechaFin.getYear());
+                stmt.setInt(indice++, fechaInicio.getYear());
+                stmt.setInt(indice++, fechaInicio.getMonthValue());
+                stmt.setInt(indice++, fechaFin.getYear());
+                stmt.setInt(indice++, fechaFin.getMonthValue());
+            } else {
+                stmt.setDate(indice++, Date.valueOf(fechaInicio));
+                stmt.setDate(indice++, Date.valueOf(fechaFin));
+            }
+            if (idEmpleado != null) {
+                stmt.setInt(indice, idEmpleado);
+            }
+            ResultSet rs = stmt.executeQuery();
+
+            if (rs.next()) {
+                ResumenAsistencia totales = new ResumenAsistencia();
+                totales.setDiasPresente(rs.getInt("dias_presente"));
+                totales.setDiasRetardo(rs.getInt("dias_retardo"));
+                totales.setDiasFalta(rs.getInt("dias_falta"));
+                totales.setDiasJustificado(rs.getInt("dias_justificado"));
+                totales.setDiasExcesoDescanso(rs.getInt("dias_exceso_descanso"));
+                totales.setMinutosTrabajados(rs.getInt("minutos_trabajados"));
+                totales.setMinutosDescanso(rs.getInt("minutos_descanso"));
+                totales.setMinutosExcesoDescanso(rs.getInt("minutos_exceso_descanso"));
+                totales.setMinutosRetardo(rs.getInt("minutos_retardo"));
+                return totales;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener totales de asistencia: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Reconstruye los resúmenes diarios y mensuales de un rango de fechas a partir de asistencias.
+     * Solo es necesario después de cargar datos por fuera de la aplicación o de cambiar un turno.
+     * @param fechaInicio Fecha inicial
+     * @param fechaFin Fecha final
+     * @return true si se reconstruyó con éxito, false en caso contrario
+     */
+    public boolean reconstruir(LocalDate fechaInicio, LocalDate fechaFin) {
+        String sql = "{CALL reconstruir_resumenes(?, ?)}";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             CallableStatement stmt = conn.prepareCall(sql)) {
+
+            stmt.setDate(1, Date.valueOf(fechaInicio));
+            stmt.setDate(2, Date.valueOf(fechaFin));
+            stmt.execute();
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Error al reconstruir resúmenes de asistencia: " + e.getMessage());
+        }
+
+        return false;
+    }
+
+    private ResumenAsistencia extraerResumenBase(ResultSet rs) throws SQLException {
+        ResumenAsistencia resumen = new ResumenAsistencia();
+        resumen.setIdEmpleado(rs.getInt("id_empleado"));
+        resumen.setCodigoEmpleado(rs.getString("codigo_empleado"));
+        resumen.setNombreEmpleado(rs.getString("nombre_empleado"));
+        resumen.setMinutosTrabajados(rs.getInt("minutos_trabajados"));
+        resumen.setMinutosDescanso(rs.getInt("minutos_descanso"));
+        resumen.setMinutosExcesoDescanso(rs.getInt("minutos_exceso_descanso"));
+        resumen.setMinutosRetardo(rs.getInt("minutos_retardo"));
+        return resumen;
+    }
+}
@@ -2,11 +2,14 @@ package org.example.gocheckfx.dao;
 
 import org.example.gocheckfx.config.DatabaseConfig;
 import org.example.gocheckfx.models.Turno;
+import org.example.gocheckfx.utils.MotorReglasTurno;
 
 import java.sql.*;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Clase DAO para acceder a los datos de turnos en la base de datos.
@@ -36,6 +39,37 @@ public class TurnoDAO {
         return turnos;
     }
 
+    /**
+     * Obtiene el turno asignado a cada empleado en una sola consulta.
+     * Los empleados con el mismo turno comparten la misma instancia de Turno.
+     * @return Mapa de ID de empleado a turno (vacío si hay error)
+     */
+    public Map<Integer, Turno> obtenerTurnosPorEmpleado() {
+        Map<Integer, Turno> turnosPorEmpleado = new HashMap<>();
+        Map<Integer, Turno> turnos = new HashMap<>();
+        String sql = "SELECT e.id_empleado, t.* FROM empleados e " +
+                "JOIN turnos t ON e.id_turno = t.id_turno";
+
+        try (Connection conn = DatabaseConfig.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                Turno turno = turnos.get(rs.getInt("id_turno"));
+                if (turno == null) {
+                    turno = extraerTurnoDeResultSet(rs);
+                    turnos.put(turno.getIdTurno(), turno);
+                }
+                turnosPorEmpleado.put(rs.getInt("id_empleado"), turno);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error al obtener turnos por empleado: " + e.getMessage());
+        }
+
+        return turnosPorEmpleado;
+    }
+
     /**
      * Busca un turno por su ID
      * @param id El ID del turno
@@ -119,7 +153,16 @@ public class TurnoDAO {
             stmt.setBoolean(6, turno.isPermiteCombinarDescanso());
             stmt.setInt(7, turno.getIdTurno());
 
-            return stmt.executeUpdate() > 0;
+            boolean actualizado = stmt.executeUpdate() > 0;
+
+            if (actualizado) {
+                // Los empleados en caché guardan datos del turno
+                CacheEmpleados.getInstance().invalidar();
+                MotorReglasTurno.getInstance().invalidar(turno.getIdTurno());
+                AvisosCalendario.todo();
+            }
+
+            return actualizado;
 
         } catch (SQLException e) {
             System.err.println("Error al actualizar turno: " + e.getMessage());
@@ -140,7 +183,15 @@ public class TurnoDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, idTurno);
-            return stmt.executeUpdate() > 0;
+            boolean eliminado = stmt.executeUpdate() > 0;
+
+            if (eliminado) {
+                // Los empleados en caché guardan datos del turno
+                CacheEmpleados.getInstance().invalidar();
+                MotorReglasTurno.getInstance().invalidar(idTurno);
+            }
+
+            return eliminado;
 
         } catch (SQLException e) {
             System.err.println("Error al eliminar turno: " + e.getMessage());
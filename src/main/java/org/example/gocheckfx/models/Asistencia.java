@@ -18,6 +18,7 @@ public class Asistencia {
     private LocalDateTime finDescanso2;
     private String estado;  // PRESENTE, FALTA, RETARDO, JUSTIFICADO
     private String notas;
+    private LocalDateTime actualizado;  // Último cambio del registro; solo lo leen las escrituras condicionales
 
     // Campos calculados/relacionados
     private String nombreEmpleado;
@@ -142,6 +143,14 @@ public class Asistencia {
         this.notas = notas;
     }
 
+    public LocalDateTime getActualizado() {
+        return actualizado;
+    }
+
+    public void setActualizado(LocalDateTime actualizado) {
+        this.actualizado = actualizado;
+    }
+
     // Getters y setters para campos calculados
     public String getNombreEmpleado() {
         return nombreEmpleado;
@@ -159,27 +168,6 @@ public class Asistencia {
         this.codigoEmpleado = codigoEmpleado;
     }
 
-    /**
-     * Determina la acción que debe registrarse según el estado actual de la asistencia
-     * @return Tipo de acción a registrar (ENTRADA, SALIDA, INICIO_DESCANSO1, etc.)
-     */
-    public String determinarSiguienteAccion() {
-        if (horaEntrada == null) {
-            return "ENTRADA";
-        } else if (inicioDescanso1 == null) {
-            return "INICIO_DESCANSO1";
-        } else if (finDescanso1 == null) {
-            return "FIN_DESCANSO1";
-        } else if (inicioDescanso2 == null) {
-            return "INICIO_DESCANSO2";
-        } else if (finDescanso2 == null) {
-            return "FIN_DESCANSO2";
-        } else if (horaSalida == null) {
-            return "SALIDA";
-        }
-        return "COMPLETO";
-    }
-
     @Override
     public String toString() {
         return "Asistencia [ID=" + idAsistencia + ", Empleado=" + idEmpleado +
@@ -0,0 +1,33 @@
+package org.example.gocheckfx.models;
+
+import java.util.List;
+
+/**
+ * Asistencias modificadas desde una marca de tiempo, junto con la marca hasta la que llegan
+ * (la que debe usarse en la siguiente consulta).
+ */
+public class CambiosAsistencias {
+    private final List<Asistencia> asistencias;
+    private final long marca;
+
+    public CambiosAsistencias(List<Asistencia> asistencias, long marca) {
+        this.asistencias = asistencias;
+        this.marca = marca;
+    }
+
+    public List<Asistencia> getAsistencias() {
+        return asistencias;
+    }
+
+    /**
+     * Momento del último cambio leído, en milisegundos
+     */
+    public long getMarca() {
+        return marca;
+    }
+
+    @Override
+    public String toString() {
+        return "CambiosAsistencias [Registros=" + asistencias.size() + ", Marca=" + marca + "]";
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.gocheckfx.models;
+
+import java.time.LocalDate;
+
+/**
+ * Posición de una asistencia en el orden (fecha, id_empleado) de los reportes.
+ * Se usa para pedir la página que sigue a una fila sin contar las filas anteriores.
+ */
+public class ClaveAsistencia {
+    private final LocalDate fecha;
+    private final int idEmpleado;
+
+    public ClaveAsistencia(LocalDate fecha, int idEmpleado) {
+        this.fecha = fecha;
+        this.idEmpleado = idEmpleado;
+    }
+
+    /**
+     * Clave de una asistencia ya cargada
+     */
+    public static ClaveAsistencia de(Asistencia asistencia) {
+        return new ClaveAsistencia(asistencia.getFecha(), asistencia.getIdEmpleado());
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public int getIdEmpleado() {
+        return idEmpleado;
+    }
+
+    @Override
+    public String toString() {
+        return "ClaveAsistencia [Fecha=" + fecha + ", Empleado=" + idEmpleado + "]";
+    }
+}
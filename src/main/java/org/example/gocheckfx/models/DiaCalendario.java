@@ -0,0 +1,96 @@
+package org.example.gocheckfx.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Día del calendario laboral de un empleado (tabla calendario_laboral): si le tocaba trabajar,
+ * descansar o tenía permiso, y el horario de su turno en los días laborables.
+ */
+public class DiaCalendario {
+    private int idEmpleado;
+    private LocalDate fecha;
+    private String tipo;            // LABORABLE, DESCANSO, PERMISO
+    private Integer idTurno;        // Solo en días laborables
+    private LocalTime horaEntrada;
+    private LocalTime horaSalida;
+
+    // Constructor vacío
+    public DiaCalendario() {
+    }
+
+    public boolean isLaborable() {
+        return "LABORABLE".equals(tipo);
+    }
+
+    /**
+     * Indica si el momento cae dentro del turno de este día. Los turnos nocturnos terminan
+     * al día siguiente, así que un momento de madrugada puede pertenecer al día anterior.
+     */
+    public boolean incluye(LocalDateTime momento) {
+        if (!isLaborable() || horaEntrada == null || horaSalida == null) return false;
+
+        LocalDateTime inicio = fecha.atTime(horaEntrada);
+        LocalDateTime fin = fecha.atTime(horaSalida);
+        if (!fin.isAfter(inicio)) {
+            fin = fin.plusDays(1);
+        }
+        return !momento.isBefore(inicio) && momento.isBefore(fin);
+    }
+
+    // Getters y setters
+    public int getIdEmpleado() {
+        return idEmpleado;
+    }
+
+    public void setIdEmpleado(int idEmpleado) {
+        this.idEmpleado = idEmpleado;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public Integer getIdTurno() {
+        return idTurno;
+    }
+
+    public void setIdTurno(Integer idTurno) {
+        this.idTurno = idTurno;
+    }
+
+    public LocalTime getHoraEntrada() {
+        return horaEntrada;
+    }
+
+    public void setHoraEntrada(LocalTime horaEntrada) {
+        this.horaEntrada = horaEntrada;
+    }
+
+    public LocalTime getHoraSalida() {
+        return horaSalida;
+    }
+
+    public void setHoraSalida(LocalTime horaSalida) {
+        this.horaSalida = horaSalida;
+    }
+
+    @Override
+    public String toString() {
+        return fecha + " empleado " + idEmpleado + ": " + tipo +
+                (isLaborable() && horaEntrada != null ? " " + horaEntrada + " - " + horaSalida : "");
+    }
+}
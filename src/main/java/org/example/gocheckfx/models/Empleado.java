@@ -23,6 +23,7 @@ public class Empleado {
     private String nombreTurno;
     private String horaEntrada;
     private String horaSalida;
+    private Turno turno;
 
     // Constructor vacío
     public Empleado() {
@@ -158,6 +159,14 @@ public class Empleado {
         this.horaSalida = horaSalida;
     }
 
+    public Turno getTurno() {
+        return turno;
+    }
+
+    public void setTurno(Turno turno) {
+        this.turno = turno;
+    }
+
     public String getNombreCompleto() {
         return nombre + " " + apellido;
     }
@@ -0,0 +1,101 @@
+package org.example.gocheckfx.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Evento de la bandeja de salida de asistencias (tabla eventos_asistencia).
+ * Se genera uno por cada alta o modificación de un registro de asistencia.
+ */
+public class EventoAsistencia {
+    private long idEvento;          // Consecutivo de la bandeja; los eventos se leen en este orden
+    private int idAsistencia;
+    private int idEmpleado;
+    private LocalDate fecha;
+    private String tipo;            // FALTA, ENTRADA, ..., SALIDA, JUSTIFICACION, CAMBIO_ESTADO, MODIFICACION
+    private LocalDateTime momento;  // Hora de la checada (solo en eventos de checada)
+    private String estado;
+    private LocalDateTime registrado;
+
+    // Constructor vacío
+    public EventoAsistencia() {
+    }
+
+    /**
+     * true si el evento es una checada (entrada, salida o descanso)
+     */
+    public boolean isChecada() {
+        return momento != null;
+    }
+
+    // Getters y setters
+    public long getIdEvento() {
+        return idEvento;
+    }
+
+    public void setIdEvento(long idEvento) {
+        this.idEvento = idEvento;
+    }
+
+    public int getIdAsistencia() {
+        return idAsistencia;
+    }
+
+    public void setIdAsistencia(int idAsistencia) {
+        this.idAsistencia = idAsistencia;
+    }
+
+    public int getIdEmpleado() {
+        return idEmpleado;
+    }
+
+    public void setIdEmpleado(int idEmpleado) {
+        this.idEmpleado = idEmpleado;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public LocalDateTime getMomento() {
+        return momento;
+    }
+
+    public void setMomento(LocalDateTime momento) {
+        this.momento = momento;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public LocalDateTime getRegistrado() {
+        return registrado;
+    }
+
+    public void setRegistrado(LocalDateTime registrado) {
+        this.registrado = registrado;
+    }
+
+    @Override
+    public String toString() {
+        return "EventoAsistencia [ID=" + idEvento + ", Tipo=" + tipo + ", Empleado=" + idEmpleado +
+                ", Fecha=" + fecha + ", Estado=" + estado + "]";
+    }
+}
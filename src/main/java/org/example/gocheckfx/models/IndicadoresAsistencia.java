@@ -0,0 +1,105 @@
+package org.example.gocheckfx.models;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Indicadores de asistencia de un día: conteos por situación de los empleados activos
+ * y llegadas por bloque de 15 minutos.
+ */
+public class IndicadoresAsistencia {
+    public static final int MINUTOS_BLOQUE = 15;
+    public static final int BLOQUES_DIA = 24 * 60 / MINUTOS_BLOQUE;
+
+    private LocalDate fecha;
+    private int empleados;
+    private int presentes;      // Entraron a tiempo
+    private int retardos;
+    private int enDescanso;     // Con un descanso iniciado y sin terminar
+    private int faltas;         // Sin entrada y sin justificación
+    private int justificados;
+    private final int[] llegadasPorBloque = new int[BLOQUES_DIA];
+
+    // Constructor vacío
+    public IndicadoresAsistencia() {
+    }
+
+    /**
+     * Hora de inicio de un bloque
+     */
+    public static LocalTime inicioBloque(int bloque) {
+        return LocalTime.MIN.plusMinutes((long) bloque * MINUTOS_BLOQUE);
+    }
+
+    public int getLlegadas(int bloque) {
+        return llegadasPorBloque[bloque];
+    }
+
+    public void setLlegadas(int bloque, int llegadas) {
+        llegadasPorBloque[bloque] = llegadas;
+    }
+
+    // Getters y setters
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+
+    public int getEmpleados() {
+        return empleados;
+    }
+
+    public void setEmpleados(int empleados) {
+        this.empleados = empleados;
+    }
+
+    public int getPresentes() {
+        return presentes;
+    }
+
+    public void setPresentes(int presentes) {
+        this.presentes = presentes;
+    }
+
+    public int getRetardos() {
+        return retardos;
+    }
+
+    public void setRetardos(int retardos) {
+        this.retardos = retardos;
+    }
+
+    public int getEnDescanso() {
+        return enDescanso;
+    }
+
+    public void setEnDescanso(int enDescanso) {
+        this.enDescanso = enDescanso;
+    }
+
+    public int getFaltas() {
+        return faltas;
+    }
+
+    public void setFaltas(int faltas) {
+        this.faltas = faltas;
+    }
+
+    public int getJustificados() {
+        return justificados;
+    }
+
+    public void setJustificados(int justificados) {
+        this.justificados = justificados;
+    }
+
+    @Override
+    public String toString() {
+        return "IndicadoresAsistencia [Fecha=" + fecha + ", Empleados=" + empleados + ", Presentes=" + presentes +
+                ", Retardos=" + retardos + ", EnDescanso=" + enDescanso + ", Faltas=" + faltas +
+                ", Justificados=" + justificados + "]";
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.gocheckfx.models;
+
+/**
+ * Resultado de registrar una checada: la acción aplicada, el registro de asistencia
+ * resultante y los datos del empleado que checó.
+ */
+public class ResultadoChecada {
+
+    public static final String NO_ENCONTRADO = "NO_ENCONTRADO";
+    public static final String COMPLETO = "COMPLETO";
+    public static final String NO_APLICABLE = "NO_APLICABLE";
+
+    private String accion; // ENTRADA, INICIO_DESCANSO1, ..., SALIDA, COMPLETO, NO_APLICABLE o NO_ENCONTRADO
+    private Asistencia asistencia;
+    private Empleado empleado;
+
+    public ResultadoChecada() {
+    }
+
+    public ResultadoChecada(String accion, Asistencia asistencia, Empleado empleado) {
+        this.accion = accion;
+        this.asistencia = asistencia;
+        this.empleado = empleado;
+    }
+
+    // Getters y setters
+    public String getAccion() {
+        return accion;
+    }
+
+    public void setAccion(String accion) {
+        this.accion = accion;
+    }
+
+    public Asistencia getAsistencia() {
+        return asistencia;
+    }
+
+    public void setAsistencia(Asistencia asistencia) {
+        this.asistencia = asistencia;
+    }
+
+    public Empleado getEmpleado() {
+        return empleado;
+    }
+
+    public void setEmpleado(Empleado empleado) {
+        this.empleado = empleado;
+    }
+
+    /**
+     * Indica si el código correspondía a un empleado activo
+     */
+    public boolean isEmpleadoEncontrado() {
+        return !NO_ENCONTRADO.equals(accion);
+    }
+
+    /**
+     * Indica si la checada modificó el registro del día
+     */
+    public boolean isRegistrada() {
+        return isEmpleadoEncontrado() && !COMPLETO.equals(accion) && !NO_APLICABLE.equals(accion);
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoChecada [Acción=" + accion + ", Asistencia=" + asistencia + "]";
+    }
+}
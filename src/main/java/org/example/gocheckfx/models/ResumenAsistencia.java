@@ -0,0 +1,157 @@
+package org.example.gocheckfx.models;
+
+import java.time.LocalDate;
+
+/**
+ * Resumen precalculado de asistencia de un empleado en un día o en un mes
+ * (tablas resumen_diario y resumen_mensual).
+ */
+public class ResumenAsistencia {
+    private int idEmpleado;
+    private String codigoEmpleado;
+    private String nombreEmpleado;
+    private LocalDate fecha;  // Solo en resúmenes diarios
+    private int anio;
+    private int mes;
+    private int diasPresente;
+    private int diasRetardo;
+    private int diasFalta;
+    private int diasJustificado;
+    private int diasExcesoDescanso;
+    private int minutosTrabajados;
+    private int minutosDescanso;
+    private int minutosExcesoDescanso;
+    private int minutosRetardo;
+
+    // Constructor vacío
+    public ResumenAsistencia() {
+    }
+
+    // Getters y setters
+    public int getIdEmpleado() {
+        return idEmpleado;
+    }
+
+    public void setIdEmpleado(int idEmpleado) {
+        this.idEmpleado = idEmpleado;
+    }
+
+    public String getCodigoEmpleado() {
+        return codigoEmpleado;
+    }
+
+    public void setCodigoEmpleado(String codigoEmpleado) {
+        this.codigoEmpleado = codigoEmpleado;
+    }
+
+    public String getNombreEmpleado() {
+        return nombreEmpleado;
+    }
+
+    public void setNombreEmpleado(String nombreEmpleado) {
+        this.nombreEmpleado = nombreEmpleado;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+
+    public int getAnio() {
+        return anio;
+    }
+
+    public void setAnio(int anio) {
+        this.anio = anio;
+    }
+
+    public int getMes() {
+        return mes;
+    }
+
+    public void setMes(int mes) {
+        this.mes = mes;
+    }
+
+    public int getDiasPresente() {
+        return diasPresente;
+    }
+
+    public void setDiasPresente(int diasPresente) {
+        this.diasPresente = diasPresente;
+    }
+
+    public int getDiasRetardo() {
+        return diasRetardo;
+    }
+
+    public void setDiasRetardo(int diasRetardo) {
+        this.diasRetardo = diasRetardo;
+    }
+
+    public int getDiasFalta() {
+        return diasFalta;
+    }
+
+    public void setDiasFalta(int diasFalta) {
+        this.diasFalta = diasFalta;
+    }
+
+    public int getDiasJustificado() {
+        return diasJustificado;
+    }
+
+    public void setDiasJustificado(int diasJustificado) {
+        this.diasJustificado = diasJustificado;
+    }
+
+    public int getDiasExcesoDescanso() {
+        return diasExcesoDescanso;
+    }
+
+    public void setDiasExcesoDescanso(int diasExcesoDescanso) {
+        this.diasExcesoDescanso = diasExcesoDescanso;
+    }
+
+    public int getMinutosTrabajados() {
+        return minutosTrabajados;
+    }
+
+    public void setMinutosTrabajados(int minutosTrabajados) {
+        this.minutosTrabajados = minutosTrabajados;
+    }
+
+    public int getMinutosDescanso() {
+        return minutosDescanso;
+    }
+
+    public void setMinutosDescanso(int minutosDescanso) {
+        this.minutosDescanso = minutosDescanso;
+    }
+
+    public int getMinutosExcesoDescanso() {
+        return minutosExcesoDescanso;
+    }
+
+    public void setMinutosExcesoDescanso(int minutosExcesoDescanso) {
+        this.minutosExcesoDescanso = minutosExcesoDescanso;
+    }
+
+    public int getMinutosRetardo() {
+        return minutosRetardo;
+    }
+
+    public void setMinutosRetardo(int minutosRetardo) {
+        this.minutosRetardo = minutosRetardo;
+    }
+
+    @Override
+    public String toString() {
+        return "ResumenAsistencia [Empleado=" + idEmpleado + ", Periodo=" +
+                (fecha != null ? fecha.toString() : anio + "-" + mes) +
+                ", Trabajados=" + minutosTrabajados + " min]";
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.gocheckfx.models;
+
+/**
+ * Tiempos calculados de una jornada (o la suma de varias), en minutos.
+ */
+public class TiemposJornada {
+    private int jornadas;
+    private int minutosTrabajados;      // De entrada a salida, sin descansos
+    private int minutosDescanso;
+    private int minutosExcesoDescanso;  // Por encima de lo que permite el turno
+    private int minutosRetardo;
+    private int minutosExtra;           // Trabajados por encima de la jornada del turno
+
+    // Constructor vacío
+    public TiemposJornada() {
+    }
+
+    /**
+     * Acumula los tiempos de otra jornada o suma de jornadas
+     */
+    public void sumar(TiemposJornada otros) {
+        jornadas += otros.jornadas;
+        minutosTrabajados += otros.minutosTrabajados;
+        minutosDescanso += otros.minutosDescanso;
+        minutosExcesoDescanso += otros.minutosExcesoDescanso;
+        minutosRetardo += otros.minutosRetardo;
+        minutosExtra += otros.minutosExtra;
+    }
+
+    /**
+     * Deja todos los tiempos en cero para reutilizar el objeto
+     */
+    public void limpiar() {
+        jornadas = 0;
+        minutosTrabajados = 0;
+        minutosDescanso = 0;
+        minutosExcesoDescanso = 0;
+        minutosRetardo = 0;
+        minutosExtra = 0;
+    }
+
+    // Getters y setters
+    public int getJornadas() {
+        return jornadas;
+    }
+
+    public void setJornadas(int jornadas) {
+        this.jornadas = jornadas;
+    }
+
+    public int getMinutosTrabajados() {
+        return minutosTrabajados;
+    }
+
+    public void setMinutosTrabajados(int minutosTrabajados) {
+        this.minutosTrabajados = minutosTrabajados;
+    }
+
+    public int getMinutosDescanso() {
+        return minutosDescanso;
+    }
+
+    public void setMinutosDescanso(int minutosDescanso) {
+        this.minutosDescanso = minutosDescanso;
+    }
+
+    public int getMinutosExcesoDescanso() {
+        return minutosExcesoDescanso;
+    }
+
+    public void setMinutosExcesoDescanso(int minutosExcesoDescanso) {
+        this.minutosExcesoDescanso = minutosExcesoDescanso;
+    }
+
+    public int getMinutosRetardo() {
+        return minutosRetardo;
+    }
+
+    public void setMinutosRetardo(int minutosRetardo) {
+        this.minutosRetardo = minutosRetardo;
+    }
+
+    public int getMinutosExtra() {
+        return minutosExtra;
+    }
+
+    public void setMinutosExtra(int minutosExtra) {
+        this.minutosExtra = minutosExtra;
+    }
+
+    @Override
+    public String toString() {
+        return "TiemposJornada [Jornadas=" + jornadas + ", Trabajados=" + minutosTrabajados +
+                ", Descanso=" + minutosDescanso + ", Exceso=" + minutosExcesoDescanso +
+                ", Retardo=" + minutosRetardo + ", Extra=" + minutosExtra + "]";
+    }
+}
@@ -0,0 +1,355 @@
+package org.example.gocheckfx.utils;
+
+import org.example.gocheckfx.config.DatabaseConfig;
+import org.example.gocheckfx.dao.AsistenciaDAO;
+import org.example.gocheckfx.dao.CalendarioLaboralDAO;
+import org.example.gocheckfx.dao.CambioDescansoDAO;
+import org.example.gocheckfx.dao.EmpleadoDAO;
+import org.example.gocheckfx.dao.HorarioEmpleadoDAO;
+import org.example.gocheckfx.dao.PermisoDAO;
+import org.example.gocheckfx.models.DiaCalendario;
+import org.example.gocheckfx.models.Empleado;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Registra FALTA a los empleados activos que debían trabajar un día terminado y no tienen
+ * registro de asistencia, según el calendario laboral ({@link MaterializadorCalendario}); si el
+ * día no está en el calendario (anterior a su creación) se resuelve con {@link DiasLaborables}.
+ * No se registra falta en días de descanso, con permiso aprobado, antes de la fecha de
+ * contratación ni a empleados sin horario.
+ * Un día en el que nadie checó se omite completo (día inhábil o sistema fuera de servicio).
+ * Las faltas se insertan en lotes dentro de una sola transacción y sin tocar los registros
+ * existentes, así que repetir el barrido de un día es seguro.
+ * Programado, corre cada día a la hora indicada sobre el día anterior y, al iniciar, repasa
+ * los últimos {@link #DIAS_RECUPERACION} días por si la aplicación estuvo cerrada.
+ *
+ * Uso:
+ * <pre>
+ * BarridoFaltas &lt;desde&gt; [hasta] [--simular] [--lote N]
+ * </pre>
+ */
+public class BarridoFaltas {
+
+    public static final int TAMANO_LOTE_PREDETERMINADO = 500;
+    public static final LocalTime HORA_PREDETERMINADA = LocalTime.of(0, 30);
+    public static final int DIAS_RECUPERACION = 7;
+
+    /**
+     * Resultado del barrido de un día
+     */
+    public static class Resumen {
+        private final LocalDate fecha;
+        private final boolean simulacion;
+        private final boolean completo;
+        private final boolean sinChecadas;
+        private final int empleados;
+        private final int conRegistro;
+        private final int descansos;
+        private final int permisos;
+        private final int sinHorario;
+        private final int faltas;
+
+        private Resumen(LocalDate fecha, boolean simulacion, boolean completo, boolean sinChecadas,
+                        int empleados, int conRegistro, int descansos, int permisos, int sinHorario, int faltas) {
+            this.fecha = fecha;
+            this.simulacion = simulacion;
+            this.completo = completo;
+            this.sinChecadas = sinChecadas;
+            this.empleados = empleados;
+            this.conRegistro = conRegistro;
+            this.descansos = descansos;
+            this.permisos = permisos;
+            this.sinHorario = sinHorario;
+            this.faltas = faltas;
+        }
+
+        private static Resumen fallido(LocalDate fecha, boolean simulacion) {
+            return new Resumen(fecha, simulacion, false, false, 0, 0, 0, 0, 0, 0);
+        }
+
+        public LocalDate getFecha() {
+            return fecha;
+        }
+
+        public boolean isSimulacion() {
+            return simulacion;
+        }
+
+        /**
+         * Indica si el día se revisó y se escribió sin errores
+         */
+        public boolean isCompleto() {
+            return completo;
+        }
+
+        /**
+         * Indica si el día se omitió porque nadie checó
+         */
+        public boolean isSinChecadas() {
+            return sinChecadas;
+        }
+
+        public int getEmpleados() {
+            return empleados;
+        }
+
+        public int getConRegistro() {
+            return conRegistro;
+        }
+
+        public int getDescansos() {
+            return descansos;
+        }
+
+        public int getPermisos() {
+            return permisos;
+        }
+
+        public int getSinHorario() {
+            return sinHorario;
+        }
+
+        /**
+         * Faltas registradas (o que se registrarían, en simulación)
+         */
+        public int getFaltas() {
+            return faltas;
+        }
+
+        @Override
+        public String toString() {
+            if (!completo) {
+                return "Barrido de faltas " + fecha + ": no se pudo completar";
+            }
+            if (sinChecadas) {
+                return "Barrido de faltas " + fecha + ": sin checadas, se omite";
+            }
+            return String.format("%s de faltas %s: %d empleados, %d con registro, %d en descanso, " +
+                            "%d con permiso, %d sin horario, %d faltas",
+                    simulacion ? "Simulación" : "Barrido", fecha, empleados, conRegistro,
+                    descansos, permisos, sinHorario, faltas);
+        }
+    }
+
+    private final AsistenciaDAO asistenciaDAO = new AsistenciaDAO();
+    private final CalendarioLaboralDAO calendarioDAO = new CalendarioLaboralDAO();
+    private final EmpleadoDAO empleadoDAO = new EmpleadoDAO();
+    private final HorarioEmpleadoDAO horarioDAO = new HorarioEmpleadoDAO();
+    private final CambioDescansoDAO cambioDAO = new CambioDescansoDAO();
+    private final PermisoDAO permisoDAO = new PermisoDAO();
+
+    private boolean simulacion;
+    private int tamanoLote = TAMANO_LOTE_PREDETERMINADO;
+    private ScheduledExecutorService programador;
+
+    /**
+     * En modo simulación no se escribe nada; solo se cuentan las faltas
+     */
+    public void setSimulacion(boolean simulacion) {
+        this.simulacion = simulacion;
+    }
+
+    /**
+     * Filas por lote de inserción
+     */
+    public void setTamanoLote(int tamanoLote) {
+        this.tamanoLote = Math.max(1, tamanoLote);
+    }
+
+    /**
+     * Registra las faltas de un día terminado
+     * @param fecha Día a revisar (anterior a hoy)
+     * @return Resumen del barrido
+     */
+    public synchronized Resumen ejecutar(LocalDate fecha) {
+        if (!fecha.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Solo se pueden barrer días terminados: " + fecha);
+        }
+
+        Set<Integer> conRegistro = asistenciaDAO.obtenerEmpleadosConAsistencia(fecha);
+        if (conRegistro == null) {
+            return Resumen.fallido(fecha, simulacion);
+        }
+        if (conRegistro.isEmpty()) {
+            return new Resumen(fecha, simulacion, true, true, 0, 0, 0, 0, 0, 0);
+        }
+
+        IntFunction<DiasLaborables.TipoDia> tipoDia = resolverDia(fecha);
+        if (tipoDia == null) {
+            return Resumen.fallido(fecha, simulacion);
+        }
+
+        List<Empleado> activos = empleadoDAO.obtenerEmpleadosActivos();
+        if (activos == null) {
+            return Resumen.fallido(fecha, simulacion);
+        }
+
+        int empleados = 0;
+        int registrados = 0;
+        int descansos = 0;
+        int permisos = 0;
+        int sinHorario = 0;
+        List<Integer> faltantes = new ArrayList<>();
+
+        for (Empleado empleado : activos) {
+            LocalDate contratacion = empleado.getFechaContratacion();
+            if (contratacion != null && contratacion.isAfter(fecha)) continue;
+
+            empleados++;
+            if (conRegistro.contains(empleado.getIdEmpleado())) {
+                registrados++;
+                continue;
+            }
+
+            switch (tipoDia.apply(empleado.getIdEmpleado())) {
+                case LABORABLE -> faltantes.add(empleado.getIdEmpleado());
+                case DESCANSO -> descansos++;
+                case PERMISO -> permisos++;
+                case SIN_HORARIO -> sinHorario++;
+            }
+        }
+
+        if (!simulacion && !asistenciaDAO.insertarFaltasLote(fecha, faltantes, tamanoLote)) {
+            return Resumen.fallido(fecha, simulacion);
+        }
+
+        return new Resumen(fecha, simulacion, true, false, empleados, registrados, descansos,
+                permisos, sinHorario, faltantes.size());
+    }
+
+    /**
+     * Qué le tocaba a cada empleado en la fecha: del calendario laboral (una consulta) o, si la
+     * fecha no está calculada, de horarios, cambios de descanso y permisos
+     * @return Resolvedor por ID de empleado, o null si no se pudieron leer los datos
+     */
+    private IntFunction<DiasLaborables.TipoDia> resolverDia(LocalDate fecha) {
+        List<DiaCalendario> calendario = calendarioDAO.obtenerDiasRango(fecha, fecha);
+        if (calendario == null) {
+            return null;
+        }
+
+        if (!calendario.isEmpty()) {
+            // Los empleados sin horario no tienen filas en el calendario
+            Map<Integer, DiasLaborables.TipoDia> tipos = new HashMap<>();
+            for (DiaCalendario dia : calendario) {
+                tipos.put(dia.getIdEmpleado(), DiasLaborables.TipoDia.valueOf(dia.getTipo()));
+            }
+            return idEmpleado -> tipos.getOrDefault(idEmpleado, DiasLaborables.TipoDia.SIN_HORARIO);
+        }
+
+        DiasLaborables dias = DiasLaborables.desdeBaseDeDatos(fecha, fecha, horarioDAO, cambioDAO, permisoDAO);
+        return dias != null ? idEmpleado -> dias.resolver(idEmpleado, fecha) : null;
+    }
+
+    /**
+     * Registra las faltas de cada día de un rango
+     * @param fechaFin Fecha final (inclusiva); se limita a ayer
+     * @return Resumen de cada día
+     */
+    public List<Resumen> ejecutarRango(LocalDate fechaInicio, LocalDate fechaFin) {
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        if (fechaFin.isAfter(ayer)) {
+            fechaFin = ayer;
+        }
+
+        List<Resumen> resumenes = new ArrayList<>();
+        for (LocalDate fecha = fechaInicio; !fecha.isAfter(fechaFin); fecha = fecha.plusDays(1)) {
+            resumenes.add(ejecutar(fecha));
+        }
+        return resumenes;
+    }
+
+    /**
+     * Repasa los últimos días y programa el barrido diario del día anterior en un hilo propio
+     * @param hora Hora del día a la que corre el barrido
+     */
+    public synchronized void programar(LocalTime hora) {
+        if (programador != null) return;
+
+        programador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread hilo = new Thread(runnable, "barrido-faltas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+
+        LocalDate hoy = LocalDate.now();
+        programador.execute(() -> ejecutarRango(hoy.minusDays(DIAS_RECUPERACION), hoy.minusDays(1))
+                .forEach(System.out::println));
+        programarSiguiente(programador, hora);
+    }
+
+    /**
+     * Cancela el barrido programado
+     */
+    public synchronized void detener() {
+        if (programador != null) {
+            programador.shutdownNow();
+            programador = null;
+        }
+    }
+
+    /**
+     * Programa la siguiente ejecución; se calcula cada vez para respetar cambios de horario
+     */
+    private synchronized void programarSiguiente(ScheduledExecutorService ejecutor, LocalTime hora) {
+        if (programador != ejecutor) return;  // Se detuvo (o se volvió a programar) mientras corría
+
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime siguiente = ahora.toLocalDate().atTime(hora);
+        if (!siguiente.isAfter(ahora)) {
+            siguiente = siguiente.plusDays(1);
+        }
+
+        ejecutor.schedule(() -> {
+            try {
+                System.out.println(ejecutar(LocalDate.now().minusDays(1)));
+            } catch (RuntimeException e) {
+                System.err.println("Error en el barrido de faltas: " + e.getMessage());
+            }
+            programarSiguiente(ejecutor, hora);
+        }, Duration.between(ahora, siguiente).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Uso: BarridoFaltas <desde> [hasta] [--simular] [--lote N]");
+            return;
+        }
+
+        BarridoFaltas barrido = new BarridoFaltas();
+        LocalDate desde = LocalDate.parse(args[0]);
+        LocalDate hasta = desde;
+
+        int i = 1;
+        if (args.length > 1 && !args[1].startsWith("--")) {
+            hasta = LocalDate.parse(args[1]);
+            i = 2;
+        }
+        for (; i < args.length; i++) {
+            switch (args[i]) {
+                case "--simular" -> barrido.setSimulacion(true);
+                case "--lote" -> barrido.setTamanoLote(Integer.parseInt(args[++i]));
+                default -> throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+
+        try {
+            barrido.ejecutarRango(desde, hasta).forEach(System.out::println);
+        } finally {
+            DatabaseConfig.getInstance().closeConnection();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.example.gocheckfx.utils;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mide el rendimiento de la decodificación sin cámara ni interfaz gráfica,
+ * usando fotos de gafetes o secuencias grabadas en los kioscos.
+ *
+ * Uso:
+ * <pre>
+ * BenchmarkDecodificacion &lt;directorio|indice&gt; [--hilos N] [--factor N] [--repeticiones N] [--tiempo-real]
+ * </pre>
+ * Sin --tiempo-real decodifica todos los frames en memoria lo más rápido posible.
+ * Con --tiempo-real reproduce la fuente a su ritmo original y decodifica frame por frame en un solo hilo.
+ */
+public class BenchmarkDecodificacion {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println("Uso: BenchmarkDecodificacion <directorio|indice> [--hilos N] [--factor N] "
+                    + "[--repeticiones N] [--tiempo-real]");
+            return;
+        }
+
+        Path ruta = Paths.get(args[0]);
+        int hilos = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        int factor = 1;
+        int repeticiones = 5;
+        boolean tiempoReal = false;
+
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--hilos" -> hilos = Integer.parseInt(args[++i]);
+                case "--factor" -> factor = Integer.parseInt(args[++i]);
+                case "--repeticiones" -> repeticiones = Integer.parseInt(args[++i]);
+                case "--tiempo-real" -> tiempoReal = true;
+                default -> throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+
+        FuenteFrames.ModoReproduccion modo = tiempoReal ?
+                FuenteFrames.ModoReproduccion.TIEMPO_REAL : FuenteFrames.ModoReproduccion.MAXIMA_VELOCIDAD;
+        FuenteFrames fuente = Files.isDirectory(ruta) ?
+                new FuenteDirectorioImagenes(ruta, modo, false) : new FuenteSecuenciaGrabada(ruta, modo);
+
+        if (tiempoReal) {
+            medirTiempoReal(fuente, factor);
+        } else {
+            medirMaximaVelocidad(fuente, hilos, factor, repeticiones);
+        }
+    }
+
+    /**
+     * Decodifica todos los frames (ya cargados en memoria) repartidos entre varios hilos
+     */
+    private static void medirMaximaVelocidad(FuenteFrames fuente, int hilos, int factor, int repeticiones)
+            throws Exception {
+        List<BufferedImage> frames = new ArrayList<>();
+        fuente.abrir();
+        try {
+            BufferedImage frame;
+            while ((frame = fuente.leerFrame()) != null) {
+                frames.add(frame);
+            }
+        } finally {
+            fuente.cerrar();
+        }
+
+        System.out.printf("Frames: %d (%dx%d), hilos: %d, factor: %d, repeticiones: %d%n",
+                frames.size(), fuente.getTamano().width, fuente.getTamano().height, hilos, factor, repeticiones);
+
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            // Una pasada de calentamiento para que el JIT compile la decodificación
+            ejecutarPasada(executor, frames, hilos, factor, new ConcurrentHashMap<>());
+
+            Map<String, AtomicInteger> codigos = new ConcurrentHashMap<>();
+            long inicio = System.nanoTime();
+            long tiempoDecodificacion = 0;
+            for (int r = 0; r < repeticiones; r++) {
+                tiempoDecodificacion += ejecutarPasada(executor, frames, hilos, factor, codigos);
+            }
+            long transcurrido = System.nanoTime() - inicio;
+
+            int totalFrames = frames.size() * repeticiones;
+            int leidos = codigos.values().stream().mapToInt(AtomicInteger::get).sum();
+            System.out.printf("Frames por segundo: %.1f%n", totalFrames / (transcurrido / 1e9));
+            System.out.printf("Tiempo promedio por frame: %.2f ms%n", tiempoDecodificacion / 1e6 / totalFrames);
+            System.out.printf("Frames con código: %d de %d (%.1f%%)%n",
+                    leidos, totalFrames, 100.0 * leidos / totalFrames);
+            imprimirCodigos(codigos);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Decodifica cada frame una vez
+     * @return Suma del tiempo de decodificación de todos los frames, en nanosegundos
+     */
+    private static long ejecutarPasada(ExecutorService executor, List<BufferedImage> frames, int hilos, int factor,
+                                       Map<String, AtomicInteger> codigos) throws Exception {
+        AtomicInteger siguiente = new AtomicInteger();
+        List<Future<Long>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < hilos; h++) {
+            tareas.add(executor.submit(() -> {
+                DecodificadorFrames decodificador = new DecodificadorFrames();
+                decodificador.setFactorReduccion(factor);
+
+                long tiempo = 0;
+                int i;
+                while ((i = siguiente.getAndIncrement()) < frames.size()) {
+                    long inicio = System.nanoTime();
+                    String codigo = decodificador.decodificar(frames.get(i));
+                    tiempo += System.nanoTime() - inicio;
+
+                    if (codigo != null) {
+                        codigos.computeIfAbsent(codigo, c -> new AtomicInteger()).incrementAndGet();
+                    }
+                }
+                return tiempo;
+            }));
+        }
+
+        long total = 0;
+        for (Future<Long> tarea : tareas) {
+            total += tarea.get();
+        }
+        return total;
+    }
+
+    /**
+     * Reproduce la fuente a su ritmo original y decodifica cada frame en cuanto llega, sin
+     * la detección de movimiento ni el filtro de repetidos del escáner. Si decodificar tarda
+     * más que el intervalo entre frames, la reproducción se atrasa respecto a la grabación.
+     */
+    private static void medirTiempoReal(FuenteFrames fuente, int factor) throws Exception {
+        DecodificadorFrames decodificador = new DecodificadorFrames();
+        decodificador.setFactorReduccion(factor);
+        HistogramaLatencia latencias = new HistogramaLatencia();
+        Map<String, AtomicInteger> codigos = new ConcurrentHashMap<>();
+
+        fuente.abrir();
+        long inicio = System.nanoTime();
+        int frames = 0;
+        try {
+            BufferedImage frame;
+            while ((frame = fuente.leerFrame()) != null) {
+                long inicioFrame = System.nanoTime();
+                String codigo = decodificador.decodificar(frame);
+                latencias.registrarDesde(inicioFrame);
+                frames++;
+
+                if (codigo != null) {
+                    codigos.computeIfAbsent(codigo, c -> new AtomicInteger()).incrementAndGet();
+                }
+            }
+        } finally {
+            fuente.cerrar();
+        }
+
+        long[] conteos = latencias.copiarConteos();
+        int leidos = codigos.values().stream().mapToInt(AtomicInteger::get).sum();
+        System.out.printf("Reproducción terminada en %.1f s, frames: %d, factor: %d%n",
+                (System.nanoTime() - inicio) / 1e9, frames, factor);
+        System.out.printf("Decodificación p50: %.2f ms, p99: %.2f ms, máximo: %.2f ms%n",
+                HistogramaLatencia.percentilMs(conteos, 50), HistogramaLatencia.percentilMs(conteos, 99),
+                HistogramaLatencia.maximoMs(conteos));
+        System.out.printf("Frames con código: %d de %d%n", leidos, frames);
+        imprimirCodigos(codigos);
+    }
+
+    private static void imprimirCodigos(Map<String, AtomicInteger> codigos) {
+        new TreeMap<>(codigos).forEach((codigo, veces) ->
+                System.out.println("  " + codigo + ": " + veces.get()));
+    }
+}
@@ -0,0 +1,263 @@
+package org.example.gocheckfx.utils;
+
+import org.example.gocheckfx.models.Asistencia;
+import org.example.gocheckfx.models.ClaveAsistencia;
+import org.example.gocheckfx.models.ResumenAsistencia;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Caché de los reportes generados recientemente, para que volver a ver un reporte no repita
+ * las consultas. Guarda el número de filas y las páginas ya cargadas de cada reporte, hasta
+ * {@link #MAX_REPORTES} reportes (se descartan los menos usados).
+ * AsistenciaDAO invalida los reportes que incluyen una fecha cuando modifica asistencias de ese día.
+ */
+public class CacheReportes {
+
+    private static final int MAX_REPORTES = 20;
+    private static final int PAGINAS_POR_REPORTE = 10;
+
+    private static volatile CacheReportes instance;
+
+    // Reportes de la menos a la más usada
+    private final Map<Clave, Reporte> reportes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Clave, Reporte> eldest) {
+            return size() > MAX_REPORTES;
+        }
+    };
+
+    // Cuenta las invalidaciones, para detectar las que ocurren mientras se genera un reporte
+    private long generacion;
+
+    private CacheReportes() {
+    }
+
+    /**
+     * Obtiene la instancia única de la caché
+     */
+    public static CacheReportes getInstance() {
+        if (instance == null) {
+            synchronized (CacheReportes.class) {
+                if (instance == null) {
+                    instance = new CacheReportes();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Busca un reporte generado con los mismos filtros
+     * @return El reporte o null si no está en caché o fue invalidado
+     */
+    public synchronized Reporte obtener(Clave clave) {
+        return reportes.get(clave);
+    }
+
+    /**
+     * Guarda un reporte generado. Si mientras se generaba se modificaron asistencias,
+     * no se guarda porque podría no reflejar el cambio.
+     */
+    public synchronized void guardar(Reporte reporte) {
+        if (reporte.isVigente()) {
+            reportes.put(reporte.getClave(), reporte);
+        }
+    }
+
+    /**
+     * Descarta los reportes cuyo rango incluye la fecha
+     */
+    public synchronized void invalidar(LocalDate fecha) {
+        Iterator<Reporte> iterador = reportes.values().iterator();
+        while (iterador.hasNext()) {
+            Reporte reporte = iterador.next();
+            if (reporte.getClave().incluye(fecha)) {
+                reporte.vigente = false;
+                iterador.remove();
+            }
+        }
+        generacion++;
+    }
+
+    /**
+     * Descarta todos los reportes
+     */
+    public synchronized void invalidarTodo() {
+        reportes.values().forEach(reporte -> reporte.vigente = false);
+        reportes.clear();
+        generacion++;
+    }
+
+    /**
+     * Marca el inicio de la generación de un reporte
+     * @return Valor a pasar al crear el {@link Reporte}
+     */
+    public synchronized long iniciarGeneracion() {
+        return generacion;
+    }
+
+    private synchronized boolean huboInvalidacionDesde(long generacionInicial) {
+        return generacion != generacionInicial;
+    }
+
+    /**
+     * Filtros de un reporte
+     */
+    public static final class Clave {
+        private final LocalDate fechaInicio;
+        private final LocalDate fechaFin;
+        private final Integer idEmpleado;
+        private final String estado;
+
+        /**
+         * @param idEmpleado ID del empleado, o null para todos
+         * @param estado Estado a incluir, o null para todos
+         */
+        public Clave(LocalDate fechaInicio, LocalDate fechaFin, Integer idEmpleado, String estado) {
+            this.fechaInicio = fechaInicio;
+            this.fechaFin = fechaFin;
+            this.idEmpleado = idEmpleado;
+            this.estado = estado;
+        }
+
+        public boolean incluye(LocalDate fecha) {
+            return !fecha.isBefore(fechaInicio) && !fecha.isAfter(fechaFin);
+        }
+
+        public LocalDate getFechaInicio() {
+            return fechaInicio;
+        }
+
+        public LocalDate getFechaFin() {
+            return fechaFin;
+        }
+
+        public Integer getIdEmpleado() {
+            return idEmpleado;
+        }
+
+        public String getEstado() {
+            return estado;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Clave)) return false;
+            Clave otra = (Clave) o;
+            return fechaInicio.equals(otra.fechaInicio) && fechaFin.equals(otra.fechaFin) &&
+                    Objects.equals(idEmpleado, otra.idEmpleado) && Objects.equals(estado, otra.estado);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fechaInicio, fechaFin, idEmpleado, estado);
+        }
+
+        @Override
+        public String toString() {
+            return "Reporte [" + fechaInicio + " - " + fechaFin + ", Empleado=" + idEmpleado +
+                    ", Estado=" + estado + "]";
+        }
+    }
+
+    /**
+     * Reporte generado: número de filas, páginas cargadas (las más recientes) y la clave
+     * de la fila anterior a cada página conocida
+     */
+    public static final class Reporte {
+        private final Clave clave;
+        private final long total;
+        private final ResumenAsistencia totales;
+        private volatile boolean vigente;
+
+        // Páginas de la menos a la más usada (hilo de JavaFX)
+        private final Map<Integer, List<Asistencia>> paginas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Asistencia>> eldest) {
+                return size() > PAGINAS_POR_REPORTE;
+            }
+        };
+
+        // Se consulta desde el hilo de carga de páginas
+        private final ConcurrentSkipListMap<Integer, ClaveAsistencia> claves = new ConcurrentSkipListMap<>();
+
+        /**
+         * @param generacion Valor de {@link CacheReportes#iniciarGeneracion()} antes de consultar el total
+         * @param totales Totales del periodo según los resúmenes, o null si no se pudieron leer
+         * @param primeraPagina Filas de la página 0, o null si no se cargaron
+         * @param tamanoPagina Filas por página
+         */
+        public Reporte(Clave clave, long generacion, long total, ResumenAsistencia totales,
+                       List<Asistencia> primeraPagina, int tamanoPagina) {
+            this.clave = clave;
+            this.total = total;
+            this.totales = totales;
+            this.vigente = !getInstance().huboInvalidacionDesde(generacion);
+
+            if (primeraPagina != null) {
+                paginas.put(0, primeraPagina);
+                if (primeraPagina.size() == tamanoPagina) {
+                    claves.put(1, ClaveAsistencia.de(primeraPagina.get(tamanoPagina - 1)));
+                }
+            }
+        }
+
+        public Clave getClave() {
+            return clave;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * Totales del periodo (días por estado y minutos de retardo) leídos de los resúmenes,
+         * o null si no se pudieron leer
+         */
+        public ResumenAsistencia getTotales() {
+            return totales;
+        }
+
+        /**
+         * false si se modificaron asistencias del rango después de generarlo
+         */
+        public boolean isVigente() {
+            return vigente;
+        }
+
+        public List<Asistencia> getPagina(int pagina) {
+            return paginas.get(pagina);
+        }
+
+        public boolean tienePagina(int pagina) {
+            return paginas.containsKey(pagina);
+        }
+
+        public void guardarPagina(int pagina, List<Asistencia> filas) {
+            paginas.put(pagina, filas);
+        }
+
+        public ClaveAsistencia getClavePagina(int pagina) {
+            return claves.get(pagina);
+        }
+
+        /**
+         * Página conocida más cercana a la indicada (igual o anterior) con su clave
+         */
+        public Map.Entry<Integer, ClaveAsistencia> clavePaginaAnterior(int pagina) {
+            return claves.floorEntry(pagina);
+        }
+
+        public void guardarClavePagina(int pagina, ClaveAsistencia clave) {
+            claves.put(pagina, clave);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.gocheckfx.utils;
+
+import org.example.gocheckfx.dao.TurnoDAO;
+import org.example.gocheckfx.models.Asistencia;
+import org.example.gocheckfx.models.TiemposJornada;
+import org.example.gocheckfx.models.Turno;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Calcula los tiempos de cada jornada (trabajado, descansos, retardo y horas extra) a partir
+ * de las checadas y del turno del empleado. Usa los mismos criterios que los resúmenes de la
+ * base de datos:
+ * <ul>
+ *   <li>Trabajado: de entrada a salida menos los descansos; 0 si la jornada no terminó.</li>
+ *   <li>Descansos: un descanso sin regreso cuenta hasta la salida (0 si aún no sale) y uno que
+ *   termina antes de empezar cuenta 0.</li>
+ *   <li>Exceso de descanso: minutos de cada descanso por encima de lo que permite el turno.</li>
+ *   <li>Retardo: minutos desde la hora de entrada del turno, dando la vuelta al día en turnos
+ *   nocturnos ({@link ReglasTurno#minutosRetardo}), solo en asistencias con RETARDO.</li>
+ *   <li>Extra: minutos trabajados por encima de la jornada del turno (sin sus descansos).</li>
+ * </ul>
+ * Los turnos se cargan una vez al crear la calculadora, así que calcular no consulta la base de datos.
+ */
+public class CalculadoraJornada {
+
+    private final Map<Integer, Turno> turnoPorEmpleado;
+
+    /**
+     * @param turnoPorEmpleado Turno de cada empleado, por ID de empleado
+     */
+    public CalculadoraJornada(Map<Integer, Turno> turnoPorEmpleado) {
+        this.turnoPorEmpleado = turnoPorEmpleado;
+    }
+
+    /**
+     * Crea una calculadora con los turnos actuales de todos los empleados
+     */
+    public static CalculadoraJornada desdeBaseDeDatos(TurnoDAO turnoDAO) {
+        return new CalculadoraJornada(turnoDAO.obtenerTurnosPorEmpleado());
+    }
+
+    /**
+     * Calcula los tiempos de una asistencia
+     * @return Tiempos de la jornada, o null si el empleado no tiene turno
+     */
+    public TiemposJornada calcular(Asistencia asistencia) {
+        Turno turno = turnoPorEmpleado.get(asistencia.getIdEmpleado());
+        if (turno == null) return null;
+
+        TiemposJornada tiempos = new TiemposJornada();
+        acumular(turno, asistencia, tiempos);
+        return tiempos;
+    }
+
+    /**
+     * Calcula los tiempos de una asistencia reutilizando un objeto, para recorridos largos
+     * @param tiempos Se limpia y recibe el resultado
+     * @return false si el empleado no tiene turno (tiempos queda en cero)
+     */
+    public boolean calcular(Asistencia asistencia, TiemposJornada tiempos) {
+        tiempos.limpiar();
+        Turno turno = turnoPorEmpleado.get(asistencia.getIdEmpleado());
+        if (turno == null) return false;
+
+        acumular(turno, asistencia, tiempos);
+        return true;
+    }
+
+    /**
+     * Suma los tiempos de las asistencias de cada empleado. Las asistencias se reparten entre
+     * los núcleos disponibles; cada hilo acumula sus propios totales y al final se combinan.
+     * Las asistencias de empleados sin turno se omiten.
+     * @return Totales por ID de empleado
+     */
+    public Map<Integer, TiemposJornada> totalizarPorEmpleado(Collection<Asistencia> asistencias) {
+        Collector<Asistencia, TiemposJornada, TiemposJornada> totalizar = Collector.of(
+                TiemposJornada::new,
+                (total, asistencia) -> acumular(turnoPorEmpleado.get(asistencia.getIdEmpleado()), asistencia, total),
+                (total, otros) -> {
+                    total.sumar(otros);
+                    return total;
+                });
+
+        return asistencias.parallelStream()
+                .filter(asistencia -> turnoPorEmpleado.containsKey(asistencia.getIdEmpleado()))
+                .collect(Collectors.groupingBy(Asistencia::getIdEmpleado, totalizar));
+    }
+
+    /**
+     * Suma a los totales los tiempos de una asistencia
+     */
+    static void acumular(Turno turno, Asistencia asistencia, TiemposJornada total) {
+        int desayuno = minutosDescanso(asistencia.getInicioDescanso1(), asistencia.getFinDescanso1(),
+                asistencia.getHoraSalida());
+        int comida = minutosDescanso(asistencia.getInicioDescanso2(), asistencia.getFinDescanso2(),
+                asistencia.getHoraSalida());
+        int descanso = desayuno + comida;
+        int exceso = Math.max(0, desayuno - turno.getDuracionDesayuno())
+                + Math.max(0, comida - turno.getDuracionComida());
+
+        int trabajados = 0;
+        int extra = 0;
+        if (asistencia.getHoraEntrada() != null && asistencia.getHoraSalida() != null) {
+            trabajados = Math.max(0, minutosEntre(asistencia.getHoraEntrada(), asistencia.getHoraSalida()) - descanso);
+            extra = Math.max(0, trabajados - jornadaProgramada(turno));
+        }
+
+        int retardo = 0;
+        if ("RETARDO".equals(asistencia.getEstado()) && asistencia.getHoraEntrada() != null) {
+            retardo = MotorReglasTurno.getInstance().obtenerReglas(turno)
+                    .minutosRetardo(asistencia.getHoraEntrada().toLocalTime());
+        }
+
+        total.setJornadas(total.getJornadas() + 1);
+        total.setMinutosTrabajados(total.getMinutosTrabajados() + trabajados);
+        total.setMinutosDescanso(total.getMinutosDescanso() + descanso);
+        total.setMinutosExcesoDescanso(total.getMinutosExcesoDescanso() + exceso);
+        total.setMinutosRetardo(total.getMinutosRetardo() + retardo);
+        total.setMinutosExtra(total.getMinutosExtra() + extra);
+    }
+
+    /**
+     * Minutos de trabajo que pide el turno: de entrada a salida (dando la vuelta al día
+     * en turnos nocturnos) menos los descansos
+     */
+    static int jornadaProgramada(Turno turno) {
+        int duracion = Math.floorMod(
+                turno.getHoraSalida().toSecondOfDay() / 60 - turno.getHoraEntrada().toSecondOfDay() / 60,
+                ReglasTurno.MINUTOS_DIA);
+        return Math.max(0, duracion - turno.getDuracionDesayuno() - turno.getDuracionComida());
+    }
+
+    /**
+     * Minutos de un descanso, nunca negativos. Si no se registró el regreso, el descanso
+     * dura hasta la salida; sin salida todavía no se cuenta.
+     */
+    static int minutosDescanso(LocalDateTime inicio, LocalDateTime fin, LocalDateTime salida) {
+        return Math.max(0, minutosEntre(inicio, fin != null ? fin : salida));
+    }
+
+    private static int minutosEntre(LocalDateTime inicio, LocalDateTime fin) {
+        return inicio != null && fin != null ? (int) ChronoUnit.MINUTES.between(inicio, fin) : 0;
+    }
+}
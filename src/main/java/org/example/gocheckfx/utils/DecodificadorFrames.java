@@ -0,0 +1,116 @@
+package org.example.gocheckfx.utils;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Result;
+import com.google.zxing.common.HybridBinarizer;
+
+import java.awt.image.BufferedImage;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+
+/**
+ * Decodifica códigos QR y de barras a partir de los frames de la cámara.
+ * Reutiliza el buffer de luminancia mientras no cambie el tamaño del frame, y permite
+ * limitar la búsqueda a una región de interés y reducir la resolución antes de decodificar.
+ * Cada hilo que decodifica debe tener su propia instancia.
+ */
+public class DecodificadorFrames {
+
+    // Formatos que se imprimen en los gafetes de los empleados
+    private static final EnumSet<BarcodeFormat> FORMATOS = EnumSet.of(BarcodeFormat.QR_CODE, BarcodeFormat.CODE_128);
+
+    private final MultiFormatReader lector;
+
+    // Región de interés como fracción del frame (0.0 - 1.0)
+    private double regionX = 0.0;
+    private double regionY = 0.0;
+    private double regionAncho = 1.0;
+    private double regionAlto = 1.0;
+    private int factorReduccion = 1;
+
+    private FuenteLuminancia fuente;
+    private int anchoFrame;
+    private int altoFrame;
+
+    public DecodificadorFrames() {
+        Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
+        hints.put(DecodeHintType.POSSIBLE_FORMATS, FORMATOS);
+
+        lector = new MultiFormatReader();
+        lector.setHints(hints);
+    }
+
+    /**
+     * Limita la búsqueda de códigos a una región del frame
+     * @param x Inicio horizontal como fracción del ancho
+     * @param y Inicio vertical como fracción del alto
+     * @param ancho Ancho de la región como fracción del ancho del frame
+     * @param alto Alto de la región como fracción del alto del frame
+     */
+    public void setRegionInteres(double x, double y, double ancho, double alto) {
+        if (x < 0 || y < 0 || ancho <= 0 || alto <= 0 || x + ancho > 1.0 || y + alto > 1.0) {
+            throw new IllegalArgumentException("Región de interés fuera del frame");
+        }
+        this.regionX = x;
+        this.regionY = y;
+        this.regionAncho = ancho;
+        this.regionAlto = alto;
+        fuente = null; // Recalcular el tamaño del buffer en el siguiente frame
+    }
+
+    /**
+     * Reduce la resolución antes de decodificar (1 = resolución completa)
+     * @param factorReduccion Se toma un píxel de cada bloque de factor x factor
+     */
+    public void setFactorReduccion(int factorReduccion) {
+        if (factorReduccion < 1) {
+            throw new IllegalArgumentException("El factor de reducción debe ser al menos 1");
+        }
+        this.factorReduccion = factorReduccion;
+        fuente = null;
+    }
+
+    public int getFactorReduccion() {
+        return factorReduccion;
+    }
+
+    /**
+     * Busca un código en el frame
+     * @param imagen Frame capturado por la cámara
+     * @return Texto del código encontrado o null si no hay ninguno
+     */
+    public String decodificar(BufferedImage imagen) {
+        int ancho = imagen.getWidth();
+        int alto = imagen.getHeight();
+
+        int x = (int) (ancho * regionX);
+        int y = (int) (alto * regionY);
+        int anchoRegion = Math.max(1, (int) (ancho * regionAncho));
+        int altoRegion = Math.max(1, (int) (alto * regionAlto));
+
+        if (fuente == null || ancho != anchoFrame || alto != altoFrame) {
+            fuente = new FuenteLuminancia(
+                    Math.max(1, anchoRegion / factorReduccion),
+                    Math.max(1, altoRegion / factorReduccion));
+            anchoFrame = ancho;
+            altoFrame = alto;
+        }
+
+        fuente.cargar(imagen, x, y, factorReduccion);
+
+        try {
+            Result resultado = lector.decodeWithState(new BinaryBitmap(new HybridBinarizer(fuente)));
+            return resultado.getText();
+        } catch (NotFoundException e) {
+            // No se encontró ningún código en la imagen, es normal
+            return null;
+        } finally {
+            lector.reset();
+        }
+    }
+}
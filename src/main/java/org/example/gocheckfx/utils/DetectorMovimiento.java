@@ -0,0 +1,81 @@
+package org.example.gocheckfx.utils;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Detector de cambios entre frames consecutivos de la cámara.
+ * Compara la luminancia de una rejilla reducida de puntos del frame con la del frame anterior;
+ * es mucho más barato que intentar decodificar un código en cada frame.
+ * No es seguro para usarse desde varios hilos a la vez.
+ */
+public class DetectorMovimiento {
+
+    private static final int COLUMNAS = 40;
+    private static final int FILAS = 30;
+
+    // Diferencia promedio de luminancia (0-255) a partir de la cual se considera que hubo movimiento;
+    // por debajo queda el ruido normal del sensor
+    private static final double UMBRAL_PREDETERMINADO = 4.0;
+
+    private final int[] anterior = new int[COLUMNAS * FILAS];
+    private final int[] actual = new int[COLUMNAS * FILAS];
+    private boolean hayAnterior = false;
+    private double umbral = UMBRAL_PREDETERMINADO;
+
+    /**
+     * Compara el frame con el anterior
+     * @param imagen Frame capturado
+     * @return true si el frame cambió lo suficiente respecto al anterior
+     */
+    public boolean hayMovimiento(BufferedImage imagen) {
+        return calcularDiferencia(imagen) >= umbral;
+    }
+
+    /**
+     * Calcula la diferencia promedio de luminancia con el frame anterior
+     * @param imagen Frame capturado
+     * @return Diferencia promedio (0-255); el primer frame siempre cuenta como cambio total
+     */
+    public double calcularDiferencia(BufferedImage imagen) {
+        int ancho = imagen.getWidth();
+        int alto = imagen.getHeight();
+
+        long suma = 0;
+        int indice = 0;
+        for (int fila = 0; fila < FILAS; fila++) {
+            int y = (fila * alto + alto / 2) / FILAS;
+            for (int columna = 0; columna < COLUMNAS; columna++) {
+                int x = (columna * ancho + ancho / 2) / COLUMNAS;
+                int rgb = imagen.getRGB(x, y);
+                int luminancia = (306 * ((rgb >> 16) & 0xFF) + 601 * ((rgb >> 8) & 0xFF) + 117 * (rgb & 0xFF)) >> 10;
+
+                actual[indice] = luminancia;
+                suma += Math.abs(luminancia - anterior[indice]);
+                indice++;
+            }
+        }
+
+        System.arraycopy(actual, 0, anterior, 0, actual.length);
+
+        if (!hayAnterior) {
+            hayAnterior = true;
+            return 255.0;
+        }
+        return (double) suma / actual.length;
+    }
+
+    /**
+     * Olvida el frame anterior; el siguiente frame se considerará un cambio
+     */
+    public void reiniciar() {
+        hayAnterior = false;
+    }
+
+    public double getUmbral() {
+        return umbral;
+    }
+
+    public void setUmbral(double umbral) {
+        this.umbral = umbral;
+    }
+}
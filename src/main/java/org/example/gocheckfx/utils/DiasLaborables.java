@@ -0,0 +1,128 @@
+package org.example.gocheckfx.utils;
+
+import org.example.gocheckfx.dao.CambioDescansoDAO;
+import org.example.gocheckfx.dao.HorarioEmpleadoDAO;
+import org.example.gocheckfx.dao.PermisoDAO;
+import org.example.gocheckfx.models.CambioDescanso;
+import org.example.gocheckfx.models.HorarioEmpleado;
+import org.example.gocheckfx.models.Permiso;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resuelve si un empleado debía trabajar en una fecha combinando su horario semanal
+ * (días laborables y descanso semanal), los cambios de descanso y los permisos aprobados.
+ * Los datos se cargan una vez para un rango de fechas, así que resolver no consulta la base de datos.
+ * <ul>
+ *   <li>Un cambio de descanso hace laborable su fecha original y descanso su fecha nueva;
+ *   si varios cambios tocan la misma fecha, manda el registrado al final.</li>
+ *   <li>Un permiso aprobado en un día laborable lo marca como {@link TipoDia#PERMISO}.</li>
+ * </ul>
+ */
+public class DiasLaborables {
+
+    /**
+     * Resultado de resolver un día
+     */
+    public enum TipoDia {
+        LABORABLE,
+        DESCANSO,
+        PERMISO,
+        SIN_HORARIO     // El empleado no tiene horario registrado
+    }
+
+    // Mismos nombres que horarios_empleados, en el orden de DayOfWeek
+    private static final String[] NOMBRES_DIAS = {
+            "lunes", "martes", "miércoles", "jueves", "viernes", "sábado", "domingo"
+    };
+
+    private final Map<Integer, HorarioEmpleado> horarios;
+    // Por empleado y fecha: true si trabaja por un cambio de descanso, false si descansa
+    private final Map<Integer, Map<LocalDate, Boolean>> cambios = new HashMap<>();
+    private final Map<Integer, Set<LocalDate>> permisos = new HashMap<>();
+
+    /**
+     * @param horarios Horario de cada empleado, por ID de empleado
+     * @param cambios Cambios de descanso, en orden de registro
+     * @param permisos Permisos aprobados
+     */
+    public DiasLaborables(Map<Integer, HorarioEmpleado> horarios, List<CambioDescanso> cambios,
+                          List<Permiso> permisos) {
+        this.horarios = horarios;
+
+        for (CambioDescanso cambio : cambios) {
+            Map<LocalDate, Boolean> delEmpleado = this.cambios.computeIfAbsent(cambio.getIdEmpleado(), id -> new HashMap<>());
+            delEmpleado.put(cambio.getFechaOriginal(), true);
+            delEmpleado.put(cambio.getFechaNueva(), false);
+        }
+        for (Permiso permiso : permisos) {
+            this.permisos.computeIfAbsent(permiso.getIdEmpleado(), id -> new HashSet<>()).add(permiso.getFecha());
+        }
+    }
+
+    /**
+     * Carga los horarios actuales y los cambios de descanso y permisos aprobados de un rango
+     * @return El resolvedor, o null si no se pudo leer algún dato
+     */
+    public static DiasLaborables desdeBaseDeDatos(LocalDate fechaInicio, LocalDate fechaFin,
+                                                  HorarioEmpleadoDAO horarioDAO, CambioDescansoDAO cambioDAO,
+                                                  PermisoDAO permisoDAO) {
+        Map<Integer, HorarioEmpleado> horarios = horarioDAO.obtenerHorariosPorEmpleado();
+        List<CambioDescanso> cambios = cambioDAO.obtenerCambiosRango(fechaInicio, fechaFin);
+        List<Permiso> permisos = permisoDAO.obtenerPermisosAprobadosRango(fechaInicio, fechaFin);
+
+        if (horarios == null || cambios == null || permisos == null) {
+            return null;
+        }
+        return new DiasLaborables(horarios, cambios, permisos);
+    }
+
+    /**
+     * Empleados con horario registrado
+     */
+    public Set<Integer> getEmpleados() {
+        return horarios.keySet();
+    }
+
+    /**
+     * Indica qué le tocaba al empleado en la fecha
+     */
+    public TipoDia resolver(int idEmpleado, LocalDate fecha) {
+        HorarioEmpleado horario = horarios.get(idEmpleado);
+        if (horario == null) {
+            return TipoDia.SIN_HORARIO;
+        }
+
+        Boolean porCambio = cambios.getOrDefault(idEmpleado, Map.of()).get(fecha);
+        boolean laborable = porCambio != null ? porCambio : esDiaLaborable(horario, fecha.getDayOfWeek());
+        if (!laborable) {
+            return TipoDia.DESCANSO;
+        }
+
+        return permisos.getOrDefault(idEmpleado, Set.of()).contains(fecha) ? TipoDia.PERMISO : TipoDia.LABORABLE;
+    }
+
+    /**
+     * Indica si el horario semanal pide trabajar ese día, sin considerar cambios ni permisos
+     */
+    public static boolean esDiaLaborable(HorarioEmpleado horario, DayOfWeek dia) {
+        String nombre = nombreDia(dia);
+        if (nombre.equalsIgnoreCase(horario.getDiaDescansoSemanal())) {
+            return false;
+        }
+        return horario.getDiasLaborables().stream().anyMatch(nombre::equalsIgnoreCase);
+    }
+
+    /**
+     * Nombre del día como se guarda en horarios_empleados (ej. "miércoles")
+     */
+    public static String nombreDia(DayOfWeek dia) {
+        return NOMBRES_DIAS[dia.getValue() - 1];
+    }
+}
@@ -0,0 +1,340 @@
+package org.example.gocheckfx.utils;
+
+import org.example.gocheckfx.config.DatabaseConfig;
+import org.example.gocheckfx.dao.AsistenciaDAO;
+import org.example.gocheckfx.dao.TurnoDAO;
+import org.example.gocheckfx.models.Asistencia;
+import org.example.gocheckfx.models.TiemposJornada;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta un reporte de asistencias a CSV o TSV para el sistema de nómina.
+ * Las filas pasan del cursor de la base de datos a un búfer y de ahí a un FileChannel
+ * (opcionalmente comprimido con gzip). Cada línea se arma en el mismo StringBuilder y las fechas
+ * se formatean directamente sobre él, de modo que exportar no genera objetos por fila más allá
+ * de los que crea el DAO. Las columnas de minutos se calculan con {@link CalculadoraJornada}.
+ *
+ * Uso:
+ * <pre>
+ * ExportadorCsvAsistencias &lt;desde&gt; &lt;hasta&gt; &lt;archivo&gt; [--tsv] [--gzip] [--columnas fecha,codigo,...]
+ * </pre>
+ */
+public class ExportadorCsvAsistencias {
+
+    /**
+     * Columnas que se pueden exportar, en el orden en que se escriben
+     */
+    public enum Columna {
+        FECHA("Fecha"),
+        CODIGO("Código"),
+        EMPLEADO("Empleado"),
+        ESTADO("Estado"),
+        ENTRADA("Entrada"),
+        SALIDA("Salida"),
+        INICIO_DESAYUNO("Inicio desayuno"),
+        FIN_DESAYUNO("Fin desayuno"),
+        INICIO_COMIDA("Inicio comida"),
+        FIN_COMIDA("Fin comida"),
+        NOTAS("Notas"),
+        MINUTOS_TRABAJADOS("Minutos trabajados", true),
+        MINUTOS_DESCANSO("Minutos descanso", true),
+        MINUTOS_RETARDO("Minutos retardo", true),
+        MINUTOS_EXTRA("Minutos extra", true);
+
+        private final String encabezado;
+        private final boolean calculada;   // Requiere calcular los tiempos de la jornada
+
+        Columna(String encabezado) {
+            this(encabezado, false);
+        }
+
+        Columna(String encabezado, boolean calculada) {
+            this.encabezado = encabezado;
+            this.calculada = calculada;
+        }
+    }
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final int TAMANO_BUFER = 64 * 1024;
+    private static final int INTERVALO_AVANCE = 1000;
+
+    private final AsistenciaDAO asistenciaDAO;
+    private final TurnoDAO turnoDAO = new TurnoDAO();
+    private Set<Columna> columnas = EnumSet.allOf(Columna.class);
+    private char separador = ',';
+    private boolean gzip;
+
+    // Búferes reutilizados para todas las filas
+    private final StringBuilder linea = new StringBuilder(256);
+    private final ByteBuffer bufer = ByteBuffer.allocateDirect(TAMANO_BUFER);
+    private final CharsetEncoder codificador = StandardCharsets.UTF_8.newEncoder();
+    private final TiemposJornada tiempos = new TiemposJornada();
+
+    // Calculadora de la exportación en curso; null si no se exportan columnas calculadas
+    private CalculadoraJornada calculadora;
+
+    public ExportadorCsvAsistencias(AsistenciaDAO asistenciaDAO) {
+        this.asistenciaDAO = asistenciaDAO;
+    }
+
+    /**
+     * Columnas a exportar; se escriben en el orden de {@link Columna}
+     */
+    public void setColumnas(Set<Columna> columnas) {
+        this.columnas = EnumSet.copyOf(columnas);
+    }
+
+    /**
+     * true para separar con tabuladores (TSV) en lugar de comas
+     */
+    public void setTabuladores(boolean tabuladores) {
+        this.separador = tabuladores ? '\t' : ',';
+    }
+
+    /**
+     * true para comprimir el archivo con gzip
+     */
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    /**
+     * Exporta las asistencias del rango
+     * @param idEmpleado ID del empleado, o null para todos
+     * @param estado Estado a incluir, o null para todos
+     * @param destino Archivo a crear; se reemplaza solo si la exportación termina
+     * @param cancelado Se consulta en cada fila; si devuelve true la exportación se detiene sin crear el archivo
+     * @param avance Recibe el número de filas escritas cada cierto número de filas
+     * @return Filas escritas
+     */
+    public synchronized long exportar(LocalDate fechaInicio, LocalDate fechaFin, Integer idEmpleado, String estado,
+                                      Path destino, BooleanSupplier cancelado, LongConsumer avance)
+            throws IOException {
+        Path temporal = Files.createTempFile(destino.toAbsolutePath().getParent(), "reporte", ".tmp");
+        long[] escritas = {0};
+
+        try {
+            boolean leido;
+            try (FileChannel archivo = FileChannel.open(temporal, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                 WritableByteChannel salida = gzip ?
+                         Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(archivo), TAMANO_BUFER)) :
+                         archivo) {
+
+                bufer.clear();
+                codificador.reset();
+                calculadora = columnas.stream().anyMatch(columna -> columna.calculada) ?
+                        CalculadoraJornada.desdeBaseDeDatos(turnoDAO) : null;
+                escribirEncabezado(salida);
+
+                leido = asistenciaDAO.recorrerAsistenciasRango(fechaInicio, fechaFin, idEmpleado, estado,
+                        asistencia -> {
+                            if (cancelado.getAsBoolean()) return false;
+                            try {
+                                escribirFila(salida, asistencia);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            if (++escritas[0] % INTERVALO_AVANCE == 0) {
+                                avance.accept(escritas[0]);
+                            }
+                            return true;
+                        });
+                vaciar(salida);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            if (cancelado.getAsBoolean()) {
+                return escritas[0];
+            }
+            if (!leido) {
+                throw new IOException("No se pudo leer el reporte de la base de datos");
+            }
+
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+            avance.accept(escritas[0]);
+            return escritas[0];
+
+        } finally {
+            calculadora = null;
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private void escribirEncabezado(WritableByteChannel salida) throws IOException {
+        linea.setLength(0);
+        for (Columna columna : columnas) {
+            if (linea.length() > 0) linea.append(separador);
+            linea.append(columna.encabezado);
+        }
+        linea.append("\r\n");
+        codificar(salida);
+    }
+
+    private void escribirFila(WritableByteChannel salida, Asistencia asistencia) throws IOException {
+        linea.setLength(0);
+        boolean primera = true;
+        boolean conTiempos = calculadora != null && calculadora.calcular(asistencia, tiempos);
+
+        for (Columna columna : columnas) {
+            if (!primera) linea.append(separador);
+            primera = false;
+
+            switch (columna) {
+                case FECHA -> FORMATO_FECHA.formatTo(asistencia.getFecha(), linea);
+                case CODIGO -> agregarTexto(asistencia.getCodigoEmpleado());
+                case EMPLEADO -> agregarTexto(asistencia.getNombreEmpleado());
+                case ESTADO -> agregarTexto(asistencia.getEstado());
+                case ENTRADA -> agregarHora(asistencia.getHoraEntrada());
+                case SALIDA -> agregarHora(asistencia.getHoraSalida());
+                case INICIO_DESAYUNO -> agregarHora(asistencia.getInicioDescanso1());
+                case FIN_DESAYUNO -> agregarHora(asistencia.getFinDescanso1());
+                case INICIO_COMIDA -> agregarHora(asistencia.getInicioDescanso2());
+                case FIN_COMIDA -> agregarHora(asistencia.getFinDescanso2());
+                case NOTAS -> agregarTexto(asistencia.getNotas());
+                case MINUTOS_TRABAJADOS -> agregarMinutos(conTiempos, tiempos.getMinutosTrabajados());
+                case MINUTOS_DESCANSO -> agregarMinutos(conTiempos, tiempos.getMinutosDescanso());
+                case MINUTOS_RETARDO -> agregarMinutos(conTiempos, tiempos.getMinutosRetardo());
+                case MINUTOS_EXTRA -> agregarMinutos(conTiempos, tiempos.getMinutosExtra());
+            }
+        }
+        linea.append("\r\n");
+        codificar(salida);
+    }
+
+    private void agregarHora(LocalDateTime hora) {
+        if (hora != null) {
+            FORMATO_HORA.formatTo(hora, linea);
+        }
+    }
+
+    /**
+     * Agrega minutos calculados; se dejan vacíos si el empleado no tiene turno
+     */
+    private void agregarMinutos(boolean conTiempos, int minutos) {
+        if (conTiempos) {
+            linea.append(minutos);
+        }
+    }
+
+    /**
+     * Agrega un texto; en CSV se entrecomilla si lo requiere y en TSV se reemplazan
+     * tabuladores y saltos de línea por espacios
+     */
+    private void agregarTexto(String texto) {
+        if (texto == null) return;
+
+        if (separador == '\t') {
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                linea.append(c == '\t' || c == '\r' || c == '\n' ? ' ' : c);
+            }
+            return;
+        }
+
+        boolean requiereComillas = false;
+        for (int i = 0; i < texto.length() && !requiereComillas; i++) {
+            char c = texto.charAt(i);
+            requiereComillas = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!requiereComillas) {
+            linea.append(texto);
+            return;
+        }
+
+        linea.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"') linea.append('"');
+            linea.append(c);
+        }
+        linea.append('"');
+    }
+
+    /**
+     * Codifica la línea en UTF-8 dentro del búfer, escribiéndolo cada vez que se llena
+     */
+    private void codificar(WritableByteChannel salida) throws IOException {
+        CharBuffer caracteres = CharBuffer.wrap(linea);
+        while (true) {
+            CoderResult resultado = codificador.encode(caracteres, bufer, false);
+            if (resultado.isOverflow()) {
+                vaciar(salida);
+            } else if (resultado.isUnderflow()) {
+                return;
+            } else {
+                resultado.throwException();
+            }
+        }
+    }
+
+    private void vaciar(WritableByteChannel salida) throws IOException {
+        bufer.flip();
+        while (bufer.hasRemaining()) {
+            salida.write(bufer);
+        }
+        bufer.clear();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.out.println("Uso: ExportadorCsvAsistencias <desde> <hasta> <archivo> [--tsv] [--gzip] "
+                    + "[--columnas fecha,codigo,...]");
+            return;
+        }
+
+        ExportadorCsvAsistencias exportador = new ExportadorCsvAsistencias(new AsistenciaDAO());
+        LocalDate desde = LocalDate.parse(args[0]);
+        LocalDate hasta = LocalDate.parse(args[1]);
+        Path destino = Paths.get(args[2]);
+
+        for (int i = 3; i < args.length; i++) {
+            switch (args[i]) {
+                case "--tsv" -> exportador.setTabuladores(true);
+                case "--gzip" -> exportador.setGzip(true);
+                case "--columnas" -> {
+                    Set<Columna> columnas = EnumSet.noneOf(Columna.class);
+                    for (String nombre : args[++i].split(",")) {
+                        columnas.add(Columna.valueOf(nombre.trim().toUpperCase(Locale.ROOT)));
+                    }
+                    exportador.setColumnas(columnas);
+                }
+                default -> throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+
+        try {
+            long inicio = System.nanoTime();
+            long filas = exportador.exportar(desde, hasta, null, null, destino, () -> false, escritas -> { });
+            System.out.printf("Exportadas %d filas a %s en %.1f s%n", filas, destino, (System.nanoTime() - inicio) / 1e9);
+        } finally {
+            DatabaseConfig.getInstance().closeConnection();
+        }
+    }
+}
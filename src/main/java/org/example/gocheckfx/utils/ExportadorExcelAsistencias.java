@@ -0,0 +1,208 @@
+package org.example.gocheckfx.utils;
+
+import javafx.concurrent.Task;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.example.gocheckfx.dao.AsistenciaDAO;
+import org.example.gocheckfx.dao.TurnoDAO;
+import org.example.gocheckfx.models.Asistencia;
+import org.example.gocheckfx.models.TiemposJornada;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Exporta un reporte de asistencias a Excel (.xlsx) en segundo plano.
+ * Las filas pasan del cursor de la base de datos a un libro SXSSF que solo mantiene en memoria
+ * una ventana de filas; el resto se escribe a un archivo temporal. Así la memoria no depende
+ * del tamaño del reporte. Informa el avance y se puede cancelar.
+ */
+public class ExportadorExcelAsistencias extends Task<Long> {
+
+    private static final int VENTANA_FILAS = 200;           // Filas en memoria antes de pasar a disco
+    private static final int FILAS_POR_HOJA = 1_000_000;    // Excel admite 1,048,576 filas por hoja
+    private static final int INTERVALO_PROGRESO = 500;
+
+    private static final String[] ENCABEZADOS = {
+            "Fecha", "Código", "Empleado", "Estado", "Entrada", "Salida",
+            "Inicio desayuno", "Fin desayuno", "Inicio comida", "Fin comida", "Notas",
+            "Minutos trabajados", "Minutos descanso", "Minutos retardo", "Minutos extra"
+    };
+    private static final int[] ANCHOS = {12, 14, 30, 14, 10, 10, 14, 14, 14, 14, 50, 12, 12, 12, 12};
+
+    private final AsistenciaDAO asistenciaDAO;
+    private final LocalDate fechaInicio;
+    private final LocalDate fechaFin;
+    private final Integer idEmpleado;
+    private final String estado;
+    private final long total;
+    private final Path destino;
+
+    // Libro y estilos de la exportación en curso; los estilos se crean una vez y se comparten
+    private SXSSFWorkbook libro;
+    private SXSSFSheet hoja;
+    private CellStyle estiloEncabezado;
+    private CellStyle estiloFecha;
+    private CellStyle estiloHora;
+    private int filaHoja;
+    private CalculadoraJornada calculadora;
+    private final TiemposJornada tiempos = new TiemposJornada();
+
+    /**
+     * @param total Número de filas esperado, para calcular el avance, o -1 para contarlas al iniciar
+     * @param destino Archivo .xlsx a crear; se reemplaza solo si la exportación termina
+     */
+    public ExportadorExcelAsistencias(AsistenciaDAO asistenciaDAO, LocalDate fechaInicio, LocalDate fechaFin,
+                                      Integer idEmpleado, String estado, long total, Path destino) {
+        this.asistenciaDAO = asistenciaDAO;
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+        this.idEmpleado = idEmpleado;
+        this.estado = estado;
+        this.total = total;
+        this.destino = destino;
+    }
+
+    /**
+     * @return Número de filas exportadas
+     */
+    @Override
+    protected Long call() throws Exception {
+        long esperadas = total >= 0 ? total :
+                asistenciaDAO.contarAsistenciasRango(fechaInicio, fechaFin, idEmpleado, estado);
+        if (esperadas < 0) {
+            throw new IOException("No se pudo contar el reporte en la base de datos");
+        }
+
+        Path temporal = Files.createTempFile(destino.toAbsolutePath().getParent(), "reporte", ".xlsx.tmp");
+        libro = new SXSSFWorkbook(VENTANA_FILAS);
+        libro.setCompressTempFiles(true);
+
+        try {
+            crearEstilos();
+            nuevaHoja();
+            calculadora = CalculadoraJornada.desdeBaseDeDatos(new TurnoDAO());
+
+            long[] escritas = {0};
+            updateMessage("Exportando...");
+            updateProgress(0, esperadas);
+
+            boolean leido = asistenciaDAO.recorrerAsistenciasRango(fechaInicio, fechaFin, idEmpleado, estado,
+                    asistencia -> {
+                        if (isCancelled()) return false;
+
+                        if (filaHoja > FILAS_POR_HOJA) {
+                            nuevaHoja();
+                        }
+                        escribirFila(asistencia);
+
+                        if (++escritas[0] % INTERVALO_PROGRESO == 0) {
+                            updateProgress(escritas[0], Math.max(esperadas, escritas[0]));
+                            updateMessage("Exportando " + escritas[0] + " de " + esperadas + " registros...");
+                        }
+                        return true;
+                    });
+
+            if (isCancelled()) {
+                return escritas[0];
+            }
+            if (!leido) {
+                throw new IOException("No se pudo leer el reporte de la base de datos");
+            }
+
+            updateMessage("Guardando archivo...");
+            try (OutputStream salida = Files.newOutputStream(temporal)) {
+                libro.write(salida);
+            }
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+
+            updateProgress(1, 1);
+            updateMessage("Exportados " + escritas[0] + " registros");
+            return escritas[0];
+
+        } finally {
+            // Borrar los archivos temporales de SXSSF y el .xlsx incompleto
+            libro.dispose();
+            libro.close();
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private void crearEstilos() {
+        Font negrita = libro.createFont();
+        negrita.setBold(true);
+        estiloEncabezado = libro.createCellStyle();
+        estiloEncabezado.setFont(negrita);
+
+        short formatoFecha = libro.createDataFormat().getFormat("dd/mm/yyyy");
+        estiloFecha = libro.createCellStyle();
+        estiloFecha.setDataFormat(formatoFecha);
+
+        short formatoHora = libro.createDataFormat().getFormat("hh:mm:ss");
+        estiloHora = libro.createCellStyle();
+        estiloHora.setDataFormat(formatoHora);
+    }
+
+    private void nuevaHoja() {
+        hoja = libro.createSheet("Asistencias " + (libro.getNumberOfSheets() + 1));
+        for (int columna = 0; columna < ANCHOS.length; columna++) {
+            hoja.setColumnWidth(columna, ANCHOS[columna] * 256);
+        }
+
+        Row encabezado = hoja.createRow(0);
+        for (int columna = 0; columna < ENCABEZADOS.length; columna++) {
+            Cell celda = encabezado.createCell(columna);
+            celda.setCellValue(ENCABEZADOS[columna]);
+            celda.setCellStyle(estiloEncabezado);
+        }
+        hoja.createFreezePane(0, 1);
+        filaHoja = 1;
+    }
+
+    private void escribirFila(Asistencia asistencia) {
+        Row fila = hoja.createRow(filaHoja++);
+
+        Cell fecha = fila.createCell(0);
+        fecha.setCellValue(asistencia.getFecha());
+        fecha.setCellStyle(estiloFecha);
+
+        fila.createCell(1).setCellValue(asistencia.getCodigoEmpleado());
+        fila.createCell(2).setCellValue(asistencia.getNombreEmpleado());
+        fila.createCell(3).setCellValue(asistencia.getEstado());
+
+        escribirHora(fila, 4, asistencia.getHoraEntrada());
+        escribirHora(fila, 5, asistencia.getHoraSalida());
+        escribirHora(fila, 6, asistencia.getInicioDescanso1());
+        escribirHora(fila, 7, asistencia.getFinDescanso1());
+        escribirHora(fila, 8, asistencia.getInicioDescanso2());
+        escribirHora(fila, 9, asistencia.getFinDescanso2());
+
+        if (asistencia.getNotas() != null) {
+            fila.createCell(10).setCellValue(asistencia.getNotas());
+        }
+
+        if (calculadora.calcular(asistencia, tiempos)) {
+            fila.createCell(11).setCellValue(tiempos.getMinutosTrabajados());
+            fila.createCell(12).setCellValue(tiempos.getMinutosDescanso());
+            fila.createCell(13).setCellValue(tiempos.getMinutosRetardo());
+            fila.createCell(14).setCellValue(tiempos.getMinutosExtra());
+        }
+    }
+
+    private void escribirHora(Row fila, int columna, LocalDateTime hora) {
+        if (hora == null) return;
+
+        Cell celda = fila.createCell(columna);
+        celda.setCellValue(hora);
+        celda.setCellStyle(estiloHora);
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.gocheckfx.utils;
+
+import javax.imageio.ImageIO;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Fuente de frames que entrega las imágenes de un directorio en orden alfabético,
+ * por ejemplo fotos de gafetes tomadas en los kioscos.
+ */
+public class FuenteDirectorioImagenes implements FuenteFrames {
+
+    private static final long INTERVALO_PREDETERMINADO_MS = 100;
+
+    private final Path directorio;
+    private final ModoReproduccion modo;
+    private final long intervaloMs;
+    private final boolean repetir;
+
+    private List<Path> imagenes;
+    private int siguiente;
+    private long instanteSiguienteFrame;
+    private Dimension tamano;
+    // Se consulta desde otros hilos mientras el escáner lee la fuente
+    private volatile boolean terminada = true;
+
+    /**
+     * @param directorio Directorio con imágenes PNG, JPG o BMP
+     * @param modo Modo de reproducción
+     * @param repetir Volver a la primera imagen al terminar
+     */
+    public FuenteDirectorioImagenes(Path directorio, ModoReproduccion modo, boolean repetir) {
+        this(directorio, modo, INTERVALO_PREDETERMINADO_MS, repetir);
+    }
+
+    /**
+     * @param directorio Directorio con imágenes PNG, JPG o BMP
+     * @param modo Modo de reproducción
+     * @param intervaloMs Tiempo entre imágenes en modo de tiempo real
+     * @param repetir Volver a la primera imagen al terminar
+     */
+    public FuenteDirectorioImagenes(Path directorio, ModoReproduccion modo, long intervaloMs, boolean repetir) {
+        this.directorio = directorio;
+        this.modo = modo;
+        this.intervaloMs = intervaloMs;
+        this.repetir = repetir;
+    }
+
+    @Override
+    public void abrir() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            imagenes = new ArrayList<>(archivos.filter(FuenteDirectorioImagenes::esImagen).sorted().toList());
+        }
+        if (imagenes.isEmpty()) {
+            throw new IOException("No hay imágenes en " + directorio);
+        }
+
+        BufferedImage primera = ImageIO.read(imagenes.get(0).toFile());
+        if (primera == null) {
+            throw new IOException("No se pudo leer la imagen " + imagenes.get(0));
+        }
+        tamano = new Dimension(primera.getWidth(), primera.getHeight());
+
+        siguiente = 0;
+        instanteSiguienteFrame = System.nanoTime();
+        terminada = false;
+    }
+
+    @Override
+    public BufferedImage leerFrame() throws IOException, InterruptedException {
+        if (isTerminada()) return null;
+
+        if (modo == ModoReproduccion.TIEMPO_REAL) {
+            esperarHasta(instanteSiguienteFrame);
+            instanteSiguienteFrame += intervaloMs * 1_000_000L;
+        }
+
+        Path archivo = imagenes.get(siguiente++);
+        if (siguiente == imagenes.size()) {
+            if (repetir) {
+                siguiente = 0;
+            } else {
+                terminada = true;
+            }
+        }
+
+        BufferedImage imagen = ImageIO.read(archivo.toFile());
+        if (imagen == null) {
+            throw new IOException("No se pudo leer la imagen " + archivo);
+        }
+        return imagen;
+    }
+
+    @Override
+    public boolean isTerminada() {
+        return terminada;
+    }
+
+    @Override
+    public Dimension getTamano() {
+        return tamano;
+    }
+
+    @Override
+    public void cerrar() {
+        terminada = true;
+        imagenes = null;
+    }
+
+    /**
+     * Cantidad de imágenes encontradas en el directorio
+     */
+    public int getCantidadImagenes() {
+        return imagenes != null ? imagenes.size() : 0;
+    }
+
+    static boolean esImagen(Path archivo) {
+        String nombre = archivo.getFileName().toString().toLowerCase(Locale.ROOT);
+        return nombre.endsWith(".png") || nombre.endsWith(".jpg") || nombre.endsWith(".jpeg")
+                || nombre.endsWith(".bmp");
+    }
+
+    /**
+     * Duerme hasta el instante indicado (System.nanoTime)
+     */
+    static void esperarHasta(long instante) throws InterruptedException {
+        long restante = instante - System.nanoTime();
+        if (restante > 0) {
+            Thread.sleep(restante / 1_000_000L, (int) (restante % 1_000_000L));
+        }
+    }
+}
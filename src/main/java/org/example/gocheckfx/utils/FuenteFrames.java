@@ -0,0 +1,48 @@
+package org.example.gocheckfx.utils;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Origen de los frames que procesa el escáner: la webcam, un directorio de imágenes
+ * o una secuencia grabada. Permite medir y ajustar la decodificación sin cámara.
+ */
+public interface FuenteFrames {
+
+    /**
+     * Modo de reproducción de las fuentes grabadas
+     */
+    enum ModoReproduccion {
+        TIEMPO_REAL,        // Respetar el intervalo original entre frames
+        MAXIMA_VELOCIDAD    // Entregar cada frame en cuanto se pide
+    }
+
+    /**
+     * Prepara la fuente para entregar frames
+     */
+    void abrir() throws IOException;
+
+    /**
+     * Obtiene el siguiente frame. En las fuentes grabadas en tiempo real espera
+     * hasta que le toque al frame.
+     * @return Frame leído, o null si por ahora no hay frame disponible o la fuente terminó
+     */
+    BufferedImage leerFrame() throws IOException, InterruptedException;
+
+    /**
+     * Indica si la fuente ya no entregará más frames (solo las fuentes grabadas terminan).
+     * Puede llamarse desde un hilo distinto al que lee los frames.
+     */
+    boolean isTerminada();
+
+    /**
+     * Tamaño de los frames que entrega la fuente
+     */
+    Dimension getTamano();
+
+    /**
+     * Libera los recursos de la fuente
+     */
+    void cerrar();
+}
@@ -0,0 +1,135 @@
+package org.example.gocheckfx.utils;
+
+import com.google.zxing.LuminanceSource;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+
+/**
+ * Fuente de luminancia para ZXing que reutiliza su buffer entre frames.
+ * Convierte a escala de grises directamente desde los datos de la imagen,
+ * recortando una región de interés y reduciendo la resolución en el mismo paso.
+ * No es segura para usarse desde varios hilos a la vez.
+ */
+public class FuenteLuminancia extends LuminanceSource {
+
+    private final byte[] luminancia;
+    private int[] filaRgb; // Solo para imágenes con un formato de píxel no soportado directamente
+
+    /**
+     * Crea una fuente con un buffer del tamaño indicado
+     * @param ancho Ancho de la imagen en escala de grises
+     * @param alto Alto de la imagen en escala de grises
+     */
+    public FuenteLuminancia(int ancho, int alto) {
+        super(ancho, alto);
+        luminancia = new byte[ancho * alto];
+    }
+
+    /**
+     * Llena el buffer con la luminancia de una región de la imagen
+     * @param imagen Frame capturado
+     * @param x Columna inicial de la región de interés
+     * @param y Fila inicial de la región de interés
+     * @param factor Factor de reducción (1 = sin reducir, 2 = un píxel de cada 2x2, ...)
+     */
+    public void cargar(BufferedImage imagen, int x, int y, int factor) {
+        int ancho = getWidth();
+        int alto = getHeight();
+
+        // Las subimágenes comparten el buffer de su imagen original con un desplazamiento
+        int tipo = imagen.getRaster().getParent() == null ? imagen.getType() : BufferedImage.TYPE_CUSTOM;
+
+        switch (tipo) {
+            case BufferedImage.TYPE_3BYTE_BGR:
+                cargarBgr(imagen, x, y, factor, ancho, alto);
+                break;
+            case BufferedImage.TYPE_INT_RGB:
+            case BufferedImage.TYPE_INT_ARGB:
+                cargarRgbEntero(imagen, x, y, factor, ancho, alto);
+                break;
+            default:
+                cargarGenerico(imagen, x, y, factor, ancho, alto);
+        }
+    }
+
+    /**
+     * Formato habitual de la webcam: 3 bytes por píxel en orden azul, verde, rojo
+     */
+    private void cargarBgr(BufferedImage imagen, int x, int y, int factor, int ancho, int alto) {
+        byte[] datos = ((DataBufferByte) imagen.getRaster().getDataBuffer()).getData();
+        int anchoImagen = imagen.getWidth();
+
+        int destino = 0;
+        for (int fila = 0; fila < alto; fila++) {
+            int origen = ((y + fila * factor) * anchoImagen + x) * 3;
+            for (int columna = 0; columna < ancho; columna++) {
+                int azul = datos[origen] & 0xFF;
+                int verde = datos[origen + 1] & 0xFF;
+                int rojo = datos[origen + 2] & 0xFF;
+                luminancia[destino++] = (byte) calcularLuminancia(rojo, verde, azul);
+                origen += factor * 3;
+            }
+        }
+    }
+
+    private void cargarRgbEntero(BufferedImage imagen, int x, int y, int factor, int ancho, int alto) {
+        int[] datos = ((DataBufferInt) imagen.getRaster().getDataBuffer()).getData();
+        int anchoImagen = imagen.getWidth();
+
+        int destino = 0;
+        for (int fila = 0; fila < alto; fila++) {
+            int origen = (y + fila * factor) * anchoImagen + x;
+            for (int columna = 0; columna < ancho; columna++) {
+                luminancia[destino++] = (byte) luminanciaDePixel(datos[origen]);
+                origen += factor;
+            }
+        }
+    }
+
+    private void cargarGenerico(BufferedImage imagen, int x, int y, int factor, int ancho, int alto) {
+        int anchoRegion = (ancho - 1) * factor + 1;
+        if (filaRgb == null || filaRgb.length < anchoRegion) {
+            filaRgb = new int[anchoRegion];
+        }
+
+        int destino = 0;
+        for (int fila = 0; fila < alto; fila++) {
+            imagen.getRGB(x, y + fila * factor, anchoRegion, 1, filaRgb, 0, anchoRegion);
+            for (int columna = 0; columna < ancho; columna++) {
+                luminancia[destino++] = (byte) luminanciaDePixel(filaRgb[columna * factor]);
+            }
+        }
+    }
+
+    private static int luminanciaDePixel(int rgb) {
+        return calcularLuminancia((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF);
+    }
+
+    /**
+     * Aproximación entera de la luminancia (la misma ponderación que usa ZXing)
+     */
+    private static int calcularLuminancia(int rojo, int verde, int azul) {
+        return (306 * rojo + 601 * verde + 117 * azul + 0x200) >> 10;
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        if (y < 0 || y >= getHeight()) {
+            throw new IllegalArgumentException("Fila fuera de la imagen: " + y);
+        }
+        int ancho = getWidth();
+        if (row == null || row.length < ancho) {
+            row = new byte[ancho];
+        }
+        System.arraycopy(luminancia, y * ancho, row, 0, ancho);
+        return row;
+    }
+
+    @Override
+    public byte[] getMatrix() {
+        // ZXing solo lee la matriz, se entrega el buffer sin copiarlo
+        return luminancia;
+    }
+}
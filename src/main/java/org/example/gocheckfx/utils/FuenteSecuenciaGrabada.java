@@ -0,0 +1,162 @@
+package org.example.gocheckfx.utils;
+
+import javax.imageio.ImageIO;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fuente de frames que reproduce una secuencia grabada en un kiosco.
+ * La secuencia es un archivo de índice de texto con una línea por frame:
+ * <pre>
+ * # milisegundos_desde_el_inicio archivo
+ * 0 frame_00000.png
+ * 103 frame_00001.png
+ * </pre>
+ * Las rutas de los archivos son relativas al directorio del índice.
+ */
+public class FuenteSecuenciaGrabada implements FuenteFrames {
+
+    private final Path indice;
+    private final ModoReproduccion modo;
+
+    private List<Long> instantesMs;
+    private List<Path> archivos;
+    private int siguiente;
+    private long inicioReproduccion;
+    private Dimension tamano;
+    // Se consulta desde otros hilos mientras el escáner lee la fuente
+    private volatile boolean terminada = true;
+
+    /**
+     * @param indice Archivo de índice de la secuencia
+     * @param modo Modo de reproducción
+     */
+    public FuenteSecuenciaGrabada(Path indice, ModoReproduccion modo) {
+        this.indice = indice;
+        this.modo = modo;
+    }
+
+    @Override
+    public void abrir() throws IOException {
+        Path base = indice.toAbsolutePath().getParent();
+        instantesMs = new ArrayList<>();
+        archivos = new ArrayList<>();
+
+        int numeroLinea = 0;
+        for (String linea : Files.readAllLines(indice, StandardCharsets.UTF_8)) {
+            numeroLinea++;
+            linea = linea.trim();
+            if (linea.isEmpty() || linea.startsWith("#")) continue;
+
+            String[] partes = linea.split("\\s+", 2);
+            if (partes.length < 2) {
+                throw new IOException("Línea " + numeroLinea + " inválida en " + indice + ": " + linea);
+            }
+            try {
+                instantesMs.add(Long.parseLong(partes[0]));
+            } catch (NumberFormatException e) {
+                throw new IOException("Instante inválido en la línea " + numeroLinea + " de " + indice);
+            }
+            archivos.add(base.resolve(partes[1]));
+        }
+
+        if (archivos.isEmpty()) {
+            throw new IOException("La secuencia " + indice + " no tiene frames");
+        }
+
+        BufferedImage primera = ImageIO.read(archivos.get(0).toFile());
+        if (primera == null) {
+            throw new IOException("No se pudo leer la imagen " + archivos.get(0));
+        }
+        tamano = new Dimension(primera.getWidth(), primera.getHeight());
+
+        siguiente = 0;
+        inicioReproduccion = System.nanoTime();
+        terminada = false;
+    }
+
+    @Override
+    public BufferedImage leerFrame() throws IOException, InterruptedException {
+        if (isTerminada()) return null;
+
+        if (modo == ModoReproduccion.TIEMPO_REAL) {
+            long desplazamiento = instantesMs.get(siguiente) - instantesMs.get(0);
+            FuenteDirectorioImagenes.esperarHasta(inicioReproduccion + desplazamiento * 1_000_000L);
+        }
+
+        Path archivo = archivos.get(siguiente++);
+        if (siguiente == archivos.size()) {
+            terminada = true;
+        }
+
+        BufferedImage imagen = ImageIO.read(archivo.toFile());
+        if (imagen == null) {
+            throw new IOException("No se pudo leer la imagen " + archivo);
+        }
+        return imagen;
+    }
+
+    @Override
+    public boolean isTerminada() {
+        return terminada;
+    }
+
+    @Override
+    public Dimension getTamano() {
+        return tamano;
+    }
+
+    @Override
+    public void cerrar() {
+        terminada = true;
+        archivos = null;
+        instantesMs = null;
+    }
+
+    /**
+     * Cantidad de frames de la secuencia
+     */
+    public int getCantidadFrames() {
+        return archivos != null ? archivos.size() : 0;
+    }
+
+    /**
+     * Graba frames de otra fuente (normalmente la webcam) como una secuencia reproducible
+     * @param origen Fuente a grabar; debe estar abierta
+     * @param indice Archivo de índice a crear; los frames se guardan junto a él
+     * @param cantidad Cantidad de frames a grabar
+     * @param intervaloMs Tiempo entre frames
+     */
+    public static void grabar(FuenteFrames origen, Path indice, int cantidad, long intervaloMs)
+            throws IOException, InterruptedException {
+        Path base = indice.toAbsolutePath().getParent();
+        Files.createDirectories(base);
+
+        long inicio = System.nanoTime();
+        try (BufferedWriter escritor = Files.newBufferedWriter(indice, StandardCharsets.UTF_8)) {
+            escritor.write("# milisegundos_desde_el_inicio archivo");
+            escritor.newLine();
+
+            for (int i = 0; i < cantidad && !origen.isTerminada(); i++) {
+                FuenteDirectorioImagenes.esperarHasta(inicio + i * intervaloMs * 1_000_000L);
+
+                BufferedImage frame = origen.leerFrame();
+                if (frame == null) continue;
+
+                long instanteMs = (System.nanoTime() - inicio) / 1_000_000L;
+                String archivo = String.format("frame_%05d.png", i);
+                ImageIO.write(frame, "png", base.resolve(archivo).toFile());
+
+                escritor.write(instanteMs + " " + archivo);
+                escritor.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.gocheckfx.utils;
+
+import com.github.sarxos.webcam.Webcam;
+import com.github.sarxos.webcam.WebcamResolution;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Fuente de frames que lee de la webcam por defecto del equipo
+ */
+public class FuenteWebcam implements FuenteFrames {
+
+    private final Webcam webcam;
+
+    /**
+     * Busca la webcam por defecto y selecciona la mejor resolución disponible
+     * @throws IOException Si no hay ninguna webcam conectada
+     */
+    public FuenteWebcam() throws IOException {
+        webcam = Webcam.getDefault();
+        if (webcam == null) {
+            throw new IOException("No se encontró ninguna webcam disponible");
+        }
+
+        // Si hay una resolución HD disponible, usarla
+        Dimension[] dimensions = webcam.getViewSizes();
+        Dimension bestSize = WebcamResolution.VGA.getSize(); // 640x480 por defecto
+
+        for (Dimension dimension : dimensions) {
+            // Intentar encontrar una resolución HD
+            if (dimension.width >= 1280 && dimension.height >= 720) {
+                bestSize = dimension;
+                break;
+            } else if (dimension.width > bestSize.width) {
+                bestSize = dimension;
+            }
+        }
+
+        webcam.setViewSize(bestSize);
+    }
+
+    @Override
+    public void abrir() {
+        if (!webcam.isOpen()) {
+            webcam.open();
+        }
+    }
+
+    @Override
+    public BufferedImage leerFrame() {
+        return webcam.getImage();
+    }
+
+    @Override
+    public boolean isTerminada() {
+        return false;
+    }
+
+    @Override
+    public Dimension getTamano() {
+        return webcam.getViewSize();
+    }
+
+    @Override
+    public void cerrar() {
+        if (webcam.isOpen()) {
+            webcam.close();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.gocheckfx.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias con cubetas fijas de crecimiento exponencial (cuatro por cada
+ * duplicación, error máximo de ~19%), desde 50 microsegundos hasta ~2 minutos.
+ * Registrar una muestra solo incrementa un contador atómico, sin reservar memoria.
+ */
+public class HistogramaLatencia {
+
+    private static final long MINIMO_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final int CUBETAS_POR_DUPLICACION = 4;
+    private static final int CUBETAS = 85; // 50 us * 2^(84/4) ≈ 2 minutos
+
+    // Límite superior de cada cubeta en nanosegundos
+    private static final long[] LIMITES = new long[CUBETAS];
+
+    static {
+        for (int i = 0; i < CUBETAS; i++) {
+            LIMITES[i] = (long) (MINIMO_NANOS * Math.pow(2.0, (double) i / CUBETAS_POR_DUPLICACION));
+        }
+        LIMITES[CUBETAS - 1] = Long.MAX_VALUE;
+    }
+
+    private final AtomicLongArray conteos = new AtomicLongArray(CUBETAS);
+
+    /**
+     * Registra una duración
+     * @param nanos Duración en nanosegundos
+     */
+    public void registrar(long nanos) {
+        conteos.incrementAndGet(indiceCubeta(Math.max(0, nanos)));
+    }
+
+    /**
+     * Registra el tiempo transcurrido desde un instante
+     * @param inicioNanos Instante inicial obtenido con System.nanoTime()
+     */
+    public void registrarDesde(long inicioNanos) {
+        registrar(System.nanoTime() - inicioNanos);
+    }
+
+    private static int indiceCubeta(long nanos) {
+        if (nanos <= MINIMO_NANOS) return 0;
+
+        // Aproximación con logaritmo base 2 y ajuste al límite exacto
+        int indice = (int) Math.ceil(Math.log((double) nanos / MINIMO_NANOS) / Math.log(2.0) * CUBETAS_POR_DUPLICACION);
+        indice = Math.min(Math.max(indice, 0), CUBETAS - 1);
+        while (indice > 0 && nanos <= LIMITES[indice - 1]) indice--;
+        while (indice < CUBETAS - 1 && nanos > LIMITES[indice]) indice++;
+        return indice;
+    }
+
+    /**
+     * Copia instantánea de los conteos para calcular percentiles consistentes entre sí
+     */
+    public long[] copiarConteos() {
+        long[] copia = new long[CUBETAS];
+        for (int i = 0; i < CUBETAS; i++) {
+            copia[i] = conteos.get(i);
+        }
+        return copia;
+    }
+
+    /**
+     * Total de muestras en una copia de los conteos
+     */
+    public static long total(long[] conteos) {
+        long total = 0;
+        for (long conteo : conteos) total += conteo;
+        return total;
+    }
+
+    /**
+     * Percentil aproximado (límite superior de la cubeta) en milisegundos
+     * @param conteos Copia de los conteos
+     * @param percentil Percentil entre 0 y 100
+     * @return Latencia en milisegundos, o 0 si no hay muestras
+     */
+    public static double percentilMs(long[] conteos, double percentil) {
+        long total = total(conteos);
+        if (total == 0) return 0.0;
+
+        long objetivo = (long) Math.ceil(total * percentil / 100.0);
+        long acumulado = 0;
+        for (int i = 0; i < conteos.length; i++) {
+            acumulado += conteos[i];
+            if (acumulado >= objetivo && conteos[i] > 0) {
+                return aMilisegundos(i);
+            }
+        }
+        return aMilisegundos(conteos.length - 1);
+    }
+
+    /**
+     * Máxima latencia observada (límite superior de la cubeta más alta con muestras) en milisegundos
+     */
+    public static double maximoMs(long[] conteos) {
+        for (int i = conteos.length - 1; i >= 0; i--) {
+            if (conteos[i] > 0) return aMilisegundos(i);
+        }
+        return 0.0;
+    }
+
+    /**
+     * Fracción de muestras menores o iguales al límite indicado
+     * @param limiteMs Límite en milisegundos
+     * @return Porcentaje entre 0 y 100 (100 si no hay muestras)
+     */
+    public static double porcentajeHasta(long[] conteos, double limiteMs) {
+        long total = total(conteos);
+        if (total == 0) return 100.0;
+
+        long limiteNanos = (long) (limiteMs * 1_000_000L);
+        long dentro = 0;
+        for (int i = 0; i < conteos.length && LIMITES[i] <= limiteNanos; i++) {
+            dentro += conteos[i];
+        }
+        return 100.0 * dentro / total;
+    }
+
+    private static double aMilisegundos(int cubeta) {
+        // La última cubeta no tiene límite; se reporta su límite inferior
+        long limite = cubeta == CUBETAS - 1 ? LIMITES[CUBETAS - 2] : LIMITES[cubeta];
+        return limite / 1_000_000.0;
+    }
+
+    /**
+     * Borra todas las muestras
+     */
+    public void reiniciar() {
+        for (int i = 0; i < CUBETAS; i++) {
+            conteos.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.gocheckfx.utils;
+
+import org.example.gocheckfx.config.DatabaseConfig;
+import org.example.gocheckfx.dao.EventoAsistenciaDAO;
+import org.example.gocheckfx.models.EventoAsistencia;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Sigue la bandeja de salida de eventos de asistencia a partir de una posición.
+ * Los eventos se entregan en orden y sin huecos; la posición avanza solo después de procesar
+ * cada evento. Los números se asignan al insertar, así que uno menor puede confirmarse después
+ * de uno mayor: al encontrar un número faltante la lectura se detiene ahí y lo espera hasta
+ * {@link #ESPERA_HUECO_MS} ms; si no aparece se da por perdido (una transacción que se deshizo)
+ * y se continúa. Requiere auto_increment_increment = 1.
+ * Un consumidor con nombre guarda su posición en la base de datos al terminar cada lote y al
+ * reiniciarse continúa donde se quedó; si se detiene a la mitad de un lote, al volver
+ * recibe de nuevo los eventos posteriores a la última posición guardada, así que debe ignorar
+ * los que ya procesó (por idEvento) o guardar su resultado junto con la posición.
+ *
+ * Uso:
+ * <pre>
+ * LectorEventosAsistencia [consumidor]
+ * </pre>
+ */
+public class LectorEventosAsistencia {
+
+    private static final int TAMANO_LOTE = 500;
+    // Tiempo máximo que se espera un número faltante; debe superar la transacción más larga sobre asistencias
+    public static final long ESPERA_HUECO_MS = 120_000;
+
+    private final EventoAsistenciaDAO eventoDAO;
+    private final String consumidor;    // null si la posición no se guarda
+    private volatile long posicion;
+    // Número faltante que se está esperando y desde cuándo (solo dentro de leerPendientes)
+    private long hueco = -1;
+    private long huecoDesdeMs;
+    private ScheduledExecutorService seguidor;
+
+    /**
+     * Lector con posición guardada en la base de datos
+     * @param consumidor Nombre único del consumidor (ej. "nomina")
+     */
+    public LectorEventosAsistencia(EventoAsistenciaDAO eventoDAO, String consumidor) {
+        this.eventoDAO = eventoDAO;
+        this.consumidor = consumidor;
+        long guardada = eventoDAO.obtenerPosicion(consumidor);
+        if (guardada < 0) {
+            throw new IllegalStateException("No se pudo leer la posición del consumidor " + consumidor);
+        }
+        this.posicion = guardada;
+    }
+
+    /**
+     * Lector local que empieza después del evento indicado y no guarda su posición
+     */
+    public LectorEventosAsistencia(EventoAsistenciaDAO eventoDAO, long despuesDe) {
+        this.eventoDAO = eventoDAO;
+        this.consumidor = null;
+        this.posicion = despuesDe;
+    }
+
+    /**
+     * Último evento procesado
+     */
+    public long getPosicion() {
+        return posicion;
+    }
+
+    /**
+     * Entrega todos los eventos pendientes. Si el consumidor lanza una excepción, la lectura
+     * se detiene en ese evento (se volverá a entregar en la siguiente llamada).
+     * @param procesar Recibe cada evento en orden
+     * @return Número de eventos procesados, o -1 si no se pudieron leer
+     */
+    public synchronized int leerPendientes(Consumer<EventoAsistencia> procesar) {
+        int procesados = 0;
+
+        while (true) {
+            List<EventoAsistencia> eventos = eventoDAO.leerEventos(posicion, TAMANO_LOTE);
+            if (eventos == null) {
+                return procesados > 0 ? procesados : -1;
+            }
+
+            long inicioLote = posicion;
+            boolean enHueco = false;
+            try {
+                for (EventoAsistencia evento : eventos) {
+                    if (!puedeAvanzarA(evento.getIdEvento())) {
+                        enHueco = true;
+                        break;
+                    }
+                    procesar.accept(evento);
+                    posicion = evento.getIdEvento();
+                    procesados++;
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Error al procesar evento de asistencia: " + e.getMessage());
+                guardarPosicion();
+                return procesados;
+            }
+
+            if (posicion != inicioLote) {
+                guardarPosicion();
+            }
+            if (enHueco || eventos.size() < TAMANO_LOTE) {
+                return procesados;
+            }
+        }
+    }
+
+    /**
+     * Consulta periódicamente los eventos nuevos en un hilo propio
+     * @param intervaloMs Espera entre consultas
+     * @param procesar Recibe cada evento en orden (desde el hilo del lector)
+     */
+    public synchronized void seguir(long intervaloMs, Consumer<EventoAsistencia> procesar) {
+        if (seguidor != null) return;
+
+        seguidor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread hilo = new Thread(runnable, "eventos-asistencia");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        seguidor.scheduleWithFixedDelay(() -> leerPendientes(procesar), 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Deja de consultar eventos nuevos
+     */
+    public synchronized void detener() {
+        if (seguidor != null) {
+            seguidor.shutdown();
+            seguidor = null;
+        }
+    }
+
+    /**
+     * Indica si se puede entregar el evento: es el siguiente de la posición, o los que faltan
+     * antes de él ya se esperaron {@link #ESPERA_HUECO_MS} ms. Un lector que empieza desde el
+     * principio no espera los eventos ya depurados.
+     */
+    private boolean puedeAvanzarA(long idEvento) {
+        long faltante = posicion + 1;
+        if (idEvento == faltante || posicion == 0) {
+            return true;
+        }
+
+        long ahora = System.currentTimeMillis();
+        if (faltante != hueco) {
+            hueco = faltante;
+            huecoDesdeMs = ahora;
+            return false;
+        }
+        if (ahora - huecoDesdeMs < ESPERA_HUECO_MS) {
+            return false;
+        }
+
+        System.err.println("Eventos de asistencia " + faltante + " a " + (idEvento - 1) +
+                " no aparecieron en " + ESPERA_HUECO_MS + " ms; se omiten");
+        return true;
+    }
+
+    private void guardarPosicion() {
+        if (consumidor != null) {
+            eventoDAO.guardarPosicion(consumidor, posicion);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        EventoAsistenciaDAO eventoDAO = new EventoAsistenciaDAO();
+        LectorEventosAsistencia lector = args.length > 0 ?
+                new LectorEventosAsistencia(eventoDAO, args[0]) :
+                new LectorEventosAsistencia(eventoDAO, 0L);
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            lector.detener();
+            DatabaseConfig.getInstance().closeConnection();
+        }));
+
+        System.out.println("Siguiendo eventos después de " + lector.getPosicion() + " (Ctrl+C para salir)");
+        lector.seguir(1000, System.out::println);
+        Thread.currentThread().join();
+    }
+}
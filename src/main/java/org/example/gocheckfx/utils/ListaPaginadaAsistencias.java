@@ -0,0 +1,166 @@
+package org.example.gocheckfx.utils;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+import org.example.gocheckfx.dao.AsistenciaDAO;
+import org.example.gocheckfx.models.Asistencia;
+import org.example.gocheckfx.models.ClaveAsistencia;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lista de solo lectura con las asistencias de un reporte, cargada por páginas conforme la tabla
+ * las muestra. Las páginas se piden con paginación por llave sobre (fecha, id_empleado) y se
+ * guardan en el reporte de {@link CacheReportes}, que solo conserva las más recientes, así que
+ * la memoria no depende del tamaño del reporte y volver a abrirlo muestra las páginas ya cargadas.
+ * Mientras una página se carga, sus filas se muestran con {@link #CARGANDO}; si la consulta
+ * falla, la página no se guarda y se vuelve a pedir la siguiente vez que la tabla la muestre.
+ * Debe usarse desde el hilo de JavaFX.
+ */
+public class ListaPaginadaAsistencias extends ObservableListBase<Asistencia> {
+
+    public static final int TAMANO_PAGINA = 100;
+
+    /**
+     * Fila que se muestra mientras su página se carga
+     */
+    public static final Asistencia CARGANDO = new Asistencia();
+
+    static {
+        CARGANDO.setEstado("Cargando...");
+        CARGANDO.setNombreEmpleado("Cargando...");
+    }
+
+    private final AsistenciaDAO asistenciaDAO;
+    private final CacheReportes.Reporte reporte;
+    private final CacheReportes.Clave filtros;
+    private final int total;
+
+    // Páginas pedidas que todavía no llegan (hilo de JavaFX)
+    private final Set<Integer> solicitadas = new HashSet<>();
+
+    private final ExecutorService cargador = Executors.newSingleThreadExecutor(runnable -> {
+        Thread hilo = new Thread(runnable, "reporte-paginas");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private boolean cerrada;
+
+    /**
+     * @param reporte Reporte generado, con el número de filas y las páginas ya cargadas
+     */
+    public ListaPaginadaAsistencias(AsistenciaDAO asistenciaDAO, CacheReportes.Reporte reporte) {
+        this.asistenciaDAO = asistenciaDAO;
+        this.reporte = reporte;
+        this.filtros = reporte.getClave();
+        this.total = (int) reporte.getTotal();
+    }
+
+    @Override
+    public Asistencia get(int indice) {
+        if (indice < 0 || indice >= total) {
+            throw new IndexOutOfBoundsException("Índice " + indice + " fuera de " + total);
+        }
+
+        int pagina = indice / TAMANO_PAGINA;
+        int posicion = indice % TAMANO_PAGINA;
+        List<Asistencia> filas = reporte.getPagina(pagina);
+        if (filas == null) {
+            solicitar(pagina);
+            return CARGANDO;
+        }
+
+        // Adelantar la página siguiente cuando la tabla se acerca al final de esta
+        if (posicion >= TAMANO_PAGINA * 3 / 4 && (pagina + 1) * TAMANO_PAGINA < total) {
+            solicitar(pagina + 1);
+        }
+
+        // Si el reporte cambió desde el conteo, la página puede venir incompleta
+        return posicion < filas.size() ? filas.get(posicion) : CARGANDO;
+    }
+
+    @Override
+    public int size() {
+        return total;
+    }
+
+    /**
+     * Detiene la carga de páginas; la lista ya no se actualiza
+     */
+    public void cerrar() {
+        cerrada = true;
+        cargador.shutdownNow();
+    }
+
+    private void solicitar(int pagina) {
+        if (cerrada || reporte.tienePagina(pagina) || !solicitadas.add(pagina)) return;
+
+        cargador.execute(() -> {
+            List<Asistencia> filas = cargar(pagina);
+            Platform.runLater(() -> publicar(pagina, filas));
+        });
+    }
+
+    /**
+     * Consulta una página (hilo de carga)
+     * @return Filas de la página, o null si no se pudo leer
+     */
+    private List<Asistencia> cargar(int pagina) {
+        ClaveAsistencia despuesDe = null;
+        if (pagina > 0) {
+            despuesDe = buscarClave(pagina);
+            if (despuesDe == null) return null;
+        }
+
+        List<Asistencia> filas = asistenciaDAO.obtenerPaginaAsistencias(filtros.getFechaInicio(),
+                filtros.getFechaFin(), filtros.getIdEmpleado(), filtros.getEstado(), despuesDe, TAMANO_PAGINA);
+        if (filas != null && filas.size() == TAMANO_PAGINA) {
+            reporte.guardarClavePagina(pagina + 1, ClaveAsistencia.de(filas.get(filas.size() - 1)));
+        }
+        return filas;
+    }
+
+    /**
+     * Clave de la fila anterior a una página. Si no se conoce (salto con la barra de desplazamiento),
+     * se busca avanzando por el índice desde la página conocida más cercana.
+     */
+    private ClaveAsistencia buscarClave(int pagina) {
+        ClaveAsistencia clave = reporte.getClavePagina(pagina);
+        if (clave != null) return clave;
+
+        Map.Entry<Integer, ClaveAsistencia> anterior = reporte.clavePaginaAnterior(pagina);
+        int desde = anterior != null ? anterior.getKey() : 0;
+        ClaveAsistencia base = anterior != null ? anterior.getValue() : null;
+
+        clave = asistenciaDAO.buscarClaveAsistencia(filtros.getFechaInicio(), filtros.getFechaFin(),
+                filtros.getIdEmpleado(), filtros.getEstado(), base, (pagina - desde) * TAMANO_PAGINA);
+        if (clave != null) {
+            reporte.guardarClavePagina(pagina, clave);
+        }
+        return clave;
+    }
+
+    /**
+     * Guarda una página cargada y avisa a la tabla que sus filas cambiaron (hilo de JavaFX).
+     * Una página que no se pudo leer no se guarda, para que se vuelva a pedir.
+     */
+    private void publicar(int pagina, List<Asistencia> filas) {
+        solicitadas.remove(pagina);
+        if (cerrada || filas == null) return;
+
+        reporte.guardarPagina(pagina, filas);
+
+        int inicio = pagina * TAMANO_PAGINA;
+        int fin = Math.min(inicio + TAMANO_PAGINA, total);
+        beginChange();
+        for (int indice = inicio; indice < fin; indice++) {
+            nextSet(indice, CARGANDO);
+        }
+        endChange();
+    }
+}
@@ -0,0 +1,220 @@
+package org.example.gocheckfx.utils;
+
+import org.example.gocheckfx.config.DatabaseConfig;
+import org.example.gocheckfx.dao.AvisosCalendario;
+import org.example.gocheckfx.dao.CalendarioLaboralDAO;
+import org.example.gocheckfx.dao.CambioDescansoDAO;
+import org.example.gocheckfx.dao.HorarioEmpleadoDAO;
+import org.example.gocheckfx.dao.PermisoDAO;
+import org.example.gocheckfx.dao.TurnoDAO;
+import org.example.gocheckfx.models.DiaCalendario;
+import org.example.gocheckfx.models.Turno;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantiene la tabla calendario_laboral: qué le toca a cada empleado cada día (laborable con
+ * su turno, descanso o permiso) desde hoy hasta {@link #HORIZONTE_DIAS} días adelante, según
+ * {@link DiasLaborables}. Así, saber si alguien debía estar trabajando es una sola consulta
+ * ({@link CalendarioLaboralDAO}).
+ * Registrado en {@link AvisosCalendario}, los DAO le avisan cuando cambian horarios, cambios de
+ * descanso, permisos, turnos o empleados, y solo se recalculan los días afectados; programado,
+ * recalcula todo el horizonte cada noche para avanzarlo un día. Los días pasados se conservan como se calcularon,
+ * salvo que un cambio de descanso o un permiso caiga en ellos. Todas las escrituras se hacen en un solo hilo, en orden.
+ *
+ * Uso:
+ * <pre>
+ * MaterializadorCalendario
+ * </pre>
+ */
+public class MaterializadorCalendario implements AvisosCalendario.Oyente {
+
+    public static final int HORIZONTE_DIAS = 60;
+    public static final LocalTime HORA_PREDETERMINADA = LocalTime.of(0, 15);
+
+    private static volatile MaterializadorCalendario instance;
+
+    private final CalendarioLaboralDAO calendarioDAO = new CalendarioLaboralDAO();
+    private final HorarioEmpleadoDAO horarioDAO = new HorarioEmpleadoDAO();
+    private final CambioDescansoDAO cambioDAO = new CambioDescansoDAO();
+    private final PermisoDAO permisoDAO = new PermisoDAO();
+    private final TurnoDAO turnoDAO = new TurnoDAO();
+
+    private final ScheduledExecutorService actualizador = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread hilo = new Thread(runnable, "calendario-laboral");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private ScheduledFuture<?> siguiente;
+
+    private MaterializadorCalendario() {
+    }
+
+    /**
+     * Obtiene la instancia única del materializador
+     */
+    public static MaterializadorCalendario getInstance() {
+        if (instance == null) {
+            synchronized (MaterializadorCalendario.class) {
+                if (instance == null) {
+                    instance = new MaterializadorCalendario();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Recalcula el horizonte de todos los empleados en el hilo del que llama
+     * @return true si se guardó, false si ocurrió un error
+     */
+    public boolean materializar() {
+        LocalDate hoy = LocalDate.now();
+        return materializar(null, hoy, hoy.plusDays(HORIZONTE_DIAS));
+    }
+
+    /**
+     * Recalcula el horizonte ahora y después cada día a la hora indicada
+     */
+    public synchronized void programar(LocalTime hora) {
+        if (siguiente != null) return;
+
+        actualizador.execute(this::materializarYAvisar);
+        programarSiguiente(hora);
+    }
+
+    /**
+     * Cancela el recálculo diario (las actualizaciones por cambios siguen)
+     */
+    public synchronized void detener() {
+        if (siguiente != null) {
+            siguiente.cancel(false);
+            siguiente = null;
+        }
+    }
+
+    /**
+     * Recalcula todo el horizonte (por ejemplo, después de cambiar el horario de un turno)
+     */
+    @Override
+    public void actualizarTodo() {
+        actualizador.execute(this::materializarYAvisar);
+    }
+
+    /**
+     * Recalcula el horizonte de un empleado, desde hoy (después de cambiar su horario o turno)
+     */
+    @Override
+    public void actualizarEmpleado(int idEmpleado) {
+        actualizador.execute(() -> {
+            LocalDate hoy = LocalDate.now();
+            materializar(idEmpleado, hoy, hoy.plusDays(HORIZONTE_DIAS));
+        });
+    }
+
+    /**
+     * Recalcula días sueltos de un empleado (cambios de descanso y permisos). Las fechas
+     * después del horizonte se omiten; se calcularán cuando el horizonte llegue a ellas.
+     */
+    @Override
+    public void actualizarDias(int idEmpleado, LocalDate... fechas) {
+        actualizador.execute(() -> {
+            LocalDate fin = LocalDate.now().plusDays(HORIZONTE_DIAS);
+            for (LocalDate fecha : fechas) {
+                if (!fecha.isAfter(fin)) {
+                    materializar(idEmpleado, fecha, fecha);
+                }
+            }
+        });
+    }
+
+    /**
+     * Calcula y reemplaza el calendario de un rango
+     * @param idEmpleado Empleado a recalcular, o null para todos
+     */
+    private boolean materializar(Integer idEmpleado, LocalDate fechaInicio, LocalDate fechaFin) {
+        DiasLaborables dias = DiasLaborables.desdeBaseDeDatos(fechaInicio, fechaFin, horarioDAO, cambioDAO, permisoDAO);
+        Map<Integer, Turno> turnos = turnoDAO.obtenerTurnosPorEmpleado();
+        if (dias == null || (turnos.isEmpty() && !dias.getEmpleados().isEmpty())) {
+            System.err.println("Error al calcular calendario laboral: no se pudieron leer horarios o turnos");
+            return false;
+        }
+
+        Set<Integer> empleados = idEmpleado != null ?
+                (dias.getEmpleados().contains(idEmpleado) ? Set.of(idEmpleado) : Set.of()) :
+                dias.getEmpleados();
+
+        List<DiaCalendario> calendario = new ArrayList<>();
+        for (int empleado : empleados) {
+            Turno turno = turnos.get(empleado);
+            for (LocalDate fecha = fechaInicio; !fecha.isAfter(fechaFin); fecha = fecha.plusDays(1)) {
+                DiasLaborables.TipoDia tipo = dias.resolver(empleado, fecha);
+
+                DiaCalendario dia = new DiaCalendario();
+                dia.setIdEmpleado(empleado);
+                dia.setFecha(fecha);
+                dia.setTipo(tipo.name());
+                if (tipo == DiasLaborables.TipoDia.LABORABLE && turno != null) {
+                    dia.setIdTurno(turno.getIdTurno());
+                    dia.setHoraEntrada(turno.getHoraEntrada());
+                    dia.setHoraSalida(turno.getHoraSalida());
+                }
+                calendario.add(dia);
+            }
+        }
+
+        // Sin horario no hay filas: el reemplazo también borra las de horarios eliminados
+        return calendarioDAO.reemplazarDias(idEmpleado, fechaInicio, fechaFin, calendario);
+    }
+
+    private void materializarYAvisar() {
+        long inicio = System.currentTimeMillis();
+        if (materializar()) {
+            System.out.println("Calendario laboral actualizado en " + (System.currentTimeMillis() - inicio) + " ms");
+        }
+    }
+
+    /**
+     * Programa la siguiente ejecución; se calcula cada vez para respetar cambios de horario
+     */
+    private synchronized void programarSiguiente(LocalTime hora) {
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDateTime proxima = ahora.toLocalDate().atTime(hora);
+        if (!proxima.isAfter(ahora)) {
+            proxima = proxima.plusDays(1);
+        }
+
+        siguiente = actualizador.schedule(() -> {
+            try {
+                materializarYAvisar();
+            } catch (RuntimeException e) {
+                System.err.println("Error al actualizar calendario laboral: " + e.getMessage());
+            }
+            synchronized (this) {
+                if (siguiente != null) {
+                    programarSiguiente(hora);
+                }
+            }
+        }, Duration.between(ahora, proxima).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public static void main(String[] args) {
+        try {
+            System.out.println(getInstance().materializar() ?
+                    "Calendario laboral actualizado" : "No se pudo actualizar el calendario laboral");
+        } finally {
+            DatabaseConfig.getInstance().closeConnection();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package org.example.gocheckfx.utils;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de latencia de cada etapa del escaneo, del frame capturado a la confirmación en pantalla.
+ * Se exponen por JMX y se escriben periódicamente en la salida estándar.
+ */
+public class MetricasEscaneo implements MetricasEscaneoMXBean {
+
+    /**
+     * Etapas medidas del recorrido de un gafete
+     */
+    public enum Etapa {
+        CAPTURA,                // Obtener el frame de la cámara
+        COLA_FRAMES,            // Espera del frame antes de decodificarse
+        DECODIFICACION,         // Buscar un código en el frame
+        COLA_PROCESAMIENTO,     // Espera del código antes de procesarse
+        BUSQUEDA_EMPLEADO,      // Búsqueda en el índice de empleados
+        REGISTRO_BD,            // Llamada al procedimiento registrar_checada
+        PUBLICACION_UI,         // Espera del resultado en la cola del hilo de JavaFX
+        CONFIRMACION,           // Tiempo que el resultado ocupa el hilo de JavaFX (incluye diálogos)
+        TOTAL                   // Del frame capturado al inicio de la confirmación
+    }
+
+    private static final long OBJETIVO_MS = 500;
+    private static final long INTERVALO_REPORTE_MIN = 5;
+    private static final long VIGENCIA_LECTURA_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static volatile MetricasEscaneo instance;
+
+    private final Map<Etapa, HistogramaLatencia> histogramas = new EnumMap<>(Etapa.class);
+
+    // Instante de captura del frame de cada código leído, para medir el tiempo total
+    private final Map<String, Long> lecturasPendientes = new ConcurrentHashMap<>();
+    private long totalReportado;
+
+    private MetricasEscaneo() {
+        for (Etapa etapa : Etapa.values()) {
+            histogramas.put(etapa, new HistogramaLatencia());
+        }
+    }
+
+    /**
+     * Obtener la instancia única de las métricas; la primera llamada la registra en JMX
+     * e inicia el reporte periódico
+     */
+    public static MetricasEscaneo getInstance() {
+        if (instance == null) {
+            synchronized (MetricasEscaneo.class) {
+                if (instance == null) {
+                    MetricasEscaneo metricas = new MetricasEscaneo();
+                    metricas.registrarJmx();
+                    metricas.iniciarReporte();
+                    instance = metricas;
+                }
+            }
+        }
+        return instance;
+    }
+
+    private void registrarJmx() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    new ObjectName("org.example.gocheckfx:type=MetricasEscaneo"));
+        } catch (Exception e) {
+            System.err.println("Error al registrar las métricas de escaneo en JMX: " + e.getMessage());
+        }
+    }
+
+    private void iniciarReporte() {
+        ScheduledExecutorService reporte = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread hilo = new Thread(runnable, "metricas-escaneo");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        reporte.scheduleAtFixedRate(this::reportar, INTERVALO_REPORTE_MIN, INTERVALO_REPORTE_MIN, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Registra la duración de una etapa
+     * @param etapa Etapa medida
+     * @param inicioNanos Instante inicial obtenido con System.nanoTime()
+     */
+    public void registrarDesde(Etapa etapa, long inicioNanos) {
+        histogramas.get(etapa).registrarDesde(inicioNanos);
+    }
+
+    /**
+     * Guarda el instante de captura del frame donde se leyó un código
+     * @param codigo Código leído
+     * @param instanteCaptura Instante de captura (System.nanoTime())
+     */
+    public void registrarLectura(String codigo, long instanteCaptura) {
+        // Descartar lecturas que nunca se procesaron para que el mapa no crezca
+        if (lecturasPendientes.size() > 64) {
+            long ahora = System.nanoTime();
+            lecturasPendientes.values().removeIf(instante -> ahora - instante > VIGENCIA_LECTURA_NANOS);
+        }
+        lecturasPendientes.put(codigo, instanteCaptura);
+    }
+
+    /**
+     * Obtiene y olvida el instante de captura de un código leído por la cámara
+     * @param codigo Código leído
+     * @param predeterminado Instante a usar si el código no vino de la cámara (captura manual)
+     */
+    public long tomarInstanteLectura(String codigo, long predeterminado) {
+        Long instante = lecturasPendientes.remove(codigo);
+        return instante != null ? instante : predeterminado;
+    }
+
+    @Override
+    public List<ResumenLatencia> getEtapas() {
+        List<ResumenLatencia> etapas = new ArrayList<>();
+        for (Etapa etapa : Etapa.values()) {
+            long[] conteos = histogramas.get(etapa).copiarConteos();
+            etapas.add(new ResumenLatencia(etapa.name(), HistogramaLatencia.total(conteos),
+                    HistogramaLatencia.percentilMs(conteos, 50),
+                    HistogramaLatencia.percentilMs(conteos, 95),
+                    HistogramaLatencia.percentilMs(conteos, 99),
+                    HistogramaLatencia.maximoMs(conteos)));
+        }
+        return etapas;
+    }
+
+    @Override
+    public double getPorcentajeDentroObjetivo() {
+        return HistogramaLatencia.porcentajeHasta(histogramas.get(Etapa.TOTAL).copiarConteos(), OBJETIVO_MS);
+    }
+
+    @Override
+    public long getObjetivoMs() {
+        return OBJETIVO_MS;
+    }
+
+    @Override
+    public void reiniciar() {
+        histogramas.values().forEach(HistogramaLatencia::reiniciar);
+        lecturasPendientes.clear();
+    }
+
+    /**
+     * Escribe el resumen de latencias si hubo escaneos desde el último reporte
+     */
+    private void reportar() {
+        long total = HistogramaLatencia.total(histogramas.get(Etapa.TOTAL).copiarConteos());
+        if (total == totalReportado) return;
+        totalReportado = total;
+
+        StringBuilder linea = new StringBuilder("Latencia de escaneo (objetivo ")
+                .append(OBJETIVO_MS).append(" ms, ")
+                .append(String.format("%.1f", getPorcentajeDentroObjetivo())).append("% dentro):");
+        for (ResumenLatencia resumen : getEtapas()) {
+            if (resumen.getMuestras() > 0) {
+                linea.append(System.lineSeparator()).append("  ").append(resumen);
+            }
+        }
+        System.out.println(linea);
+    }
+}
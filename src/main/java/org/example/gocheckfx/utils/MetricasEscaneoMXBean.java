@@ -0,0 +1,30 @@
+package org.example.gocheckfx.utils;
+
+import java.util.List;
+
+/**
+ * Interfaz JMX de las métricas de latencia del escaneo.
+ * Se registra como org.example.gocheckfx:type=MetricasEscaneo
+ */
+public interface MetricasEscaneoMXBean {
+
+    /**
+     * Resumen de latencias (p50/p95/p99) de cada etapa
+     */
+    List<ResumenLatencia> getEtapas();
+
+    /**
+     * Porcentaje de escaneos confirmados dentro del objetivo de servicio
+     */
+    double getPorcentajeDentroObjetivo();
+
+    /**
+     * Objetivo de servicio de gafete a confirmación, en milisegundos
+     */
+    long getObjetivoMs();
+
+    /**
+     * Borra todas las muestras
+     */
+    void reiniciar();
+}
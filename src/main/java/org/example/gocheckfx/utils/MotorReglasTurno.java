@@ -0,0 +1,215 @@
+package org.example.gocheckfx.utils;
+
+import org.example.gocheckfx.models.Asistencia;
+import org.example.gocheckfx.models.Turno;
+import org.example.gocheckfx.utils.RegistroAsistenciaManager.TipoRegistro;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Motor único de reglas de checado. Decide qué tipo de registro corresponde a una checada
+ * según el turno, la hora y lo que el empleado ya registró en el día, y si la entrada es
+ * puntual o con retardo. Cada turno se compila una sola vez en {@link ReglasTurno};
+ * las reglas compiladas se descartan cuando el turno se modifica.
+ */
+public class MotorReglasTurno {
+
+    public static final int TOLERANCIA_ENTRADA_MINUTOS = 10; // 10 minutos de tolerancia para la entrada
+    public static final int TOLERANCIA_DESCANSO_MINUTOS = 5; // 5 minutos de tolerancia para descansos
+
+    // Observaciones que genera el sistema en las notas de una asistencia
+    private static final Pattern NOTAS_AUTOMATICAS = Pattern.compile(
+            "Excedió tiempo de (desayuno|comida) por \\d+ minutos\\. ?|No registró su (desayuno|comida)\\. ?");
+
+    /**
+     * Estado de la jornada según los registros del día. El orden de los valores es parte
+     * del contrato con el procedimiento registrar_checada.
+     */
+    public enum EstadoJornada {
+        SIN_ENTRADA,
+        TRABAJANDO,
+        EN_DESAYUNO,
+        DESPUES_DESAYUNO,
+        EN_COMIDA,
+        DESPUES_COMIDA,
+        COMPLETA
+    }
+
+    private static volatile MotorReglasTurno instance;
+
+    private final Map<Integer, ReglasTurno> reglasPorTurno = new ConcurrentHashMap<>();
+
+    private MotorReglasTurno() {
+    }
+
+    /**
+     * Obtener la instancia única del motor de reglas
+     */
+    public static MotorReglasTurno getInstance() {
+        if (instance == null) {
+            synchronized (MotorReglasTurno.class) {
+                if (instance == null) {
+                    instance = new MotorReglasTurno();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Obtiene las reglas compiladas del turno, compilándolas si no existen o si el turno cambió
+     */
+    public ReglasTurno obtenerReglas(Turno turno) {
+        ReglasTurno reglas = reglasPorTurno.get(turno.getIdTurno());
+        if (reglas == null || !reglas.correspondeA(turno)) {
+            reglas = new ReglasTurno(turno, TOLERANCIA_ENTRADA_MINUTOS);
+            reglasPorTurno.put(turno.getIdTurno(), reglas);
+        }
+        return reglas;
+    }
+
+    /**
+     * Descarta las reglas compiladas de un turno. Debe llamarse cuando el turno se modifica.
+     */
+    public void invalidar(int idTurno) {
+        reglasPorTurno.remove(idTurno);
+    }
+
+    /**
+     * Determina el estado de la jornada a partir de la asistencia del día
+     * @param asistencia Asistencia del día (puede ser null si no hay registros)
+     */
+    public static EstadoJornada estadoDe(Asistencia asistencia) {
+        if (asistencia == null) return EstadoJornada.SIN_ENTRADA;
+        if (asistencia.getHoraSalida() != null) return EstadoJornada.COMPLETA;
+        if (asistencia.getHoraEntrada() == null) return EstadoJornada.SIN_ENTRADA;
+        if (asistencia.getFinDescanso2() != null) return EstadoJornada.DESPUES_COMIDA;
+        if (asistencia.getInicioDescanso2() != null) return EstadoJornada.EN_COMIDA;
+        if (asistencia.getFinDescanso1() != null) return EstadoJornada.DESPUES_DESAYUNO;
+        if (asistencia.getInicioDescanso1() != null) return EstadoJornada.EN_DESAYUNO;
+        return EstadoJornada.TRABAJANDO;
+    }
+
+    /**
+     * Siguiente registro de la secuencia de la jornada, sin considerar la hora
+     * @param asistencia Asistencia del día (puede ser null si no hay registros)
+     * @return Tipo de acción a registrar (ENTRADA, SALIDA, INICIO_DESCANSO1, etc.)
+     */
+    public static String siguienteAccion(Asistencia asistencia) {
+        switch (estadoDe(asistencia)) {
+            case SIN_ENTRADA:
+                return "ENTRADA";
+            case TRABAJANDO:
+                return "INICIO_DESCANSO1";
+            case EN_DESAYUNO:
+                return "FIN_DESCANSO1";
+            case DESPUES_DESAYUNO:
+                return "INICIO_DESCANSO2";
+            case EN_COMIDA:
+                return "FIN_DESCANSO2";
+            case DESPUES_COMIDA:
+                return "SALIDA";
+            default:
+                return "COMPLETO";
+        }
+    }
+
+    /**
+     * Fecha de la asistencia a la que pertenece una checada según el turno
+     * (las checadas de madrugada de un turno nocturno son del día anterior)
+     */
+    public LocalDate fechaJornada(Turno turno, LocalDateTime momento) {
+        return obtenerReglas(turno).fechaJornada(momento);
+    }
+
+    /**
+     * Clasifica una checada
+     * @param turno Turno del empleado
+     * @param asistencia Asistencia del día (puede ser null si es la primera checada)
+     * @param momento Momento de la checada
+     * @return Tipo de registro que corresponde, o NO_APLICABLE si está fuera de horario
+     */
+    public TipoRegistro clasificar(Turno turno, Asistencia asistencia, LocalDateTime momento) {
+        return obtenerReglas(turno).clasificar(estadoDe(asistencia), momento.toLocalTime());
+    }
+
+    /**
+     * Estado que corresponde a una entrada registrada a esa hora
+     * @return PRESENTE si está dentro de la tolerancia, RETARDO si no
+     */
+    public String estadoEntrada(Turno turno, LocalTime horaEntrada) {
+        return obtenerReglas(turno).isEntradaPuntual(horaEntrada) ? "PRESENTE" : "RETARDO";
+    }
+
+    /**
+     * Estado que corresponde a una asistencia ya registrada. Las justificadas se respetan.
+     * @return JUSTIFICADO, FALTA, PRESENTE o RETARDO
+     */
+    public String calcularEstado(Turno turno, Asistencia asistencia) {
+        if ("JUSTIFICADO".equals(asistencia.getEstado())) return "JUSTIFICADO";
+        if (asistencia.getHoraEntrada() == null) return "FALTA";
+        return estadoEntrada(turno, asistencia.getHoraEntrada().toLocalTime());
+    }
+
+    /**
+     * Notas de una asistencia con las observaciones automáticas (exceso de descanso,
+     * descansos sin registrar) calculadas de nuevo. El texto capturado a mano se conserva.
+     * @return Notas resultantes o null si quedan vacías
+     */
+    public String calcularNotas(Turno turno, Asistencia asistencia) {
+        String notas = asistencia.getNotas() != null ?
+                NOTAS_AUTOMATICAS.matcher(asistencia.getNotas()).replaceAll("") : "";
+        StringBuilder resultado = new StringBuilder(notas);
+
+        long minutosDesayuno = minutosEntre(asistencia.getInicioDescanso1(), asistencia.getFinDescanso1());
+        if (minutosDesayuno > turno.getDuracionDesayuno() + TOLERANCIA_DESCANSO_MINUTOS) {
+            resultado.append("Excedió tiempo de desayuno por ")
+                    .append(minutosDesayuno - turno.getDuracionDesayuno()).append(" minutos. ");
+        }
+
+        long minutosComida = minutosEntre(asistencia.getInicioDescanso2(), asistencia.getFinDescanso2());
+        if (minutosComida > turno.getDuracionComida() + TOLERANCIA_DESCANSO_MINUTOS) {
+            resultado.append("Excedió tiempo de comida por ")
+                    .append(minutosComida - turno.getDuracionComida()).append(" minutos. ");
+        }
+
+        // Los descansos faltantes solo se anotan cuando la jornada ya terminó
+        if (asistencia.getHoraSalida() != null) {
+            if (turno.getDuracionDesayuno() > 0 && asistencia.getInicioDescanso1() == null) {
+                resultado.append("No registró su desayuno. ");
+            }
+            if (turno.getDuracionComida() > 0 && asistencia.getInicioDescanso2() == null) {
+                resultado.append("No registró su comida. ");
+            }
+        }
+
+        return resultado.length() > 0 ? resultado.toString() : null;
+    }
+
+    private static long minutosEntre(LocalDateTime inicio, LocalDateTime fin) {
+        return inicio != null && fin != null ? ChronoUnit.MINUTES.between(inicio, fin) : -1;
+    }
+
+    /**
+     * Decisiones de todos los estados de la jornada para un momento, codificadas para
+     * el procedimiento registrar_checada: un dígito por estado, en el orden de {@link EstadoJornada}.
+     * '0' significa que no aplica ningún registro y '1'..'6' son ENTRADA..SALIDA.
+     */
+    public String codificarDecisiones(Turno turno, LocalDateTime momento) {
+        ReglasTurno reglas = obtenerReglas(turno);
+        LocalTime hora = momento.toLocalTime();
+
+        char[] codigos = new char[EstadoJornada.values().length];
+        for (EstadoJornada estado : EstadoJornada.values()) {
+            TipoRegistro tipo = reglas.clasificar(estado, hora);
+            codigos[estado.ordinal()] = tipo == TipoRegistro.NO_APLICABLE ? '0' : (char) ('1' + tipo.ordinal());
+        }
+        return new String(codigos);
+    }
+}
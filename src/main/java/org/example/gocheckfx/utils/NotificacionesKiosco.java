@@ -0,0 +1,209 @@
+package org.example.gocheckfx.utils;
+
+import javafx.animation.Animation;
+import javafx.animation.FadeTransition;
+import javafx.animation.PauseTransition;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.util.Duration;
+
+import java.awt.Toolkit;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Notificaciones no modales para el kiosco de escaneo.
+ * Cada mensaje aparece en un contenedor de la pantalla y desaparece solo, sin que nadie
+ * tenga que cerrarlo. Los mensajes con la misma clave (por ejemplo, el mismo empleado)
+ * se combinan en uno solo y, si llegan muchos a la vez, esperan en una cola corta.
+ * Todos los métodos deben llamarse desde el hilo de JavaFX.
+ */
+public class NotificacionesKiosco {
+
+    /**
+     * Tipo de notificación; define el color, la duración y el sonido
+     */
+    public enum Tipo {
+        EXITO("#2e7d32", 3),
+        INFO("#336699", 3),
+        ADVERTENCIA("#ef6c00", 4),
+        ERROR("#c62828", 5);
+
+        private final String color;
+        private final int segundos;
+
+        Tipo(String color, int segundos) {
+            this.color = color;
+            this.segundos = segundos;
+        }
+    }
+
+    private static final int MAXIMO_VISIBLES = 3;
+    private static final int MAXIMO_PENDIENTES = 5;
+    private static final Duration DURACION_FADE = Duration.millis(250);
+
+    private final VBox contenedor;
+    private final Map<String, Notificacion> visibles = new LinkedHashMap<>();
+    private final Deque<Notificacion> pendientes = new ArrayDeque<>();
+    private boolean sonidoActivo = true;
+
+    // El aviso sonoro usa AWT; se emite fuera del hilo de JavaFX
+    private final ExecutorService sonido = Executors.newSingleThreadExecutor(runnable -> {
+        Thread hilo = new Thread(runnable, "notificaciones-sonido");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /**
+     * @param contenedor Contenedor de la pantalla donde se apilan las notificaciones
+     */
+    public NotificacionesKiosco(VBox contenedor) {
+        this.contenedor = contenedor;
+    }
+
+    /**
+     * Muestra una notificación que se cierra sola
+     * @param clave Identifica el origen del mensaje; un mensaje nuevo con la misma clave reemplaza al anterior
+     * @param tipo Tipo de notificación
+     * @param titulo Título breve
+     * @param mensaje Detalle del mensaje
+     */
+    public void mostrar(String clave, Tipo tipo, String titulo, String mensaje) {
+        emitirSonido(tipo);
+
+        // Combinar con una notificación visible de la misma clave
+        Notificacion visible = visibles.get(clave);
+        if (visible != null) {
+            visible.actualizar(tipo, titulo, mensaje);
+            return;
+        }
+
+        // Combinar con una pendiente de la misma clave
+        for (Notificacion pendiente : pendientes) {
+            if (pendiente.clave.equals(clave)) {
+                pendiente.actualizar(tipo, titulo, mensaje);
+                return;
+            }
+        }
+
+        Notificacion notificacion = new Notificacion(clave, tipo, titulo, mensaje);
+        if (visibles.size() < MAXIMO_VISIBLES && pendientes.isEmpty()) {
+            presentar(notificacion);
+        } else {
+            // Ráfaga: descartar la pendiente más vieja, lo reciente es lo que importa
+            if (pendientes.size() >= MAXIMO_PENDIENTES) {
+                pendientes.pollFirst();
+            }
+            pendientes.addLast(notificacion);
+        }
+    }
+
+    /**
+     * Activa o desactiva el aviso sonoro
+     */
+    public void setSonidoActivo(boolean sonidoActivo) {
+        this.sonidoActivo = sonidoActivo;
+    }
+
+    /**
+     * Quita todas las notificaciones y libera el hilo de sonido
+     */
+    public void cerrar() {
+        pendientes.clear();
+        visibles.values().forEach(notificacion -> notificacion.temporizador.stop());
+        visibles.clear();
+        contenedor.getChildren().clear();
+        sonido.shutdownNow();
+    }
+
+    private void presentar(Notificacion notificacion) {
+        visibles.put(notificacion.clave, notificacion);
+        contenedor.getChildren().add(notificacion.etiqueta);
+
+        FadeTransition entrada = new FadeTransition(DURACION_FADE, notificacion.etiqueta);
+        entrada.setFromValue(0.0);
+        entrada.setToValue(1.0);
+        entrada.play();
+
+        notificacion.temporizador.setOnFinished(e -> retirar(notificacion));
+        notificacion.temporizador.playFromStart();
+    }
+
+    private void retirar(Notificacion notificacion) {
+        // Desde aquí un mensaje nuevo con la misma clave crea otra notificación
+        visibles.remove(notificacion.clave, notificacion);
+
+        FadeTransition salida = new FadeTransition(DURACION_FADE, notificacion.etiqueta);
+        salida.setToValue(0.0);
+        salida.setOnFinished(e -> {
+            contenedor.getChildren().remove(notificacion.etiqueta);
+
+            Notificacion siguiente = pendientes.pollFirst();
+            if (siguiente != null) {
+                presentar(siguiente);
+            }
+        });
+        salida.play();
+    }
+
+    private void emitirSonido(Tipo tipo) {
+        if (!sonidoActivo || sonido.isShutdown()) return;
+
+        int repeticiones = tipo == Tipo.ERROR ? 2 : 1;
+        sonido.execute(() -> {
+            try {
+                for (int i = 0; i < repeticiones; i++) {
+                    Toolkit.getDefaultToolkit().beep();
+                    if (i + 1 < repeticiones) {
+                        Thread.sleep(150);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // Sin dispositivo de sonido: se ignora
+            }
+        });
+    }
+
+    /**
+     * Una notificación en pantalla con su temporizador de cierre
+     */
+    private static class Notificacion {
+        private final String clave;
+        private final Label etiqueta;
+        private final PauseTransition temporizador;
+
+        private Notificacion(String clave, Tipo tipo, String titulo, String mensaje) {
+            this.clave = clave;
+            this.etiqueta = new Label();
+            etiqueta.setWrapText(true);
+            etiqueta.setMaxWidth(Double.MAX_VALUE);
+            etiqueta.setFont(Font.font("Arial", FontWeight.BOLD, 18));
+            this.temporizador = new PauseTransition();
+            actualizar(tipo, titulo, mensaje);
+        }
+
+        /**
+         * Cambia el contenido y reinicia el tiempo de cierre
+         */
+        private void actualizar(Tipo tipo, String titulo, String mensaje) {
+            etiqueta.setText(titulo + "\n" + mensaje);
+            etiqueta.setStyle("-fx-background-color: " + tipo.color + ";"
+                    + "-fx-text-fill: white;"
+                    + "-fx-background-radius: 10px;"
+                    + "-fx-padding: 12px 18px;"
+                    + "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.25), 8, 0, 0, 2);");
+            temporizador.setDuration(Duration.seconds(tipo.segundos));
+            if (temporizador.getStatus() == Animation.Status.RUNNING) {
+                temporizador.playFromStart();
+            }
+        }
+    }
+}
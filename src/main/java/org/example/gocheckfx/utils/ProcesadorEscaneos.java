@@ -0,0 +1,103 @@
+package org.example.gocheckfx.utils;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Etapa de procesamiento de códigos escaneados fuera del hilo de JavaFX.
+ * La búsqueda del empleado, las reglas y el acceso a la base de datos se ejecutan
+ * en un pool acotado de hilos; solo el resultado final se publica en el hilo de JavaFX.
+ *
+ * @param <R> Tipo del resultado que se muestra en la interfaz
+ */
+public class ProcesadorEscaneos<R> {
+
+    private static final int HILOS = 2;
+    private static final int CAPACIDAD_COLA = 32;
+
+    private final ThreadPoolExecutor executor;
+    private final Function<String, R> procesar;
+    private final Consumer<R> publicar;
+    private final Consumer<String> alRechazar;
+    private final BiConsumer<String, Exception> alFallar;
+    private final MetricasEscaneo metricas = MetricasEscaneo.getInstance();
+
+    /**
+     * Constructor de la etapa de procesamiento
+     * @param procesar Función que procesa el código fuera del hilo de JavaFX
+     * @param publicar Acción que muestra el resultado; se ejecuta en el hilo de JavaFX
+     * @param alRechazar Acción a ejecutar (en el hilo de JavaFX) si la cola está llena
+     * @param alFallar Acción a ejecutar (en el hilo de JavaFX) si procesar lanza una excepción
+     */
+    public ProcesadorEscaneos(Function<String, R> procesar, Consumer<R> publicar, Consumer<String> alRechazar,
+                              BiConsumer<String, Exception> alFallar) {
+        this.procesar = procesar;
+        this.publicar = publicar;
+        this.alRechazar = alRechazar;
+        this.alFallar = alFallar;
+
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabricaHilos = runnable -> {
+            Thread hilo = new Thread(runnable, "procesador-escaneos-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+
+        executor = new ThreadPoolExecutor(HILOS, HILOS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(CAPACIDAD_COLA), fabricaHilos);
+    }
+
+    /**
+     * Envía un código a procesar. Puede llamarse desde cualquier hilo.
+     * @param codigo Código escaneado o ingresado manualmente
+     */
+    public void enviar(String codigo) {
+        long instanteEnvio = System.nanoTime();
+        // Los códigos leídos por la cámara se miden desde la captura del frame; los manuales desde aquí
+        long instanteLectura = metricas.tomarInstanteLectura(codigo, instanteEnvio);
+
+        try {
+            executor.execute(() -> {
+                metricas.registrarDesde(MetricasEscaneo.Etapa.COLA_PROCESAMIENTO, instanteEnvio);
+
+                R resultado;
+                try {
+                    resultado = procesar.apply(codigo);
+                } catch (Exception e) {
+                    System.err.println("Error al procesar código escaneado: " + e.getMessage());
+                    Platform.runLater(() -> alFallar.accept(codigo, e));
+                    return;
+                }
+
+                long instantePublicacion = System.nanoTime();
+                Platform.runLater(() -> {
+                    metricas.registrarDesde(MetricasEscaneo.Etapa.PUBLICACION_UI, instantePublicacion);
+                    metricas.registrarDesde(MetricasEscaneo.Etapa.TOTAL, instanteLectura);
+
+                    long inicioConfirmacion = System.nanoTime();
+                    publicar.accept(resultado);
+                    metricas.registrarDesde(MetricasEscaneo.Etapa.CONFIRMACION, inicioConfirmacion);
+                });
+            });
+        } catch (RejectedExecutionException e) {
+            // Cola llena o procesador detenido
+            Platform.runLater(() -> alRechazar.accept(codigo));
+        }
+    }
+
+    /**
+     * Detiene el procesador; los códigos pendientes se descartan
+     */
+    public void detener() {
+        executor.shutdownNow();
+    }
+}
@@ -1,179 +1,340 @@
 package org.example.gocheckfx.utils;
 
-import com.github.sarxos.webcam.Webcam;
-import com.github.sarxos.webcam.WebcamPanel;
-import com.github.sarxos.webcam.WebcamResolution;
-import com.google.zxing.*;
-import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
-import com.google.zxing.common.HybridBinarizer;
-
 import javafx.application.Platform;
-import javafx.embed.swing.SwingNode;
 import javafx.scene.control.TextField;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.Pane;
 
 import java.awt.Dimension;
 import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 /**
  * Clase utilitaria para manejar el escaneo de códigos QR o de barras usando
- * una webcam o un escáner conectado.
+ * una webcam o un escáner conectado. Los frames se obtienen de una {@link FuenteFrames},
+ * por lo que también puede alimentarse con imágenes o secuencias grabadas.
  */
 public class QRCodeScanner {
 
-    private Webcam webcam;
-    private WebcamPanel webcamPanel;
-    private SwingNode swingNode;
-    private ScheduledExecutorService scanExecutor;
-    private boolean isScanning = false;
+    private static final long INTERVALO_CAPTURA_MS = 100;
+    private static final long INTERVALO_REPOSO_MS = 500;     // Captura sin actividad frente a la cámara
+    private static final long TIEMPO_ACTIVIDAD_MS = 3000;    // Seguir decodificando tras el último movimiento
+    private static final int CAPACIDAD_FRAMES = 2;
+    private static final long VENTANA_DUPLICADOS_MS = 3000;
+    private static final long ESPERA_CAPTURA_MS = 2000;      // Espera a que termine la captura en curso al detener
+
+    private final FuenteFrames fuente;
+    private VistaPreviaCamara vistaPrevia;
+    private ScheduledExecutorService scanExecutor;   // Etapa de captura
+    private ExecutorService decodeExecutor;          // Etapa de decodificación
+    private volatile boolean isScanning = false;
     private TextField scanResultField;
     private Consumer<String> onCodeScanned;
-    private MultiFormatReader multiFormatReader;
+
+    // Frames pendientes de decodificar; si la decodificación se atrasa se descartan los más viejos
+    private final BlockingQueue<FrameCapturado> framesPendientes = new ArrayBlockingQueue<>(CAPACIDAD_FRAMES);
+    private final int hilosDecodificacion;
+    private int factorReduccion = 0; // 0 = elegir según la resolución de la fuente
+    private double[] regionInteres = {0.0, 0.0, 1.0, 1.0}; // x, y, ancho, alto como fracción del frame
+
+    // Detección de cambios entre frames para no decodificar imágenes idénticas
+    private final DetectorMovimiento detectorMovimiento = new DetectorMovimiento();
+    private volatile boolean modoAdaptativo = true;
+    private long ultimoMovimiento; // System.nanoTime(), solo lo usa el hilo de captura
+
+    // Última vez (System.nanoTime) que se aceptó cada código, para descartar lecturas repetidas
+    private final Map<String, Long> ultimasLecturas = new HashMap<>();
+    private volatile long ventanaDuplicadosMs = VENTANA_DUPLICADOS_MS;
+
+    private final MetricasEscaneo metricas = MetricasEscaneo.getInstance();
 
     /**
-     * Constructor para el escáner de códigos QR/barras
+     * Constructor para el escáner de códigos QR/barras con la webcam por defecto
      * @param previewPane Panel donde se mostrará la vista previa de la cámara
      * @param scanResultField Campo donde se mostrará el resultado del escaneo
-     * @param onCodeScanned Función a ejecutar cuando se escanee un código
+     * @param onCodeScanned Función a ejecutar cuando se escanee un código (se invoca desde el hilo de escaneo)
      */
     public QRCodeScanner(Pane previewPane, TextField scanResultField, Consumer<String> onCodeScanned) {
+        this(previewPane, scanResultField, onCodeScanned, crearFuenteWebcam());
+    }
+
+    /**
+     * Constructor para el escáner con una fuente de frames específica (webcam, imágenes o secuencia grabada)
+     * @param previewPane Panel donde se mostrará la vista previa, o null para escanear sin vista previa
+     * @param scanResultField Campo donde se mostrará el resultado del escaneo, o null
+     * @param onCodeScanned Función a ejecutar cuando se escanee un código (se invoca desde el hilo de escaneo)
+     * @param fuente Origen de los frames, o null si no hay ninguno disponible
+     */
+    public QRCodeScanner(Pane previewPane, TextField scanResultField, Consumer<String> onCodeScanned,
+                         FuenteFrames fuente) {
         this.scanResultField = scanResultField;
         this.onCodeScanned = onCodeScanned;
+        this.fuente = fuente;
 
-        // Configurar el lector de códigos
-        multiFormatReader = new MultiFormatReader();
+        // Un hilo de decodificación por núcleo, dejando uno libre para la captura y la interfaz
+        hilosDecodificacion = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+        // Vista previa en JavaFX alimentada con los mismos frames que se decodifican
+        if (fuente != null && previewPane != null) {
+            vistaPrevia = new VistaPreviaCamara(previewPane);
+        }
+    }
 
-        // Intentar inicializar la webcam
+    /**
+     * Intenta abrir la webcam por defecto
+     * @return Fuente de la webcam o null si no hay ninguna disponible
+     */
+    private static FuenteFrames crearFuenteWebcam() {
         try {
-            initializeWebcam(previewPane);
+            return new FuenteWebcam();
         } catch (Exception e) {
             System.err.println("Error al inicializar la webcam: " + e.getMessage());
+            return null;
         }
     }
 
     /**
-     * Inicializa la webcam y la prepara para el escaneo
-     * @param previewPane Panel donde se mostrará la vista de la webcam
+     * Inicia el escaneo de códigos
      */
-    private void initializeWebcam(Pane previewPane) {
+    public void startScanning() {
+        if (isScanning || fuente == null) return;
+
+        // Iniciar la fuente de frames
         try {
-            // Obtener webcam por defecto
-            webcam = Webcam.getDefault();
-
-            if (webcam != null) {
-                // Si hay una resolución HD disponible, usarla
-                Dimension[] dimensions = webcam.getViewSizes();
-                Dimension bestSize = WebcamResolution.VGA.getSize(); // 640x480 por defecto
-
-                for (Dimension dimension : dimensions) {
-                    // Intentar encontrar una resolución HD
-                    if (dimension.width >= 1280 && dimension.height >= 720) {
-                        bestSize = dimension;
-                        break;
-                    } else if (dimension.width > bestSize.width) {
-                        bestSize = dimension;
-                    }
+            fuente.abrir();
+        } catch (Exception e) {
+            System.err.println("Error al abrir la fuente de frames: " + e.getMessage());
+            return;
+        }
+
+        isScanning = true;
+
+        framesPendientes.clear();
+
+        // En HD el gafete ocupa suficientes píxeles para decodificarse a la mitad de resolución
+        int factor = factorReduccion;
+        if (factor == 0) {
+            Dimension tamano = fuente.getTamano();
+            factor = tamano != null && tamano.width >= 1280 ? 2 : 1;
+        }
+
+        // Etapa de decodificación: cada hilo tiene su propio decodificador y buffers
+        decodeExecutor = Executors.newFixedThreadPool(hilosDecodificacion, runnable -> {
+            Thread hilo = new Thread(runnable, "qr-decodificacion");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        int factorHilo = factor;
+        double[] region = regionInteres;
+        for (int i = 0; i < hilosDecodificacion; i++) {
+            decodeExecutor.execute(() -> cicloDecodificacion(factorHilo, region));
+        }
+
+        // Etapa de captura: solo toma frames de la fuente y los entrega a la cola.
+        // Al detenerse se descarta la captura programada y solo se espera la que esté en curso.
+        ScheduledThreadPoolExecutor captura = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread hilo = new Thread(runnable, "qr-captura");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        captura.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        scanExecutor = captura;
+        detectorMovimiento.reiniciar();
+        programarCaptura(captura, 0);
+    }
+
+    /**
+     * Programa la siguiente captura. Con movimiento reciente se captura a ritmo completo;
+     * sin actividad se baja al ritmo de reposo hasta que algo cambie frente a la cámara.
+     * Cada captura se vuelve a programar en el mismo ejecutor, así que la cadena de un escaneo
+     * detenido termina aunque se inicie otro enseguida.
+     * @param executor Ejecutor de captura del escaneo al que pertenece la cadena
+     * @param retrasoMs Espera antes de capturar
+     */
+    private void programarCaptura(ScheduledExecutorService executor, long retrasoMs) {
+        if (executor.isShutdown()) return;
+
+        try {
+            executor.schedule(() -> capturar(executor), retrasoMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Se detuvo el escaneo entre la comprobación y la programación
+        }
+    }
+
+    /**
+     * Toma un frame de la fuente, lo entrega a la vista previa y a la cola, y programa el siguiente
+     */
+    private void capturar(ScheduledExecutorService executor) {
+        long siguiente = INTERVALO_CAPTURA_MS;
+        try {
+            // Capturar imagen de la fuente
+            long inicioCaptura = System.nanoTime();
+            BufferedImage image = fuente.leerFrame();
+
+            if (image != null) {
+                metricas.registrarDesde(MetricasEscaneo.Etapa.CAPTURA, inicioCaptura);
+                FrameCapturado frame = new FrameCapturado(image, System.nanoTime());
+
+                // El mismo frame se usa para la vista previa y para decodificar
+                if (vistaPrevia != null) {
+                    vistaPrevia.mostrar(image);
                 }
 
-                webcam.setViewSize(bestSize);
-
-                // Crear panel de webcam
-                webcamPanel = new WebcamPanel(webcam);
-                webcamPanel.setFPSDisplayed(true); // Mostrar FPS
-                webcamPanel.setImageSizeDisplayed(true); // Mostrar tamaño de imagen
-                webcamPanel.setMirrored(false); // No espejado
-
-                // Integrar panel de webcam en JavaFX
-                swingNode = new SwingNode();
-                swingNode.setContent(webcamPanel);
-
-                // Agregar a la interfaz
-                previewPane.getChildren().clear();
-                previewPane.getChildren().add(swingNode);
-
-                // Ajustar tamaño del panel
-                webcamPanel.setSize((int)previewPane.getWidth(), (int)previewPane.getHeight());
-                previewPane.widthProperty().addListener((observable, oldValue, newValue) -> {
-                    webcamPanel.setSize(newValue.intValue(), (int)previewPane.getHeight());
-                });
-                previewPane.heightProperty().addListener((observable, oldValue, newValue) -> {
-                    webcamPanel.setSize((int)previewPane.getWidth(), newValue.intValue());
-                });
-            } else {
-                throw new Exception("No se encontró ninguna webcam disponible");
+                if (!modoAdaptativo) {
+                    entregarFrame(frame);
+                } else {
+                    long ahora = System.nanoTime();
+                    if (detectorMovimiento.hayMovimiento(image)) {
+                        ultimoMovimiento = ahora;
+                    }
+
+                    // Tras un movimiento se siguen decodificando frames aunque estén quietos,
+                    // porque el gafete suele quedar inmóvil frente a la cámara
+                    if (ahora - ultimoMovimiento < TimeUnit.MILLISECONDS.toNanos(TIEMPO_ACTIVIDAD_MS)) {
+                        entregarFrame(frame);
+                    } else {
+                        siguiente = INTERVALO_REPOSO_MS;
+                    }
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
         } catch (Exception e) {
-            System.err.println("Error al configurar webcam: " + e.getMessage());
-            e.printStackTrace();
+            System.err.println("Error en ciclo de captura: " + e.getMessage());
+        }
+
+        // Las fuentes grabadas terminan; la webcam no
+        if (!fuente.isTerminada()) {
+            programarCaptura(executor, siguiente);
         }
     }
 
     /**
-     * Inicia el escaneo de códigos
+     * Fija el factor de reducción de resolución para decodificar (0 = elegir según la resolución).
+     * Se aplica la próxima vez que inicie el escaneo.
      */
-    public void startScanning() {
-        if (isScanning || webcam == null) return;
-
-        isScanning = true;
+    public void setFactorReduccion(int factorReduccion) {
+        if (factorReduccion < 0) {
+            throw new IllegalArgumentException("El factor de reducción no puede ser negativo");
+        }
+        this.factorReduccion = factorReduccion;
+    }
 
-        // Iniciar la webcam si no está activa
-        if (!webcam.isOpen()) {
-            webcam.open();
+    /**
+     * Limita la búsqueda de códigos a una región del frame (por ejemplo, donde se coloca el gafete).
+     * Se aplica la próxima vez que inicie el escaneo.
+     * @param x Inicio horizontal como fracción del ancho
+     * @param y Inicio vertical como fracción del alto
+     * @param ancho Ancho de la región como fracción del ancho del frame
+     * @param alto Alto de la región como fracción del alto del frame
+     */
+    public void setRegionInteres(double x, double y, double ancho, double alto) {
+        if (x < 0 || y < 0 || ancho <= 0 || alto <= 0 || x + ancho > 1.0 || y + alto > 1.0) {
+            throw new IllegalArgumentException("Región de interés fuera del frame");
         }
+        this.regionInteres = new double[] {x, y, ancho, alto};
+    }
+
+    /**
+     * Activa o desactiva la captura adaptativa. Desactivada, se decodifica cada frame a ritmo completo.
+     */
+    public void setModoAdaptativo(boolean modoAdaptativo) {
+        this.modoAdaptativo = modoAdaptativo;
+    }
 
-        // Iniciar panel si no está activo
-        if (webcamPanel != null && !webcamPanel.isStarted()) {
-            webcamPanel.start();
+    /**
+     * Agrega un frame a la cola; si está llena descarta el más viejo para decodificar siempre lo más reciente
+     */
+    private void entregarFrame(FrameCapturado frame) {
+        while (!framesPendientes.offer(frame)) {
+            framesPendientes.poll();
         }
+    }
+
+    /**
+     * Ciclo de un hilo de decodificación: toma frames de la cola hasta que se detenga el escaneo
+     */
+    private void cicloDecodificacion(int factor, double[] region) {
+        DecodificadorFrames decodificador = new DecodificadorFrames();
+        decodificador.setFactorReduccion(factor);
+        decodificador.setRegionInteres(region[0], region[1], region[2], region[3]);
 
-        // Crear hilo de escaneo
-        scanExecutor = Executors.newSingleThreadScheduledExecutor();
-        scanExecutor.scheduleAtFixedRate(() -> {
+        while (isScanning && !Thread.currentThread().isInterrupted()) {
             try {
-                // Capturar imagen de la webcam
-                BufferedImage image = webcam.getImage();
-
-                if (image != null) {
-                    // Procesar imagen para detectar códigos
-                    LuminanceSource source = new BufferedImageLuminanceSource(image);
-                    BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
-
-                    try {
-                        Result result = multiFormatReader.decodeWithState(bitmap);
-
-                        if (result != null) {
-                            String codeText = result.getText();
-
-                            // Actualizar UI en el hilo de JavaFX
-                            Platform.runLater(() -> {
-                                scanResultField.setText(codeText);
-
-                                // Ejecutar callback con el código escaneado
-                                if (onCodeScanned != null) {
-                                    onCodeScanned.accept(codeText);
-                                }
-                            });
-
-                            // Breve pausa para evitar escaneos múltiples del mismo código
-                            Thread.sleep(1500);
-                        }
-                    } catch (NotFoundException e) {
-                        // No se encontró ningún código en la imagen, es normal
-                    } catch (Exception e) {
-                        System.err.println("Error al decodificar imagen: " + e.getMessage());
-                    } finally {
-                        multiFormatReader.reset();
+                FrameCapturado frame = framesPendientes.poll(500, TimeUnit.MILLISECONDS);
+                if (frame == null) {
+                    continue;
+                }
+                metricas.registrarDesde(MetricasEscaneo.Etapa.COLA_FRAMES, frame.instanteCaptura);
+
+                // Procesar imagen para detectar códigos
+                long inicioDecodificacion = System.nanoTime();
+                String codeText = decodificador.decodificar(frame.imagen);
+                metricas.registrarDesde(MetricasEscaneo.Etapa.DECODIFICACION, inicioDecodificacion);
+
+                if (codeText != null && esLecturaNueva(codeText)) {
+                    // Guardar cuándo se capturó el frame para medir el tiempo hasta la confirmación
+                    metricas.registrarLectura(codeText, frame.instanteCaptura);
+
+                    // Actualizar UI en el hilo de JavaFX
+                    if (scanResultField != null) {
+                        Platform.runLater(() -> scanResultField.setText(codeText));
+                    }
+
+                    // Ejecutar callback con el código escaneado desde este hilo;
+                    // el receptor decide dónde procesarlo
+                    if (onCodeScanned != null) {
+                        onCodeScanned.accept(codeText);
                     }
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             } catch (Exception e) {
                 System.err.println("Error en ciclo de escaneo: " + e.getMessage());
             }
-        }, 0, 100, TimeUnit.MILLISECONDS); // Escanear cada 100ms
+        }
+    }
+
+    /**
+     * Indica si el código no se ha leído dentro de la ventana de duplicados y lo marca como leído.
+     * El mismo gafete frente a la cámara se lee en muchos frames seguidos; solo la primera lectura cuenta.
+     */
+    private boolean esLecturaNueva(String codigo) {
+        long ahora = System.nanoTime();
+        long ventana = TimeUnit.MILLISECONDS.toNanos(ventanaDuplicadosMs);
+
+        synchronized (ultimasLecturas) {
+            Long ultima = ultimasLecturas.get(codigo);
+            if (ultima != null && ahora - ultima < ventana) {
+                return false;
+            }
+
+            // Limpiar las lecturas vencidas para que el mapa no crezca sin límite
+            if (ultimasLecturas.size() > 64) {
+                ultimasLecturas.values().removeIf(instante -> ahora - instante >= ventana);
+            }
+            ultimasLecturas.put(codigo, ahora);
+            return true;
+        }
+    }
+
+    /**
+     * Configura el tiempo durante el cual se ignoran lecturas repetidas del mismo código
+     * @param ventanaDuplicadosMs Ventana en milisegundos
+     */
+    public void setVentanaDuplicados(long ventanaDuplicadosMs) {
+        this.ventanaDuplicadosMs = ventanaDuplicadosMs;
     }
 
     /**
@@ -184,20 +345,33 @@ public class QRCodeScanner {
 
         isScanning = false;
 
-        // Detener el executor de escaneo
+        // Detener las etapas de captura y decodificación; la fuente no se cierra mientras
+        // la captura en curso sigue leyendo un frame
         if (scanExecutor != null) {
             scanExecutor.shutdown();
+            try {
+                if (!scanExecutor.awaitTermination(ESPERA_CAPTURA_MS, TimeUnit.MILLISECONDS)) {
+                    System.err.println("La captura no terminó en " + ESPERA_CAPTURA_MS + " ms; se cierra la fuente");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
             scanExecutor = null;
         }
+        if (decodeExecutor != null) {
+            decodeExecutor.shutdownNow();
+            decodeExecutor = null;
+        }
+        framesPendientes.clear();
 
-        // Detener panel de webcam
-        if (webcamPanel != null && webcamPanel.isStarted()) {
-            webcamPanel.stop();
+        // Limpiar la vista previa
+        if (vistaPrevia != null) {
+            vistaPrevia.limpiar();
         }
 
-        // Cerrar webcam
-        if (webcam != null && webcam.isOpen()) {
-            webcam.close();
+        // Cerrar la fuente de frames (la webcam)
+        if (fuente != null) {
+            fuente.cerrar();
         }
     }
 
@@ -226,9 +400,22 @@ public class QRCodeScanner {
     public void dispose() {
         stopScanning();
 
-        // Cerrar webcam si está abierta
-        if (webcam != null && webcam.isOpen()) {
-            webcam.close();
+        // Cerrar la fuente de frames si sigue abierta
+        if (fuente != null) {
+            fuente.cerrar();
+        }
+    }
+
+    /**
+     * Frame capturado junto con el instante (System.nanoTime) en que se obtuvo
+     */
+    private static class FrameCapturado {
+        private final BufferedImage imagen;
+        private final long instanteCaptura;
+
+        private FrameCapturado(BufferedImage imagen, long instanteCaptura) {
+            this.imagen = imagen;
+            this.instanteCaptura = instanteCaptura;
         }
     }
 }
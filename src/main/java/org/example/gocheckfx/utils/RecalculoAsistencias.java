@@ -0,0 +1,391 @@
+package org.example.gocheckfx.utils;
+
+import org.example.gocheckfx.config.DatabaseConfig;
+import org.example.gocheckfx.dao.AsistenciaDAO;
+import org.example.gocheckfx.dao.ResumenAsistenciaDAO;
+import org.example.gocheckfx.models.Asistencia;
+import org.example.gocheckfx.models.Turno;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Recalcula el estado y las notas automáticas de las asistencias de un rango de fechas con las
+ * reglas actuales de {@link MotorReglasTurno}, por ejemplo después de cambiar un turno o
+ * corregir registros.
+ * Las asistencias se leen en un solo recorrido ordenado por empleado; los empleados se evalúan
+ * en paralelo y solo las filas que cambian se escriben, en lotes con su propia transacción.
+ * Una fila que cambió después de leerse (una justificación o una checada) no se sobrescribe;
+ * se cuenta como conflicto y la corrige el siguiente recálculo.
+ * Las entradas registradas fuera de la ventana de entrada del turno (por ejemplo, con reglas
+ * anteriores que aceptaban llegar más temprano) no se reclasifican; se cuentan como omitidas.
+ * En modo simulación solo se informan las diferencias. Al aplicar, también se reconstruyen
+ * los resúmenes diarios y mensuales del rango.
+ *
+ * Uso:
+ * <pre>
+ * RecalculoAsistencias &lt;desde&gt; &lt;hasta&gt; [--simular] [--lote N] [--hilos N]
+ * </pre>
+ */
+public class RecalculoAsistencias {
+
+    public static final int TAMANO_LOTE_PREDETERMINADO = 500;
+
+    /**
+     * Diferencia entre lo guardado y lo que indican las reglas para una asistencia
+     */
+    public static class Cambio {
+        private final Asistencia asistencia;
+        private final String estadoNuevo;
+        private final String notasNuevas;
+
+        private Cambio(Asistencia asistencia, String estadoNuevo, String notasNuevas) {
+            this.asistencia = asistencia;
+            this.estadoNuevo = estadoNuevo;
+            this.notasNuevas = notasNuevas;
+        }
+
+        public Asistencia getAsistencia() {
+            return asistencia;
+        }
+
+        public String getEstadoNuevo() {
+            return estadoNuevo;
+        }
+
+        public String getNotasNuevas() {
+            return notasNuevas;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder texto = new StringBuilder()
+                    .append(asistencia.getFecha()).append(" empleado ").append(asistencia.getIdEmpleado())
+                    .append(" (asistencia ").append(asistencia.getIdAsistencia()).append("):");
+            if (!Objects.equals(asistencia.getEstado(), estadoNuevo)) {
+                texto.append(" estado ").append(asistencia.getEstado()).append(" -> ").append(estadoNuevo);
+            }
+            if (!Objects.equals(asistencia.getNotas(), notasNuevas)) {
+                texto.append(" notas \"").append(Objects.toString(asistencia.getNotas(), ""))
+                        .append("\" -> \"").append(Objects.toString(notasNuevas, "")).append("\"");
+            }
+            return texto.toString();
+        }
+    }
+
+    /**
+     * Resultado de un recálculo
+     */
+    public static class Resumen {
+        private final boolean simulacion;
+        private final boolean completo;
+        private final long revisadas;
+        private final long omitidas;
+        private final long cambiadas;
+        private final long escritas;
+        private final long conflictos;
+        private final long lotesFallidos;
+        private final long milisegundos;
+
+        private Resumen(boolean simulacion, boolean completo, long revisadas, long omitidas, long cambiadas,
+                        long escritas, long conflictos, long lotesFallidos, long milisegundos) {
+            this.simulacion = simulacion;
+            this.completo = completo;
+            this.revisadas = revisadas;
+            this.omitidas = omitidas;
+            this.cambiadas = cambiadas;
+            this.escritas = escritas;
+            this.conflictos = conflictos;
+            this.lotesFallidos = lotesFallidos;
+            this.milisegundos = milisegundos;
+        }
+
+        public boolean isSimulacion() {
+            return simulacion;
+        }
+
+        /**
+         * Indica si se revisó todo el rango sin errores de lectura
+         */
+        public boolean isCompleto() {
+            return completo;
+        }
+
+        public long getRevisadas() {
+            return revisadas;
+        }
+
+        /**
+         * Asistencias que se dejaron como estaban porque la entrada está fuera de la ventana del turno
+         */
+        public long getOmitidas() {
+            return omitidas;
+        }
+
+        public long getCambiadas() {
+            return cambiadas;
+        }
+
+        public long getEscritas() {
+            return escritas;
+        }
+
+        /**
+         * Asistencias que no se escribieron porque cambiaron después de leerse
+         */
+        public long getConflictos() {
+            return conflictos;
+        }
+
+        public long getLotesFallidos() {
+            return lotesFallidos;
+        }
+
+        public long getMilisegundos() {
+            return milisegundos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s%s: %d revisadas, %d omitidas, %d con cambios, %d escritas, " +
+                            "%d con conflicto, %d lotes fallidos en %.1f s",
+                    simulacion ? "Simulación" : "Recálculo", completo ? "" : " incompleto",
+                    revisadas, omitidas, cambiadas, escritas, conflictos, lotesFallidos, milisegundos / 1000.0);
+        }
+    }
+
+    private final AsistenciaDAO asistenciaDAO = new AsistenciaDAO();
+    private final ResumenAsistenciaDAO resumenDAO = new ResumenAsistenciaDAO();
+    private final MotorReglasTurno motor = MotorReglasTurno.getInstance();
+
+    private boolean simulacion;
+    private int tamanoLote = TAMANO_LOTE_PREDETERMINADO;
+    private int hilos = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private Consumer<Cambio> alCambiar = cambio -> { };
+    private BiConsumer<Long, Long> alProgresar = (revisadas, total) -> { };
+
+    // Estado de la ejecución en curso
+    private final List<Asistencia> pendientes = new ArrayList<>();
+    private final AtomicLong revisadas = new AtomicLong();
+    private final AtomicLong omitidas = new AtomicLong();
+    private final AtomicLong cambiadas = new AtomicLong();
+    private final AtomicLong escritas = new AtomicLong();
+    private final AtomicLong conflictos = new AtomicLong();
+    private final AtomicLong lotesFallidos = new AtomicLong();
+    private long total;
+
+    /**
+     * En modo simulación no se escribe nada; solo se informan los cambios
+     */
+    public void setSimulacion(boolean simulacion) {
+        this.simulacion = simulacion;
+    }
+
+    /**
+     * Filas por lote de escritura (y por transacción)
+     */
+    public void setTamanoLote(int tamanoLote) {
+        this.tamanoLote = Math.max(1, tamanoLote);
+    }
+
+    /**
+     * Hilos que evalúan y escriben; cada uno usa una conexión del pool al escribir
+     */
+    public void setHilos(int hilos) {
+        this.hilos = Math.max(1, hilos);
+    }
+
+    /**
+     * Recibe cada diferencia encontrada. Se llama desde los hilos del recálculo.
+     */
+    public void setAlCambiar(Consumer<Cambio> alCambiar) {
+        this.alCambiar = alCambiar;
+    }
+
+    /**
+     * Recibe el avance (revisadas, total) cada vez que se completa un lote de filas.
+     * Se llama desde los hilos del recálculo.
+     */
+    public void setAlProgresar(BiConsumer<Long, Long> alProgresar) {
+        this.alProgresar = alProgresar;
+    }
+
+    /**
+     * Recalcula las asistencias del rango
+     * @param fechaInicio Fecha inicial
+     * @param fechaFin Fecha final (inclusiva)
+     * @return Resumen del recálculo
+     */
+    public synchronized Resumen ejecutar(LocalDate fechaInicio, LocalDate fechaFin) throws InterruptedException {
+        long inicio = System.currentTimeMillis();
+        pendientes.clear();
+        revisadas.set(0);
+        omitidas.set(0);
+        cambiadas.set(0);
+        escritas.set(0);
+        conflictos.set(0);
+        lotesFallidos.set(0);
+        total = Math.max(0, asistenciaDAO.contarAsistenciasRango(fechaInicio, fechaFin, null, null));
+
+        ExecutorService evaluadores = Executors.newFixedThreadPool(hilos, runnable -> {
+            Thread hilo = new Thread(runnable, "recalculo-asistencias");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        // Limitar los empleados en espera para no acumular el rango en memoria
+        Semaphore enEspera = new Semaphore(hilos * 4);
+
+        boolean completo;
+        try {
+            List<Asistencia> grupo = new ArrayList<>();
+            Turno[] turnoGrupo = new Turno[1];
+
+            completo = asistenciaDAO.recorrerAsistenciasConTurno(fechaInicio, fechaFin, (asistencia, turno) -> {
+                if (!grupo.isEmpty() && grupo.get(0).getIdEmpleado() != asistencia.getIdEmpleado()) {
+                    enviarGrupo(evaluadores, enEspera, new ArrayList<>(grupo), turnoGrupo[0]);
+                    grupo.clear();
+                }
+                grupo.add(asistencia);
+                turnoGrupo[0] = turno;
+            });
+            if (!grupo.isEmpty()) {
+                enviarGrupo(evaluadores, enEspera, grupo, turnoGrupo[0]);
+            }
+        } finally {
+            evaluadores.shutdown();
+        }
+        evaluadores.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+        // Escribir lo que quedó del último lote
+        List<Asistencia> resto;
+        synchronized (pendientes) {
+            resto = new ArrayList<>(pendientes);
+            pendientes.clear();
+        }
+        escribir(resto);
+        alProgresar.accept(revisadas.get(), total);
+
+        // Los lotes no actualizan los resúmenes fila por fila; además, los minutos de retardo y de
+        // exceso de descanso dependen del turno aunque el estado no cambie
+        if (!simulacion) {
+            resumenDAO.reconstruir(fechaInicio, fechaFin);
+        }
+
+        return new Resumen(simulacion, completo, revisadas.get(), omitidas.get(), cambiadas.get(), escritas.get(),
+                conflictos.get(), lotesFallidos.get(), System.currentTimeMillis() - inicio);
+    }
+
+    private void enviarGrupo(ExecutorService evaluadores, Semaphore enEspera, List<Asistencia> grupo, Turno turno) {
+        enEspera.acquireUninterruptibly();
+        evaluadores.execute(() -> {
+            try {
+                evaluar(grupo, turno);
+            } catch (RuntimeException e) {
+                System.err.println("Error al recalcular asistencias del empleado "
+                        + grupo.get(0).getIdEmpleado() + ": " + e.getMessage());
+            } finally {
+                enEspera.release();
+            }
+        });
+    }
+
+    /**
+     * Evalúa las asistencias de un empleado y encola para escritura las que cambian
+     */
+    private void evaluar(List<Asistencia> grupo, Turno turno) {
+        for (Asistencia asistencia : grupo) {
+            // Las reglas actuales no aceptarían esa entrada: no hay con qué reclasificarla
+            if (asistencia.getHoraEntrada() != null && !"JUSTIFICADO".equals(asistencia.getEstado())
+                    && !motor.obtenerReglas(turno).isEnVentanaEntrada(asistencia.getHoraEntrada().toLocalTime())) {
+                omitidas.incrementAndGet();
+                continue;
+            }
+
+            String estado = motor.calcularEstado(turno, asistencia);
+            String notas = motor.calcularNotas(turno, asistencia);
+
+            if (!estado.equals(asistencia.getEstado()) || !Objects.equals(notas, asistencia.getNotas())) {
+                cambiadas.incrementAndGet();
+                alCambiar.accept(new Cambio(asistencia, estado, notas));
+
+                if (!simulacion) {
+                    Asistencia actualizada = new Asistencia();
+                    actualizada.setIdAsistencia(asistencia.getIdAsistencia());
+                    actualizada.setEstado(estado);
+                    actualizada.setNotas(notas);
+                    actualizada.setActualizado(asistencia.getActualizado());
+                    encolar(actualizada);
+                }
+            }
+        }
+
+        long antes = revisadas.getAndAdd(grupo.size());
+        if (antes / tamanoLote != (antes + grupo.size()) / tamanoLote) {
+            alProgresar.accept(antes + grupo.size(), total);
+        }
+    }
+
+    private void encolar(Asistencia asistencia) {
+        List<Asistencia> lote = null;
+        synchronized (pendientes) {
+            pendientes.add(asistencia);
+            if (pendientes.size() >= tamanoLote) {
+                lote = new ArrayList<>(pendientes);
+                pendientes.clear();
+            }
+        }
+        // La escritura se hace fuera del candado para que los demás hilos sigan evaluando
+        escribir(lote);
+    }
+
+    private void escribir(List<Asistencia> lote) {
+        if (lote == null || lote.isEmpty()) return;
+
+        int escritasLote = asistenciaDAO.actualizarEstadosLote(lote);
+        if (escritasLote >= 0) {
+            escritas.addAndGet(escritasLote);
+            conflictos.addAndGet(lote.size() - escritasLote);
+        } else {
+            lotesFallidos.incrementAndGet();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Uso: RecalculoAsistencias <desde> <hasta> [--simular] [--lote N] [--hilos N]");
+            return;
+        }
+
+        RecalculoAsistencias recalculo = new RecalculoAsistencias();
+        LocalDate desde = LocalDate.parse(args[0]);
+        LocalDate hasta = LocalDate.parse(args[1]);
+
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--simular" -> recalculo.setSimulacion(true);
+                case "--lote" -> recalculo.setTamanoLote(Integer.parseInt(args[++i]));
+                case "--hilos" -> recalculo.setHilos(Integer.parseInt(args[++i]));
+                default -> throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+
+        recalculo.setAlCambiar(cambio -> System.out.println(cambio));
+        recalculo.setAlProgresar((revisadas, total) ->
+                System.err.printf("Revisadas %d de %d%n", revisadas, total));
+
+        try {
+            System.out.println(recalculo.ejecutar(desde, hasta));
+        } finally {
+            DatabaseConfig.getInstance().closeConnection();
+        }
+    }
+}
@@ -6,8 +6,6 @@ import org.example.gocheckfx.models.Turno;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.temporal.ChronoUnit;
 
 /**
  * Clase para manejar la lógica de marcación de asistencias
@@ -15,10 +13,6 @@ import java.time.temporal.ChronoUnit;
  */
 public class RegistroAsistenciaManager {
 
-    // Constantes para tolerancia de tiempo
-    private static final int TOLERANCIA_ENTRADA_MINUTOS = 10; // 10 minutos de tolerancia
-    private static final int TOLERANCIA_DESCANSO_MINUTOS = 5; // 5 minutos de tolerancia para descansos
-
     /**
      * Enumerado para los diferentes tipos de registros
      */
@@ -43,132 +37,7 @@ public class RegistroAsistenciaManager {
      */
     public static TipoRegistro determinarTipoRegistro(Empleado empleado, Turno turno,
                                                       Asistencia asistencia) {
-        LocalDateTime ahora = LocalDateTime.now();
-        LocalTime horaActual = ahora.toLocalTime();
-
-        // Si no hay asistencia, es la primera marcación del día
-        if (asistencia == null || asistencia.getHoraEntrada() == null) {
-            // Verificar si está en horario de entrada
-            if (esHoraDeEntrada(horaActual, turno)) {
-                return TipoRegistro.ENTRADA;
-            } else {
-                return TipoRegistro.NO_APLICABLE;
-            }
-        }
-
-        // Ya tiene entrada registrada
-        if (asistencia.getHoraEntrada() != null) {
-            // Verificar si corresponde a descanso 1 (desayuno)
-            if (turno.getDuracionDesayuno() > 0 && asistencia.getInicioDescanso1() == null) {
-                // Si está en horario de desayuno
-                if (esHoraDeDesayuno(horaActual, turno)) {
-                    return TipoRegistro.INICIO_DESCANSO_1;
-                }
-            }
-
-            // Verificar si corresponde a fin de descanso 1
-            if (asistencia.getInicioDescanso1() != null && asistencia.getFinDescanso1() == null) {
-                return TipoRegistro.FIN_DESCANSO_1;
-            }
-
-            // Verificar si corresponde a descanso 2 (comida)
-            if (turno.getDuracionComida() > 0 &&
-                    asistencia.getInicioDescanso2() == null &&
-                    (asistencia.getFinDescanso1() != null || turno.getDuracionDesayuno() == 0)) {
-
-                // Si está en horario de comida
-                if (esHoraDeComida(horaActual, turno)) {
-                    return TipoRegistro.INICIO_DESCANSO_2;
-                }
-            }
-
-            // Verificar si corresponde a fin de descanso 2
-            if (asistencia.getInicioDescanso2() != null && asistencia.getFinDescanso2() == null) {
-                return TipoRegistro.FIN_DESCANSO_2;
-            }
-
-            // Verificar si corresponde a salida
-            if ((asistencia.getFinDescanso2() != null ||
-                    (turno.getDuracionComida() == 0 && asistencia.getFinDescanso1() != null) ||
-                    (turno.getDuracionComida() == 0 && turno.getDuracionDesayuno() == 0)) &&
-                    asistencia.getHoraSalida() == null) {
-
-                // Si está en horario de salida
-                if (esHoraDeSalida(horaActual, turno)) {
-                    return TipoRegistro.SALIDA;
-                }
-            }
-        }
-
-        // Si no aplica ninguna condición
-        return TipoRegistro.NO_APLICABLE;
-    }
-
-    /**
-     * Determina si la hora actual es válida para registrar entrada
-     */
-    private static boolean esHoraDeEntrada(LocalTime horaActual, Turno turno) {
-        LocalTime horaEntrada = turno.getHoraEntrada();
-
-        // Hora mínima: hora de entrada - 30 minutos (para registros anticipados)
-        LocalTime horaMinima = horaEntrada.minusMinutes(30);
-
-        // Hora máxima: hora de entrada + tolerancia
-        LocalTime horaMaxima = horaEntrada.plusMinutes(TOLERANCIA_ENTRADA_MINUTOS);
-
-        return !horaActual.isBefore(horaMinima) && !horaActual.isAfter(horaMaxima);
-    }
-
-    /**
-     * Determina si la hora actual es válida para registrar inicio de desayuno
-     */
-    private static boolean esHoraDeDesayuno(LocalTime horaActual, Turno turno) {
-        // Establecer un rango razonable para el desayuno
-        // (generalmente 1-2 horas después de entrar)
-        LocalTime horaEntrada = turno.getHoraEntrada();
-
-        // Hora mínima: 1 hora después de entrada
-        LocalTime horaMinima = horaEntrada.plusHours(1);
-
-        // Hora máxima: 3 horas después de entrada
-        LocalTime horaMaxima = horaEntrada.plusHours(3);
-
-        return !horaActual.isBefore(horaMinima) && !horaActual.isAfter(horaMaxima);
-    }
-
-    /**
-     * Determina si la hora actual es válida para registrar inicio de comida
-     */
-    private static boolean esHoraDeComida(LocalTime horaActual, Turno turno) {
-        // Establecer un rango razonable para la comida
-        // (generalmente a la mitad del turno)
-        LocalTime horaEntrada = turno.getHoraEntrada();
-        LocalTime horaSalida = turno.getHoraSalida();
-
-        // Calculamos la hora media del turno para centrar el horario de comida
-        long duracionTurnoMinutos = ChronoUnit.MINUTES.between(horaEntrada, horaSalida);
-        LocalTime horaMitadTurno = horaEntrada.plusMinutes(duracionTurnoMinutos / 2);
-
-        // Definir ventana de 2 horas centrada en la mitad del turno
-        LocalTime horaMinima = horaMitadTurno.minusHours(1);
-        LocalTime horaMaxima = horaMitadTurno.plusHours(1);
-
-        return !horaActual.isBefore(horaMinima) && !horaActual.isAfter(horaMaxima);
-    }
-
-    /**
-     * Determina si la hora actual es válida para registrar salida
-     */
-    private static boolean esHoraDeSalida(LocalTime horaActual, Turno turno) {
-        LocalTime horaSalida = turno.getHoraSalida();
-
-        // Hora mínima: 1 hora antes de la salida oficial
-        LocalTime horaMinima = horaSalida.minusHours(1);
-
-        // Hora máxima: 2 horas después de la salida oficial (para horas extra)
-        LocalTime horaMaxima = horaSalida.plusHours(2);
-
-        return !horaActual.isBefore(horaMinima) && !horaActual.isAfter(horaMaxima);
+        return MotorReglasTurno.getInstance().clasificar(turno, asistencia, LocalDateTime.now());
     }
 
     /**
@@ -182,14 +51,7 @@ public class RegistroAsistenciaManager {
             return "FALTA";
         }
 
-        LocalTime horaEntradaTime = horaEntrada.toLocalTime();
-        LocalTime horaEntradaLimite = turno.getHoraEntrada().plusMinutes(TOLERANCIA_ENTRADA_MINUTOS);
-
-        if (horaEntradaTime.isAfter(horaEntradaLimite)) {
-            return "RETARDO";
-        } else {
-            return "PRESENTE";
-        }
+        return MotorReglasTurno.getInstance().estadoEntrada(turno, horaEntrada.toLocalTime());
     }
 
     /**
@@ -213,7 +75,7 @@ public class RegistroAsistenciaManager {
                                                  Empleado empleado, Turno turno) {
 
         LocalDateTime ahora = LocalDateTime.now();
-        LocalDate hoy = ahora.toLocalDate();
+        LocalDate hoy = MotorReglasTurno.getInstance().fechaJornada(turno, ahora);
 
         // Si es nuevo registro, crear nueva asistencia
         if (asistencia == null) {
@@ -235,23 +97,8 @@ public class RegistroAsistenciaManager {
 
             case FIN_DESCANSO_1:
                 asistencia.setFinDescanso1(ahora);
-                // Verificar si excedió tiempo permitido
-                if (asistencia.getInicioDescanso1() != null) {
-                    long minutosDesayuno = ChronoUnit.MINUTES.between(
-                            asistencia.getInicioDescanso1(), ahora);
-
-                    if (minutosDesayuno > turno.getDuracionDesayuno() + TOLERANCIA_DESCANSO_MINUTOS) {
-                        // Agregar nota de exceso
-                        String nota = "Excedió tiempo de desayuno por " +
-                                (minutosDesayuno - turno.getDuracionDesayuno()) + " minutos. ";
-
-                        if (asistencia.getNotas() != null) {
-                            asistencia.setNotas(asistencia.getNotas() + nota);
-                        } else {
-                            asistencia.setNotas(nota);
-                        }
-                    }
-                }
+                // Anotar si excedió el tiempo permitido
+                asistencia.setNotas(MotorReglasTurno.getInstance().calcularNotas(turno, asistencia));
                 break;
 
             case INICIO_DESCANSO_2:
@@ -260,47 +107,14 @@ public class RegistroAsistenciaManager {
 
             case FIN_DESCANSO_2:
                 asistencia.setFinDescanso2(ahora);
-                // Verificar si excedió tiempo permitido
-                if (asistencia.getInicioDescanso2() != null) {
-                    long minutosComida = ChronoUnit.MINUTES.between(
-                            asistencia.getInicioDescanso2(), ahora);
-
-                    if (minutosComida > turno.getDuracionComida() + TOLERANCIA_DESCANSO_MINUTOS) {
-                        // Agregar nota de exceso
-                        String nota = "Excedió tiempo de comida por " +
-                                (minutosComida - turno.getDuracionComida()) + " minutos. ";
-
-                        if (asistencia.getNotas() != null) {
-                            asistencia.setNotas(asistencia.getNotas() + nota);
-                        } else {
-                            asistencia.setNotas(nota);
-                        }
-                    }
-                }
+                // Anotar si excedió el tiempo permitido
+                asistencia.setNotas(MotorReglasTurno.getInstance().calcularNotas(turno, asistencia));
                 break;
 
             case SALIDA:
                 asistencia.setHoraSalida(ahora);
-                // Verificar si no registró descansos obligatorios
-                if (turno.getDuracionDesayuno() > 0 && asistencia.getInicioDescanso1() == null) {
-                    String nota = "No registró su desayuno. ";
-
-                    if (asistencia.getNotas() != null) {
-                        asistencia.setNotas(asistencia.getNotas() + nota);
-                    } else {
-                        asistencia.setNotas(nota);
-                    }
-                }
-
-                if (turno.getDuracionComida() > 0 && asistencia.getInicioDescanso2() == null) {
-                    String nota = "No registró su comida. ";
-
-                    if (asistencia.getNotas() != null) {
-                        asistencia.setNotas(asistencia.getNotas() + nota);
-                    } else {
-                        asistencia.setNotas(nota);
-                    }
-                }
+                // Anotar los descansos obligatorios que no registró
+                asistencia.setNotas(MotorReglasTurno.getInstance().calcularNotas(turno, asistencia));
                 break;
 
             default:
@@ -0,0 +1,188 @@
+package org.example.gocheckfx.utils;
+
+import org.example.gocheckfx.models.Turno;
+import org.example.gocheckfx.utils.MotorReglasTurno.EstadoJornada;
+import org.example.gocheckfx.utils.RegistroAsistenciaManager.TipoRegistro;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Reglas de un turno compiladas en tablas por minuto del día.
+ * Para cada estado de la jornada y cada minuto (0-1439) la tabla guarda el tipo de registro
+ * que corresponde, de modo que clasificar una checada es una consulta a un arreglo.
+ * Los rangos que cruzan la medianoche (turnos nocturnos) se marcan dando la vuelta al día.
+ * El ciclo del turno va de la mitad del tiempo libre antes de la entrada a la mitad del
+ * tiempo libre después de la salida; toda checada en él pertenece a la misma jornada.
+ * Es inmutable; se construye con {@link MotorReglasTurno}.
+ */
+public class ReglasTurno {
+
+    static final int MINUTOS_DIA = 24 * 60;
+
+    // Ventanas del turno, en minutos relativos a la hora de entrada o de salida
+    static final int ANTICIPACION_ENTRADA = 30;
+    static final int INICIO_DESAYUNO_TRAS_ENTRADA = 60;
+    static final int FIN_DESAYUNO_TRAS_ENTRADA = 180;
+    static final int MEDIA_VENTANA_COMIDA = 60;
+    static final int ANTICIPACION_SALIDA = 60;
+    static final int TOLERANCIA_SALIDA = 120;
+
+    private static final TipoRegistro[] TIPOS = TipoRegistro.values();
+
+    // Datos del turno con que se compiló, para detectar turnos modificados
+    private final int idTurno;
+    private final LocalTime horaEntrada;
+    private final LocalTime horaSalida;
+    private final int duracionDesayuno;
+    private final int duracionComida;
+
+    // decisiones[estado][minuto] = ordinal de TipoRegistro
+    private final byte[][] decisiones;
+
+    // Minutos en los que se acepta la entrada y en los que todavía cuenta como puntual
+    private final boolean[] ventanaEntrada;
+    private final boolean[] entradaPuntual;
+
+    // Inicio del ciclo en minutos desde la medianoche de la fecha de la jornada
+    // (negativo si empieza el día anterior)
+    private final int inicioCiclo;
+
+    ReglasTurno(Turno turno, int toleranciaEntrada) {
+        this.idTurno = turno.getIdTurno();
+        this.horaEntrada = turno.getHoraEntrada();
+        this.horaSalida = turno.getHoraSalida();
+        this.duracionDesayuno = turno.getDuracionDesayuno();
+        this.duracionComida = turno.getDuracionComida();
+
+        int entrada = aMinuto(horaEntrada);
+        int salida = aMinuto(horaSalida);
+        int duracionTurno = Math.floorMod(salida - entrada, MINUTOS_DIA);
+        int mitadTurno = entrada + duracionTurno / 2;
+        int tiempoLibre = Math.floorMod(entrada - salida, MINUTOS_DIA);
+        inicioCiclo = entrada - Math.floorMod(entrada - (salida + tiempoLibre / 2), MINUTOS_DIA);
+
+        ventanaEntrada = new boolean[MINUTOS_DIA];
+        boolean[] ventanaDesayuno = new boolean[MINUTOS_DIA];
+        boolean[] ventanaComida = new boolean[MINUTOS_DIA];
+        boolean[] ventanaSalida = new boolean[MINUTOS_DIA];
+        entradaPuntual = new boolean[MINUTOS_DIA];
+
+        // La entrada se acepta desde antes de la hora oficial hasta el fin del turno;
+        // es puntual desde el inicio del ciclo hasta la tolerancia, después cuenta como retardo
+        marcar(ventanaEntrada, entrada - ANTICIPACION_ENTRADA, entrada + Math.max(duracionTurno - 1, toleranciaEntrada));
+        marcar(entradaPuntual, inicioCiclo, entrada + toleranciaEntrada);
+
+        if (duracionDesayuno > 0) {
+            marcar(ventanaDesayuno, entrada + INICIO_DESAYUNO_TRAS_ENTRADA, entrada + FIN_DESAYUNO_TRAS_ENTRADA);
+        }
+        if (duracionComida > 0) {
+            marcar(ventanaComida, mitadTurno - MEDIA_VENTANA_COMIDA, mitadTurno + MEDIA_VENTANA_COMIDA);
+        }
+        marcar(ventanaSalida, salida - ANTICIPACION_SALIDA, salida + TOLERANCIA_SALIDA);
+
+        EstadoJornada[] estados = EstadoJornada.values();
+        decisiones = new byte[estados.length][MINUTOS_DIA];
+
+        for (int minuto = 0; minuto < MINUTOS_DIA; minuto++) {
+            for (EstadoJornada estado : estados) {
+                TipoRegistro tipo = decidir(estado, ventanaEntrada[minuto], ventanaDesayuno[minuto],
+                        ventanaComida[minuto], ventanaSalida[minuto]);
+                decisiones[estado.ordinal()][minuto] = (byte) tipo.ordinal();
+            }
+        }
+    }
+
+    /**
+     * Regla de cada estado de la jornada dadas las ventanas abiertas en un minuto.
+     * Los descansos tienen prioridad sobre la salida cuando sus ventanas se cruzan.
+     */
+    private static TipoRegistro decidir(EstadoJornada estado, boolean entrada, boolean desayuno,
+                                        boolean comida, boolean salida) {
+        switch (estado) {
+            case SIN_ENTRADA:
+                return entrada ? TipoRegistro.ENTRADA : TipoRegistro.NO_APLICABLE;
+            case TRABAJANDO:
+                if (desayuno) return TipoRegistro.INICIO_DESCANSO_1;
+                if (comida) return TipoRegistro.INICIO_DESCANSO_2;
+                return salida ? TipoRegistro.SALIDA : TipoRegistro.NO_APLICABLE;
+            case EN_DESAYUNO:
+                // El regreso del descanso siempre se acepta; el exceso se anota aparte
+                return TipoRegistro.FIN_DESCANSO_1;
+            case DESPUES_DESAYUNO:
+                if (comida) return TipoRegistro.INICIO_DESCANSO_2;
+                return salida ? TipoRegistro.SALIDA : TipoRegistro.NO_APLICABLE;
+            case EN_COMIDA:
+                return TipoRegistro.FIN_DESCANSO_2;
+            case DESPUES_COMIDA:
+                return salida ? TipoRegistro.SALIDA : TipoRegistro.NO_APLICABLE;
+            default:
+                return TipoRegistro.NO_APLICABLE;
+        }
+    }
+
+    /**
+     * Marca un rango de minutos (inclusivo), dando la vuelta al día si es necesario
+     */
+    private static void marcar(boolean[] tabla, int desde, int hasta) {
+        for (int minuto = desde; minuto <= hasta && minuto - desde < MINUTOS_DIA; minuto++) {
+            tabla[Math.floorMod(minuto, MINUTOS_DIA)] = true;
+        }
+    }
+
+    static int aMinuto(LocalTime hora) {
+        return hora.getHour() * 60 + hora.getMinute();
+    }
+
+    /**
+     * Tipo de registro para un estado de la jornada y una hora del día
+     */
+    public TipoRegistro clasificar(EstadoJornada estado, LocalTime hora) {
+        return TIPOS[decisiones[estado.ordinal()][aMinuto(hora)]];
+    }
+
+    /**
+     * Indica si una entrada a esa hora es puntual (dentro de la tolerancia)
+     */
+    public boolean isEntradaPuntual(LocalTime hora) {
+        return entradaPuntual[aMinuto(hora)];
+    }
+
+    /**
+     * Indica si las reglas aceptan una entrada a esa hora
+     */
+    public boolean isEnVentanaEntrada(LocalTime hora) {
+        return ventanaEntrada[aMinuto(hora)];
+    }
+
+    /**
+     * Minutos de retardo de una entrada a esa hora: desde la hora de entrada del turno, dando la
+     * vuelta al día en turnos nocturnos. Una llegada en la parte del ciclo anterior a la entrada
+     * no tiene retardo.
+     */
+    public int minutosRetardo(LocalTime hora) {
+        int entrada = aMinuto(horaEntrada);
+        int minutos = Math.floorMod(aMinuto(hora) - entrada, MINUTOS_DIA);
+        return minutos < MINUTOS_DIA - (entrada - inicioCiclo) ? minutos : 0;
+    }
+
+    /**
+     * Fecha de la jornada a la que pertenece un momento. En los turnos nocturnos una checada
+     * de madrugada pertenece a la jornada que empezó el día anterior.
+     */
+    public LocalDate fechaJornada(LocalDateTime momento) {
+        return momento.minusMinutes(inicioCiclo).toLocalDate();
+    }
+
+    /**
+     * Indica si las reglas se compilaron con los mismos horarios que el turno dado
+     */
+    boolean correspondeA(Turno turno) {
+        return idTurno == turno.getIdTurno()
+                && horaEntrada.equals(turno.getHoraEntrada())
+                && horaSalida.equals(turno.getHoraSalida())
+                && duracionDesayuno == turno.getDuracionDesayuno()
+                && duracionComida == turno.getDuracionComida();
+    }
+}
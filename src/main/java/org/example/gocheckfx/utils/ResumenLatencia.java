@@ -0,0 +1,57 @@
+package org.example.gocheckfx.utils;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Resumen de la latencia de una etapa del escaneo, como se expone por JMX
+ */
+public class ResumenLatencia {
+
+    private final String etapa;
+    private final long muestras;
+    private final double p50Ms;
+    private final double p95Ms;
+    private final double p99Ms;
+    private final double maximoMs;
+
+    @ConstructorProperties({"etapa", "muestras", "p50Ms", "p95Ms", "p99Ms", "maximoMs"})
+    public ResumenLatencia(String etapa, long muestras, double p50Ms, double p95Ms, double p99Ms, double maximoMs) {
+        this.etapa = etapa;
+        this.muestras = muestras;
+        this.p50Ms = p50Ms;
+        this.p95Ms = p95Ms;
+        this.p99Ms = p99Ms;
+        this.maximoMs = maximoMs;
+    }
+
+    // Getters
+    public String getEtapa() {
+        return etapa;
+    }
+
+    public long getMuestras() {
+        return muestras;
+    }
+
+    public double getP50Ms() {
+        return p50Ms;
+    }
+
+    public double getP95Ms() {
+        return p95Ms;
+    }
+
+    public double getP99Ms() {
+        return p99Ms;
+    }
+
+    public double getMaximoMs() {
+        return maximoMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s n=%d p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms",
+                etapa, muestras, p50Ms, p95Ms, p99Ms, maximoMs);
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.gocheckfx.utils;
+
+import javafx.application.Platform;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.nio.IntBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Vista previa de la cámara dibujada directamente en JavaFX.
+ * Recibe los mismos frames que captura el escáner, los convierte a píxeles ARGB
+ * en el hilo de captura y solo copia el bloque de píxeles al PixelBuffer en el hilo de JavaFX.
+ * Si la interfaz no ha mostrado el frame anterior, el nuevo frame se descarta.
+ */
+public class VistaPreviaCamara {
+
+    private final ImageView imageView;
+
+    // Solo se modifican desde el hilo de JavaFX
+    private PixelBuffer<IntBuffer> pixelBuffer;
+    private IntBuffer bufferPixeles;
+
+    // Píxeles del frame pendiente de mostrar; el hilo de captura solo escribe cuando no hay uno pendiente
+    private int[] pixelesPendientes;
+    private int anchoPendiente;
+    private int altoPendiente;
+    private final AtomicBoolean actualizacionPendiente = new AtomicBoolean(false);
+
+    /**
+     * Crea la vista previa dentro del panel indicado
+     * @param previewPane Panel donde se mostrará la imagen de la cámara
+     */
+    public VistaPreviaCamara(Pane previewPane) {
+        imageView = new ImageView();
+        imageView.setPreserveRatio(true);
+        imageView.setSmooth(false);
+        imageView.fitWidthProperty().bind(previewPane.widthProperty());
+        imageView.fitHeightProperty().bind(previewPane.heightProperty());
+
+        previewPane.getChildren().clear();
+        previewPane.getChildren().add(imageView);
+    }
+
+    /**
+     * Muestra un frame capturado. Puede llamarse desde cualquier hilo.
+     * @param frame Frame capturado por la cámara
+     */
+    public void mostrar(BufferedImage frame) {
+        // La interfaz aún no dibuja el frame anterior: descartar este
+        if (actualizacionPendiente.get()) return;
+
+        int ancho = frame.getWidth();
+        int alto = frame.getHeight();
+        if (pixelesPendientes == null || pixelesPendientes.length != ancho * alto) {
+            pixelesPendientes = new int[ancho * alto];
+        }
+        convertirAArgb(frame, pixelesPendientes);
+        anchoPendiente = ancho;
+        altoPendiente = alto;
+
+        actualizacionPendiente.set(true);
+        Platform.runLater(this::actualizarImagen);
+    }
+
+    /**
+     * Copia el frame pendiente al PixelBuffer. Se ejecuta en el hilo de JavaFX.
+     */
+    private void actualizarImagen() {
+        try {
+            int ancho = anchoPendiente;
+            int alto = altoPendiente;
+
+            if (pixelBuffer == null || pixelBuffer.getWidth() != ancho || pixelBuffer.getHeight() != alto) {
+                bufferPixeles = IntBuffer.allocate(ancho * alto);
+                pixelBuffer = new PixelBuffer<>(ancho, alto, bufferPixeles, PixelFormat.getIntArgbPreInstance());
+                imageView.setImage(new WritableImage(pixelBuffer));
+            }
+
+            pixelBuffer.updateBuffer(buffer -> {
+                bufferPixeles.clear();
+                bufferPixeles.put(pixelesPendientes, 0, ancho * alto);
+                bufferPixeles.flip();
+                return new Rectangle2D(0, 0, ancho, alto);
+            });
+        } finally {
+            actualizacionPendiente.set(false);
+        }
+    }
+
+    /**
+     * Convierte el frame a píxeles ARGB opacos (equivalentes a ARGB premultiplicado)
+     */
+    private static void convertirAArgb(BufferedImage frame, int[] destino) {
+        int ancho = frame.getWidth();
+        int alto = frame.getHeight();
+
+        if (frame.getType() == BufferedImage.TYPE_3BYTE_BGR && frame.getRaster().getParent() == null) {
+            // Formato habitual de la webcam: leer los bytes directamente
+            byte[] datos = ((DataBufferByte) frame.getRaster().getDataBuffer()).getData();
+            int origen = 0;
+            for (int i = 0; i < ancho * alto; i++) {
+                int azul = datos[origen] & 0xFF;
+                int verde = datos[origen + 1] & 0xFF;
+                int rojo = datos[origen + 2] & 0xFF;
+                destino[i] = 0xFF000000 | (rojo << 16) | (verde << 8) | azul;
+                origen += 3;
+            }
+        } else {
+            frame.getRGB(0, 0, ancho, alto, destino, 0, ancho);
+            for (int i = 0; i < ancho * alto; i++) {
+                destino[i] |= 0xFF000000;
+            }
+        }
+    }
+
+    /**
+     * Quita la imagen de la vista previa
+     */
+    public void limpiar() {
+        Platform.runLater(() -> imageView.setImage(null));
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.gocheckfx.utils;
+
+import org.example.gocheckfx.models.Asistencia;
+import org.example.gocheckfx.models.TiemposJornada;
+import org.example.gocheckfx.models.Turno;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tiempos de jornada: descansos incompletos o invertidos, horas extra y retardo en turnos
+ * diurnos y nocturnos.
+ */
+class CalculadoraJornadaTest {
+
+    private static final LocalDate DIA = LocalDate.of(2024, 5, 10);
+
+    // Empleado 1: 08:00-17:00 con 15 y 60 minutos de descanso (jornada de 465 minutos)
+    // Empleado 2: 22:00-06:00 con 15 y 30 minutos de descanso (jornada de 435 minutos)
+    private final Turno diurno = new Turno(911, "Diurno", LocalTime.of(8, 0), LocalTime.of(17, 0), 15, 60, false);
+    private final Turno nocturno = new Turno(912, "Nocturno", LocalTime.of(22, 0), LocalTime.of(6, 0), 15, 30, false);
+    private final CalculadoraJornada calculadora = new CalculadoraJornada(Map.of(1, diurno, 2, nocturno));
+
+    @Test
+    void jornadaProgramadaDaLaVueltaAlDia() {
+        assertEquals(465, CalculadoraJornada.jornadaProgramada(diurno));
+        assertEquals(435, CalculadoraJornada.jornadaProgramada(nocturno));
+    }
+
+    @Test
+    void jornadaCompletaDiurna() {
+        Asistencia asistencia = asistencia(1, "PRESENTE", DIA.atTime(7, 55), DIA.atTime(17, 30));
+        asistencia.setInicioDescanso1(DIA.atTime(10, 0));
+        asistencia.setFinDescanso1(DIA.atTime(10, 20));
+        asistencia.setInicioDescanso2(DIA.atTime(13, 0));
+        asistencia.setFinDescanso2(DIA.atTime(14, 0));
+
+        TiemposJornada tiempos = calculadora.calcular(asistencia);
+        assertEquals(575 - 80, tiempos.getMinutosTrabajados());
+        assertEquals(80, tiempos.getMinutosDescanso());
+        assertEquals(5, tiempos.getMinutosExcesoDescanso());
+        assertEquals(495 - 465, tiempos.getMinutosExtra());
+        assertEquals(0, tiempos.getMinutosRetardo());
+    }
+
+    @Test
+    void descansoSinRegresoCuentaHastaLaSalida() {
+        Asistencia asistencia = asistencia(1, "PRESENTE", DIA.atTime(8, 0), DIA.atTime(17, 0));
+        asistencia.setInicioDescanso2(DIA.atTime(16, 0));
+
+        TiemposJornada tiempos = calculadora.calcular(asistencia);
+        assertEquals(60, tiempos.getMinutosDescanso());
+        assertEquals(540 - 60, tiempos.getMinutosTrabajados());
+        assertEquals(15, tiempos.getMinutosExtra());
+    }
+
+    @Test
+    void descansoSinRegresoNiSalidaNoCuenta() {
+        Asistencia asistencia = asistencia(1, "PRESENTE", DIA.atTime(8, 0), null);
+        asistencia.setInicioDescanso1(DIA.atTime(10, 0));
+
+        TiemposJornada tiempos = calculadora.calcular(asistencia);
+        assertEquals(0, tiempos.getMinutosDescanso());
+        assertEquals(0, tiempos.getMinutosTrabajados());
+        assertEquals(0, tiempos.getMinutosExtra());
+    }
+
+    @Test
+    void descansoInvertidoNoRestaMinutos() {
+        Asistencia asistencia = asistencia(1, "PRESENTE", DIA.atTime(8, 0), DIA.atTime(17, 0));
+        asistencia.setInicioDescanso1(DIA.atTime(10, 30));
+        asistencia.setFinDescanso1(DIA.atTime(10, 0));
+
+        TiemposJornada tiempos = calculadora.calcular(asistencia);
+        assertEquals(0, tiempos.getMinutosDescanso());
+        assertEquals(0, tiempos.getMinutosExcesoDescanso());
+        assertEquals(540, tiempos.getMinutosTrabajados());
+    }
+
+    @Test
+    void horasExtraEnTurnoNocturno() {
+        LocalDate siguiente = DIA.plusDays(1);
+        Asistencia asistencia = asistencia(2, "PRESENTE", DIA.atTime(21, 55), siguiente.atTime(7, 0));
+        asistencia.setInicioDescanso1(DIA.atTime(23, 30));
+        asistencia.setFinDescanso1(DIA.atTime(23, 45));
+        asistencia.setInicioDescanso2(siguiente.atTime(2, 0));
+        asistencia.setFinDescanso2(siguiente.atTime(2, 30));
+
+        TiemposJornada tiempos = calculadora.calcular(asistencia);
+        assertEquals(545 - 45, tiempos.getMinutosTrabajados());
+        assertEquals(45, tiempos.getMinutosDescanso());
+        assertEquals(500 - 435, tiempos.getMinutosExtra());
+    }
+
+    @Test
+    void salidaNocturnaAntesDeTiempoSinExtra() {
+        Asistencia asistencia = asistencia(2, "PRESENTE", DIA.atTime(22, 0), DIA.plusDays(1).atTime(5, 0));
+
+        TiemposJornada tiempos = calculadora.calcular(asistencia);
+        assertEquals(420, tiempos.getMinutosTrabajados());
+        assertEquals(0, tiempos.getMinutosExtra());
+    }
+
+    @Test
+    void retardoNocturnoPasadaLaMedianoche() {
+        Asistencia asistencia = asistencia(2, "RETARDO", DIA.plusDays(1).atTime(0, 30), null);
+        assertEquals(150, calculadora.calcular(asistencia).getMinutosRetardo());
+    }
+
+    @Test
+    void empleadoSinTurno() {
+        Asistencia asistencia = asistencia(3, "PRESENTE", DIA.atTime(8, 0), DIA.atTime(17, 0));
+        assertNull(calculadora.calcular(asistencia));
+        assertFalse(calculadora.calcular(asistencia, new TiemposJornada()));
+    }
+
+    @Test
+    void totalizarPorEmpleadoOmiteSinTurno() {
+        Map<Integer, TiemposJornada> totales = calculadora.totalizarPorEmpleado(List.of(
+                asistencia(1, "PRESENTE", DIA.atTime(8, 0), DIA.atTime(17, 0)),
+                asistencia(1, "PRESENTE", DIA.plusDays(1).atTime(8, 0), DIA.plusDays(1).atTime(16, 0)),
+                asistencia(3, "PRESENTE", DIA.atTime(8, 0), DIA.atTime(17, 0))));
+
+        assertEquals(1, totales.size());
+        assertEquals(2, totales.get(1).getJornadas());
+        assertEquals(540 + 480, totales.get(1).getMinutosTrabajados());
+        assertEquals(75 + 15, totales.get(1).getMinutosExtra());
+    }
+
+    private static Asistencia asistencia(int idEmpleado, String estado,
+                                         LocalDateTime entrada, LocalDateTime salida) {
+        Asistencia asistencia = new Asistencia(idEmpleado, entrada.toLocalDate());
+        asistencia.setEstado(estado);
+        asistencia.setHoraEntrada(entrada);
+        asistencia.setHoraSalida(salida);
+        return asistencia;
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.gocheckfx.utils;
+
+import org.example.gocheckfx.models.Asistencia;
+import org.example.gocheckfx.models.Turno;
+import org.example.gocheckfx.utils.MotorReglasTurno.EstadoJornada;
+import org.example.gocheckfx.utils.RegistroAsistenciaManager.TipoRegistro;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Estado de la jornada, clasificación de checadas y decisiones codificadas para registrar_checada.
+ * Los turnos usan ID propios porque el motor es único para toda la aplicación.
+ */
+class MotorReglasTurnoTest {
+
+    private final MotorReglasTurno motor = MotorReglasTurno.getInstance();
+
+    private final Turno diurno = new Turno(901, "Diurno", LocalTime.of(8, 0), LocalTime.of(17, 0), 15, 60, false);
+    private final Turno nocturno = new Turno(902, "Nocturno", LocalTime.of(22, 0), LocalTime.of(6, 0), 15, 30, false);
+
+    @Test
+    void estadoDeSigueLaSecuenciaDeRegistros() {
+        LocalDateTime hora = LocalDateTime.of(2024, 5, 10, 8, 0);
+        Asistencia asistencia = new Asistencia(1, hora.toLocalDate());
+
+        assertEquals(EstadoJornada.SIN_ENTRADA, MotorReglasTurno.estadoDe(null));
+        assertEquals(EstadoJornada.SIN_ENTRADA, MotorReglasTurno.estadoDe(asistencia));
+        asistencia.setHoraEntrada(hora);
+        assertEquals(EstadoJornada.TRABAJANDO, MotorReglasTurno.estadoDe(asistencia));
+        asistencia.setInicioDescanso1(hora.plusHours(1));
+        assertEquals(EstadoJornada.EN_DESAYUNO, MotorReglasTurno.estadoDe(asistencia));
+        asistencia.setFinDescanso1(hora.plusHours(1).plusMinutes(15));
+        assertEquals(EstadoJornada.DESPUES_DESAYUNO, MotorReglasTurno.estadoDe(asistencia));
+        asistencia.setInicioDescanso2(hora.plusHours(4));
+        assertEquals(EstadoJornada.EN_COMIDA, MotorReglasTurno.estadoDe(asistencia));
+        asistencia.setFinDescanso2(hora.plusHours(5));
+        assertEquals(EstadoJornada.DESPUES_COMIDA, MotorReglasTurno.estadoDe(asistencia));
+        asistencia.setHoraSalida(hora.plusHours(9));
+        assertEquals(EstadoJornada.COMPLETA, MotorReglasTurno.estadoDe(asistencia));
+    }
+
+    @Test
+    void clasificarUsaElEstadoDeLaAsistencia() {
+        LocalDate dia = LocalDate.of(2024, 5, 10);
+        Asistencia asistencia = new Asistencia(1, dia);
+        asistencia.setHoraEntrada(dia.atTime(7, 55));
+
+        assertEquals(TipoRegistro.ENTRADA, motor.clasificar(diurno, null, dia.atTime(7, 55)));
+        assertEquals(TipoRegistro.INICIO_DESCANSO_1, motor.clasificar(diurno, asistencia, dia.atTime(9, 30)));
+        assertEquals(TipoRegistro.NO_APLICABLE, motor.clasificar(diurno, asistencia, dia.atTime(14, 0)));
+        assertEquals(TipoRegistro.SALIDA, motor.clasificar(diurno, asistencia, dia.atTime(17, 5)));
+    }
+
+    @Test
+    void estadoEntradaEnElLimiteDeLaTolerancia() {
+        assertEquals("PRESENTE", motor.estadoEntrada(diurno, LocalTime.of(8, 10)));
+        assertEquals("RETARDO", motor.estadoEntrada(diurno, LocalTime.of(8, 11)));
+        assertEquals("PRESENTE", motor.estadoEntrada(nocturno, LocalTime.of(22, 10)));
+        assertEquals("RETARDO", motor.estadoEntrada(nocturno, LocalTime.of(22, 11)));
+        assertEquals("RETARDO", motor.estadoEntrada(nocturno, LocalTime.of(0, 30)));
+    }
+
+    @Test
+    void calcularEstadoRespetaJustificadasYFaltas() {
+        LocalDate dia = LocalDate.of(2024, 5, 10);
+        Asistencia asistencia = new Asistencia(1, dia);
+        assertEquals("FALTA", motor.calcularEstado(diurno, asistencia));
+
+        asistencia.setHoraEntrada(dia.atTime(8, 30));
+        assertEquals("RETARDO", motor.calcularEstado(diurno, asistencia));
+
+        asistencia.setEstado("JUSTIFICADO");
+        assertEquals("JUSTIFICADO", motor.calcularEstado(diurno, asistencia));
+    }
+
+    @Test
+    void fechaJornadaDeTurnoNocturno() {
+        LocalDate dia = LocalDate.of(2024, 5, 10);
+        assertEquals(dia, motor.fechaJornada(nocturno, dia.atTime(22, 5)));
+        assertEquals(dia, motor.fechaJornada(nocturno, dia.plusDays(1).atTime(6, 0)));
+        assertEquals(dia, motor.fechaJornada(diurno, dia.atTime(8, 0)));
+    }
+
+    @Test
+    void codificarDecisionesUnDigitoPorEstado() {
+        LocalDate dia = LocalDate.of(2024, 5, 10);
+        // ENTRADA, INICIO_DESCANSO_1, FIN_DESCANSO_1, -, FIN_DESCANSO_2, -, -
+        assertEquals("1230500", motor.codificarDecisiones(diurno, dia.atTime(9, 30)));
+        // Madrugada del turno nocturno, en la ventana de la comida
+        assertEquals("1434500", motor.codificarDecisiones(nocturno, dia.plusDays(1).atTime(1, 30)));
+        // Fuera de toda ventana solo se aceptan los regresos de descanso
+        assertEquals("0030500", motor.codificarDecisiones(diurno, dia.atTime(20, 0)));
+    }
+
+    @Test
+    void reglasSeRecompilanSiCambiaElTurno() {
+        Turno turno = new Turno(903, "Mixto", LocalTime.of(14, 0), LocalTime.of(22, 0), 0, 30, false);
+        ReglasTurno reglas = motor.obtenerReglas(turno);
+        assertSame(reglas, motor.obtenerReglas(turno));
+
+        turno.setHoraEntrada(LocalTime.of(15, 0));
+        ReglasTurno nuevas = motor.obtenerReglas(turno);
+        assertNotSame(reglas, nuevas);
+        assertEquals("PRESENTE", motor.estadoEntrada(turno, LocalTime.of(15, 5)));
+
+        motor.invalidar(turno.getIdTurno());
+        assertNotSame(nuevas, motor.obtenerReglas(turno));
+    }
+}
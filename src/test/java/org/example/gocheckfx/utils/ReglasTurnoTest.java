@@ -0,0 +1,164 @@
+package org.example.gocheckfx.utils;
+
+import org.example.gocheckfx.models.Turno;
+import org.example.gocheckfx.utils.MotorReglasTurno.EstadoJornada;
+import org.example.gocheckfx.utils.RegistroAsistenciaManager.TipoRegistro;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tablas por minuto de ReglasTurno en un turno diurno (08:00-17:00) y uno nocturno (22:00-06:00),
+ * con los límites de cada ventana.
+ */
+class ReglasTurnoTest {
+
+    private static final int TOLERANCIA = MotorReglasTurno.TOLERANCIA_ENTRADA_MINUTOS;
+
+    // Ciclo de 00:30 a 00:30; desayuno 09:00-11:00, comida 11:30-13:30, salida 16:00-19:00
+    private final ReglasTurno diurno = new ReglasTurno(
+            new Turno(1, "Diurno", LocalTime.of(8, 0), LocalTime.of(17, 0), 15, 60, false), TOLERANCIA);
+
+    // Ciclo de 14:00 a 14:00; desayuno 23:00-01:00, comida 01:00-03:00, salida 05:00-08:00
+    private final ReglasTurno nocturno = new ReglasTurno(
+            new Turno(2, "Nocturno", LocalTime.of(22, 0), LocalTime.of(6, 0), 15, 30, false), TOLERANCIA);
+
+    @Test
+    void diurnoVentanaEntrada() {
+        assertClasifica(diurno, EstadoJornada.SIN_ENTRADA, "07:29", TipoRegistro.NO_APLICABLE);
+        assertClasifica(diurno, EstadoJornada.SIN_ENTRADA, "07:30", TipoRegistro.ENTRADA);
+        assertClasifica(diurno, EstadoJornada.SIN_ENTRADA, "12:00", TipoRegistro.ENTRADA);
+        assertClasifica(diurno, EstadoJornada.SIN_ENTRADA, "16:59", TipoRegistro.ENTRADA);
+        assertClasifica(diurno, EstadoJornada.SIN_ENTRADA, "17:00", TipoRegistro.NO_APLICABLE);
+
+        assertTrue(diurno.isEnVentanaEntrada(LocalTime.of(7, 30)));
+        assertFalse(diurno.isEnVentanaEntrada(LocalTime.of(17, 0)));
+    }
+
+    @Test
+    void diurnoEntradaPuntual() {
+        assertFalse(diurno.isEntradaPuntual(LocalTime.of(0, 29)));
+        assertTrue(diurno.isEntradaPuntual(LocalTime.of(0, 30)));
+        assertTrue(diurno.isEntradaPuntual(LocalTime.of(8, 10)));
+        assertFalse(diurno.isEntradaPuntual(LocalTime.of(8, 11)));
+    }
+
+    @Test
+    void diurnoDescansosYSalida() {
+        assertClasifica(diurno, EstadoJornada.TRABAJANDO, "08:59", TipoRegistro.NO_APLICABLE);
+        assertClasifica(diurno, EstadoJornada.TRABAJANDO, "09:00", TipoRegistro.INICIO_DESCANSO_1);
+        assertClasifica(diurno, EstadoJornada.TRABAJANDO, "11:00", TipoRegistro.INICIO_DESCANSO_1);
+        assertClasifica(diurno, EstadoJornada.TRABAJANDO, "11:01", TipoRegistro.NO_APLICABLE);
+        assertClasifica(diurno, EstadoJornada.TRABAJANDO, "11:30", TipoRegistro.INICIO_DESCANSO_2);
+        assertClasifica(diurno, EstadoJornada.TRABAJANDO, "13:30", TipoRegistro.INICIO_DESCANSO_2);
+        assertClasifica(diurno, EstadoJornada.TRABAJANDO, "13:31", TipoRegistro.NO_APLICABLE);
+        assertClasifica(diurno, EstadoJornada.TRABAJANDO, "15:59", TipoRegistro.NO_APLICABLE);
+        assertClasifica(diurno, EstadoJornada.TRABAJANDO, "16:00", TipoRegistro.SALIDA);
+        assertClasifica(diurno, EstadoJornada.TRABAJANDO, "19:00", TipoRegistro.SALIDA);
+        assertClasifica(diurno, EstadoJornada.TRABAJANDO, "19:01", TipoRegistro.NO_APLICABLE);
+
+        // El regreso de un descanso se acepta a cualquier hora
+        assertClasifica(diurno, EstadoJornada.EN_DESAYUNO, "03:00", TipoRegistro.FIN_DESCANSO_1);
+        assertClasifica(diurno, EstadoJornada.EN_COMIDA, "23:59", TipoRegistro.FIN_DESCANSO_2);
+
+        assertClasifica(diurno, EstadoJornada.DESPUES_DESAYUNO, "10:00", TipoRegistro.NO_APLICABLE);
+        assertClasifica(diurno, EstadoJornada.DESPUES_DESAYUNO, "12:00", TipoRegistro.INICIO_DESCANSO_2);
+        assertClasifica(diurno, EstadoJornada.DESPUES_DESAYUNO, "16:00", TipoRegistro.SALIDA);
+        assertClasifica(diurno, EstadoJornada.DESPUES_COMIDA, "13:00", TipoRegistro.NO_APLICABLE);
+        assertClasifica(diurno, EstadoJornada.DESPUES_COMIDA, "16:00", TipoRegistro.SALIDA);
+        assertClasifica(diurno, EstadoJornada.COMPLETA, "17:00", TipoRegistro.NO_APLICABLE);
+    }
+
+    @Test
+    void diurnoMinutosRetardo() {
+        assertEquals(0, diurno.minutosRetardo(LocalTime.of(7, 50)));
+        assertEquals(0, diurno.minutosRetardo(LocalTime.of(8, 0)));
+        assertEquals(25, diurno.minutosRetardo(LocalTime.of(8, 25)));
+        assertEquals(509, diurno.minutosRetardo(LocalTime.of(16, 29)));
+        // Desde el inicio del ciclo la llegada ya es anterior a la entrada
+        assertEquals(0, diurno.minutosRetardo(LocalTime.of(0, 30)));
+    }
+
+    @Test
+    void diurnoFechaJornada() {
+        LocalDate dia = LocalDate.of(2024, 5, 10);
+        assertEquals(dia.minusDays(1), diurno.fechaJornada(dia.atTime(0, 29)));
+        assertEquals(dia, diurno.fechaJornada(dia.atTime(0, 30)));
+        assertEquals(dia, diurno.fechaJornada(dia.atTime(23, 59)));
+    }
+
+    @Test
+    void nocturnoVentanaEntradaDaLaVuelta() {
+        assertClasifica(nocturno, EstadoJornada.SIN_ENTRADA, "21:29", TipoRegistro.NO_APLICABLE);
+        assertClasifica(nocturno, EstadoJornada.SIN_ENTRADA, "21:30", TipoRegistro.ENTRADA);
+        assertClasifica(nocturno, EstadoJornada.SIN_ENTRADA, "23:59", TipoRegistro.ENTRADA);
+        assertClasifica(nocturno, EstadoJornada.SIN_ENTRADA, "00:00", TipoRegistro.ENTRADA);
+        assertClasifica(nocturno, EstadoJornada.SIN_ENTRADA, "05:59", TipoRegistro.ENTRADA);
+        assertClasifica(nocturno, EstadoJornada.SIN_ENTRADA, "06:00", TipoRegistro.NO_APLICABLE);
+    }
+
+    @Test
+    void nocturnoEntradaPuntual() {
+        assertFalse(nocturno.isEntradaPuntual(LocalTime.of(13, 59)));
+        assertTrue(nocturno.isEntradaPuntual(LocalTime.of(14, 0)));
+        assertTrue(nocturno.isEntradaPuntual(LocalTime.of(22, 10)));
+        assertFalse(nocturno.isEntradaPuntual(LocalTime.of(22, 11)));
+        assertFalse(nocturno.isEntradaPuntual(LocalTime.of(1, 0)));
+    }
+
+    @Test
+    void nocturnoDescansosYSalida() {
+        assertClasifica(nocturno, EstadoJornada.TRABAJANDO, "22:59", TipoRegistro.NO_APLICABLE);
+        assertClasifica(nocturno, EstadoJornada.TRABAJANDO, "23:00", TipoRegistro.INICIO_DESCANSO_1);
+        // A la 01:00 se abren las dos ventanas; el desayuno tiene prioridad
+        assertClasifica(nocturno, EstadoJornada.TRABAJANDO, "01:00", TipoRegistro.INICIO_DESCANSO_1);
+        assertClasifica(nocturno, EstadoJornada.TRABAJANDO, "01:01", TipoRegistro.INICIO_DESCANSO_2);
+        assertClasifica(nocturno, EstadoJornada.TRABAJANDO, "03:00", TipoRegistro.INICIO_DESCANSO_2);
+        assertClasifica(nocturno, EstadoJornada.TRABAJANDO, "03:01", TipoRegistro.NO_APLICABLE);
+        assertClasifica(nocturno, EstadoJornada.TRABAJANDO, "04:59", TipoRegistro.NO_APLICABLE);
+        assertClasifica(nocturno, EstadoJornada.TRABAJANDO, "05:00", TipoRegistro.SALIDA);
+        assertClasifica(nocturno, EstadoJornada.TRABAJANDO, "08:00", TipoRegistro.SALIDA);
+        assertClasifica(nocturno, EstadoJornada.TRABAJANDO, "08:01", TipoRegistro.NO_APLICABLE);
+
+        assertClasifica(nocturno, EstadoJornada.DESPUES_DESAYUNO, "00:30", TipoRegistro.NO_APLICABLE);
+        assertClasifica(nocturno, EstadoJornada.DESPUES_DESAYUNO, "02:00", TipoRegistro.INICIO_DESCANSO_2);
+        assertClasifica(nocturno, EstadoJornada.DESPUES_COMIDA, "05:30", TipoRegistro.SALIDA);
+    }
+
+    @Test
+    void nocturnoMinutosRetardo() {
+        assertEquals(0, nocturno.minutosRetardo(LocalTime.of(21, 45)));
+        assertEquals(15, nocturno.minutosRetardo(LocalTime.of(22, 15)));
+        assertEquals(90, nocturno.minutosRetardo(LocalTime.of(23, 30)));
+        // Pasada la medianoche el retardo sigue contando desde las 22:00
+        assertEquals(240, nocturno.minutosRetardo(LocalTime.of(2, 0)));
+        assertEquals(0, nocturno.minutosRetardo(LocalTime.of(14, 0)));
+    }
+
+    @Test
+    void nocturnoFechaJornada() {
+        LocalDate dia = LocalDate.of(2024, 5, 10);
+        assertEquals(dia.minusDays(1), nocturno.fechaJornada(dia.atTime(13, 59)));
+        assertEquals(dia, nocturno.fechaJornada(dia.atTime(14, 0)));
+        assertEquals(dia, nocturno.fechaJornada(dia.atTime(22, 0)));
+        // Las checadas de madrugada son de la jornada que empezó la noche anterior
+        assertEquals(dia, nocturno.fechaJornada(dia.plusDays(1).atTime(5, 30)));
+        assertEquals(dia, nocturno.fechaJornada(dia.plusDays(1).atTime(13, 59)));
+    }
+
+    @Test
+    void finDeAnioEnTurnoNocturno() {
+        LocalDateTime madrugada = LocalDateTime.of(2025, 1, 1, 3, 0);
+        assertEquals(LocalDate.of(2024, 12, 31), nocturno.fechaJornada(madrugada));
+    }
+
+    private static void assertClasifica(ReglasTurno reglas, EstadoJornada estado, String hora, TipoRegistro esperado) {
+        assertEquals(esperado, reglas.clasificar(estado, LocalTime.parse(hora)), estado + " a las " + hora);
+    }
+}